@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, as written by {@link BenchmarkRunner} with {@code --results}.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar net.runelite.cache.benchmarks.BenchmarkComparison
+ * baseline.json current.json [threshold percent]}
+ * <p>
+ * Prints the change of every benchmark present in both files, and exits with a non zero status
+ * if any of them regressed by more than the threshold, 10% by default. The benchmarks all report
+ * average time, so a higher score is a regression. Secondary metrics such as the allocation rate
+ * from the GC profiler are compared too, but do not fail the comparison.
+ */
+public class BenchmarkComparison
+{
+	private static final double DEFAULT_THRESHOLD = 10.0;
+
+	private static class Result
+	{
+		private String benchmark;
+		private Map<String, String> params;
+		private Metric primaryMetric;
+		private Map<String, Metric> secondaryMetrics;
+	}
+
+	private static class Metric
+	{
+		private double score;
+		private String scoreUnit;
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length < 2)
+		{
+			System.err.println("usage: BenchmarkComparison <baseline.json> <current.json> [threshold percent]");
+			System.exit(2);
+		}
+
+		Map<String, Result> baseline = load(args[0]);
+		Map<String, Result> current = load(args[1]);
+		double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+		int regressions = 0;
+		for (Map.Entry<String, Result> entry : current.entrySet())
+		{
+			Result before = baseline.get(entry.getKey());
+			if (before == null)
+			{
+				System.out.printf("%-70s %12s%n", entry.getKey(), "new");
+				continue;
+			}
+
+			Result after = entry.getValue();
+			double change = change(before.primaryMetric, after.primaryMetric);
+			boolean regressed = change > threshold;
+			if (regressed)
+			{
+				++regressions;
+			}
+
+			System.out.printf("%-70s %12.3f -> %12.3f %-8s %+7.1f%%%s%n", entry.getKey(),
+				before.primaryMetric.score, after.primaryMetric.score, after.primaryMetric.scoreUnit,
+				change, regressed ? " REGRESSION" : "");
+
+			if (before.secondaryMetrics != null && after.secondaryMetrics != null)
+			{
+				for (Map.Entry<String, Metric> metric : new TreeMap<>(after.secondaryMetrics).entrySet())
+				{
+					Metric previous = before.secondaryMetrics.get(metric.getKey());
+					if (previous != null)
+					{
+						System.out.printf("  %-68s %12.3f -> %12.3f %-8s %+7.1f%%%n", metric.getKey(),
+							previous.score, metric.getValue().score, metric.getValue().scoreUnit,
+							change(previous, metric.getValue()));
+					}
+				}
+			}
+		}
+
+		for (String name : baseline.keySet())
+		{
+			if (!current.containsKey(name))
+			{
+				System.out.printf("%-70s %12s%n", name, "removed");
+			}
+		}
+
+		if (regressions > 0)
+		{
+			System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+			System.exit(1);
+		}
+	}
+
+	private static Map<String, Result> load(String file) throws IOException
+	{
+		List<Result> results;
+		try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8))
+		{
+			results = new Gson().fromJson(reader, new TypeToken<List<Result>>()
+			{
+			}.getType());
+		}
+
+		Map<String, Result> byName = new LinkedHashMap<>();
+		for (Result result : results)
+		{
+			byName.put(name(result), result);
+		}
+		return byName;
+	}
+
+	private static String name(Result result)
+	{
+		if (result.params == null || result.params.isEmpty())
+		{
+			return result.benchmark;
+		}
+		return result.benchmark + new TreeMap<>(result.params);
+	}
+
+	private static double change(Metric before, Metric after)
+	{
+		if (before.score == 0)
+		{
+			return after.score == 0 ? 0 : Double.POSITIVE_INFINITY;
+		}
+		return (after.score - before.score) / before.score * 100.0;
+	}
+}
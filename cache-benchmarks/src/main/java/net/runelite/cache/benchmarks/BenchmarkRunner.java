@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the cache benchmarks.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar [--gc] [--results file.json] [regex]}
+ * <ul>
+ * <li>{@code --gc} attaches the GC profiler, reporting the bytes allocated per operation
+ * ({@code gc.alloc.rate.norm}) and the collections run during the measurement</li>
+ * <li>{@code --results} writes the results as JSON, which {@link BenchmarkComparison} can diff</li>
+ * <li>{@code regex} only runs the benchmarks matching it, all of them by default</li>
+ * </ul>
+ * To record a baseline, run the suite with {@code --gc --results baseline.json} before a change,
+ * and again with a different results file after it.
+ */
+public class BenchmarkRunner
+{
+	public static void main(String[] args) throws RunnerException
+	{
+		ChainedOptionsBuilder options = new OptionsBuilder();
+		String include = BenchmarkRunner.class.getPackage().getName() + ".*Benchmark";
+
+		for (int i = 0; i < args.length; ++i)
+		{
+			switch (args[i])
+			{
+				case "--gc":
+					options.addProfiler(GCProfiler.class);
+					break;
+				case "--results":
+					if (i + 1 >= args.length)
+					{
+						throw new IllegalArgumentException("--results requires a file");
+					}
+					options.resultFormat(ResultFormatType.JSON)
+						.result(args[++i]);
+					break;
+				default:
+					include = args[i];
+					break;
+			}
+		}
+
+		new Runner(options.include(include).build()).run();
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.ConfigType;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.fs.jagex.DataFile;
+import net.runelite.cache.fs.jagex.IndexEntry;
+import net.runelite.cache.fs.jagex.IndexFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads archives out of the sectors of the data file: every small single sector model archive,
+ * and the large item config archive spanning many sectors
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataFileBenchmark
+{
+	private SyntheticStore store;
+	private DataFile dataFile;
+	private final List<IndexEntry> models = new ArrayList<>();
+	private IndexEntry items;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		store = new SyntheticStore();
+		dataFile = new DataFile(new File(store.getFolder(), "main_file_cache.dat2"));
+
+		try (IndexFile modelIndex = new IndexFile(IndexType.MODELS.getNumber(), new File(store.getFolder(), "main_file_cache.idx" + IndexType.MODELS.getNumber()));
+			IndexFile configIndex = new IndexFile(IndexType.CONFIGS.getNumber(), new File(store.getFolder(), "main_file_cache.idx" + IndexType.CONFIGS.getNumber())))
+		{
+			for (int id = 0; id < SyntheticStore.MODELS; ++id)
+			{
+				models.add(modelIndex.read(id));
+			}
+			items = configIndex.read(ConfigType.ITEM.getId());
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		dataFile.close();
+		store.close();
+	}
+
+	@Benchmark
+	public void readModels(Blackhole blackhole) throws IOException
+	{
+		for (IndexEntry entry : models)
+		{
+			blackhole.consume(dataFile.read(IndexType.MODELS.getNumber(), entry.getId(), entry.getSector(), entry.getLength()));
+		}
+	}
+
+	@Benchmark
+	public byte[] readItems() throws IOException
+	{
+		return dataFile.read(IndexType.CONFIGS.getNumber(), items.getId(), items.getSector(), items.getLength());
+	}
+}
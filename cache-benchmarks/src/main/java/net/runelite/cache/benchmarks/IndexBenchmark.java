@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Looks up every archive of an index by id and by name, and loads the index tables of the store
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBenchmark
+{
+	private SyntheticStore syntheticStore;
+	private Index models;
+	private Index maps;
+	private String[] names;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		syntheticStore = new SyntheticStore();
+		models = syntheticStore.getStore().getIndex(IndexType.MODELS);
+		maps = syntheticStore.getStore().getIndex(IndexType.MAPS);
+
+		names = new String[SyntheticStore.REGIONS_PER_SIDE * SyntheticStore.REGIONS_PER_SIDE * 2];
+		int i = 0;
+		for (int x = SyntheticStore.REGION_X; x < SyntheticStore.REGION_X + SyntheticStore.REGIONS_PER_SIDE; ++x)
+		{
+			for (int y = SyntheticStore.REGION_Y; y < SyntheticStore.REGION_Y + SyntheticStore.REGIONS_PER_SIDE; ++y)
+			{
+				names[i++] = "m" + x + "_" + y;
+				names[i++] = "l" + x + "_" + y;
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		syntheticStore.close();
+	}
+
+	@Benchmark
+	public void getArchive(Blackhole blackhole)
+	{
+		for (int id = 0; id < SyntheticStore.MODELS; ++id)
+		{
+			blackhole.consume(models.getArchive(id));
+		}
+	}
+
+	@Benchmark
+	public void findArchiveByName(Blackhole blackhole)
+	{
+		for (String name : names)
+		{
+			blackhole.consume(maps.findArchiveByName(name));
+		}
+	}
+
+	@Benchmark
+	public Store loadStore() throws IOException
+	{
+		try (Store store = new Store(syntheticStore.getFolder()))
+		{
+			store.load();
+			return store;
+		}
+	}
+}
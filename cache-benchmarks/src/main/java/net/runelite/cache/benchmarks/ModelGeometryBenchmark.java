@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.benchmarks;
+
+import com.google.common.io.CharStreams;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.ItemManager;
+import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.TextureDefinition;
+import net.runelite.cache.definitions.loaders.ModelLoader;
+import net.runelite.cache.definitions.providers.ModelProvider;
+import net.runelite.cache.definitions.providers.SpriteProvider;
+import net.runelite.cache.definitions.providers.TextureProvider;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.item.ItemSpriteFactory;
+import net.runelite.cache.models.ModelGeometryCache;
+import net.runelite.cache.models.ObjExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Renders the icons of the first items of the synthetic store and exports every
+ * model as OBJ, either deriving the geometry of each model as it is loaded or
+ * taking it from a warm {@link ModelGeometryCache}, or for icons from a cache
+ * reading a memory mapped geometry file
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelGeometryBenchmark
+{
+	private static final int ICONS = 500;
+
+	private static final SpriteProvider NO_SPRITES = (spriteId, frameId) -> null;
+	private static final TextureProvider NO_TEXTURES = () -> new TextureDefinition[0];
+
+	private final ModelLoader loader = new ModelLoader();
+	private final byte[][] models = new byte[SyntheticStore.MODELS][];
+	private final ModelProvider loadingProvider = modelId -> loader.load(modelId, models[modelId]);
+	private final ModelProvider decodingProvider = modelId -> loader.decode(modelId, models[modelId]);
+	private final PrintWriter nullWriter = new PrintWriter(CharStreams.nullWriter());
+
+	private ItemManager itemManager;
+	private ModelGeometryCache geometryCache;
+	private File geometryDir;
+	private File geometryFile;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		try (SyntheticStore syntheticStore = new SyntheticStore())
+		{
+			Store store = syntheticStore.getStore();
+			Index index = store.getIndex(IndexType.MODELS);
+			for (int id = 0; id < SyntheticStore.MODELS; ++id)
+			{
+				Archive archive = index.getArchive(id);
+				models[id] = archive.decompress(store.getStorage().loadArchive(archive));
+			}
+
+			itemManager = new ItemManager(store);
+			itemManager.load();
+		}
+
+		geometryCache = new ModelGeometryCache();
+		for (int id = 0; id < models.length; ++id)
+		{
+			geometryCache.get(decodingProvider.provide(id), ModelGeometryCache.UNMODIFIED);
+		}
+
+		geometryDir = Files.createTempDirectory("geometry").toFile();
+		geometryFile = new File(geometryDir, "geometry.dat");
+		geometryCache.save(geometryFile);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		// the saved file is a numbered generation of geometryFile
+		File[] files = geometryDir.listFiles();
+		if (files != null)
+		{
+			for (File file : files)
+			{
+				file.delete();
+			}
+		}
+		geometryDir.delete();
+	}
+
+	@Benchmark
+	public void renderIcons(Blackhole blackhole) throws IOException
+	{
+		for (int id = 0; id < ICONS; ++id)
+		{
+			blackhole.consume(ItemSpriteFactory.createSprite(itemManager, loadingProvider, NO_SPRITES, NO_TEXTURES,
+				id, 1, 1, 0x302020, false));
+		}
+	}
+
+	@Benchmark
+	public void renderIconsCached(Blackhole blackhole) throws IOException
+	{
+		for (int id = 0; id < ICONS; ++id)
+		{
+			blackhole.consume(ItemSpriteFactory.createSprite(itemManager, decodingProvider, NO_SPRITES, NO_TEXTURES,
+				geometryCache, id, 1, 1, 0x302020, false));
+		}
+	}
+
+	@Benchmark
+	public void renderIconsMapped(Blackhole blackhole) throws IOException
+	{
+		ModelGeometryCache mappedCache = new ModelGeometryCache();
+		mappedCache.open(geometryFile);
+
+		for (int id = 0; id < ICONS; ++id)
+		{
+			blackhole.consume(ItemSpriteFactory.createSprite(itemManager, decodingProvider, NO_SPRITES, NO_TEXTURES,
+				mappedCache, id, 1, 1, 0x302020, false));
+		}
+	}
+
+	@Benchmark
+	public void exportObj() throws IOException
+	{
+		for (int id = 0; id < models.length; ++id)
+		{
+			ModelDefinition model = loadingProvider.provide(id);
+			new ObjExporter(null, model).export(nullWriter, nullWriter);
+		}
+	}
+
+	@Benchmark
+	public void exportObjCached() throws IOException
+	{
+		for (int id = 0; id < models.length; ++id)
+		{
+			ModelDefinition model = decodingProvider.provide(id);
+			new ObjExporter(null, model, geometryCache.get(model, ModelGeometryCache.UNMODIFIED)).export(nullWriter, nullWriter);
+		}
+	}
+}
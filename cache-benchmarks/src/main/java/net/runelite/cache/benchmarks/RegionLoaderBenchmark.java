@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.definitions.loaders.LocationsLoader;
+import net.runelite.cache.definitions.loaders.MapLoader;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Decodes the terrain and locations of a block of regions, both from already decompressed
+ * data and from the store, including the name lookup, decompression and xtea decryption
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegionLoaderBenchmark
+{
+	private static final int REGIONS = SyntheticStore.REGIONS_PER_SIDE * SyntheticStore.REGIONS_PER_SIDE;
+
+	private final MapLoader mapLoader = new MapLoader();
+	private final LocationsLoader locationsLoader = new LocationsLoader();
+	private final byte[][] maps = new byte[REGIONS][];
+	private final byte[][] locations = new byte[REGIONS][];
+	private SyntheticStore syntheticStore;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		syntheticStore = new SyntheticStore();
+		Store store = syntheticStore.getStore();
+		Index index = store.getIndex(IndexType.MAPS);
+
+		for (int i = 0; i < REGIONS; ++i)
+		{
+			int x = regionX(i);
+			int y = regionY(i);
+
+			Archive map = index.findArchiveByName("m" + x + "_" + y);
+			maps[i] = map.decompress(store.getStorage().loadArchive(map));
+
+			Archive land = index.findArchiveByName("l" + x + "_" + y);
+			locations[i] = land.decompress(store.getStorage().loadArchive(land), syntheticStore.getKeys(SyntheticStore.regionId(x, y)));
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		syntheticStore.close();
+	}
+
+	@Benchmark
+	public void loadMaps(Blackhole blackhole)
+	{
+		for (int i = 0; i < REGIONS; ++i)
+		{
+			blackhole.consume(mapLoader.load(regionX(i), regionY(i), maps[i]));
+		}
+	}
+
+	@Benchmark
+	public void loadLocations(Blackhole blackhole)
+	{
+		for (int i = 0; i < REGIONS; ++i)
+		{
+			blackhole.consume(locationsLoader.load(regionX(i), regionY(i), locations[i]));
+		}
+	}
+
+	@Benchmark
+	public void loadFromStore(Blackhole blackhole) throws IOException
+	{
+		Store store = syntheticStore.getStore();
+		Index index = store.getIndex(IndexType.MAPS);
+
+		for (int i = 0; i < REGIONS; ++i)
+		{
+			int x = regionX(i);
+			int y = regionY(i);
+
+			Archive map = index.findArchiveByName("m" + x + "_" + y);
+			blackhole.consume(mapLoader.load(x, y, map.decompress(store.getStorage().loadArchive(map))));
+
+			Archive land = index.findArchiveByName("l" + x + "_" + y);
+			byte[] data = land.decompress(store.getStorage().loadArchive(land), syntheticStore.getKeys(SyntheticStore.regionId(x, y)));
+			blackhole.consume(locationsLoader.load(x, y, data));
+		}
+	}
+
+	private static int regionX(int i)
+	{
+		return SyntheticStore.REGION_X + i / SyntheticStore.REGIONS_PER_SIDE;
+	}
+
+	private static int regionY(int i)
+	{
+		return SyntheticStore.REGION_Y + i % SyntheticStore.REGIONS_PER_SIDE;
+	}
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.benchmarks;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import net.runelite.cache.ConfigType;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.cache.definitions.LocationsDefinition;
+import net.runelite.cache.definitions.MapDefinition;
+import net.runelite.cache.definitions.savers.ItemSaver;
+import net.runelite.cache.definitions.savers.LocationSaver;
+import net.runelite.cache.definitions.savers.MapSaver;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.io.OutputStream;
+import net.runelite.cache.region.Location;
+import net.runelite.cache.region.Position;
+import net.runelite.cache.util.Djb2;
+
+/**
+ * A store written at setup time through {@link Store} and its storage, shaped like the
+ * parts of a game cache the benchmarks decode: an item config archive, single file model
+ * archives, and map and xtea encrypted location archives for a block of regions.
+ */
+public class SyntheticStore implements Closeable
+{
+	public static final int ITEMS = 5000;
+	public static final int MODELS = 250;
+	public static final int REGION_X = 48;
+	public static final int REGION_Y = 48;
+	public static final int REGIONS_PER_SIDE = 4;
+
+	private static final int LOCATIONS_PER_REGION = 1500;
+	private static final int MODEL_GRID = 24;
+
+	private final File folder;
+	private final Store store;
+	private final Map<Integer, int[]> keys = new HashMap<>();
+
+	public SyntheticStore() throws IOException
+	{
+		folder = Files.createTempDirectory("cache-benchmarks").toFile();
+		write(new Random(42L));
+
+		store = new Store(folder);
+		store.load();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		store.close();
+		MoreFiles.deleteRecursively(folder.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+	}
+
+	public File getFolder()
+	{
+		return folder;
+	}
+
+	public Store getStore()
+	{
+		return store;
+	}
+
+	/**
+	 * Get the xtea key the locations of a region are encrypted with
+	 */
+	public int[] getKeys(int regionId)
+	{
+		return keys.get(regionId);
+	}
+
+	public static int regionId(int regionX, int regionY)
+	{
+		return regionX << 8 | regionY;
+	}
+
+	private void write(Random random) throws IOException
+	{
+		try (Store store = new Store(folder))
+		{
+			// indexes are read back contiguously, so create the unused ones too
+			Index configs = null;
+			Index maps = null;
+			Index models = null;
+			for (int i = 0; i <= IndexType.MODELS.getNumber(); ++i)
+			{
+				Index index = store.addIndex(i);
+				if (i == IndexType.CONFIGS.getNumber())
+				{
+					configs = index;
+				}
+				else if (i == IndexType.MAPS.getNumber())
+				{
+					maps = index;
+				}
+				else if (i == IndexType.MODELS.getNumber())
+				{
+					models = index;
+				}
+			}
+
+			ItemSaver itemSaver = new ItemSaver();
+			List<byte[]> items = new ArrayList<>();
+			for (int id = 0; id < ITEMS; ++id)
+			{
+				items.add(itemSaver.save(item(id, random)));
+			}
+			addArchive(store, configs, ConfigType.ITEM.getId(), 0, items, CompressionType.GZ, null);
+
+			for (int id = 0; id < MODELS; ++id)
+			{
+				List<byte[]> model = new ArrayList<>();
+				model.add(model(random));
+				addArchive(store, models, id, 0, model, CompressionType.GZ, null);
+			}
+
+			MapSaver mapSaver = new MapSaver();
+			LocationSaver locationSaver = new LocationSaver();
+			int archiveId = 0;
+			for (int x = REGION_X; x < REGION_X + REGIONS_PER_SIDE; ++x)
+			{
+				for (int y = REGION_Y; y < REGION_Y + REGIONS_PER_SIDE; ++y)
+				{
+					int[] regionKeys = {random.nextInt(), random.nextInt(), random.nextInt(), random.nextInt()};
+					keys.put(regionId(x, y), regionKeys);
+
+					List<byte[]> map = new ArrayList<>();
+					map.add(mapSaver.save(map(x, y, random)));
+					addArchive(store, maps, archiveId++, Djb2.hash("m" + x + "_" + y), map, CompressionType.GZ, null);
+
+					List<byte[]> locations = new ArrayList<>();
+					locations.add(locationSaver.save(locations(x, y, random)));
+					addArchive(store, maps, archiveId++, Djb2.hash("l" + x + "_" + y), locations, CompressionType.GZ, regionKeys);
+				}
+			}
+
+			store.save();
+		}
+	}
+
+	private static void addArchive(Store store, Index index, int archiveId, int nameHash, List<byte[]> contents, int compression, int[] keys) throws IOException
+	{
+		Archive archive = index.addArchive(archiveId);
+		archive.setNameHash(nameHash);
+		archive.setCompression(compression);
+
+		FileData[] fileData = new FileData[contents.size()];
+		ArchiveFiles files = new ArchiveFiles();
+		for (int i = 0; i < contents.size(); ++i)
+		{
+			fileData[i] = new FileData();
+			fileData[i].setId(i);
+
+			FSFile file = new FSFile(i);
+			file.setContents(contents.get(i));
+			files.addFile(file);
+		}
+		archive.setFileData(fileData);
+
+		Container container = new Container(compression, -1);
+		container.compress(files.saveContents(), keys);
+		store.getStorage().saveArchive(archive, container.data);
+	}
+
+	private static ItemDefinition item(int id, Random random)
+	{
+		ItemDefinition item = new ItemDefinition(id);
+		item.name = "Synthetic item " + id;
+		item.inventoryModel = random.nextInt(MODELS);
+		item.zoom2d = 1000 + random.nextInt(1000);
+		item.xan2d = random.nextInt(2048);
+		item.yan2d = random.nextInt(2048);
+		item.cost = random.nextInt(100000);
+		item.members = random.nextBoolean();
+		item.options = new String[]{null, null, "Take", null, null};
+		item.interfaceOptions = new String[]{null, "Wield", null, null, "Drop"};
+		if (random.nextInt(4) == 0)
+		{
+			item.colorFind = new short[]{(short) random.nextInt(65536), (short) random.nextInt(65536)};
+			item.colorReplace = new short[]{(short) random.nextInt(65536), (short) random.nextInt(65536)};
+		}
+		return item;
+	}
+
+	private static MapDefinition map(int regionX, int regionY, Random random)
+	{
+		MapDefinition map = new MapDefinition();
+		map.setRegionX(regionX);
+		map.setRegionY(regionY);
+
+		MapDefinition.Tile[][][] tiles = map.getTiles();
+		for (int z = 0; z < MapDefinition.Z; ++z)
+		{
+			for (int x = 0; x < MapDefinition.X; ++x)
+			{
+				for (int y = 0; y < MapDefinition.Y; ++y)
+				{
+					MapDefinition.Tile tile = tiles[z][x][y] = new MapDefinition.Tile();
+					if (z > 0)
+					{
+						// upper planes are mostly empty
+						continue;
+					}
+
+					tile.height = random.nextInt(256);
+					tile.underlayId = (byte) (1 + random.nextInt(100));
+					if (random.nextInt(3) == 0)
+					{
+						tile.attrOpcode = 2 + random.nextInt(48);
+						tile.overlayId = (byte) (1 + random.nextInt(100));
+					}
+					if (random.nextInt(10) == 0)
+					{
+						tile.settings = (byte) 1;
+					}
+				}
+			}
+		}
+		return map;
+	}
+
+	private static LocationsDefinition locations(int regionX, int regionY, Random random)
+	{
+		LocationsDefinition locations = new LocationsDefinition();
+		locations.setRegionX(regionX);
+		locations.setRegionY(regionY);
+		for (int i = 0; i < LOCATIONS_PER_REGION; ++i)
+		{
+			Position position = new Position(random.nextInt(64), random.nextInt(64), random.nextInt(4));
+			locations.getLocations().add(new Location(random.nextInt(30000), random.nextInt(23), random.nextInt(4), position));
+		}
+
+		// the format stores the positions of each id in ascending order, and the saver keeps this order within an id
+		locations.getLocations().sort(Comparator.comparingInt((Location loc) -> loc.getPosition().getZ())
+			.thenComparingInt(loc -> loc.getPosition().getX())
+			.thenComparingInt(loc -> loc.getPosition().getY()));
+		return locations;
+	}
+
+	/**
+	 * Encode a grid of triangles in the model format without the trailing 0xFFFF marker
+	 */
+	private static byte[] model(Random random)
+	{
+		final int vertexCount = MODEL_GRID * MODEL_GRID;
+		final int faceCount = (MODEL_GRID - 1) * (MODEL_GRID - 1) * 2;
+
+		OutputStream vertexFlags = new OutputStream();
+		OutputStream vertexX = new OutputStream();
+		OutputStream vertexY = new OutputStream();
+		OutputStream vertexZ = new OutputStream();
+		int lastX = 0;
+		int lastY = 0;
+		int lastZ = 0;
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			int x = (i % MODEL_GRID) * 16;
+			int y = random.nextInt(64) - 32;
+			int z = (i / MODEL_GRID) * 16;
+			vertexFlags.writeByte(7);
+			writeShortSmart(vertexX, x - lastX);
+			writeShortSmart(vertexY, y - lastY);
+			writeShortSmart(vertexZ, z - lastZ);
+			lastX = x;
+			lastY = y;
+			lastZ = z;
+		}
+
+		OutputStream faceTypes = new OutputStream();
+		OutputStream faceIndices = new OutputStream();
+		OutputStream faceColors = new OutputStream();
+		int last = 0;
+		for (int row = 0; row < MODEL_GRID - 1; ++row)
+		{
+			for (int col = 0; col < MODEL_GRID - 1; ++col)
+			{
+				int v = row * MODEL_GRID + col;
+				int[][] triangles = {{v, v + 1, v + MODEL_GRID}, {v + 1, v + MODEL_GRID + 1, v + MODEL_GRID}};
+				for (int[] triangle : triangles)
+				{
+					faceTypes.writeByte(1);
+					writeShortSmart(faceIndices, triangle[0] - last);
+					writeShortSmart(faceIndices, triangle[1] - triangle[0]);
+					writeShortSmart(faceIndices, triangle[2] - triangle[1]);
+					last = triangle[2];
+					faceColors.writeShort(random.nextInt(65536));
+				}
+			}
+		}
+
+		byte[] faceIndexData = faceIndices.flip();
+		byte[] xData = vertexX.flip();
+		byte[] yData = vertexY.flip();
+		byte[] zData = vertexZ.flip();
+
+		OutputStream out = new OutputStream();
+		out.writeBytes(vertexFlags.flip());
+		out.writeBytes(faceTypes.flip());
+		out.writeBytes(faceIndexData);
+		out.writeBytes(faceColors.flip());
+		out.writeBytes(xData);
+		out.writeBytes(yData);
+		out.writeBytes(zData);
+
+		out.writeShort(vertexCount);
+		out.writeShort(faceCount);
+		out.writeByte(0); // textured faces
+		out.writeByte(0); // face render types
+		out.writeByte(0); // face priority
+		out.writeByte(0); // face alphas
+		out.writeByte(0); // face skins
+		out.writeByte(0); // vertex skins
+		out.writeShort(xData.length);
+		out.writeShort(yData.length);
+		out.writeShort(zData.length);
+		out.writeShort(faceIndexData.length);
+		return out.flip();
+	}
+
+	private static void writeShortSmart(OutputStream out, int value)
+	{
+		if (value >= -64 && value < 64)
+		{
+			out.writeByte(value + 64);
+		}
+		else
+		{
+			out.writeShort(value + 0xC000);
+		}
+	}
+}
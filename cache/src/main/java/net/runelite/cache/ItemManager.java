@@ -26,17 +26,19 @@ package net.runelite.cache;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import net.runelite.cache.definitions.ItemDefinition;
-import net.runelite.cache.definitions.exporters.ItemExporter;
+import net.runelite.cache.definitions.exporters.JsonExporter;
+import net.runelite.cache.definitions.loaders.ArchiveLoader;
 import net.runelite.cache.definitions.loaders.ItemLoader;
 import net.runelite.cache.definitions.providers.ItemProvider;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
@@ -45,7 +47,7 @@ import net.runelite.cache.util.IDClass;
 public class ItemManager implements ItemProvider
 {
 	private final Store store;
-	private final Map<Integer, ItemDefinition> items = new HashMap<>();
+	private ItemDefinition[] items = new ItemDefinition[0];
 
 	public ItemManager(Store store)
 	{
@@ -54,8 +56,6 @@ public class ItemManager implements ItemProvider
 
 	public void load() throws IOException
 	{
-		ItemLoader loader = new ItemLoader();
-
 		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.CONFIGS);
 		Archive archive = index.getArchive(ConfigType.ITEM.getId());
@@ -63,34 +63,34 @@ public class ItemManager implements ItemProvider
 		byte[] archiveData = storage.loadArchive(archive);
 		ArchiveFiles files = archive.getFiles(archiveData);
 
-		for (FSFile f : files.getFiles())
-		{
-			ItemDefinition def = loader.load(f.getFileId(), f.getContents());
-			items.put(f.getFileId(), def);
-		}
+		items = new ArchiveLoader<ItemDefinition>(() -> new ItemLoader()::load, ItemDefinition[]::new)
+			.load(files.getFiles());
 	}
 
 	public Collection<ItemDefinition> getItems()
 	{
-		return Collections.unmodifiableCollection(items.values());
+		List<ItemDefinition> definitions = Arrays.stream(items)
+			.filter(Objects::nonNull)
+			.collect(Collectors.toList());
+		return Collections.unmodifiableList(definitions);
 	}
 
 	public ItemDefinition getItem(int itemId)
 	{
-		return items.get(itemId);
+		return itemId >= 0 && itemId < items.length ? items[itemId] : null;
 	}
 
 	public void export(File out) throws IOException
 	{
-		out.mkdirs();
-
-		for (ItemDefinition def : items.values())
-		{
-			ItemExporter exporter = new ItemExporter(def);
+		JsonExporter.exportFiles(items, def -> def.id, out);
+	}
 
-			File targ = new File(out, def.id + ".json");
-			exporter.exportTo(targ);
-		}
+	/**
+	 * Export all definitions to a single file, one json object per line
+	 */
+	public void exportNdjson(File file) throws IOException
+	{
+		JsonExporter.exportNdjson(items, file);
 	}
 
 	public void java(File java) throws IOException
@@ -100,7 +100,7 @@ public class ItemManager implements ItemProvider
 		{
 			try (IDClass nulls = IDClass.create(java, "NullItemID"))
 			{
-				for (ItemDefinition def : items.values())
+				for (ItemDefinition def : getItems())
 				{
 					if (def.name.equalsIgnoreCase("NULL"))
 					{
@@ -26,16 +26,18 @@ package net.runelite.cache;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import net.runelite.cache.definitions.NpcDefinition;
-import net.runelite.cache.definitions.exporters.NpcExporter;
+import net.runelite.cache.definitions.exporters.JsonExporter;
+import net.runelite.cache.definitions.loaders.ArchiveLoader;
 import net.runelite.cache.definitions.loaders.NpcLoader;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
@@ -44,7 +46,7 @@ import net.runelite.cache.util.IDClass;
 public class NpcManager
 {
 	private final Store store;
-	private final Map<Integer, NpcDefinition> npcs = new HashMap<>();
+	private NpcDefinition[] npcs = new NpcDefinition[0];
 
 	public NpcManager(Store store)
 	{
@@ -53,8 +55,6 @@ public class NpcManager
 
 	public void load() throws IOException
 	{
-		NpcLoader loader = new NpcLoader();
-
 		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.CONFIGS);
 		Archive archive = index.getArchive(ConfigType.NPC.getId());
@@ -62,34 +62,34 @@ public class NpcManager
 		byte[] archiveData = storage.loadArchive(archive);
 		ArchiveFiles files = archive.getFiles(archiveData);
 
-		for (FSFile f : files.getFiles())
-		{
-			NpcDefinition npc = loader.load(f.getFileId(), f.getContents());
-			npcs.put(f.getFileId(), npc);
-		}
+		npcs = new ArchiveLoader<NpcDefinition>(() -> new NpcLoader()::load, NpcDefinition[]::new)
+			.load(files.getFiles());
 	}
 
 	public Collection<NpcDefinition> getNpcs()
 	{
-		return Collections.unmodifiableCollection(npcs.values());
+		List<NpcDefinition> definitions = Arrays.stream(npcs)
+			.filter(Objects::nonNull)
+			.collect(Collectors.toList());
+		return Collections.unmodifiableList(definitions);
 	}
 
 	public NpcDefinition get(int npcId)
 	{
-		return npcs.get(npcId);
+		return npcId >= 0 && npcId < npcs.length ? npcs[npcId] : null;
 	}
 
 	public void dump(File out) throws IOException
 	{
-		out.mkdirs();
-
-		for (NpcDefinition def : npcs.values())
-		{
-			NpcExporter exporter = new NpcExporter(def);
+		JsonExporter.exportFiles(npcs, def -> def.id, out);
+	}
 
-			File targ = new File(out, def.id + ".json");
-			exporter.exportTo(targ);
-		}
+	/**
+	 * Export all definitions to a single file, one json object per line
+	 */
+	public void dumpNdjson(File file) throws IOException
+	{
+		JsonExporter.exportNdjson(npcs, file);
 	}
 
 	public void java(File java) throws IOException
@@ -97,7 +97,7 @@ public class NpcManager
 		java.mkdirs();
 		try (IDClass ids = IDClass.create(java, "NpcID"))
 		{
-			for (NpcDefinition def : npcs.values())
+			for (NpcDefinition def : getNpcs())
 			{
 				if (def.name.equalsIgnoreCase("NULL"))
 				{
@@ -26,16 +26,18 @@ package net.runelite.cache;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import net.runelite.cache.definitions.ObjectDefinition;
-import net.runelite.cache.definitions.exporters.ObjectExporter;
+import net.runelite.cache.definitions.exporters.JsonExporter;
+import net.runelite.cache.definitions.loaders.ArchiveLoader;
 import net.runelite.cache.definitions.loaders.ObjectLoader;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
@@ -44,7 +46,7 @@ import net.runelite.cache.util.IDClass;
 public class ObjectManager
 {
 	private final Store store;
-	private final Map<Integer, ObjectDefinition> objects = new HashMap<>();
+	private ObjectDefinition[] objects = new ObjectDefinition[0];
 
 	public ObjectManager(Store store)
 	{
@@ -53,8 +55,6 @@ public class ObjectManager
 
 	public void load() throws IOException
 	{
-		ObjectLoader loader = new ObjectLoader();
-
 		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.CONFIGS);
 		Archive archive = index.getArchive(ConfigType.OBJECT.getId());
@@ -62,34 +62,34 @@ public class ObjectManager
 		byte[] archiveData = storage.loadArchive(archive);
 		ArchiveFiles files = archive.getFiles(archiveData);
 
-		for (FSFile f : files.getFiles())
-		{
-			ObjectDefinition def = loader.load(f.getFileId(), f.getContents());
-			objects.put(f.getFileId(), def);
-		}
+		objects = new ArchiveLoader<ObjectDefinition>(() -> new ObjectLoader()::load, ObjectDefinition[]::new)
+			.load(files.getFiles());
 	}
 
 	public Collection<ObjectDefinition> getObjects()
 	{
-		return Collections.unmodifiableCollection(objects.values());
+		List<ObjectDefinition> definitions = Arrays.stream(objects)
+			.filter(Objects::nonNull)
+			.collect(Collectors.toList());
+		return Collections.unmodifiableList(definitions);
 	}
 
 	public ObjectDefinition getObject(int id)
 	{
-		return objects.get(id);
+		return id >= 0 && id < objects.length ? objects[id] : null;
 	}
 
 	public void dump(File out) throws IOException
 	{
-		out.mkdirs();
-
-		for (ObjectDefinition def : objects.values())
-		{
-			ObjectExporter exporter = new ObjectExporter(def);
+		JsonExporter.exportFiles(objects, ObjectDefinition::getId, out);
+	}
 
-			File targ = new File(out, def.getId() + ".json");
-			exporter.exportTo(targ);
-		}
+	/**
+	 * Export all definitions to a single file, one json object per line
+	 */
+	public void dumpNdjson(File file) throws IOException
+	{
+		JsonExporter.exportNdjson(objects, file);
 	}
 
 	public void java(File java) throws IOException
@@ -99,7 +99,7 @@ public class ObjectManager
 		{
 			try (IDClass nulls = IDClass.create(java, "NullObjectID"))
 			{
-				for (ObjectDefinition def : objects.values())
+				for (ObjectDefinition def : getObjects())
 				{
 					if ("null".equals(def.getName()))
 					{
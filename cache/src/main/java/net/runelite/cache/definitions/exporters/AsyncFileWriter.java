@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.definitions.exporters;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes files on a small pool of threads. Writes queue up to a bound, past which
+ * they run on the calling thread, so a fast producer cannot pile up unwritten files.
+ * The first failure is thrown from {@link #close()}.
+ */
+public class AsyncFileWriter implements Closeable
+{
+	private static final int THREADS = 4;
+	private static final int QUEUE_SIZE = 256;
+
+	private final ThreadPoolExecutor executor;
+	private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+	public AsyncFileWriter()
+	{
+		this(THREADS, QUEUE_SIZE);
+	}
+
+	public AsyncFileWriter(int threads, int queueSize)
+	{
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	public void write(File file, String contents)
+	{
+		executor.execute(() ->
+		{
+			if (failure.get() != null)
+			{
+				return;
+			}
+
+			try
+			{
+				Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+			}
+			catch (Exception ex)
+			{
+				// the pool would otherwise swallow runtime exceptions, so they are kept for close too
+				failure.compareAndSet(null, ex);
+			}
+		});
+	}
+
+	/**
+	 * Wait for all queued writes to finish
+	 *
+	 * @throws IOException if any write failed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		executor.shutdown();
+
+		try
+		{
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted waiting for writes", ex);
+		}
+
+		Exception ex = failure.get();
+		if (ex instanceof IOException)
+		{
+			throw (IOException) ex;
+		}
+		else if (ex != null)
+		{
+			throw new IOException("error writing file", ex);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.definitions.exporters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Exports definitions as json, serializing them in parallel
+ */
+public class JsonExporter
+{
+	/**
+	 * Definitions serialized at once when writing a single file, bounding the memory held
+	 */
+	private static final int BLOCK_SIZE = 1024;
+
+	private static final Gson PRETTY = new GsonBuilder()
+		.setPrettyPrinting()
+		.create();
+	private static final Gson COMPACT = new Gson();
+
+	/**
+	 * Write each definition to its own pretty printed {@code <id>.json} file in a directory.
+	 * The files are written by an {@link AsyncFileWriter} while the definitions are serialized.
+	 *
+	 * @param definitions the definitions, which may contain nulls
+	 * @param id          the id of a definition
+	 * @param out         the directory to write to
+	 * @throws IOException if any file could not be written
+	 */
+	public static <T> void exportFiles(T[] definitions, ToIntFunction<T> id, File out) throws IOException
+	{
+		out.mkdirs();
+
+		try (AsyncFileWriter writer = new AsyncFileWriter())
+		{
+			IntStream.range(0, definitions.length)
+				.parallel()
+				.mapToObj(i -> definitions[i])
+				.filter(Objects::nonNull)
+				.forEach(def -> writer.write(new File(out, id.applyAsInt(def) + ".json"), PRETTY.toJson(def)));
+		}
+	}
+
+	/**
+	 * Write the definitions to a single file, one compact json object per line in id order
+	 *
+	 * @param definitions the definitions, which may contain nulls
+	 * @param file        the file to write
+	 * @throws IOException if the file could not be written
+	 */
+	public static <T> void exportNdjson(T[] definitions, File file) throws IOException
+	{
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
+		{
+			for (int start = 0; start < definitions.length; start += BLOCK_SIZE)
+			{
+				List<String> lines = IntStream.range(start, Math.min(start + BLOCK_SIZE, definitions.length))
+					.parallel()
+					.mapToObj(i -> definitions[i])
+					.filter(Objects::nonNull)
+					.map(COMPACT::toJson)
+					.collect(Collectors.toList());
+
+				for (String line : lines)
+				{
+					writer.write(line);
+					writer.write('\n');
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.definitions.loaders;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.io.InputStream;
+
+/**
+ * Decodes the files of an archive in parallel on a fork join pool, into an array indexed by file id
+ *
+ * @param <T> the definition type
+ */
+public class ArchiveLoader<T>
+{
+	/**
+	 * Files decoded by a single task before it stops splitting
+	 */
+	private static final int BATCH_SIZE = 256;
+
+	@FunctionalInterface
+	public interface Decoder<T>
+	{
+		T decode(int id, InputStream stream);
+	}
+
+	private final Supplier<Decoder<T>> decoders;
+	private final IntFunction<T[]> arrayFactory;
+	private final ForkJoinPool pool;
+
+	/**
+	 * @param decoders     supplies a decoder for each batch of files, so decoders need not be thread safe
+	 * @param arrayFactory creates the array the definitions are stored into
+	 */
+	public ArchiveLoader(Supplier<Decoder<T>> decoders, IntFunction<T[]> arrayFactory)
+	{
+		this(decoders, arrayFactory, ForkJoinPool.commonPool());
+	}
+
+	public ArchiveLoader(Supplier<Decoder<T>> decoders, IntFunction<T[]> arrayFactory, ForkJoinPool pool)
+	{
+		this.decoders = decoders;
+		this.arrayFactory = arrayFactory;
+		this.pool = pool;
+	}
+
+	/**
+	 * Decode files
+	 *
+	 * @param files the files to decode
+	 * @return an array sized to the highest file id, holding each definition at its id,
+	 * and null at ids without a file
+	 */
+	public T[] load(List<FSFile> files)
+	{
+		int size = 0;
+		for (FSFile file : files)
+		{
+			size = Math.max(size, file.getFileId() + 1);
+		}
+
+		T[] definitions = arrayFactory.apply(size);
+		pool.invoke(new LoadTask(files, 0, files.size(), definitions));
+		return definitions;
+	}
+
+	private class LoadTask extends RecursiveAction
+	{
+		private final List<FSFile> files;
+		private final int start;
+		private final int end;
+		private final T[] definitions;
+
+		private LoadTask(List<FSFile> files, int start, int end, T[] definitions)
+		{
+			this.files = files;
+			this.start = start;
+			this.end = end;
+			this.definitions = definitions;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (end - start > BATCH_SIZE)
+			{
+				int mid = (start + end) >>> 1;
+				invokeAll(new LoadTask(files, start, mid, definitions), new LoadTask(files, mid, end, definitions));
+				return;
+			}
+
+			Decoder<T> decoder = decoders.get();
+			InputStream stream = new InputStream();
+			for (int i = start; i < end; ++i)
+			{
+				FSFile file = files.get(i);
+				definitions[file.getFileId()] = decoder.decode(file.getFileId(), stream.wrap(file.getContents()));
+			}
+		}
+	}
+}
@@ -5,7 +5,37 @@ import net.runelite.cache.io.InputStream;
 
 public class ModelLoader
 {
+	/**
+	 * The streams the sections of a model are read through, reused between models.
+	 * A loader must therefore not be shared between threads.
+	 */
+	private final InputStream[] streams = new InputStream[7];
+
+	public ModelLoader()
+	{
+		for (int i = 0; i < streams.length; ++i)
+		{
+			streams[i] = new InputStream();
+		}
+	}
+
 	public ModelDefinition load(int modelId, byte[] b)
+	{
+		ModelDefinition def = decode(modelId, b);
+
+		def.computeNormals();
+		def.computeTextureUVCoordinates();
+		def.computeAnimationTables();
+
+		return def;
+	}
+
+	/**
+	 * Decodes a model without deriving its normals, texture coordinates and
+	 * animation tables, for callers which take them from a
+	 * {@link net.runelite.cache.models.ModelGeometryCache} instead.
+	 */
+	public ModelDefinition decode(int modelId, byte[] b)
 	{
 		ModelDefinition def = new ModelDefinition();
 		def.id = modelId;
@@ -19,22 +49,18 @@ public class ModelLoader
 			this.load2(def, b);
 		}
 
-		def.computeNormals();
-		def.computeTextureUVCoordinates();
-		def.computeAnimationTables();
-
 		return def;
 	}
 
 	private void load1(ModelDefinition model, byte[] var1)
 	{
-		InputStream var2 = new InputStream(var1);
-		InputStream var24 = new InputStream(var1);
-		InputStream var3 = new InputStream(var1);
-		InputStream var28 = new InputStream(var1);
-		InputStream var6 = new InputStream(var1);
-		InputStream var55 = new InputStream(var1);
-		InputStream var51 = new InputStream(var1);
+		InputStream var2 = streams[0].wrap(var1);
+		InputStream var24 = streams[1].wrap(var1);
+		InputStream var3 = streams[2].wrap(var1);
+		InputStream var28 = streams[3].wrap(var1);
+		InputStream var6 = streams[4].wrap(var1);
+		InputStream var55 = streams[5].wrap(var1);
+		InputStream var51 = streams[6].wrap(var1);
 		var2.setOffset(var1.length - 23);
 		int verticeCount = var2.readUnsignedShort();
 		int triangleCount = var2.readUnsignedShort();
@@ -430,11 +456,11 @@ public class ModelLoader
 	{
 		boolean var2 = false;
 		boolean var43 = false;
-		InputStream var5 = new InputStream(var1);
-		InputStream var39 = new InputStream(var1);
-		InputStream var26 = new InputStream(var1);
-		InputStream var9 = new InputStream(var1);
-		InputStream var3 = new InputStream(var1);
+		InputStream var5 = streams[0].wrap(var1);
+		InputStream var39 = streams[1].wrap(var1);
+		InputStream var26 = streams[2].wrap(var1);
+		InputStream var9 = streams[3].wrap(var1);
+		InputStream var3 = streams[4].wrap(var1);
 		var5.setOffset(var1.length - 18);
 		int var10 = var5.readUnsignedShort();
 		int var11 = var5.readUnsignedShort();
@@ -37,9 +37,12 @@ public class ObjectLoader
 
 	public ObjectDefinition load(int id, byte[] b)
 	{
-		ObjectDefinition def = new ObjectDefinition();
-		InputStream is = new InputStream(b);
+		return load(id, new InputStream(b));
+	}
 
+	public ObjectDefinition load(int id, InputStream is)
+	{
+		ObjectDefinition def = new ObjectDefinition();
 		def.setId(id);
 
 		for (;;)
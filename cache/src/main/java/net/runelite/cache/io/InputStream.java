@@ -25,7 +25,7 @@
 package net.runelite.cache.io;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 public class InputStream extends java.io.InputStream
 {
@@ -39,105 +39,136 @@ public class InputStream extends java.io.InputStream
 			'\u017e', '\u0178'
 		};
 
-	private final ByteBuffer buffer;
+	private static final byte[] EMPTY = new byte[0];
+
+	private byte[] buffer;
+	private int offset;
+
+	public InputStream()
+	{
+		this(EMPTY);
+	}
 
 	public InputStream(byte[] buffer)
 	{
-		this.buffer = ByteBuffer.wrap(buffer);
+		wrap(buffer);
+	}
+
+	/**
+	 * Points this stream at the start of a new buffer, so one stream can be
+	 * reused to decode many buffers without allocating.
+	 *
+	 * @param buffer the buffer to read
+	 * @return this stream
+	 */
+	public InputStream wrap(byte[] buffer)
+	{
+		this.buffer = buffer;
+		this.offset = 0;
+		return this;
 	}
 
 	public byte[] getArray()
 	{
-		assert buffer.hasArray();
-		return buffer.array();
+		return buffer;
 	}
 
 	@Override
 	public String toString()
 	{
-		return "InputStream{" + "buffer=" + buffer + '}';
+		return "InputStream{" + "offset=" + offset + ", length=" + buffer.length + '}';
 	}
 
 	public int read24BitInt()
 	{
-		return (this.readUnsignedByte() << 16) + (this.readUnsignedByte() << 8) + this.readUnsignedByte();
+		int value = (buffer[offset] & 0xFF) << 16
+			| (buffer[offset + 1] & 0xFF) << 8
+			| buffer[offset + 2] & 0xFF;
+		offset += 3;
+		return value;
 	}
 
 	public void skip(int length)
 	{
-		int pos = buffer.position();
-		pos += length;
-		buffer.position(pos);
+		offset += length;
 	}
 
 	public void setOffset(int offset)
 	{
-		buffer.position(offset);
+		this.offset = offset;
 	}
 
 	public int getOffset()
 	{
-		return buffer.position();
+		return offset;
 	}
 
 	public int getLength()
 	{
-		return buffer.limit();
+		return buffer.length;
 	}
 
 	public int remaining()
 	{
-		return buffer.remaining();
+		return buffer.length - offset;
 	}
 
 	public byte readByte()
 	{
-		return buffer.get();
+		return buffer[offset++];
 	}
 
 	public void readBytes(byte[] buffer, int off, int len)
 	{
-		this.buffer.get(buffer, off, len);
+		System.arraycopy(this.buffer, offset, buffer, off, len);
+		offset += len;
 	}
 
 	public void readBytes(byte[] buffer)
 	{
-		this.buffer.get(buffer);
+		readBytes(buffer, 0, buffer.length);
 	}
 
 	public int readUnsignedByte()
 	{
-		return this.readByte() & 0xFF;
+		return buffer[offset++] & 0xFF;
 	}
 
 	public int readUnsignedShort()
 	{
-		return buffer.getShort() & 0xFFFF;
+		int value = (buffer[offset] & 0xFF) << 8 | buffer[offset + 1] & 0xFF;
+		offset += 2;
+		return value;
 	}
 
 	public short readShort()
 	{
-		return buffer.getShort();
+		return (short) readUnsignedShort();
 	}
 
 	public int readInt()
 	{
-		return buffer.getInt();
+		int value = (buffer[offset] & 0xFF) << 24
+			| (buffer[offset + 1] & 0xFF) << 16
+			| (buffer[offset + 2] & 0xFF) << 8
+			| buffer[offset + 3] & 0xFF;
+		offset += 4;
+		return value;
 	}
 
 	public byte peek()
 	{
-		return buffer.get(buffer.position());
+		return buffer[offset];
 	}
 
 	public int readBigSmart()
 	{
-		return peek() >= 0 ? (this.readUnsignedShort() & 0xFFFF) : (this.readInt() & Integer.MAX_VALUE);
+		return buffer[offset] >= 0 ? readUnsignedShort() : readInt() & Integer.MAX_VALUE;
 	}
 
 	public int readBigSmart2()
 	{
-		if (peek() < 0)
+		if (buffer[offset] < 0)
 		{
 			return readInt() & Integer.MAX_VALUE; // and off sign bit
 		}
@@ -147,14 +178,24 @@ public class InputStream extends java.io.InputStream
 
 	public int readShortSmart()
 	{
-		int peek = this.peek() & 0xFF;
-		return peek < 128 ? this.readUnsignedByte() - 64 : this.readUnsignedShort() - 0xc000;
+		int peek = buffer[offset] & 0xFF;
+		if (peek < 128)
+		{
+			++offset;
+			return peek - 64;
+		}
+		return readUnsignedShort() - 0xc000;
 	}
 
 	public int readUnsignedShortSmart()
 	{
-		int peek = this.peek() & 0xFF;
-		return peek < 128 ? this.readUnsignedByte() : this.readUnsignedShort() - 0x8000;
+		int peek = buffer[offset] & 0xFF;
+		if (peek < 128)
+		{
+			++offset;
+			return peek;
+		}
+		return readUnsignedShort() - 0x8000;
 	}
 
 	public int readUnsignedIntSmartShortCompat()
@@ -173,16 +214,30 @@ public class InputStream extends java.io.InputStream
 
 	public String readString()
 	{
-		StringBuilder sb = new StringBuilder();
+		final int start = offset;
 
-		for (; ; )
+		// find the terminator, noting whether any character is in 128-159,
+		// the only range where cp1252 differs from latin-1
+		boolean latin1 = true;
+		int end = start;
+		for (byte ch; (ch = buffer[end]) != 0; ++end)
 		{
-			int ch = this.readUnsignedByte();
-
-			if (ch == 0)
+			if ((ch & 0xE0) == 0x80)
 			{
-				break;
+				latin1 = false;
 			}
+		}
+		offset = end + 1;
+
+		if (latin1)
+		{
+			return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+		}
+
+		char[] chars = new char[end - start];
+		for (int i = 0; i < chars.length; ++i)
+		{
+			int ch = buffer[start + i] & 0xFF;
 
 			if (ch >= 128 && ch < 160)
 			{
@@ -195,20 +250,20 @@ public class InputStream extends java.io.InputStream
 				ch = var7;
 			}
 
-			sb.append((char) ch);
+			chars[i] = (char) ch;
 		}
-		return sb.toString();
+		return new String(chars);
 	}
 
 	public String readStringOrNull()
 	{
-		if (this.peek() != 0)
+		if (buffer[offset] != 0)
 		{
 			return readString();
 		}
 		else
 		{
-			this.readByte(); // discard
+			++offset; // discard
 			return null;
 		}
 	}
@@ -228,8 +283,8 @@ public class InputStream extends java.io.InputStream
 
 	public byte[] getRemaining()
 	{
-		byte[] b = new byte[buffer.remaining()];
-		buffer.get(b);
+		byte[] b = new byte[remaining()];
+		readBytes(b);
 		return b;
 	}
 
@@ -32,8 +32,8 @@ import net.runelite.cache.definitions.providers.ItemProvider;
 import net.runelite.cache.definitions.providers.ModelProvider;
 import net.runelite.cache.definitions.providers.SpriteProvider;
 import net.runelite.cache.definitions.providers.TextureProvider;
-import net.runelite.cache.models.FaceNormal;
-import net.runelite.cache.models.VertexNormal;
+import net.runelite.cache.models.ModelGeometry;
+import net.runelite.cache.models.ModelGeometryCache;
 
 public class ItemSpriteFactory
 {
@@ -42,13 +42,30 @@ public class ItemSpriteFactory
 		int itemId, int quantity, int border, int shadowColor,
 		boolean noted) throws IOException
 	{
-		SpritePixels spritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
+		return createSprite(itemProvider, modelProvider, spriteProvider, textureProvider, null,
 			itemId, quantity, border, shadowColor, noted);
+	}
+
+	/**
+	 * Renders an item sprite, taking the geometry of its models from a cache
+	 * so that rendering many sprites does not derive the same normals repeatedly.
+	 * The model provider then need not compute the geometry of the models it loads,
+	 * see {@link net.runelite.cache.definitions.loaders.ModelLoader#decode(int, byte[])}.
+	 *
+	 * @param geometryCache the geometry cache, or null to derive the geometry of each model
+	 */
+	public static final BufferedImage createSprite(ItemProvider itemProvider, ModelProvider modelProvider,
+		SpriteProvider spriteProvider, TextureProvider textureProvider, ModelGeometryCache geometryCache,
+		int itemId, int quantity, int border, int shadowColor,
+		boolean noted) throws IOException
+	{
+		SpritePixels spritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
+			geometryCache, itemId, quantity, border, shadowColor, noted);
 		return spritePixels == null ? null : spritePixels.toBufferedImage();
 	}
 
 	private static final SpritePixels createSpritePixels(ItemProvider itemProvider, ModelProvider modelProvider,
-		SpriteProvider spriteProvider, TextureProvider textureProvider,
+		SpriteProvider spriteProvider, TextureProvider textureProvider, ModelGeometryCache geometryCache,
 		int itemId, int quantity, int border, int shadowColor,
 		boolean noted) throws IOException
 	{
@@ -77,7 +94,7 @@ public class ItemSpriteFactory
 			item.updateNote(itemProvider.provide(item.notedTemplate), itemProvider.provide(item.notedID));
 		}
 
-		Model itemModel = getModel(modelProvider, item);
+		Model itemModel = getModel(modelProvider, geometryCache, item);
 		if (itemModel == null)
 		{
 			return null;
@@ -87,7 +104,7 @@ public class ItemSpriteFactory
 		if (item.notedTemplate != -1)
 		{
 			auxSpritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
-				item.notedID, 10, 1, 0, true);
+				geometryCache, item.notedID, 10, 1, 0, true);
 			if (auxSpritePixels == null)
 			{
 				return null;
@@ -96,7 +113,7 @@ public class ItemSpriteFactory
 		else if (item.boughtTemplateId != -1)
 		{
 			auxSpritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
-				item.boughtId, quantity, border, shadowColor, false);
+				geometryCache, item.boughtId, quantity, border, shadowColor, false);
 			if (auxSpritePixels == null)
 			{
 				return null;
@@ -105,7 +122,7 @@ public class ItemSpriteFactory
 		else if (item.placeholderTemplateId != -1)
 		{
 			auxSpritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
-				item.placeholderId, quantity, 0, 0, false);
+				geometryCache, item.placeholderId, quantity, 0, 0, false);
 			if (auxSpritePixels == null)
 			{
 				return null;
@@ -183,7 +200,7 @@ public class ItemSpriteFactory
 		return spritePixels;
 	}
 
-	private static Model getModel(ModelProvider modelProvider, ItemDefinition item) throws IOException
+	private static Model getModel(ModelProvider modelProvider, ModelGeometryCache geometryCache, ItemDefinition item) throws IOException
 	{
 		Model itemModel;
 		ModelDefinition inventoryModel = modelProvider.provide(item.inventoryModel);
@@ -213,14 +230,19 @@ public class ItemSpriteFactory
 			}
 		}
 
-		itemModel = light(inventoryModel, item.ambient + 64, item.contrast + 768, -50, -10, -50);
+		ModelGeometry geometry = geometryCache != null
+			? geometryCache.get(inventoryModel, ModelGeometryCache.resized(item.resizeX, item.resizeY, item.resizeZ))
+			: ModelGeometry.compute(inventoryModel);
+
+		itemModel = light(inventoryModel, geometry, item.ambient + 64, item.contrast + 768, -50, -10, -50);
 		itemModel.isItemModel = true;
 		return itemModel;
 	}
 
-	private static Model light(ModelDefinition def, int ambient, int contrast, int x, int y, int z)
+	private static Model light(ModelDefinition def, ModelGeometry geometry, int ambient, int contrast, int x, int y, int z)
 	{
-		def.computeNormals();
+		int[] vertexNormals = geometry.getVertexNormals();
+		int[] faceNormals = geometry.getFaceNormals();
 		int somethingMagnitude = (int) Math.sqrt((double) (z * z + x * x + y * y));
 		int var7 = somethingMagnitude * contrast >> 8;
 		Model litModel = new Model();
@@ -328,17 +350,16 @@ public class ItemSpriteFactory
 				faceType = 2;
 			}
 
-			VertexNormal vertexNormal;
+			int normal;
 			int tmp;
-			FaceNormal faceNormal;
 			if (faceTexture == -1)
 			{
 				if (faceType != 0)
 				{
 					if (faceType == 1)
 					{
-						faceNormal = def.faceNormals[faceIdx];
-						tmp = (y * faceNormal.y + z * faceNormal.z + x * faceNormal.x) / (var7 / 2 + var7) + ambient;
+						normal = faceIdx * 3;
+						tmp = (y * faceNormals[normal + 1] + z * faceNormals[normal + 2] + x * faceNormals[normal]) / (var7 / 2 + var7) + ambient;
 						litModel.field1856[faceIdx] = method2608(def.faceColors[faceIdx] & '\uffff', tmp);
 						litModel.field1823[faceIdx] = -1;
 					}
@@ -355,17 +376,14 @@ public class ItemSpriteFactory
 				else
 				{
 					int var15 = def.faceColors[faceIdx] & '\uffff';
-					vertexNormal = def.vertexNormals[def.faceVertexIndices1[faceIdx]];
-
-					tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+					normal = def.faceVertexIndices1[faceIdx] * 4;
+					tmp = (y * vertexNormals[normal + 1] + z * vertexNormals[normal + 2] + x * vertexNormals[normal]) / (var7 * vertexNormals[normal + 3]) + ambient;
 					litModel.field1856[faceIdx] = method2608(var15, tmp);
-					vertexNormal = def.vertexNormals[def.faceVertexIndices2[faceIdx]];
-
-					tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+					normal = def.faceVertexIndices2[faceIdx] * 4;
+					tmp = (y * vertexNormals[normal + 1] + z * vertexNormals[normal + 2] + x * vertexNormals[normal]) / (var7 * vertexNormals[normal + 3]) + ambient;
 					litModel.field1854[faceIdx] = method2608(var15, tmp);
-					vertexNormal = def.vertexNormals[def.faceVertexIndices3[faceIdx]];
-
-					tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+					normal = def.faceVertexIndices3[faceIdx] * 4;
+					tmp = (y * vertexNormals[normal + 1] + z * vertexNormals[normal + 2] + x * vertexNormals[normal]) / (var7 * vertexNormals[normal + 3]) + ambient;
 					litModel.field1823[faceIdx] = method2608(var15, tmp);
 				}
 			}
@@ -373,8 +391,8 @@ public class ItemSpriteFactory
 			{
 				if (faceType == 1)
 				{
-					faceNormal = def.faceNormals[faceIdx];
-					tmp = (y * faceNormal.y + z * faceNormal.z + x * faceNormal.x) / (var7 / 2 + var7) + ambient;
+					normal = faceIdx * 3;
+					tmp = (y * faceNormals[normal + 1] + z * faceNormals[normal + 2] + x * faceNormals[normal]) / (var7 / 2 + var7) + ambient;
 					litModel.field1856[faceIdx] = bound2to126(tmp);
 					litModel.field1823[faceIdx] = -1;
 				}
@@ -385,17 +403,14 @@ public class ItemSpriteFactory
 			}
 			else
 			{
-				vertexNormal = def.vertexNormals[def.faceVertexIndices1[faceIdx]];
-
-				tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+				normal = def.faceVertexIndices1[faceIdx] * 4;
+				tmp = (y * vertexNormals[normal + 1] + z * vertexNormals[normal + 2] + x * vertexNormals[normal]) / (var7 * vertexNormals[normal + 3]) + ambient;
 				litModel.field1856[faceIdx] = bound2to126(tmp);
-				vertexNormal = def.vertexNormals[def.faceVertexIndices2[faceIdx]];
-
-				tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+				normal = def.faceVertexIndices2[faceIdx] * 4;
+				tmp = (y * vertexNormals[normal + 1] + z * vertexNormals[normal + 2] + x * vertexNormals[normal]) / (var7 * vertexNormals[normal + 3]) + ambient;
 				litModel.field1854[faceIdx] = bound2to126(tmp);
-				vertexNormal = def.vertexNormals[def.faceVertexIndices3[faceIdx]];
-
-				tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+				normal = def.faceVertexIndices3[faceIdx] * 4;
+				tmp = (y * vertexNormals[normal + 1] + z * vertexNormals[normal + 2] + x * vertexNormals[normal]) / (var7 * vertexNormals[normal + 3]) + ambient;
 				litModel.field1823[faceIdx] = bound2to126(tmp);
 			}
 		}
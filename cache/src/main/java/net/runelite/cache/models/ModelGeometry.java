@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.models;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.runelite.cache.definitions.ModelDefinition;
+
+/**
+ * The geometry derived from a model's vertices and faces: its vertex and face
+ * normals, texture coordinates and animation vertex groups, stored in flat
+ * arrays. Geometry is shared by every user of a {@link ModelGeometryCache},
+ * so its arrays must not be modified.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ModelGeometry
+{
+	private static final int FACE_NORMALS = 1;
+	private static final int TEXTURE_COORDINATES = 2;
+	private static final int VERTEX_GROUPS = 4;
+
+	private final int vertexCount;
+	private final int faceCount;
+
+	/**
+	 * The x, y, z and magnitude of the normal of each vertex
+	 */
+	private final int[] vertexNormals;
+
+	/**
+	 * The x, y and z of the normal of each face, or null if no face is flat shaded
+	 */
+	private final int[] faceNormals;
+
+	/**
+	 * The u and v coordinates of the three vertices of each face, or null if
+	 * the model is not textured
+	 */
+	private final float[] faceTextureU;
+	private final float[] faceTextureV;
+
+	/**
+	 * The offset of each vertex group into {@link #vertexGroupVertices}, followed
+	 * by the offset of the end of the last group, or null if the model has no
+	 * vertex groups
+	 */
+	private final int[] vertexGroupOffsets;
+	private final int[] vertexGroupVertices;
+
+	/**
+	 * Derives the geometry of a model as {@link ModelDefinition#computeNormals()},
+	 * {@link ModelDefinition#computeTextureUVCoordinates()} and
+	 * {@link ModelDefinition#computeAnimationTables()} would, without modifying it.
+	 */
+	public static ModelGeometry compute(ModelDefinition model)
+	{
+		int[] faceNormals = null;
+		int[] vertexNormals = new int[model.vertexCount * 4];
+
+		for (int face = 0; face < model.faceCount; ++face)
+		{
+			int vertexA = model.faceVertexIndices1[face];
+			int vertexB = model.faceVertexIndices2[face];
+			int vertexC = model.faceVertexIndices3[face];
+
+			int xA = model.vertexPositionsX[vertexB] - model.vertexPositionsX[vertexA];
+			int yA = model.vertexPositionsY[vertexB] - model.vertexPositionsY[vertexA];
+			int zA = model.vertexPositionsZ[vertexB] - model.vertexPositionsZ[vertexA];
+
+			int xB = model.vertexPositionsX[vertexC] - model.vertexPositionsX[vertexA];
+			int yB = model.vertexPositionsY[vertexC] - model.vertexPositionsY[vertexA];
+			int zB = model.vertexPositionsZ[vertexC] - model.vertexPositionsZ[vertexA];
+
+			int x = yA * zB - yB * zA;
+			int y = zA * xB - zB * xA;
+			int z = xA * yB - xB * yA;
+
+			while (x > 8192 || y > 8192 || z > 8192 || x < -8192 || y < -8192 || z < -8192)
+			{
+				x >>= 1;
+				y >>= 1;
+				z >>= 1;
+			}
+
+			int length = (int) Math.sqrt((double) (x * x + y * y + z * z));
+			if (length <= 0)
+			{
+				length = 1;
+			}
+
+			x = x * 256 / length;
+			y = y * 256 / length;
+			z = z * 256 / length;
+
+			byte renderType = model.faceRenderTypes == null ? 0 : model.faceRenderTypes[face];
+			if (renderType == 0)
+			{
+				addNormal(vertexNormals, vertexA, x, y, z);
+				addNormal(vertexNormals, vertexB, x, y, z);
+				addNormal(vertexNormals, vertexC, x, y, z);
+			}
+			else if (renderType == 1)
+			{
+				if (faceNormals == null)
+				{
+					faceNormals = new int[model.faceCount * 3];
+				}
+
+				faceNormals[face * 3] = x;
+				faceNormals[face * 3 + 1] = y;
+				faceNormals[face * 3 + 2] = z;
+			}
+		}
+
+		float[] faceTextureU = null;
+		float[] faceTextureV = null;
+
+		// every face of a model with face textures has coordinates, as ModelDefinition masks
+		// the texture id to 16 bits before comparing it to -1
+		if (model.faceTextures != null)
+		{
+			faceTextureU = new float[model.faceCount * 3];
+			faceTextureV = new float[model.faceCount * 3];
+
+			for (int face = 0; face < model.faceCount; ++face)
+			{
+				computeTextureCoordinates(model, face, faceTextureU, faceTextureV);
+			}
+		}
+
+		int[] vertexGroupOffsets = null;
+		int[] vertexGroupVertices = null;
+
+		if (model.vertexSkins != null)
+		{
+			int[] groupCounts = new int[256];
+			int numGroups = 0;
+
+			for (int vertex = 0; vertex < model.vertexCount; ++vertex)
+			{
+				int group = model.vertexSkins[vertex];
+				++groupCounts[group];
+				if (group > numGroups)
+				{
+					numGroups = group;
+				}
+			}
+
+			vertexGroupOffsets = new int[numGroups + 2];
+			for (int group = 0; group <= numGroups; ++group)
+			{
+				vertexGroupOffsets[group + 1] = vertexGroupOffsets[group] + groupCounts[group];
+			}
+
+			int[] next = Arrays.copyOf(vertexGroupOffsets, numGroups + 1);
+			vertexGroupVertices = new int[model.vertexCount];
+			for (int vertex = 0; vertex < model.vertexCount; ++vertex)
+			{
+				vertexGroupVertices[next[model.vertexSkins[vertex]]++] = vertex;
+			}
+		}
+		else if (model.getVertexGroups() != null)
+		{
+			// the model's animation tables have already been computed, which consumes its skins
+			int[][] groups = model.getVertexGroups();
+			vertexGroupOffsets = new int[groups.length + 1];
+			for (int group = 0; group < groups.length; ++group)
+			{
+				vertexGroupOffsets[group + 1] = vertexGroupOffsets[group] + groups[group].length;
+			}
+
+			vertexGroupVertices = new int[vertexGroupOffsets[groups.length]];
+			for (int group = 0; group < groups.length; ++group)
+			{
+				System.arraycopy(groups[group], 0, vertexGroupVertices, vertexGroupOffsets[group], groups[group].length);
+			}
+		}
+
+		return new ModelGeometry(model.vertexCount, model.faceCount, vertexNormals, faceNormals,
+			faceTextureU, faceTextureV, vertexGroupOffsets, vertexGroupVertices);
+	}
+
+	private static void addNormal(int[] vertexNormals, int vertex, int x, int y, int z)
+	{
+		int idx = vertex * 4;
+		vertexNormals[idx] += x;
+		vertexNormals[idx + 1] += y;
+		vertexNormals[idx + 2] += z;
+		++vertexNormals[idx + 3];
+	}
+
+	private static void computeTextureCoordinates(ModelDefinition model, int face, float[] u, float[] v)
+	{
+		int idx = face * 3;
+		int textureCoordinate = model.textureCoordinates == null ? -1 : model.textureCoordinates[face];
+
+		if (textureCoordinate == -1)
+		{
+			u[idx] = 0.0F;
+			v[idx] = 1.0F;
+
+			u[idx + 1] = 1.0F;
+			v[idx + 1] = 1.0F;
+
+			u[idx + 2] = 0.0F;
+			v[idx + 2] = 0.0F;
+			return;
+		}
+
+		textureCoordinate &= 0xFF;
+
+		byte textureRenderType = model.textureRenderTypes == null ? 0 : model.textureRenderTypes[textureCoordinate];
+		if (textureRenderType != 0)
+		{
+			return;
+		}
+
+		int[] vertexX = model.vertexPositionsX;
+		int[] vertexY = model.vertexPositionsY;
+		int[] vertexZ = model.vertexPositionsZ;
+
+		int faceVertexIdx1 = model.faceVertexIndices1[face];
+		int faceVertexIdx2 = model.faceVertexIndices2[face];
+		int faceVertexIdx3 = model.faceVertexIndices3[face];
+
+		short triangleVertexIdx1 = model.textureTriangleVertexIndices1[textureCoordinate];
+		short triangleVertexIdx2 = model.textureTriangleVertexIndices2[textureCoordinate];
+		short triangleVertexIdx3 = model.textureTriangleVertexIndices3[textureCoordinate];
+
+		float triangleX = (float) vertexX[triangleVertexIdx1];
+		float triangleY = (float) vertexY[triangleVertexIdx1];
+		float triangleZ = (float) vertexZ[triangleVertexIdx1];
+
+		float x1 = (float) vertexX[triangleVertexIdx2] - triangleX;
+		float y1 = (float) vertexY[triangleVertexIdx2] - triangleY;
+		float z1 = (float) vertexZ[triangleVertexIdx2] - triangleZ;
+		float x2 = (float) vertexX[triangleVertexIdx3] - triangleX;
+		float y2 = (float) vertexY[triangleVertexIdx3] - triangleY;
+		float z2 = (float) vertexZ[triangleVertexIdx3] - triangleZ;
+		float fx1 = (float) vertexX[faceVertexIdx1] - triangleX;
+		float fy1 = (float) vertexY[faceVertexIdx1] - triangleY;
+		float fz1 = (float) vertexZ[faceVertexIdx1] - triangleZ;
+		float fx2 = (float) vertexX[faceVertexIdx2] - triangleX;
+		float fy2 = (float) vertexY[faceVertexIdx2] - triangleY;
+		float fz2 = (float) vertexZ[faceVertexIdx2] - triangleZ;
+		float fx3 = (float) vertexX[faceVertexIdx3] - triangleX;
+		float fy3 = (float) vertexY[faceVertexIdx3] - triangleY;
+		float fz3 = (float) vertexZ[faceVertexIdx3] - triangleZ;
+
+		float nx = y1 * z2 - z1 * y2;
+		float ny = z1 * x2 - x1 * z2;
+		float nz = x1 * y2 - y1 * x2;
+		float a = y2 * nz - z2 * ny;
+		float b = z2 * nx - x2 * nz;
+		float c = x2 * ny - y2 * nx;
+		float scale = 1.0F / (a * x1 + b * y1 + c * z1);
+
+		u[idx] = (a * fx1 + b * fy1 + c * fz1) * scale;
+		u[idx + 1] = (a * fx2 + b * fy2 + c * fz2) * scale;
+		u[idx + 2] = (a * fx3 + b * fy3 + c * fz3) * scale;
+
+		a = y1 * nz - z1 * ny;
+		b = z1 * nx - x1 * nz;
+		c = x1 * ny - y1 * nx;
+		scale = 1.0F / (a * x2 + b * y2 + c * z2);
+
+		v[idx] = (a * fx1 + b * fy1 + c * fz1) * scale;
+		v[idx + 1] = (a * fx2 + b * fy2 + c * fz2) * scale;
+		v[idx + 2] = (a * fx3 + b * fy3 + c * fz3) * scale;
+	}
+
+	/**
+	 * The number of bytes {@link #write(ByteBuffer)} writes, which is also
+	 * roughly the memory the geometry occupies
+	 */
+	public int getSize()
+	{
+		int size = 9 + vertexNormals.length * 4;
+		if (faceNormals != null)
+		{
+			size += faceNormals.length * 4;
+		}
+		if (faceTextureU != null)
+		{
+			size += (faceTextureU.length + faceTextureV.length) * 4;
+		}
+		if (vertexGroupOffsets != null)
+		{
+			size += 8 + (vertexGroupOffsets.length + vertexGroupVertices.length) * 4;
+		}
+		return size;
+	}
+
+	void write(ByteBuffer buffer)
+	{
+		int flags = 0;
+		if (faceNormals != null)
+		{
+			flags |= FACE_NORMALS;
+		}
+		if (faceTextureU != null)
+		{
+			flags |= TEXTURE_COORDINATES;
+		}
+		if (vertexGroupOffsets != null)
+		{
+			flags |= VERTEX_GROUPS;
+		}
+
+		buffer.putInt(vertexCount);
+		buffer.putInt(faceCount);
+		buffer.put((byte) flags);
+		putInts(buffer, vertexNormals);
+		if (faceNormals != null)
+		{
+			putInts(buffer, faceNormals);
+		}
+		if (faceTextureU != null)
+		{
+			putFloats(buffer, faceTextureU);
+			putFloats(buffer, faceTextureV);
+		}
+		if (vertexGroupOffsets != null)
+		{
+			buffer.putInt(vertexGroupOffsets.length);
+			buffer.putInt(vertexGroupVertices.length);
+			putInts(buffer, vertexGroupOffsets);
+			putInts(buffer, vertexGroupVertices);
+		}
+	}
+
+	static ModelGeometry read(ByteBuffer buffer)
+	{
+		int vertexCount = buffer.getInt();
+		int faceCount = buffer.getInt();
+		int flags = buffer.get();
+
+		int[] vertexNormals = getInts(buffer, vertexCount * 4);
+		int[] faceNormals = (flags & FACE_NORMALS) != 0 ? getInts(buffer, faceCount * 3) : null;
+
+		float[] faceTextureU = null;
+		float[] faceTextureV = null;
+		if ((flags & TEXTURE_COORDINATES) != 0)
+		{
+			faceTextureU = getFloats(buffer, faceCount * 3);
+			faceTextureV = getFloats(buffer, faceCount * 3);
+		}
+
+		int[] vertexGroupOffsets = null;
+		int[] vertexGroupVertices = null;
+		if ((flags & VERTEX_GROUPS) != 0)
+		{
+			int offsets = buffer.getInt();
+			int vertices = buffer.getInt();
+			vertexGroupOffsets = getInts(buffer, offsets);
+			vertexGroupVertices = getInts(buffer, vertices);
+		}
+
+		return new ModelGeometry(vertexCount, faceCount, vertexNormals, faceNormals,
+			faceTextureU, faceTextureV, vertexGroupOffsets, vertexGroupVertices);
+	}
+
+	private static void putInts(ByteBuffer buffer, int[] values)
+	{
+		buffer.asIntBuffer().put(values);
+		buffer.position(buffer.position() + values.length * 4);
+	}
+
+	private static void putFloats(ByteBuffer buffer, float[] values)
+	{
+		buffer.asFloatBuffer().put(values);
+		buffer.position(buffer.position() + values.length * 4);
+	}
+
+	private static int[] getInts(ByteBuffer buffer, int length)
+	{
+		int[] values = new int[length];
+		buffer.asIntBuffer().get(values);
+		buffer.position(buffer.position() + length * 4);
+		return values;
+	}
+
+	private static float[] getFloats(ByteBuffer buffer, int length)
+	{
+		float[] values = new float[length];
+		buffer.asFloatBuffer().get(values);
+		buffer.position(buffer.position() + length * 4);
+		return values;
+	}
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.models;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.cache.definitions.ModelDefinition;
+
+/**
+ * Caches the derived {@link ModelGeometry} of models by model id and the
+ * modifiers applied to the model before its geometry was derived. Only
+ * modifiers that move vertices, such as resizing, need to be part of the key;
+ * recolouring and retexturing do not change normals, texture coordinates or
+ * vertex groups.
+ * <p>
+ * The cache can be saved to a file, which a later cache can {@link #open(File)}
+ * to memory map it and read geometry from it on demand instead of deriving it.
+ * Each entry, in memory and in the file, records a hash of the model data it
+ * was derived from, so geometry is derived again rather than served for a
+ * model which has since changed, such as one from a different cache revision.
+ * <p>
+ * A file which is memory mapped can not be replaced on Windows, so saved files
+ * are never replaced. Each save to a file name writes the next numbered
+ * generation of it, such as {@code geometry.dat.2}, and opening a file name
+ * maps its latest generation.
+ */
+@Slf4j
+public class ModelGeometryCache
+{
+	private static final int MAGIC = 0x4D47454F; // MGEO
+	private static final int VERSION = 2;
+	private static final int HEADER_SIZE = 12;
+	private static final int INDEX_ENTRY_SIZE = 24;
+
+	private static final long DEFAULT_MAX_WEIGHT = 64L * 1024 * 1024;
+
+	/**
+	 * The modifiers of a model which has not been modified
+	 */
+	public static final long UNMODIFIED = resized(128, 128, 128);
+
+	@Value
+	private static class Key
+	{
+		int modelId;
+		long modifiers;
+	}
+
+	@Value
+	private static class Entry
+	{
+		/**
+		 * Hash of the model data the geometry was derived from
+		 */
+		long hash;
+		ModelGeometry geometry;
+	}
+
+	@Value
+	private static class IndexEntry
+	{
+		long hash;
+		int offset;
+	}
+
+	@Value
+	private static class MappedFile
+	{
+		ByteBuffer buffer;
+		Map<Key, IndexEntry> index;
+	}
+
+	private final Cache<Key, Entry> geometries;
+
+	private volatile MappedFile mapped = new MappedFile(ByteBuffer.allocate(0), Collections.emptyMap());
+
+	public ModelGeometryCache()
+	{
+		this(DEFAULT_MAX_WEIGHT);
+	}
+
+	/**
+	 * @param maxWeight the approximate number of bytes of geometry to keep in memory
+	 */
+	public ModelGeometryCache(long maxWeight)
+	{
+		geometries = CacheBuilder.newBuilder()
+			.maximumWeight(maxWeight)
+			.weigher((Key k, Entry e) -> e.getGeometry().getSize())
+			.recordStats()
+			.build();
+	}
+
+	/**
+	 * The modifiers of a model which has been resized by
+	 * {@link ModelDefinition#resize(int, int, int)}
+	 */
+	public static long resized(int resizeX, int resizeY, int resizeZ)
+	{
+		return (long) (resizeX & 0xFFFF) << 32 | (long) (resizeY & 0xFFFF) << 16 | resizeZ & 0xFFFF;
+	}
+
+	/**
+	 * Get the geometry of a model, deriving it if it is neither cached nor in
+	 * the opened file.
+	 *
+	 * @param model the model, after any modifiers have been applied to it
+	 * @param modifiers the modifiers applied to the model
+	 */
+	public ModelGeometry get(ModelDefinition model, long modifiers)
+	{
+		Key key = new Key(model.id, modifiers);
+		long hash = hash(model);
+		Entry entry = geometries.getIfPresent(key);
+		if (entry != null && entry.getHash() == hash)
+		{
+			return entry.getGeometry();
+		}
+
+		ModelGeometry geometry = null;
+		IndexEntry indexEntry = mapped.getIndex().get(key);
+		if (indexEntry != null && indexEntry.getHash() == hash)
+		{
+			geometry = readMapped(mapped, indexEntry);
+		}
+
+		if (geometry == null)
+		{
+			geometry = ModelGeometry.compute(model);
+		}
+
+		geometries.put(key, new Entry(hash, geometry));
+		return geometry;
+	}
+
+	public CacheStats stats()
+	{
+		return geometries.stats();
+	}
+
+	private static ModelGeometry readMapped(MappedFile file, IndexEntry indexEntry)
+	{
+		// duplicate the buffer so concurrent reads do not share a position
+		ByteBuffer buffer = file.getBuffer().duplicate();
+		buffer.position(indexEntry.getOffset());
+		return ModelGeometry.read(buffer);
+	}
+
+	/**
+	 * Hash the model data which geometry is derived from
+	 */
+	static long hash(ModelDefinition model)
+	{
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		hasher.putInt(model.vertexCount);
+		hasher.putInt(model.faceCount);
+		hasher.putInt(model.textureTriangleCount);
+		putInts(hasher, model.vertexPositionsX);
+		putInts(hasher, model.vertexPositionsY);
+		putInts(hasher, model.vertexPositionsZ);
+		putInts(hasher, model.faceVertexIndices1);
+		putInts(hasher, model.faceVertexIndices2);
+		putInts(hasher, model.faceVertexIndices3);
+		putBytes(hasher, model.faceRenderTypes);
+		putShorts(hasher, model.faceTextures);
+		putBytes(hasher, model.textureCoordinates);
+		putBytes(hasher, model.textureRenderTypes);
+		putShorts(hasher, model.textureTriangleVertexIndices1);
+		putShorts(hasher, model.textureTriangleVertexIndices2);
+		putShorts(hasher, model.textureTriangleVertexIndices3);
+		if (model.vertexSkins != null || model.getVertexGroups() == null)
+		{
+			putInts(hasher, model.vertexSkins);
+		}
+		else
+		{
+			for (int[] group : model.getVertexGroups())
+			{
+				putInts(hasher, group);
+			}
+		}
+		return hasher.hash().asLong();
+	}
+
+	private static void putInts(Hasher hasher, int[] values)
+	{
+		if (values == null)
+		{
+			hasher.putInt(-1);
+			return;
+		}
+
+		hasher.putInt(values.length);
+		for (int value : values)
+		{
+			hasher.putInt(value);
+		}
+	}
+
+	private static void putShorts(Hasher hasher, short[] values)
+	{
+		if (values == null)
+		{
+			hasher.putInt(-1);
+			return;
+		}
+
+		hasher.putInt(values.length);
+		for (short value : values)
+		{
+			hasher.putShort(value);
+		}
+	}
+
+	private static void putBytes(Hasher hasher, byte[] values)
+	{
+		if (values == null)
+		{
+			hasher.putInt(-1);
+			return;
+		}
+
+		hasher.putInt(values.length);
+		hasher.putBytes(values);
+	}
+
+	/**
+	 * Memory map the latest file written by {@link #save(File)} to a file name.
+	 * Geometry is read from the file as it is requested.
+	 */
+	public void open(File file) throws IOException
+	{
+		TreeMap<Integer, File> generations = generations(file);
+		if (generations.isEmpty())
+		{
+			throw new NoSuchFileException(file.toString());
+		}
+
+		file = generations.lastEntry().getValue();
+
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+		{
+			throw new IOException("Not a model geometry file: " + file);
+		}
+
+		int version = buffer.getInt();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported model geometry file version " + version);
+		}
+
+		int count = buffer.getInt();
+		if (count < 0 || buffer.remaining() < (long) count * INDEX_ENTRY_SIZE)
+		{
+			throw new IOException("Truncated model geometry file: " + file);
+		}
+
+		Map<Key, IndexEntry> index = new HashMap<>(count * 4 / 3 + 1);
+		for (int i = 0; i < count; ++i)
+		{
+			int modelId = buffer.getInt();
+			long modifiers = buffer.getLong();
+			long hash = buffer.getLong();
+			int offset = buffer.getInt();
+			index.put(new Key(modelId, modifiers), new IndexEntry(hash, offset));
+		}
+
+		mapped = new MappedFile(buffer, index);
+
+		log.debug("Opened {} model geometries from {}", count, file);
+	}
+
+	/**
+	 * Save the geometry in memory, and in the opened file, as the next generation
+	 * of a file name. Older generations are deleted, except for those still
+	 * mapped on systems which do not allow it, which are deleted by a later save.
+	 * The file name may be the one this cache has open.
+	 */
+	public void save(File file) throws IOException
+	{
+		MappedFile current = mapped;
+		Map<Key, Entry> entries = new LinkedHashMap<>();
+		for (Map.Entry<Key, IndexEntry> indexEntry : current.getIndex().entrySet())
+		{
+			long hash = indexEntry.getValue().getHash();
+			entries.put(indexEntry.getKey(), new Entry(hash, readMapped(current, indexEntry.getValue())));
+		}
+		entries.putAll(geometries.asMap());
+
+		int size = HEADER_SIZE + entries.size() * INDEX_ENTRY_SIZE;
+		for (Entry entry : entries.values())
+		{
+			size += entry.getGeometry().getSize();
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(entries.size());
+
+		int offset = HEADER_SIZE + entries.size() * INDEX_ENTRY_SIZE;
+		for (Map.Entry<Key, Entry> entry : entries.entrySet())
+		{
+			buffer.putInt(entry.getKey().getModelId());
+			buffer.putLong(entry.getKey().getModifiers());
+			buffer.putLong(entry.getValue().getHash());
+			buffer.putInt(offset);
+			offset += entry.getValue().getGeometry().getSize();
+		}
+
+		for (Entry entry : entries.values())
+		{
+			entry.getGeometry().write(buffer);
+		}
+
+		buffer.flip();
+
+		TreeMap<Integer, File> generations = generations(file);
+		int generation = generations.isEmpty() ? 1 : generations.lastKey() + 1;
+		File saved = new File(file.getAbsoluteFile().getParentFile(), file.getName() + "." + generation);
+
+		// write the whole file before it can be seen by open
+		Path tmp = Files.createTempFile(saved.toPath().getParent(), file.getName(), ".tmp");
+		try
+		{
+			try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE))
+			{
+				while (buffer.hasRemaining())
+				{
+					channel.write(buffer);
+				}
+			}
+
+			Files.move(tmp, saved.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally
+		{
+			Files.deleteIfExists(tmp);
+		}
+
+		for (File old : generations.values())
+		{
+			if (!old.delete())
+			{
+				log.debug("Unable to delete old model geometry file {}", old);
+			}
+		}
+
+		log.debug("Saved {} model geometries to {}", entries.size(), saved);
+	}
+
+	/**
+	 * Find the generations saved to a file name, by generation
+	 */
+	private static TreeMap<Integer, File> generations(File file)
+	{
+		TreeMap<Integer, File> generations = new TreeMap<>();
+		String prefix = file.getName() + ".";
+		File[] files = file.getAbsoluteFile().getParentFile().listFiles();
+		if (files == null)
+		{
+			return generations;
+		}
+
+		for (File f : files)
+		{
+			String name = f.getName();
+			if (!name.startsWith(prefix))
+			{
+				continue;
+			}
+
+			try
+			{
+				generations.put(Integer.parseUnsignedInt(name.substring(prefix.length())), f);
+			}
+			catch (NumberFormatException ex)
+			{
+				// not a generation of this file
+			}
+		}
+
+		return generations;
+	}
+}
@@ -34,17 +34,27 @@ public class ObjExporter
 {
 	private final TextureManager textureManager;
 	private final ModelDefinition model;
+	private final ModelGeometry geometry;
 
 	public ObjExporter(TextureManager textureManager, ModelDefinition model)
+	{
+		this(textureManager, model, null);
+	}
+
+	/**
+	 * @param geometry the geometry of the model, such as from a {@link ModelGeometryCache},
+	 * or null to derive it when exporting
+	 */
+	public ObjExporter(TextureManager textureManager, ModelDefinition model, ModelGeometry geometry)
 	{
 		this.textureManager = textureManager;
 		this.model = model;
+		this.geometry = geometry;
 	}
 
 	public void export(PrintWriter objWriter, PrintWriter mtlWriter)
 	{
-		model.computeNormals();
-		model.computeTextureUVCoordinates();
+		ModelGeometry geometry = this.geometry != null ? this.geometry : ModelGeometry.compute(model);
 
 		objWriter.println("mtllib " + model.id + ".mtl");
 
@@ -59,20 +69,19 @@ public class ObjExporter
 
 		if (model.faceTextures != null)
 		{
-			float[][] u = model.faceTextureUCoordinates;
-			float[][] v = model.faceTextureVCoordinates;
+			float[] u = geometry.getFaceTextureU();
+			float[] v = geometry.getFaceTextureV();
 
-			for (int i = 0; i < model.faceCount; ++i)
+			for (int i = 0; i < model.faceCount * 3; ++i)
 			{
-				objWriter.println("vt " + u[i][0] + " " + v[i][0]);
-				objWriter.println("vt " + u[i][1] + " " + v[i][1]);
-				objWriter.println("vt " + u[i][2] + " " + v[i][2]);
+				objWriter.println("vt " + u[i] + " " + v[i]);
 			}
 		}
 
-		for (VertexNormal normal : model.vertexNormals)
+		int[] normals = geometry.getVertexNormals();
+		for (int i = 0; i < model.vertexCount * 4; i += 4)
 		{
-			objWriter.println("vn " + normal.x + " " + normal.y + " " + normal.z);
+			objWriter.println("vn " + normals[i] + " " + normals[i + 1] + " " + normals[i + 2]);
 		}
 
 		for (int i = 0; i < model.faceCount; ++i)
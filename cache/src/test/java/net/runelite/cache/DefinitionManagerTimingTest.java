@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.cache.definitions.NpcDefinition;
+import net.runelite.cache.definitions.ObjectDefinition;
+import net.runelite.cache.definitions.exporters.ItemExporter;
+import net.runelite.cache.definitions.loaders.ItemLoader;
+import net.runelite.cache.definitions.loaders.NpcLoader;
+import net.runelite.cache.definitions.loaders.ObjectLoader;
+import net.runelite.cache.definitions.savers.ItemSaver;
+import net.runelite.cache.definitions.savers.NpcSaver;
+import net.runelite.cache.definitions.savers.ObjectSaver;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.FileData;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads and dumps the definitions of a generated store, checking the results against
+ * decoding and exporting one definition at a time, and logging how long each takes
+ */
+public class DefinitionManagerTimingTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(DefinitionManagerTimingTest.class);
+
+	private static final int ITEMS = 20000;
+	private static final int NPCS = 8000;
+	private static final int OBJECTS = 30000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File storeFolder;
+
+	@Before
+	public void before() throws IOException
+	{
+		storeFolder = folder.newFolder();
+
+		Random random = new Random(42L);
+		try (Store store = new Store(storeFolder))
+		{
+			Index configs = null;
+			for (int i = 0; i <= IndexType.CONFIGS.getNumber(); ++i)
+			{
+				configs = store.addIndex(i);
+			}
+
+			ItemSaver itemSaver = new ItemSaver();
+			addArchive(store, configs, ConfigType.ITEM.getId(), ITEMS, id ->
+			{
+				ItemDefinition item = new ItemDefinition(id);
+				item.name = "Item " + id;
+				item.inventoryModel = random.nextInt(30000);
+				item.cost = random.nextInt(100000);
+				item.members = random.nextBoolean();
+				item.options = new String[]{null, null, "Take", null, null};
+				item.interfaceOptions = new String[]{null, "Wield", null, null, "Drop"};
+				return itemSaver.save(item);
+			});
+
+			NpcSaver npcSaver = new NpcSaver();
+			addArchive(store, configs, ConfigType.NPC.getId(), NPCS, id ->
+			{
+				NpcDefinition npc = new NpcDefinition(id);
+				npc.name = "Npc " + id;
+				npc.models = new int[]{random.nextInt(30000), random.nextInt(30000)};
+				npc.combatLevel = random.nextInt(1000);
+				npc.actions = new String[]{null, "Attack", null, null, null};
+				return npcSaver.save(npc);
+			});
+
+			ObjectSaver objectSaver = new ObjectSaver();
+			addArchive(store, configs, ConfigType.OBJECT.getId(), OBJECTS, id ->
+			{
+				ObjectDefinition object = new ObjectDefinition();
+				object.setId(id);
+				object.setName("Object " + id);
+				object.setObjectModels(new int[]{random.nextInt(30000)});
+				object.setSizeX(1 + random.nextInt(3));
+				object.setSizeY(1 + random.nextInt(3));
+				object.setActions(new String[]{"Open", null, null, null, null});
+				return objectSaver.save(object);
+			});
+
+			store.save();
+		}
+	}
+
+	@Test
+	public void testItems() throws IOException
+	{
+		try (Store store = loadStore())
+		{
+			List<FSFile> files = files(store, ConfigType.ITEM);
+
+			long start = System.nanoTime();
+			ItemLoader loader = new ItemLoader();
+			List<ItemDefinition> expected = new ArrayList<>();
+			for (FSFile file : files)
+			{
+				expected.add(loader.load(file.getFileId(), file.getContents()));
+			}
+			long serial = System.nanoTime() - start;
+
+			ItemManager manager = new ItemManager(store);
+			start = System.nanoTime();
+			manager.load();
+			long parallel = System.nanoTime() - start;
+
+			assertEquals(ITEMS, manager.getItems().size());
+			for (ItemDefinition def : expected)
+			{
+				assertEquals(def, manager.getItem(def.id));
+			}
+			assertNull(manager.getItem(ITEMS));
+			logger.info("Loaded {} items serially in {}ms, in parallel in {}ms", ITEMS, serial / 1_000_000, parallel / 1_000_000);
+
+			File serialDir = folder.newFolder();
+			start = System.nanoTime();
+			for (ItemDefinition def : expected)
+			{
+				new ItemExporter(def).exportTo(new File(serialDir, def.id + ".json"));
+			}
+			serial = System.nanoTime() - start;
+
+			File exportDir = folder.newFolder();
+			start = System.nanoTime();
+			manager.export(exportDir);
+			parallel = System.nanoTime() - start;
+
+			File ndjson = folder.newFile();
+			start = System.nanoTime();
+			manager.exportNdjson(ndjson);
+			long single = System.nanoTime() - start;
+
+			assertEquals(ITEMS, exportDir.list().length);
+			for (int id = 0; id < ITEMS; id += 997)
+			{
+				assertEquals(read(new File(serialDir, id + ".json")), read(new File(exportDir, id + ".json")));
+			}
+			assertEquals(ITEMS, Files.readAllLines(ndjson.toPath()).size());
+			logger.info("Exported {} items serially in {}ms, to files in parallel in {}ms, to ndjson in {}ms",
+				ITEMS, serial / 1_000_000, parallel / 1_000_000, single / 1_000_000);
+		}
+	}
+
+	@Test
+	public void testNpcs() throws IOException
+	{
+		try (Store store = loadStore())
+		{
+			List<FSFile> files = files(store, ConfigType.NPC);
+
+			long start = System.nanoTime();
+			NpcLoader loader = new NpcLoader();
+			List<NpcDefinition> expected = new ArrayList<>();
+			for (FSFile file : files)
+			{
+				expected.add(loader.load(file.getFileId(), file.getContents()));
+			}
+			long serial = System.nanoTime() - start;
+
+			NpcManager manager = new NpcManager(store);
+			start = System.nanoTime();
+			manager.load();
+			long parallel = System.nanoTime() - start;
+
+			assertEquals(NPCS, manager.getNpcs().size());
+			for (NpcDefinition def : expected)
+			{
+				assertEquals(def, manager.get(def.id));
+			}
+			logger.info("Loaded {} npcs serially in {}ms, in parallel in {}ms", NPCS, serial / 1_000_000, parallel / 1_000_000);
+
+			File ndjson = folder.newFile();
+			manager.dumpNdjson(ndjson);
+			assertEquals(NPCS, Files.readAllLines(ndjson.toPath()).size());
+		}
+	}
+
+	@Test
+	public void testObjects() throws IOException
+	{
+		try (Store store = loadStore())
+		{
+			List<FSFile> files = files(store, ConfigType.OBJECT);
+
+			long start = System.nanoTime();
+			ObjectLoader loader = new ObjectLoader();
+			List<ObjectDefinition> expected = new ArrayList<>();
+			for (FSFile file : files)
+			{
+				expected.add(loader.load(file.getFileId(), file.getContents()));
+			}
+			long serial = System.nanoTime() - start;
+
+			ObjectManager manager = new ObjectManager(store);
+			start = System.nanoTime();
+			manager.load();
+			long parallel = System.nanoTime() - start;
+
+			assertEquals(OBJECTS, manager.getObjects().size());
+			for (ObjectDefinition def : expected)
+			{
+				assertEquals(def, manager.getObject(def.getId()));
+			}
+			logger.info("Loaded {} objects serially in {}ms, in parallel in {}ms", OBJECTS, serial / 1_000_000, parallel / 1_000_000);
+
+			File dumpDir = folder.newFolder();
+			manager.dump(dumpDir);
+			assertEquals(OBJECTS, dumpDir.list().length);
+		}
+	}
+
+	private Store loadStore() throws IOException
+	{
+		Store store = new Store(storeFolder);
+		store.load();
+		return store;
+	}
+
+	private static List<FSFile> files(Store store, ConfigType type) throws IOException
+	{
+		Archive archive = store.getIndex(IndexType.CONFIGS).getArchive(type.getId());
+		return archive.getFiles(store.getStorage().loadArchive(archive)).getFiles();
+	}
+
+	private static String read(File file) throws IOException
+	{
+		return new String(Files.readAllBytes(file.toPath()));
+	}
+
+	private static void addArchive(Store store, Index index, int archiveId, int count, IntFunction<byte[]> contents) throws IOException
+	{
+		Archive archive = index.addArchive(archiveId);
+
+		FileData[] fileData = new FileData[count];
+		ArchiveFiles files = new ArchiveFiles();
+		for (int id = 0; id < count; ++id)
+		{
+			fileData[id] = new FileData();
+			fileData[id].setId(id);
+
+			FSFile file = new FSFile(id);
+			file.setContents(contents.apply(id));
+			files.addFile(file);
+		}
+		archive.setFileData(fileData);
+
+		Container container = new Container(archive.getCompression(), -1);
+		container.compress(files.saveContents(), null);
+		store.getStorage().saveArchive(archive, container.data);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.definitions.exporters;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AsyncFileWriterTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testWrite() throws IOException
+	{
+		File dir = folder.newFolder();
+		try (AsyncFileWriter writer = new AsyncFileWriter(2, 1))
+		{
+			for (int i = 0; i < 32; ++i)
+			{
+				writer.write(new File(dir, i + ".json"), "file " + i);
+			}
+		}
+
+		for (int i = 0; i < 32; ++i)
+		{
+			assertEquals("file " + i, new String(Files.readAllBytes(new File(dir, i + ".json").toPath()), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriteFailure() throws IOException
+	{
+		File missing = new File(folder.getRoot(), "missing");
+		try (AsyncFileWriter writer = new AsyncFileWriter())
+		{
+			writer.write(new File(missing, "0.json"), "file");
+		}
+	}
+
+	@Test
+	public void testRuntimeFailure() throws IOException
+	{
+		AsyncFileWriter writer = new AsyncFileWriter();
+		writer.write(folder.newFile(), null);
+
+		try
+		{
+			writer.close();
+			fail("close should report the failed write");
+		}
+		catch (IOException ex)
+		{
+			assertTrue(ex.getCause() instanceof NullPointerException);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2017, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+public class InputStreamTest
+{
+	@Test
+	public void testReadString()
+	{
+		OutputStream os = new OutputStream();
+		os.writeString("Abyssal whip");
+		os.writeString("caf\u00e9 \u00ff");
+		// cp1252 euro sign and quotes
+		os.writeBytes(new byte[]{(byte) 0x80, '5', ' ', (byte) 0x91, 'q', (byte) 0x92, 0});
+		os.writeByte(0);
+
+		InputStream is = new InputStream(os.flip());
+		assertEquals("Abyssal whip", is.readString());
+		assertEquals("caf\u00e9 \u00ff", is.readString());
+		assertEquals("\u20ac5 \u2018q\u2019", is.readString());
+		assertNull(is.readStringOrNull());
+		assertEquals(0, is.remaining());
+	}
+
+	@Test
+	public void testReadUndefinedCharacter()
+	{
+		InputStream is = new InputStream(new byte[]{'a', (byte) 0x81, 'b', 0});
+		assertEquals("a?b", is.readString());
+	}
+
+	@Test
+	public void testReadSmarts()
+	{
+		OutputStream os = new OutputStream();
+		os.writeShortSmart(0);
+		os.writeShortSmart(127);
+		os.writeShortSmart(128);
+		os.writeShortSmart(32767);
+		os.writeBigSmart(32766);
+		os.writeBigSmart(100000);
+
+		InputStream is = new InputStream(os.flip());
+		assertEquals(0, is.readUnsignedShortSmart());
+		assertEquals(127, is.readUnsignedShortSmart());
+		assertEquals(128, is.readUnsignedShortSmart());
+		assertEquals(32767, is.readUnsignedShortSmart());
+		assertEquals(32766, is.readBigSmart());
+		assertEquals(100000, is.readBigSmart());
+		assertEquals(0, is.remaining());
+	}
+
+	@Test
+	public void testWrap()
+	{
+		InputStream is = new InputStream();
+		assertEquals(0, is.getLength());
+
+		assertSame(is, is.wrap(new byte[]{0, 1, 0, 2}));
+		assertEquals(1, is.readUnsignedShort());
+		assertEquals(2, is.remaining());
+
+		is.wrap(new byte[]{-1, -1, -1, -2, 3});
+		assertEquals(0, is.getOffset());
+		assertEquals(-2, is.readInt());
+		assertEquals(3, is.readUnsignedByte());
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.models;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.definitions.ModelDefinition;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ModelGeometryTest
+{
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	private static ModelDefinition model(int id)
+	{
+		ModelDefinition model = new ModelDefinition();
+		model.id = id;
+		model.vertexCount = 5;
+		model.vertexPositionsX = new int[]{0, 100, 0, 0, 50};
+		model.vertexPositionsY = new int[]{0, 0, 100, 0, 50};
+		model.vertexPositionsZ = new int[]{0, 0, 0, 100, 50};
+		model.faceCount = 4;
+		model.faceVertexIndices1 = new int[]{0, 0, 0, 1};
+		model.faceVertexIndices2 = new int[]{1, 1, 2, 2};
+		model.faceVertexIndices3 = new int[]{2, 3, 3, 4};
+		model.faceRenderTypes = new byte[]{0, 1, 0, 1};
+		model.faceTextures = new short[]{5, 5, 6, 6};
+		model.textureCoordinates = new byte[]{-1, 0, 1, 0};
+		model.textureTriangleCount = 2;
+		model.textureRenderTypes = new byte[]{0, 1};
+		model.textureTriangleVertexIndices1 = new short[]{0, 1};
+		model.textureTriangleVertexIndices2 = new short[]{1, 2};
+		model.textureTriangleVertexIndices3 = new short[]{2, 3};
+		model.vertexSkins = new int[]{0, 3, 3, 1, 0};
+		return model;
+	}
+
+	@Test
+	public void testCompute()
+	{
+		ModelDefinition model = model(1);
+		ModelGeometry geometry = ModelGeometry.compute(model);
+
+		model.computeNormals();
+		model.computeTextureUVCoordinates();
+		model.computeAnimationTables();
+
+		for (int i = 0; i < model.vertexCount; ++i)
+		{
+			VertexNormal normal = model.vertexNormals[i];
+			assertArrayEquals(new int[]{normal.x, normal.y, normal.z, normal.magnitude},
+				slice(geometry.getVertexNormals(), i * 4, 4));
+		}
+
+		for (int i = 0; i < model.faceCount; ++i)
+		{
+			FaceNormal normal = model.faceNormals[i];
+			if (normal != null)
+			{
+				assertArrayEquals(new int[]{normal.x, normal.y, normal.z},
+					slice(geometry.getFaceNormals(), i * 3, 3));
+			}
+
+			for (int j = 0; j < 3; ++j)
+			{
+				assertEquals(model.faceTextureUCoordinates[i][j], geometry.getFaceTextureU()[i * 3 + j], 0f);
+				assertEquals(model.faceTextureVCoordinates[i][j], geometry.getFaceTextureV()[i * 3 + j], 0f);
+			}
+		}
+
+		int[][] groups = model.getVertexGroups();
+		int[] offsets = geometry.getVertexGroupOffsets();
+		assertEquals(groups.length + 1, offsets.length);
+		for (int i = 0; i < groups.length; ++i)
+		{
+			assertArrayEquals(groups[i], slice(geometry.getVertexGroupVertices(), offsets[i], offsets[i + 1] - offsets[i]));
+		}
+
+		// the skins have now been consumed, so the groups are taken from the model's tables
+		ModelGeometry fromTables = ModelGeometry.compute(model);
+		assertArrayEquals(offsets, fromTables.getVertexGroupOffsets());
+		assertArrayEquals(geometry.getVertexGroupVertices(), fromTables.getVertexGroupVertices());
+	}
+
+	@Test
+	public void testUntextured()
+	{
+		ModelDefinition model = model(1);
+		model.faceRenderTypes = null;
+		model.faceTextures = null;
+		model.vertexSkins = null;
+
+		ModelGeometry geometry = ModelGeometry.compute(model);
+		assertNull(geometry.getFaceNormals());
+		assertNull(geometry.getFaceTextureU());
+		assertNull(geometry.getVertexGroupOffsets());
+	}
+
+	@Test
+	public void testCache()
+	{
+		ModelGeometryCache cache = new ModelGeometryCache();
+		ModelGeometry geometry = cache.get(model(1), ModelGeometryCache.UNMODIFIED);
+
+		assertSame(geometry, cache.get(model(1), ModelGeometryCache.UNMODIFIED));
+		assertNotSame(geometry, cache.get(model(1), ModelGeometryCache.resized(64, 128, 128)));
+		assertNotSame(geometry, cache.get(model(2), ModelGeometryCache.UNMODIFIED));
+		assertEquals(1, cache.stats().hitCount());
+
+		// a model which has changed since its geometry was cached is derived again
+		ModelDefinition moved = model(1);
+		moved.vertexPositionsX[4] = 500;
+		ModelGeometry derived = cache.get(moved, ModelGeometryCache.UNMODIFIED);
+		assertNotSame(geometry, derived);
+		assertGeometryEquals(ModelGeometry.compute(moved), derived);
+		assertSame(derived, cache.get(moved, ModelGeometryCache.UNMODIFIED));
+	}
+
+	@Test
+	public void testSaveAndOpen() throws IOException
+	{
+		File file = new File(folder.getRoot(), "geometry.dat");
+
+		ModelGeometryCache cache = new ModelGeometryCache();
+		ModelGeometry geometry = cache.get(model(1), ModelGeometryCache.UNMODIFIED);
+		cache.get(model(2), ModelGeometryCache.resized(64, 128, 128));
+		cache.save(file);
+
+		ModelGeometryCache opened = new ModelGeometryCache();
+		opened.open(file);
+
+		ModelGeometry read = opened.get(model(1), ModelGeometryCache.UNMODIFIED);
+		assertNotSame(geometry, read);
+		assertGeometryEquals(geometry, read);
+
+		// a model which has changed since its geometry was saved is derived again,
+		// even though its vertex and face counts are the same
+		ModelDefinition moved = model(2);
+		moved.vertexPositionsX[4] = 500;
+		ModelGeometry derived = opened.get(moved, ModelGeometryCache.resized(64, 128, 128));
+		assertGeometryEquals(ModelGeometry.compute(moved), derived);
+		assertFalse(Arrays.equals(ModelGeometry.compute(model(2)).getFaceNormals(), derived.getFaceNormals()));
+
+		// saving to the open file name keeps the entries read from it, and replaces those derived again.
+		// It is saved as a new generation, as the open file is still mapped
+		opened.save(file);
+		assertFalse(new File(folder.getRoot(), "geometry.dat.1").exists());
+		assertTrue(new File(folder.getRoot(), "geometry.dat.2").exists());
+
+		ModelGeometryCache reopened = new ModelGeometryCache();
+		reopened.open(file);
+		assertGeometryEquals(geometry, reopened.get(model(1), ModelGeometryCache.UNMODIFIED));
+		assertGeometryEquals(derived, reopened.get(moved, ModelGeometryCache.resized(64, 128, 128)));
+	}
+
+	@Test
+	public void testHash()
+	{
+		long hash = ModelGeometryCache.hash(model(1));
+		assertEquals(hash, ModelGeometryCache.hash(model(2)));
+
+		ModelDefinition moved = model(1);
+		moved.vertexPositionsX[4] = 500;
+		assertNotEquals(hash, ModelGeometryCache.hash(moved));
+
+		ModelDefinition retextured = model(1);
+		retextured.textureCoordinates[0] = 1;
+		assertNotEquals(hash, ModelGeometryCache.hash(retextured));
+	}
+
+	private static void assertGeometryEquals(ModelGeometry expected, ModelGeometry actual)
+	{
+		assertArrayEquals(expected.getVertexNormals(), actual.getVertexNormals());
+		assertArrayEquals(expected.getFaceNormals(), actual.getFaceNormals());
+		assertArrayEquals(expected.getFaceTextureU(), actual.getFaceTextureU(), 0f);
+		assertArrayEquals(expected.getFaceTextureV(), actual.getFaceTextureV(), 0f);
+		assertArrayEquals(expected.getVertexGroupOffsets(), actual.getVertexGroupOffsets());
+		assertArrayEquals(expected.getVertexGroupVertices(), actual.getVertexGroupVertices());
+	}
+
+	private static int[] slice(int[] array, int offset, int length)
+	{
+		int[] slice = new int[length];
+		System.arraycopy(array, offset, slice, 0, length);
+		return slice;
+	}
+}
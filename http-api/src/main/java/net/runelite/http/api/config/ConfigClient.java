@@ -25,11 +25,16 @@
 package net.runelite.http.api.config;
 
 import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import net.runelite.http.api.RuneLiteAPI;
+import static net.runelite.http.api.RuneLiteAPI.JSON;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.HttpUrl;
@@ -77,6 +82,71 @@ public class ConfigClient
 		}
 	}
 
+	/**
+	 * Submit a set of configuration changes in one request. Entries with a
+	 * null or empty value are unset.
+	 *
+	 * @param configuration
+	 * @return future completed with the keys of the entries the server rejected,
+	 * once the rest have been synchronized
+	 */
+	public CompletableFuture<List<String>> patch(Configuration configuration)
+	{
+		CompletableFuture<List<String>> future = new CompletableFuture<>();
+
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("config")
+			.build();
+
+		logger.debug("Built URI: {}", url);
+
+		Request request = new Request.Builder()
+			.patch(RequestBody.create(JSON, RuneLiteAPI.GSON.toJson(configuration)))
+			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
+			.url(url)
+			.build();
+
+		RuneLiteAPI.CLIENT.newCall(request).enqueue(new Callback()
+		{
+			@Override
+			public void onFailure(Call call, IOException e)
+			{
+				future.completeExceptionally(e);
+			}
+
+			@Override
+			public void onResponse(Call call, Response response)
+			{
+				try (Response r = response)
+				{
+					if (!r.isSuccessful())
+					{
+						future.completeExceptionally(new IOException("Unable to synchronize configuration: " + r.code()));
+						return;
+					}
+
+					InputStream in = r.body().byteStream();
+					List<String> rejected = RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), new TypeToken<List<String>>()
+					{
+					}.getType());
+					if (rejected == null)
+					{
+						rejected = Collections.emptyList();
+					}
+
+					logger.debug("Synchronized {} configuration values, {} rejected", configuration.getConfig().size(), rejected.size());
+					future.complete(rejected);
+				}
+				catch (JsonParseException ex)
+				{
+					future.completeExceptionally(new IOException(ex));
+				}
+			}
+		});
+
+		return future;
+	}
+
 	public void set(String key, String value)
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
@@ -25,6 +25,7 @@
 package net.runelite.http.service.config;
 
 import java.io.IOException;
+import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import net.runelite.http.api.config.Configuration;
@@ -36,6 +37,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
+import static org.springframework.web.bind.annotation.RequestMethod.PATCH;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -66,6 +68,29 @@ public class ConfigController
 		return configService.get(session.getUser());
 	}
 
+	@RequestMapping(method = PATCH)
+	public List<String> patch(
+		HttpServletRequest request,
+		HttpServletResponse response,
+		@RequestBody Configuration configuration
+	) throws IOException
+	{
+		SessionEntry session = authFilter.handle(request, response);
+
+		if (session == null)
+		{
+			return null;
+		}
+
+		if (configuration.getConfig() == null)
+		{
+			response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+			return null;
+		}
+
+		return configService.patch(session.getUser(), configuration);
+	}
+
 	@RequestMapping(path = "/{key:.+}", method = PUT)
 	public void setKey(
 		HttpServletRequest request,
@@ -35,9 +35,12 @@ import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import static com.mongodb.client.model.Filters.eq;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import static com.mongodb.client.model.Updates.set;
 import static com.mongodb.client.model.Updates.unset;
 import java.util.ArrayList;
@@ -50,6 +53,7 @@ import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.config.ConfigEntry;
 import net.runelite.http.api.config.Configuration;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -62,6 +66,7 @@ public class ConfigService
 
 	private final Gson GSON = RuneLiteAPI.GSON;
 	private final UpdateOptions upsertUpdateOptions = new UpdateOptions().upsert(true);
+	private final BulkWriteOptions bulkWriteOptions = new BulkWriteOptions().ordered(true);
 
 	private final MongoCollection<Document> mongoCollection;
 
@@ -137,13 +142,8 @@ public class ConfigService
 		@Nullable String value
 	)
 	{
-		if (key.startsWith("$") || key.startsWith("_"))
-		{
-			return false;
-		}
-
-		String[] split = key.split("\\.", 2);
-		if (split.length != 2)
+		String field = toField(key);
+		if (field == null)
 		{
 			return false;
 		}
@@ -155,7 +155,7 @@ public class ConfigService
 
 		Object jsonValue = parseJsonString(value);
 		mongoCollection.updateOne(eq("_userId", userId),
-			set(split[0] + "." + split[1].replace('.', ':'), jsonValue),
+			set(field, jsonValue),
 			upsertUpdateOptions);
 		return true;
 	}
@@ -165,20 +165,90 @@ public class ConfigService
 		String key
 	)
 	{
-		if (key.startsWith("$") || key.startsWith("_"))
+		String field = toField(key);
+		if (field == null)
 		{
 			return false;
 		}
 
+		mongoCollection.updateOne(eq("_userId", userId),
+			unset(field));
+		return true;
+	}
+
+	/**
+	 * Apply a set of configuration changes in a single bulk write. Entries with a null
+	 * or empty value are unset.
+	 *
+	 * @param userId
+	 * @param configuration
+	 * @return the keys of entries which were rejected
+	 */
+	public List<String> patch(
+		int userId,
+		Configuration configuration
+	)
+	{
+		List<String> failures = new ArrayList<>();
+		List<WriteModel<Document>> updates = new ArrayList<>(configuration.getConfig().size());
+		Bson filter = eq("_userId", userId);
+
+		for (ConfigEntry entry : configuration.getConfig())
+		{
+			String key = entry.getKey();
+			String value = entry.getValue();
+			String field = key == null ? null : toField(key);
+
+			if (field == null)
+			{
+				failures.add(key);
+				continue;
+			}
+
+			if (value == null || value.isEmpty())
+			{
+				updates.add(new UpdateOneModel<>(filter, unset(field)));
+				continue;
+			}
+
+			if (!validateJson(value))
+			{
+				failures.add(key);
+				continue;
+			}
+
+			updates.add(new UpdateOneModel<>(filter, set(field, parseJsonString(value)), upsertUpdateOptions));
+		}
+
+		if (!updates.isEmpty())
+		{
+			mongoCollection.bulkWrite(updates, bulkWriteOptions);
+		}
+
+		return failures;
+	}
+
+	/**
+	 * Convert a group.key config key into its document field
+	 *
+	 * @param key
+	 * @return the field, or null if the key is not valid
+	 */
+	@Nullable
+	private static String toField(String key)
+	{
+		if (key.startsWith("$") || key.startsWith("_"))
+		{
+			return null;
+		}
+
 		String[] split = key.split("\\.", 2);
 		if (split.length != 2)
 		{
-			return false;
+			return null;
 		}
 
-		mongoCollection.updateOne(eq("_userId", userId),
-			unset(split[0] + "." + split[1].replace('.', ':')));
-		return true;
+		return split[0] + "." + split[1].replace('.', ':');
 	}
 
 	@VisibleForTesting
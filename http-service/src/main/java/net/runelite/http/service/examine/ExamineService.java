@@ -24,15 +24,36 @@
  */
 package net.runelite.http.service.examine;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
 
 @Service
+@Slf4j
 public class ExamineService
 {
 	private static final String CREATE_EXAMINE = "CREATE TABLE IF NOT EXISTS `examine` (\n"
@@ -44,51 +65,237 @@ public class ExamineService
 		+ "  UNIQUE KEY `type` (`type`,`id`,`text`(64))\n"
 		+ ") ENGINE=InnoDB";
 
+	private static final String SELECT_EXAMINE = "select text, count from examine where type = :type and id = :id "
+		+ "order by count desc limit 1";
+	private static final String UPSERT_EXAMINE = "insert into examine (type, id, time, count, text) values "
+		+ "(:type, :id, :time, :count, :text) on duplicate key update count = count + VALUES(count)";
+
+	private static final int MAX_CACHED_EXAMINES = 65536;
+	// Reload winners periodically, as a load racing a flush or votes stored by another instance can leave them stale
+	private static final long WINNER_EXPIRY_MINUTES = 10;
+	// Flush early if this many distinct examines are waiting, rather than buffer without bound
+	@VisibleForTesting
+	static final int MAX_PENDING_VOTES = 16384;
+
+	@Value
+	private static class ExamineKey
+	{
+		private final ExamineType type;
+		private final int id;
+	}
+
+	@Value
+	private static class VoteKey
+	{
+		private final ExamineType type;
+		private final int id;
+		private final String text;
+	}
+
+	/**
+	 * The most submitted examine text of an object, npc or item, and how many
+	 * times it has been submitted. The text is null if there are no submissions.
+	 */
+	@Value
+	private static class Winner
+	{
+		private static final Winner NONE = new Winner(null, 0);
+
+		private final String text;
+		private final int count;
+	}
+
 	private final Sql2o sql2o;
 
+	private final LoadingCache<ExamineKey, Winner> winners = CacheBuilder.newBuilder()
+		.maximumSize(MAX_CACHED_EXAMINES)
+		.expireAfterWrite(WINNER_EXPIRY_MINUTES, TimeUnit.MINUTES)
+		.build(new CacheLoader<ExamineKey, Winner>()
+		{
+			@Override
+			public Winner load(ExamineKey key)
+			{
+				return loadWinner(key);
+			}
+		});
+
+	// Submissions not yet written to the database, by examine text
+	private final ConcurrentMap<VoteKey, Integer> pendingVotes = new ConcurrentHashMap<>();
+	// Runs early flushes, so requests submitting examines do not wait on the database
+	private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(
+		new ThreadFactoryBuilder().setNameFormat("examine-flush").setDaemon(true).build());
+	private final AtomicBoolean flushQueued = new AtomicBoolean();
+
 	@Autowired
 	public ExamineService(@Qualifier("Runelite SQL2O") Sql2o sql2o)
+	{
+		this(sql2o, true);
+	}
+
+	/**
+	 * @param createTable whether to create the examine table, which uses MySQL only
+	 *                    column types. Tests against other databases create it themselves.
+	 */
+	@VisibleForTesting
+	ExamineService(Sql2o sql2o, boolean createTable)
 	{
 		this.sql2o = sql2o;
 
-		try (Connection con = sql2o.open())
+		if (createTable)
 		{
-			con.createQuery(CREATE_EXAMINE)
-				.executeUpdate();
+			try (Connection con = sql2o.open())
+			{
+				con.createQuery(CREATE_EXAMINE)
+					.executeUpdate();
+			}
 		}
 	}
 
+	@PreDestroy
+	public void shutdown()
+	{
+		// an early flush still queued runs before the executor stops, and this one waits for it
+		flushExecutor.shutdown();
+		flush();
+	}
+
 	public String get(ExamineType type, int id)
 	{
-		try (Connection con = sql2o.open())
+		return winners.getUnchecked(new ExamineKey(type, id)).getText();
+	}
+
+	/**
+	 * Count a submitted examine. Submissions are buffered and written in batches
+	 * by {@link #flush()}, so they are not visible to {@link #get} until then.
+	 */
+	public void insert(ExamineType type, int id, String examine)
+	{
+		pendingVotes.merge(new VoteKey(type, id, examine), 1, Integer::sum);
+
+		if (pendingVotes.size() >= MAX_PENDING_VOTES && flushQueued.compareAndSet(false, true))
 		{
-			ExamineEntry entry = con.createQuery("select text from examine where type = :type and id = :id "
-				+ "order by count desc limit 1")
-				.addParameter("type", type.toString())
-				.addParameter("id", id)
-				.executeAndFetchFirst(ExamineEntry.class);
+			try
+			{
+				flushExecutor.execute(() ->
+				{
+					flushQueued.set(false);
+					flush();
+				});
+			}
+			catch (RejectedExecutionException ex)
+			{
+				// shutting down, in which case shutdown() flushes the pending votes
+				flushQueued.set(false);
+			}
+		}
+	}
 
-			if (entry != null)
+	/**
+	 * Write the buffered submissions to the database as a single batch, and update
+	 * the cached winners of the examines they were for
+	 */
+	@Scheduled(fixedDelay = 10_000L)
+	public synchronized void flush()
+	{
+		if (pendingVotes.isEmpty())
+		{
+			return;
+		}
+
+		// Take each count out atomically, so votes submitted meanwhile are kept for the next flush
+		Map<VoteKey, Integer> votes = new HashMap<>(pendingVotes.size());
+		for (VoteKey key : pendingVotes.keySet())
+		{
+			Integer count = pendingVotes.remove(key);
+			if (count != null)
+			{
+				votes.put(key, count);
+			}
+		}
+
+		Map<ExamineKey, Winner> updated = new HashMap<>();
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Timestamp time = Timestamp.from(Instant.now());
+			Query upsert = con.createQuery(UPSERT_EXAMINE);
+
+			for (Map.Entry<VoteKey, Integer> entry : votes.entrySet())
+			{
+				VoteKey vote = entry.getKey();
+				upsert
+					.addParameter("type", vote.getType().toString())
+					.addParameter("id", vote.getId())
+					.addParameter("time", time)
+					.addParameter("count", entry.getValue())
+					.addParameter("text", vote.getText())
+					.addToBatch();
+			}
+
+			upsert.executeBatch();
+
+			Query selectWinner = con.createQuery(SELECT_EXAMINE);
+
+			for (Map.Entry<VoteKey, Integer> entry : votes.entrySet())
+			{
+				VoteKey vote = entry.getKey();
+				ExamineKey key = new ExamineKey(vote.getType(), vote.getId());
+				Winner winner = updated.containsKey(key) ? updated.get(key) : winners.getIfPresent(key);
+				if (winner == null)
+				{
+					// not cached, so it is loaded with the new counts when next requested
+					continue;
+				}
+
+				if (vote.getText().equals(winner.getText()))
+				{
+					updated.put(key, new Winner(winner.getText(), winner.getCount() + entry.getValue()));
+					continue;
+				}
+
+				// another text was voted for, which may now have overtaken the winner
+				ExamineEntry top = selectWinner
+					.addParameter("type", vote.getType().toString())
+					.addParameter("id", vote.getId())
+					.executeAndFetchFirst(ExamineEntry.class);
+
+				if (top != null)
+				{
+					updated.put(key, new Winner(top.getText(), top.getCount()));
+				}
+			}
+
+			con.commit(false);
+		}
+		catch (Sql2oException ex)
+		{
+			log.warn("Unable to store {} examines, retrying on next flush", votes.size(), ex);
+
+			for (Map.Entry<VoteKey, Integer> entry : votes.entrySet())
 			{
-				return entry.getText();
+				pendingVotes.merge(entry.getKey(), entry.getValue(), Integer::sum);
 			}
+			return;
 		}
 
-		return null;
+		winners.putAll(updated);
 	}
 
-	public void insert(ExamineType type, int id, String examine)
+	private Winner loadWinner(ExamineKey key)
 	{
 		try (Connection con = sql2o.open())
 		{
-			con.createQuery("insert into examine (type, id, time, count, text) values "
-				+ "(:type, :id, :time, :count, :text) on duplicate key update count = count + 1")
-				.addParameter("type", type.toString())
-				.addParameter("id", id)
-				.addParameter("time", Timestamp.from(Instant.now()))
-				.addParameter("count", 1)
-				.addParameter("text", examine)
-				.executeUpdate();
+			ExamineEntry entry = con.createQuery(SELECT_EXAMINE)
+				.addParameter("type", key.getType().toString())
+				.addParameter("id", key.getId())
+				.executeAndFetchFirst(ExamineEntry.class);
+
+			if (entry != null)
+			{
+				return new Winner(entry.getText(), entry.getCount());
+			}
 		}
+
+		return Winner.NONE;
 	}
 }
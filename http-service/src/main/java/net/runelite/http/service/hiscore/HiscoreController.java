@@ -31,6 +31,7 @@ import net.runelite.http.api.hiscore.HiscoreSkill;
 import net.runelite.http.api.hiscore.SingleHiscoreSkillResult;
 import net.runelite.http.api.hiscore.Skill;
 import net.runelite.http.service.util.HiscoreEndpointEditor;
+import net.runelite.http.service.util.exception.NotFoundException;
 import net.runelite.http.service.xp.XpTrackerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.WebDataBinder;
@@ -51,10 +52,17 @@ public class HiscoreController
 	@Autowired
 	private XpTrackerService xpTrackerService;
 
+	/**
+	 * Look up a player on the hiscores. Responds 404 Not Found if the player is not on them.
+	 */
 	@GetMapping("/{endpoint}")
 	public HiscoreResult lookup(@PathVariable HiscoreEndpoint endpoint, @RequestParam String username) throws ExecutionException
 	{
 		HiscoreResult result = hiscoreService.lookupUsername(username, endpoint);
+		if (result == null)
+		{
+			throw new NotFoundException();
+		}
 
 		// Submit to xp tracker?
 		switch (endpoint)
@@ -69,6 +77,10 @@ public class HiscoreController
 		return result;
 	}
 
+	/**
+	 * Look up a single skill of a player on the hiscores. Responds 404 Not Found if the player
+	 * is not on them.
+	 */
 	@GetMapping("/{endpoint}/{skillName}")
 	public SingleHiscoreSkillResult singleSkillLookup(@PathVariable HiscoreEndpoint endpoint, @PathVariable String skillName, @RequestParam String username) throws ExecutionException
 	{
@@ -76,6 +88,10 @@ public class HiscoreController
 
 		// RS api only supports looking up all stats
 		HiscoreResult result = hiscoreService.lookupUsername(username, endpoint);
+		if (result == null)
+		{
+			throw new NotFoundException();
+		}
 
 		// Find the skill to return
 		Skill requested = result.getSkill(skill);
@@ -88,6 +104,15 @@ public class HiscoreController
 		return skillResult;
 	}
 
+	/**
+	 * Get the request, hit, miss and refresh counts of the hiscore cache since the service started
+	 */
+	@GetMapping("/stats")
+	public HiscoreCacheStats stats()
+	{
+		return hiscoreService.getStats();
+	}
+
 	@InitBinder
 	public void initBinder(WebDataBinder binder)
 	{
@@ -25,34 +25,133 @@
 package net.runelite.http.service.hiscore;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import lombok.Value;
 import net.runelite.http.api.hiscore.HiscoreClient;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.api.hiscore.HiscoreSkill;
 import okhttp3.HttpUrl;
 import org.springframework.stereotype.Service;
 
 @Service
 public class HiscoreService
 {
+	// Results this old are refreshed in the background, and served stale until the refresh completes
+	private static final long REFRESH_AFTER_MINUTES = 1;
+	// Players not on the hiscores are looked up again this often
+	private static final long NOT_FOUND_REFRESH_AFTER_MINUTES = 10;
+	// Results are never served older than this, even if refreshing them fails
+	private static final long EXPIRE_AFTER_MINUTES = 30;
+
+	// Cache weight of a result, roughly its size in skills; unknown players weigh 1
+	private static final int RESULT_WEIGHT = HiscoreSkill.values().length;
+	private static final long MAX_WEIGHT = 8192L * RESULT_WEIGHT;
+
+	// Most lookups to run against the Jagex hiscores at once
+	static final int MAX_CONCURRENT_LOOKUPS = 8;
+	private static final long LOOKUP_PERMIT_TIMEOUT_SECONDS = 10;
+
+	@Value
+	private static class CachedResult
+	{
+		/**
+		 * The result, or null if the player is not on the hiscores
+		 */
+		private final HiscoreResult result;
+		private final long fetchedNanos;
+	}
+
 	private final HiscoreClient hiscoreClient = new HiscoreClient();
-	private final LoadingCache<HiscoreKey, HiscoreResult> hiscoreCache = CacheBuilder.newBuilder()
-		.maximumSize(128)
-		.expireAfterWrite(1, TimeUnit.MINUTES)
-		.build(
-			new CacheLoader<HiscoreKey, HiscoreResult>()
-			{
-				@Override
-				public HiscoreResult load(HiscoreKey key) throws IOException
+	private final Ticker ticker;
+	private final Semaphore lookupPermits = new Semaphore(MAX_CONCURRENT_LOOKUPS);
+	private final ExecutorService refreshExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_LOOKUPS,
+		new ThreadFactoryBuilder().setNameFormat("hiscore-refresh-%d").setDaemon(true).build());
+
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder refreshes = new LongAdder();
+	private final LongAdder refreshFailures = new LongAdder();
+	private final LongAdder notFound = new LongAdder();
+
+	private final LoadingCache<HiscoreKey, CachedResult> hiscoreCache;
+
+	public HiscoreService()
+	{
+		this(Ticker.systemTicker());
+	}
+
+	@VisibleForTesting
+	HiscoreService(Ticker ticker)
+	{
+		this.ticker = ticker;
+		this.hiscoreCache = CacheBuilder.newBuilder()
+			.ticker(ticker)
+			.maximumWeight(MAX_WEIGHT)
+			.weigher((HiscoreKey key, CachedResult value) -> value.getResult() != null ? RESULT_WEIGHT : 1)
+			.refreshAfterWrite(REFRESH_AFTER_MINUTES, TimeUnit.MINUTES)
+			.expireAfterWrite(EXPIRE_AFTER_MINUTES, TimeUnit.MINUTES)
+			.build(
+				new CacheLoader<HiscoreKey, CachedResult>()
 				{
-					return hiscoreClient.lookup(key.getUsername(), key.getEndpoint());
-				}
-			});
+					@Override
+					public CachedResult load(HiscoreKey key) throws IOException
+					{
+						misses.increment();
+						return fetch(key);
+					}
+
+					@Override
+					public ListenableFuture<CachedResult> reload(HiscoreKey key, CachedResult oldValue)
+					{
+						if (oldValue.getResult() == null
+							&& ticker.read() - oldValue.getFetchedNanos() < TimeUnit.MINUTES.toNanos(NOT_FOUND_REFRESH_AFTER_MINUTES))
+						{
+							return Futures.immediateFuture(oldValue);
+						}
+
+						refreshes.increment();
+
+						ListenableFutureTask<CachedResult> task = ListenableFutureTask.create(() ->
+						{
+							try
+							{
+								return fetch(key);
+							}
+							catch (IOException ex)
+							{
+								// the stale result is kept until it expires
+								refreshFailures.increment();
+								throw ex;
+							}
+						});
+						refreshExecutor.execute(task);
+						return task;
+					}
+				});
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		refreshExecutor.shutdownNow();
+	}
 
 	@VisibleForTesting
 	HiscoreResult lookupUsername(String username, HttpUrl httpUrl) throws IOException
@@ -60,8 +159,54 @@ public class HiscoreService
 		return hiscoreClient.lookup(username, httpUrl);
 	}
 
+	/**
+	 * Look up a player on the hiscores. Concurrent lookups of the same player share a
+	 * single request, and recent results are served from cache.
+	 *
+	 * @return the player's hiscores, or null if they are not on the hiscores
+	 */
 	public HiscoreResult lookupUsername(String username, HiscoreEndpoint endpoint) throws ExecutionException
 	{
-		return hiscoreCache.get(new HiscoreKey(username, endpoint));
+		requests.increment();
+		return hiscoreCache.get(new HiscoreKey(username, endpoint)).getResult();
+	}
+
+	public HiscoreCacheStats getStats()
+	{
+		long requestCount = requests.sum();
+		long missCount = misses.sum();
+		return new HiscoreCacheStats(requestCount, requestCount - missCount, missCount,
+			refreshes.sum(), refreshFailures.sum(), notFound.sum());
+	}
+
+	private CachedResult fetch(HiscoreKey key) throws IOException
+	{
+		try
+		{
+			if (!lookupPermits.tryAcquire(LOOKUP_PERMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+			{
+				throw new IOException("Too many concurrent hiscore lookups");
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+
+		try
+		{
+			HiscoreResult result = lookupUsername(key.getUsername(), key.getEndpoint().getHiscoreURL());
+			if (result == null)
+			{
+				notFound.increment();
+			}
+
+			return new CachedResult(result, ticker.read());
+		}
+		finally
+		{
+			lookupPermits.release();
+		}
 	}
 }
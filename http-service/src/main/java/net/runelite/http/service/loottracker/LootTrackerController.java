@@ -26,14 +26,21 @@
 package net.runelite.http.service.loottracker;
 
 import com.google.api.client.http.HttpStatusCodes;
+import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.loottracker.LootAggregate;
 import net.runelite.http.api.loottracker.LootRecord;
 import net.runelite.http.service.account.AuthFilter;
 import net.runelite.http.service.account.beans.SessionEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -46,6 +53,9 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/loottracker")
 public class LootTrackerController
 {
+	private static final String NEXT_HEADER = "RuneLite-Loot-Next";
+	private static final int MAX_COUNT = 1024;
+
 	@Autowired
 	private LootTrackerService service;
 
@@ -66,8 +76,48 @@ public class LootTrackerController
 		response.setStatus(HttpStatusCodes.STATUS_CODE_OK);
 	}
 
+	/**
+	 * Get the loot records of the account, most recent first. If there may be more records,
+	 * the RuneLite-Loot-Next header holds the value to pass as before to fetch the next page.
+	 * The deprecated start parameter skips that many of the most recent kills instead, and is
+	 * ignored if before is given.
+	 */
 	@GetMapping
-	public Collection<LootRecord> getLootRecords(HttpServletRequest request, HttpServletResponse response, @RequestParam(value = "count", defaultValue = "1024") int count, @RequestParam(value = "start", defaultValue = "0") int start) throws IOException
+	public void getLootRecords(HttpServletRequest request, HttpServletResponse response, @RequestParam(value = "count", defaultValue = "1024") int count,
+		@RequestParam(value = "before", required = false) Integer before, @RequestParam(value = "start", defaultValue = "0") int start) throws IOException
+	{
+		SessionEntry e = auth.handle(request, response);
+		if (e == null)
+		{
+			response.setStatus(HttpStatusCodes.STATUS_CODE_UNAUTHORIZED);
+			return;
+		}
+
+		count = Math.max(0, Math.min(count, MAX_COUNT));
+
+		List<Integer> killIds = before == null && start > 0
+			? service.findKillIdsByOffset(e.getUser(), count, start)
+			: service.findKillIds(e.getUser(), count, before);
+		if (!killIds.isEmpty() && killIds.size() == count)
+		{
+			response.setHeader(NEXT_HEADER, Integer.toString(killIds.get(killIds.size() - 1)));
+		}
+
+		response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+
+		JsonWriter writer = new JsonWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+		writer.beginArray();
+		if (!killIds.isEmpty())
+		{
+			service.get(e.getUser(), killIds.get(killIds.size() - 1), killIds.get(0),
+				lootRecord -> RuneLiteAPI.GSON.toJson(lootRecord, LootRecord.class, writer));
+		}
+		writer.endArray();
+		writer.flush();
+	}
+
+	@GetMapping("/aggregate")
+	public Collection<LootAggregate> getLootAggregate(HttpServletRequest request, HttpServletResponse response) throws IOException
 	{
 		SessionEntry e = auth.handle(request, response);
 		if (e == null)
@@ -76,7 +126,7 @@ public class LootTrackerController
 			return null;
 		}
 
-		return service.get(e.getUser(), count, start);
+		return service.getAggregate(e.getUser());
 	}
 
 	@DeleteMapping
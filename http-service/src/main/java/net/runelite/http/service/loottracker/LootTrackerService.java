@@ -25,20 +25,31 @@
  */
 package net.runelite.http.service.loottracker;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.loottracker.GameItem;
+import net.runelite.http.api.loottracker.LootAggregate;
 import net.runelite.http.api.loottracker.LootRecord;
+import net.runelite.http.api.loottracker.LootRecordType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
 import org.sql2o.Query;
+import org.sql2o.ResultSetIterable;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
 
 @Service
+@Slf4j
 public class LootTrackerService
 {
 	// Table for storing individual LootRecords
@@ -51,6 +62,7 @@ public class LootTrackerService
 		+ "  PRIMARY KEY (id),\n"
 		+ "  FOREIGN KEY (accountId) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE,\n"
 		+ "  INDEX idx_acc (accountId, time),"
+		+ "  INDEX idx_acc_id (accountId, id),"
 		+ "  INDEX idx_time (time)"
 		+ ") ENGINE=InnoDB";
 
@@ -62,14 +74,95 @@ public class LootTrackerService
 		+ "  FOREIGN KEY (killId) REFERENCES kills(id) ON DELETE CASCADE\n"
 		+ ") ENGINE=InnoDB";
 
+	// Tables for the running per-event totals, maintained on insert
+	private static final String CREATE_KILLS_AGGREGATE = "CREATE TABLE IF NOT EXISTS `kills_aggregate` (\n"
+		+ "  `accountId` INT NOT NULL,\n"
+		+ "  `type` enum('NPC', 'PLAYER', 'EVENT', 'UNKNOWN') NOT NULL,\n"
+		+ "  `eventId` VARCHAR(255) NOT NULL,\n"
+		+ "  `kills` INT NOT NULL,\n"
+		+ "  PRIMARY KEY (accountId, type, eventId),\n"
+		+ "  FOREIGN KEY (accountId) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE\n"
+		+ ") ENGINE=InnoDB";
+
+	private static final String CREATE_DROPS_AGGREGATE = "CREATE TABLE IF NOT EXISTS `drops_aggregate` (\n"
+		+ "  `accountId` INT NOT NULL,\n"
+		+ "  `type` enum('NPC', 'PLAYER', 'EVENT', 'UNKNOWN') NOT NULL,\n"
+		+ "  `eventId` VARCHAR(255) NOT NULL,\n"
+		+ "  `itemId` INT NOT NULL,\n"
+		+ "  `itemQuantity` INT NOT NULL,\n"
+		+ "  PRIMARY KEY (accountId, type, eventId, itemId),\n"
+		+ "  FOREIGN KEY (accountId) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE\n"
+		+ ") ENGINE=InnoDB";
+
+	// Index the paging by kill id relies on, added to tables created before it existed
+	private static final String ADD_KILLS_ACC_ID_INDEX = "ALTER TABLE `kills` ADD INDEX idx_acc_id (accountId, id)";
+
+	// One time migrations, recorded so each runs once even with several service instances
+	private static final String CREATE_MIGRATIONS = "CREATE TABLE IF NOT EXISTS `loottracker_migrations` (\n"
+		+ "  `name` VARCHAR(64) NOT NULL,\n"
+		+ "  PRIMARY KEY (name)\n"
+		+ ") ENGINE=InnoDB";
+	private static final String SELECT_MIGRATION = "SELECT name FROM loottracker_migrations WHERE name = :name";
+	private static final String CLAIM_MIGRATION = "INSERT IGNORE INTO loottracker_migrations (name) VALUES (:name)";
+	private static final String AGGREGATE_BACKFILL = "aggregate_backfill";
+
+	// The aggregates are set to the totals of the kills recorded so far, rather than added to, so
+	// kills stored by this version before the backfill ran are not counted twice
+	private static final String BACKFILL_KILLS_AGGREGATE = "INSERT INTO kills_aggregate (accountId, type, eventId, kills) "
+		+ "SELECT accountId, type, eventId, COUNT(*) FROM kills GROUP BY accountId, type, eventId "
+		+ "ON DUPLICATE KEY UPDATE kills = VALUES(kills)";
+	private static final String BACKFILL_DROPS_AGGREGATE = "INSERT INTO drops_aggregate (accountId, type, eventId, itemId, itemQuantity) "
+		+ "SELECT accountId, type, eventId, itemId, LEAST(SUM(itemQuantity), 2147483647) FROM kills JOIN drops ON drops.killId = kills.id "
+		+ "GROUP BY accountId, type, eventId, itemId "
+		+ "ON DUPLICATE KEY UPDATE itemQuantity = VALUES(itemQuantity)";
+
 	// Queries for inserting kills
 	private static final String INSERT_KILL_QUERY = "INSERT INTO kills (accountId, type, eventId) VALUES (:accountId, :type, :eventId)";
 	private static final String INSERT_DROP_QUERY = "INSERT INTO drops (killId, itemId, itemQuantity) VALUES (:killId, :itemId, :itemQuantity)";
 
-	private static final String SELECT_LOOT_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM kills JOIN drops ON drops.killId = kills.id WHERE accountId = :accountId ORDER BY TIME DESC LIMIT :limit OFFSET :offset";
+	private static final String UPSERT_KILLS_AGGREGATE = "INSERT INTO kills_aggregate (accountId, type, eventId, kills) VALUES (:accountId, :type, :eventId, :kills) "
+		+ "ON DUPLICATE KEY UPDATE kills = kills + VALUES(kills)";
+	private static final String UPSERT_DROPS_AGGREGATE = "INSERT INTO drops_aggregate (accountId, type, eventId, itemId, itemQuantity) VALUES (:accountId, :type, :eventId, :itemId, :itemQuantity) "
+		+ "ON DUPLICATE KEY UPDATE itemQuantity = LEAST(itemQuantity + VALUES(itemQuantity), 2147483647)";
+
+	private static final String SELECT_KILL_IDS_QUERY = "SELECT id FROM kills WHERE accountId = :accountId ORDER BY id DESC LIMIT :limit";
+	private static final String SELECT_KILL_IDS_BEFORE_QUERY = "SELECT id FROM kills WHERE accountId = :accountId AND id < :before ORDER BY id DESC LIMIT :limit";
+	private static final String SELECT_KILL_IDS_OFFSET_QUERY = "SELECT id FROM kills WHERE accountId = :accountId ORDER BY id DESC LIMIT :limit OFFSET :offset";
+	private static final String SELECT_LOOT_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM kills JOIN drops ON drops.killId = kills.id "
+		+ "WHERE accountId = :accountId AND kills.id BETWEEN :oldest AND :newest ORDER BY kills.id DESC";
+
+	private static final String SELECT_KILLS_AGGREGATE_QUERY = "SELECT type,eventId,kills FROM kills_aggregate WHERE accountId = :accountId";
+	private static final String SELECT_DROPS_AGGREGATE_QUERY = "SELECT type,eventId,itemId,itemQuantity FROM drops_aggregate WHERE accountId = :accountId";
 
 	private static final String DELETE_LOOT_ACCOUNT = "DELETE FROM kills WHERE accountId = :accountId";
 	private static final String DELETE_LOOT_ACCOUNT_EVENTID = "DELETE FROM kills WHERE accountId = :accountId AND eventId = :eventId";
+	private static final String DELETE_KILLS_AGGREGATE_ACCOUNT = "DELETE FROM kills_aggregate WHERE accountId = :accountId";
+	private static final String DELETE_KILLS_AGGREGATE_ACCOUNT_EVENTID = "DELETE FROM kills_aggregate WHERE accountId = :accountId AND eventId = :eventId";
+	private static final String DELETE_DROPS_AGGREGATE_ACCOUNT = "DELETE FROM drops_aggregate WHERE accountId = :accountId";
+	private static final String DELETE_DROPS_AGGREGATE_ACCOUNT_EVENTID = "DELETE FROM drops_aggregate WHERE accountId = :accountId AND eventId = :eventId";
+
+	// Queries for expiring kills, which take what expires out of the aggregates so they stay the totals of the kills kept
+	private static final String SELECT_EXPIRY_CUTOFF = "SELECT current_timestamp() - interval 30 day";
+	private static final String EXPIRED_KILLS = "(SELECT accountId, type, eventId, COUNT(*) AS kills FROM kills WHERE time < :cutoff "
+		+ "GROUP BY accountId, type, eventId) expired";
+	private static final String EXPIRED_DROPS = "(SELECT accountId, type, eventId, itemId, SUM(itemQuantity) AS itemQuantity FROM kills JOIN drops ON drops.killId = kills.id "
+		+ "WHERE time < :cutoff GROUP BY accountId, type, eventId, itemId) expired";
+	private static final String EXPIRE_KILLS_AGGREGATE = "UPDATE kills_aggregate JOIN " + EXPIRED_KILLS + " USING (accountId, type, eventId) "
+		+ "SET kills_aggregate.kills = kills_aggregate.kills - expired.kills";
+	private static final String EXPIRE_DROPS_AGGREGATE = "UPDATE drops_aggregate JOIN " + EXPIRED_DROPS + " USING (accountId, type, eventId, itemId) "
+		+ "SET drops_aggregate.itemQuantity = GREATEST(drops_aggregate.itemQuantity - expired.itemQuantity, 0)";
+	private static final String DELETE_EXPIRED_KILLS_AGGREGATE = "DELETE kills_aggregate FROM kills_aggregate JOIN " + EXPIRED_KILLS + " USING (accountId, type, eventId) "
+		+ "WHERE kills_aggregate.kills <= 0";
+	private static final String DELETE_EXPIRED_DROPS_AGGREGATE = "DELETE drops_aggregate FROM drops_aggregate JOIN " + EXPIRED_DROPS + " USING (accountId, type, eventId, itemId) "
+		+ "WHERE drops_aggregate.itemQuantity <= 0";
+	private static final String DELETE_EXPIRED_KILLS = "DELETE FROM kills WHERE time < :cutoff";
+
+	@Value
+	private static class EventKey
+	{
+		private final LootRecordType type;
+		private final String eventId;
+	}
 
 	private final Sql2o sql2o;
 
@@ -83,7 +176,66 @@ public class LootTrackerService
 		{
 			con.createQuery(CREATE_KILLS).executeUpdate();
 			con.createQuery(CREATE_DROPS).executeUpdate();
+			con.createQuery(CREATE_KILLS_AGGREGATE).executeUpdate();
+			con.createQuery(CREATE_DROPS_AGGREGATE).executeUpdate();
+			con.createQuery(CREATE_MIGRATIONS).executeUpdate();
+
+			try
+			{
+				con.createQuery(ADD_KILLS_ACC_ID_INDEX)
+					.executeUpdate();
+			}
+			catch (Sql2oException ex)
+			{
+				// Ignore, happens when index already exists
+			}
 		}
+
+		// Fill the aggregate tables from the kills recorded before they existed
+		migrate(AGGREGATE_BACKFILL, BACKFILL_KILLS_AGGREGATE, BACKFILL_DROPS_AGGREGATE);
+	}
+
+	/**
+	 * Run a one time migration, unless it is recorded as having run. The record is claimed in the
+	 * migration's transaction and held until it commits, so other instances starting meanwhile wait
+	 * for it and then skip the migration.
+	 *
+	 * @param name    name the migration is recorded under
+	 * @param queries queries making up the migration
+	 */
+	private void migrate(String name, String... queries)
+	{
+		try (Connection con = sql2o.open())
+		{
+			String ran = con.createQuery(SELECT_MIGRATION)
+				.addParameter("name", name)
+				.executeScalar(String.class);
+			if (ran != null)
+			{
+				return;
+			}
+		}
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			int claimed = con.createQuery(CLAIM_MIGRATION)
+				.addParameter("name", name)
+				.executeUpdate()
+				.getResult();
+			if (claimed == 0)
+			{
+				return;
+			}
+
+			for (String query : queries)
+			{
+				con.createQuery(query).executeUpdate();
+			}
+
+			con.commit(false);
+		}
+
+		log.info("Ran loot tracker migration {}", name);
 	}
 
 	/**
@@ -94,6 +246,10 @@ public class LootTrackerService
 	 */
 	public void store(Collection<LootRecord> records, int accountId)
 	{
+		// Per event totals for this batch, so the aggregate tables get one upsert per event and item
+		Map<EventKey, Integer> killTotals = new LinkedHashMap<>();
+		Map<EventKey, Map<Integer, Integer>> dropTotals = new LinkedHashMap<>();
+
 		try (Connection con = sql2o.beginTransaction())
 		{
 			// Kill Entry Query
@@ -122,77 +278,215 @@ public class LootTrackerService
 			int idx = 0;
 			for (LootRecord record : records)
 			{
+				EventKey eventKey = new EventKey(record.getType(), record.getEventId());
+				killTotals.merge(eventKey, 1, Integer::sum);
+
+				// Stacks of the same item within one kill are stored as a single drop
+				Map<Integer, Integer> drops = new LinkedHashMap<>();
 				for (GameItem drop : record.getDrops())
+				{
+					drops.merge(drop.getId(), drop.getQty(), LootTrackerService::saturatedAdd);
+				}
+
+				Map<Integer, Integer> eventDrops = dropTotals.computeIfAbsent(eventKey, k -> new LinkedHashMap<>());
+				for (Map.Entry<Integer, Integer> drop : drops.entrySet())
 				{
 					insertDrop
 						.addParameter("killId", keys[idx])
-						.addParameter("itemId", drop.getId())
-						.addParameter("itemQuantity", drop.getQty())
+						.addParameter("itemId", drop.getKey())
+						.addParameter("itemQuantity", drop.getValue())
 						.addToBatch();
+
+					eventDrops.merge(drop.getKey(), drop.getValue(), LootTrackerService::saturatedAdd);
 				}
 
 				++idx;
 			}
 
 			insertDrop.executeBatch();
+
+			Query upsertKills = con.createQuery(UPSERT_KILLS_AGGREGATE);
+			for (Map.Entry<EventKey, Integer> entry : killTotals.entrySet())
+			{
+				upsertKills
+					.addParameter("accountId", accountId)
+					.addParameter("type", entry.getKey().getType())
+					.addParameter("eventId", entry.getKey().getEventId())
+					.addParameter("kills", entry.getValue())
+					.addToBatch();
+			}
+			upsertKills.executeBatch();
+
+			Query upsertDrops = con.createQuery(UPSERT_DROPS_AGGREGATE);
+			for (Map.Entry<EventKey, Map<Integer, Integer>> entry : dropTotals.entrySet())
+			{
+				for (Map.Entry<Integer, Integer> drop : entry.getValue().entrySet())
+				{
+					upsertDrops
+						.addParameter("accountId", accountId)
+						.addParameter("type", entry.getKey().getType())
+						.addParameter("eventId", entry.getKey().getEventId())
+						.addParameter("itemId", drop.getKey())
+						.addParameter("itemQuantity", drop.getValue())
+						.addToBatch();
+				}
+			}
+			upsertDrops.executeBatch();
+
 			con.commit(false);
 		}
 	}
 
-	public Collection<LootRecord> get(int accountId, int limit, int offset)
+	/**
+	 * Find the ids of the most recent kills of an account
+	 *
+	 * @param accountId runelite account id
+	 * @param limit     maximum number of kills to return
+	 * @param before    only return kills with an id lower than this, or null for the most recent kills
+	 * @return kill ids, in descending order
+	 */
+	public List<Integer> findKillIds(int accountId, int limit, Integer before)
 	{
-		List<LootResult> lootResults;
+		try (Connection con = sql2o.open())
+		{
+			Query query;
+			if (before == null)
+			{
+				query = con.createQuery(SELECT_KILL_IDS_QUERY);
+			}
+			else
+			{
+				query = con.createQuery(SELECT_KILL_IDS_BEFORE_QUERY)
+					.addParameter("before", before);
+			}
 
+			return query
+				.addParameter("accountId", accountId)
+				.addParameter("limit", limit)
+				.executeScalarList(Integer.class);
+		}
+	}
+
+	/**
+	 * Find the ids of the kills of an account, skipping a number of the most recent kills.
+	 * This supports the deprecated start parameter, as paging by kill id is cheaper.
+	 *
+	 * @param accountId runelite account id
+	 * @param limit     maximum number of kills to return
+	 * @param offset    number of the most recent kills to skip
+	 * @return kill ids, in descending order
+	 */
+	public List<Integer> findKillIdsByOffset(int accountId, int limit, int offset)
+	{
 		try (Connection con = sql2o.open())
 		{
-			lootResults = con.createQuery(SELECT_LOOT_QUERY)
+			return con.createQuery(SELECT_KILL_IDS_OFFSET_QUERY)
 				.addParameter("accountId", accountId)
 				.addParameter("limit", limit)
 				.addParameter("offset", offset)
-				.executeAndFetch(LootResult.class);
+				.executeScalarList(Integer.class);
 		}
+	}
 
-		LootResult current = null;
-		List<LootRecord> lootRecords = new ArrayList<>();
-		List<GameItem> gameItems = new ArrayList<>();
-
-		for (LootResult lootResult : lootResults)
+	/**
+	 * Stream the loot records of an account within a range of kill ids, most recent first.
+	 * Records are passed to the consumer as they are read, so the full range is never held in memory.
+	 *
+	 * @param accountId runelite account id
+	 * @param oldest    lowest kill id, inclusive
+	 * @param newest    highest kill id, inclusive
+	 * @param consumer  consumer for the loot records
+	 */
+	public void get(int accountId, int oldest, int newest, Consumer<LootRecord> consumer)
+	{
+		try (Connection con = sql2o.open();
+			ResultSetIterable<LootResult> lootResults = con.createQuery(SELECT_LOOT_QUERY)
+				.addParameter("accountId", accountId)
+				.addParameter("oldest", oldest)
+				.addParameter("newest", newest)
+				.executeAndFetchLazy(LootResult.class))
 		{
-			if (current == null || current.getKillId() != lootResult.getKillId())
+			LootResult current = null;
+			List<GameItem> gameItems = new ArrayList<>();
+
+			for (LootResult lootResult : lootResults)
 			{
-				if (!gameItems.isEmpty())
+				if (current == null || current.getKillId() != lootResult.getKillId())
 				{
-					LootRecord lootRecord = new LootRecord(current.getEventId(), current.getType(), gameItems, current.getTime());
-					lootRecords.add(lootRecord);
+					if (!gameItems.isEmpty())
+					{
+						consumer.accept(new LootRecord(current.getEventId(), current.getType(), gameItems, current.getTime()));
+						gameItems = new ArrayList<>();
+					}
 
-					gameItems = new ArrayList<>();
+					current = lootResult;
 				}
 
-				current = lootResult;
+				GameItem gameItem = new GameItem(lootResult.getItemId(), lootResult.getItemQuantity());
+				gameItems.add(gameItem);
 			}
 
-			GameItem gameItem = new GameItem(lootResult.getItemId(), lootResult.getItemQuantity());
-			gameItems.add(gameItem);
+			if (!gameItems.isEmpty())
+			{
+				consumer.accept(new LootRecord(current.getEventId(), current.getType(), gameItems, current.getTime()));
+			}
 		}
+	}
 
-		if (!gameItems.isEmpty())
+	/**
+	 * Get the running kill and drop totals of each event of an account
+	 *
+	 * @param accountId runelite account id
+	 * @return loot aggregates
+	 */
+	public Collection<LootAggregate> getAggregate(int accountId)
+	{
+		Map<EventKey, LootAggregate> aggregates = new LinkedHashMap<>();
+
+		try (Connection con = sql2o.open())
 		{
-			LootRecord lootRecord = new LootRecord(current.getEventId(), current.getType(), gameItems, current.getTime());
-			lootRecords.add(lootRecord);
+			List<LootAggregateResult> kills = con.createQuery(SELECT_KILLS_AGGREGATE_QUERY)
+				.addParameter("accountId", accountId)
+				.executeAndFetch(LootAggregateResult.class);
+
+			for (LootAggregateResult result : kills)
+			{
+				EventKey eventKey = new EventKey(result.getType(), result.getEventId());
+				aggregates.put(eventKey, new LootAggregate(result.getEventId(), result.getType(), result.getKills(), new ArrayList<>()));
+			}
+
+			List<LootAggregateResult> drops = con.createQuery(SELECT_DROPS_AGGREGATE_QUERY)
+				.addParameter("accountId", accountId)
+				.executeAndFetch(LootAggregateResult.class);
+
+			for (LootAggregateResult result : drops)
+			{
+				LootAggregate aggregate = aggregates.get(new EventKey(result.getType(), result.getEventId()));
+				if (aggregate != null)
+				{
+					aggregate.getDrops().add(new GameItem(result.getItemId(), result.getItemQuantity()));
+				}
+			}
 		}
 
-		return lootRecords;
+		return aggregates.values();
 	}
 
 	public void delete(int accountId, String eventId)
 	{
-		try (Connection con = sql2o.open())
+		try (Connection con = sql2o.beginTransaction())
 		{
 			if (eventId == null)
 			{
 				con.createQuery(DELETE_LOOT_ACCOUNT)
 					.addParameter("accountId", accountId)
 					.executeUpdate();
+				con.createQuery(DELETE_KILLS_AGGREGATE_ACCOUNT)
+					.addParameter("accountId", accountId)
+					.executeUpdate();
+				con.createQuery(DELETE_DROPS_AGGREGATE_ACCOUNT)
+					.addParameter("accountId", accountId)
+					.executeUpdate();
 			}
 			else
 			{
@@ -200,17 +494,44 @@ public class LootTrackerService
 					.addParameter("accountId", accountId)
 					.addParameter("eventId", eventId)
 					.executeUpdate();
+				con.createQuery(DELETE_KILLS_AGGREGATE_ACCOUNT_EVENTID)
+					.addParameter("accountId", accountId)
+					.addParameter("eventId", eventId)
+					.executeUpdate();
+				con.createQuery(DELETE_DROPS_AGGREGATE_ACCOUNT_EVENTID)
+					.addParameter("accountId", accountId)
+					.addParameter("eventId", eventId)
+					.executeUpdate();
 			}
+
+			con.commit(false);
 		}
 	}
 
 	@Scheduled(fixedDelay = 15 * 60 * 1000)
 	public void expire()
 	{
-		try (Connection con = sql2o.open())
+		try (Connection con = sql2o.beginTransaction())
 		{
-			con.createQuery("delete from kills where time < current_timestamp() - interval 30 day")
-				.executeUpdate();
+			// Fix the cutoff so the aggregates are reduced by exactly the kills deleted
+			Timestamp cutoff = con.createQuery(SELECT_EXPIRY_CUTOFF)
+				.executeScalar(Timestamp.class);
+
+			for (String query : new String[]{EXPIRE_KILLS_AGGREGATE, EXPIRE_DROPS_AGGREGATE,
+				DELETE_EXPIRED_KILLS_AGGREGATE, DELETE_EXPIRED_DROPS_AGGREGATE, DELETE_EXPIRED_KILLS})
+			{
+				con.createQuery(query)
+					.addParameter("cutoff", cutoff)
+					.executeUpdate();
+			}
+
+			con.commit(false);
 		}
 	}
+
+	private static int saturatedAdd(int a, int b)
+	{
+		long sum = (long) a + b;
+		return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+	}
 }
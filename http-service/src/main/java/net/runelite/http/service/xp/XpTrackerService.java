@@ -66,6 +66,12 @@ public class XpTrackerService
 	public void update(String username) throws ExecutionException
 	{
 		HiscoreResult hiscoreResult = hiscoreService.lookupUsername(username, HiscoreEndpoint.NORMAL);
+		if (hiscoreResult == null)
+		{
+			log.debug("User {} is not on the hiscores", username);
+			return;
+		}
+
 		update(username, hiscoreResult);
 	}
 
@@ -24,12 +24,12 @@
  */
 package net.runelite.http.service.xtea;
 
-import java.util.List;
-import java.util.stream.Collectors;
 import net.runelite.http.api.xtea.XteaKey;
 import net.runelite.http.api.xtea.XteaRequest;
 import net.runelite.http.service.util.exception.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -51,11 +51,11 @@ public class XteaController
 	}
 
 	@GetMapping
-	public List<XteaKey> get()
+	public ResponseEntity<byte[]> get()
 	{
-		return xteaService.get().stream()
-			.map(XteaController::entryToKey)
-			.collect(Collectors.toList());
+		return ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_JSON)
+			.body(xteaService.getSerializedKeys());
 	}
 
 	@GetMapping("/{region}")
@@ -67,20 +67,6 @@ public class XteaController
 			throw new NotFoundException();
 		}
 
-		return entryToKey(xteaRegion);
-	}
-
-	private static XteaKey entryToKey(XteaEntry xe)
-	{
-		XteaKey xteaKey = new XteaKey();
-		xteaKey.setRegion(xe.getRegion());
-		xteaKey.setKeys(new int[]
-		{
-			xe.getKey1(),
-			xe.getKey2(),
-			xe.getKey3(),
-			xe.getKey4()
-		});
-		return xteaKey;
+		return xteaRegion.toXteaKey();
 	}
 }
@@ -25,6 +25,7 @@
 package net.runelite.http.service.xtea;
 
 import java.time.Instant;
+import net.runelite.http.api.xtea.XteaKey;
 
 public class XteaEntry
 {
@@ -106,4 +107,17 @@ public class XteaEntry
 		this.key4 = key4;
 	}
 
+	public XteaKey toXteaKey()
+	{
+		XteaKey xteaKey = new XteaKey();
+		xteaKey.setRegion(region);
+		xteaKey.setKeys(new int[]
+		{
+			key1,
+			key2,
+			key3,
+			key4
+		});
+		return xteaKey;
+	}
 }
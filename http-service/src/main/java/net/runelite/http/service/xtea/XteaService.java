@@ -24,18 +24,27 @@
  */
 package net.runelite.http.service.xtea;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.util.Djb2;
+import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.xtea.XteaKey;
 import net.runelite.http.api.xtea.XteaRequest;
 import net.runelite.http.service.cache.CacheService;
 import net.runelite.http.service.cache.beans.ArchiveEntry;
 import net.runelite.http.service.cache.beans.CacheEntry;
+import net.runelite.http.service.cache.beans.IndexEntry;
 import net.runelite.http.service.util.exception.InternalServerErrorException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -45,6 +54,7 @@ import org.sql2o.Query;
 import org.sql2o.Sql2o;
 
 @Service
+@Slf4j
 public class XteaService
 {
 	private static final String CREATE_SQL = "CREATE TABLE IF NOT EXISTS `xtea` (\n"
@@ -60,12 +70,51 @@ public class XteaService
 		+ "  KEY `region` (`region`,`time`)\n"
 		+ ") ENGINE=InnoDB";
 
+	/**
+	 * Map archives of a single cache, keyed by archive name hash
+	 */
+	private static class MapArchives
+	{
+		final int cacheId;
+		final Map<Integer, ArchiveEntry> archives;
+
+		MapArchives(int cacheId, Map<Integer, ArchiveEntry> archives)
+		{
+			this.cacheId = cacheId;
+			this.archives = archives;
+		}
+	}
+
+	/**
+	 * The latest keys as json, and the version of the keys it was built from
+	 */
+	private static class SerializedKeys
+	{
+		final long version;
+		final byte[] json;
+
+		SerializedKeys(long version, byte[] json)
+		{
+			this.version = version;
+			this.json = json;
+		}
+	}
+
 	private final Sql2o sql2o;
 	private final CacheService cacheService;
 
-	private final Cache<Integer, XteaCache> keyCache = CacheBuilder.newBuilder()
-		.maximumSize(1024)
-		.build();
+	/**
+	 * Latest known keys for each region, kept in sync with the xtea table
+	 */
+	private final ConcurrentMap<Integer, XteaEntry> latestKeys = new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented after new keys are put in latestKeys
+	 */
+	private final AtomicLong keysVersion = new AtomicLong();
+
+	private volatile MapArchives mapArchives;
+	private volatile SerializedKeys serializedKeys;
 
 	@Autowired
 	public XteaService(
@@ -81,128 +130,195 @@ public class XteaService
 			con.createQuery(CREATE_SQL)
 				.executeUpdate();
 		}
+
+		loadLatestKeys();
 	}
 
-	private XteaEntry findLatestXtea(Connection con, int region)
+	private void loadLatestKeys()
 	{
-		return con.createQuery("select region, time, key1, key2, key3, key4 from xtea "
-			+ "where region = :region "
-			+ "order by time desc "
-			+ "limit 1")
-			.addParameter("region", region)
-			.executeAndFetchFirst(XteaEntry.class);
+		try (Connection con = sql2o.open())
+		{
+			List<XteaEntry> entries = con.createQuery(
+				"select t1.region, t2.time, t2.rev, t2.key1, t2.key2, t2.key3, t2.key4 from " +
+					"(select region,max(id) as id from xtea group by region) t1 " +
+					"join xtea t2 on t1.id = t2.id")
+				.executeAndFetch(XteaEntry.class);
+
+			for (XteaEntry entry : entries)
+			{
+				latestKeys.put(entry.getRegion(), entry);
+			}
+
+			log.debug("Loaded {} region keys", entries.size());
+		}
 	}
 
 	public void submit(XteaRequest xteaRequest)
 	{
-		boolean cached = true;
+		List<XteaKey> newKeys = null;
 		for (XteaKey key : xteaRequest.getKeys())
 		{
-			int region = key.getRegion();
 			int[] keys = key.getKeys();
 
-			XteaCache xteaCache = keyCache.getIfPresent(region);
-			if (xteaCache == null
-				|| xteaCache.getKey1() != keys[0]
-				|| xteaCache.getKey2() != keys[1]
-				|| xteaCache.getKey3() != keys[2]
-				|| xteaCache.getKey4() != keys[3])
+			if (keys.length != 4)
+			{
+				throw new IllegalArgumentException("Key length must be 4");
+			}
+
+			// already have these?
+			if (matches(latestKeys.get(key.getRegion()), keys))
+			{
+				continue;
+			}
+
+			if (newKeys == null)
 			{
-				cached = false;
-				keyCache.put(region, new XteaCache(region, keys[0], keys[1], keys[2], keys[3]));
+				newKeys = new ArrayList<>();
 			}
+			newKeys.add(key);
 		}
 
-		if (cached)
+		if (newKeys == null)
 		{
 			return;
 		}
 
-		try (Connection con = sql2o.beginTransaction())
+		CacheEntry cache = cacheService.findMostRecent();
+
+		if (cache == null)
+		{
+			throw new InternalServerErrorException("No most recent cache");
+		}
+
+		MapArchives archives = getMapArchives(cache);
+		List<XteaEntry> inserted = new ArrayList<>(newKeys.size());
+
+		for (XteaKey key : newKeys)
 		{
-			CacheEntry cache = cacheService.findMostRecent();
+			int region = key.getRegion();
+			int[] keys = key.getKeys();
 
-			if (cache == null)
+			if (!checkKeys(archives, region, keys))
 			{
-				throw new InternalServerErrorException("No most recent cache");
+				continue;
 			}
 
-			Query query = null;
+			XteaEntry entry = new XteaEntry();
+			entry.setRegion(region);
+			entry.setTime(Instant.now());
+			entry.setRev(xteaRequest.getRevision());
+			entry.setKey1(keys[0]);
+			entry.setKey2(keys[1]);
+			entry.setKey3(keys[2]);
+			entry.setKey4(keys[3]);
+			inserted.add(entry);
+		}
+
+		if (inserted.isEmpty())
+		{
+			return;
+		}
 
-			for (XteaKey key : xteaRequest.getKeys())
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query query = con.createQuery("insert into xtea (region, rev, key1, key2, key3, key4) "
+				+ "values (:region, :rev, :key1, :key2, :key3, :key4)");
+
+			for (XteaEntry entry : inserted)
 			{
-				int region = key.getRegion();
-				int[] keys = key.getKeys();
-
-				XteaEntry xteaEntry = findLatestXtea(con, region);
-
-				if (keys.length != 4)
-				{
-					throw new IllegalArgumentException("Key length must be 4");
-				}
-
-				// already have these?
-				if (xteaEntry != null
-					&& xteaEntry.getKey1() == keys[0]
-					&& xteaEntry.getKey2() == keys[1]
-					&& xteaEntry.getKey3() == keys[2]
-					&& xteaEntry.getKey4() == keys[3])
-				{
-					continue;
-				}
-
-				if (!checkKeys(cache, region, keys))
-				{
-					continue;
-				}
-
-				if (query == null)
-				{
-					query = con.createQuery("insert into xtea (region, rev, key1, key2, key3, key4) "
-						+ "values (:region, :rev, :key1, :key2, :key3, :key4)");
-				}
-
-				query.addParameter("region", region)
-					.addParameter("rev", xteaRequest.getRevision())
-					.addParameter("key1", keys[0])
-					.addParameter("key2", keys[1])
-					.addParameter("key3", keys[2])
-					.addParameter("key4", keys[3])
+				query.addParameter("region", entry.getRegion())
+					.addParameter("rev", entry.getRev())
+					.addParameter("key1", entry.getKey1())
+					.addParameter("key2", entry.getKey2())
+					.addParameter("key3", entry.getKey3())
+					.addParameter("key4", entry.getKey4())
 					.addToBatch();
 			}
 
-			if (query != null)
-			{
-				query.executeBatch();
-				con.commit(false);
-			}
+			query.executeBatch();
+			con.commit(false);
 		}
+
+		for (XteaEntry entry : inserted)
+		{
+			latestKeys.put(entry.getRegion(), entry);
+		}
+
+		keysVersion.incrementAndGet();
 	}
 
 	public List<XteaEntry> get()
 	{
-		try (Connection con = sql2o.open())
+		return new ArrayList<>(latestKeys.values());
+	}
+
+	/**
+	 * Get the latest keys for all regions as json. The result is memoized
+	 * until new keys are submitted.
+	 *
+	 * @return
+	 */
+	public byte[] getSerializedKeys()
+	{
+		// read the version first, so json built while keys are being submitted is
+		// recorded against the older version and rebuilt on the next call
+		long version = keysVersion.get();
+
+		SerializedKeys serialized = serializedKeys;
+		if (serialized == null || serialized.version != version)
 		{
-			return con.createQuery(
-				"select t1.region, t2.time, t2.rev, t2.key1, t2.key2, t2.key3, t2.key4 from " +
-					"(select region,max(id) as id from xtea group by region) t1 " +
-					"join xtea t2 on t1.id = t2.id")
-				.executeAndFetch(XteaEntry.class);
+			List<XteaKey> keys = new ArrayList<>(latestKeys.size());
+			for (XteaEntry entry : latestKeys.values())
+			{
+				keys.add(entry.toXteaKey());
+			}
+
+			serialized = new SerializedKeys(version, RuneLiteAPI.GSON.toJson(keys).getBytes(StandardCharsets.UTF_8));
+			serializedKeys = serialized;
 		}
+		return serialized.json;
 	}
 
 	public XteaEntry getRegion(int region)
 	{
-		try (Connection con = sql2o.open())
+		return latestKeys.get(region);
+	}
+
+	private static boolean matches(XteaEntry xteaEntry, int[] keys)
+	{
+		return xteaEntry != null
+			&& xteaEntry.getKey1() == keys[0]
+			&& xteaEntry.getKey2() == keys[1]
+			&& xteaEntry.getKey3() == keys[2]
+			&& xteaEntry.getKey4() == keys[3];
+	}
+
+	private MapArchives getMapArchives(CacheEntry cache)
+	{
+		MapArchives archives = mapArchives;
+		if (archives != null && archives.cacheId == cache.getId())
+		{
+			return archives;
+		}
+
+		IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.MAPS.getNumber());
+		if (indexEntry == null)
 		{
-			return con.createQuery("select region, time, rev, key1, key2, key3, key4 from xtea "
-				+ "where region = :region order by time desc limit 1")
-				.addParameter("region", region)
-				.executeAndFetchFirst(XteaEntry.class);
+			throw new InternalServerErrorException("Unable to find maps index");
 		}
+
+		Map<Integer, ArchiveEntry> byName = new HashMap<>();
+		for (ArchiveEntry archiveEntry : cacheService.findArchivesForIndex(indexEntry))
+		{
+			byName.put(archiveEntry.getNameHash(), archiveEntry);
+		}
+
+		archives = new MapArchives(cache.getId(), byName);
+		mapArchives = archives;
+		return archives;
 	}
 
-	private boolean checkKeys(CacheEntry cache, int regionId, int[] keys)
+	private boolean checkKeys(MapArchives archives, int regionId, int[] keys)
 	{
 		int x = regionId >>> 8;
 		int y = regionId & 0xFF;
@@ -215,7 +331,7 @@ public class XteaService
 			.toString();
 		int archiveNameHash = Djb2.hash(archiveName);
 
-		ArchiveEntry archiveEntry = cacheService.findArchiveForTypeAndName(cache, IndexType.MAPS, archiveNameHash);
+		ArchiveEntry archiveEntry = archives.archives.get(archiveNameHash);
 		if (archiveEntry == null)
 		{
 			throw new InternalServerErrorException("Unable to find archive for region");
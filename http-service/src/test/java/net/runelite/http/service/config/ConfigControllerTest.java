@@ -25,8 +25,12 @@
 package net.runelite.http.service.config;
 
 import java.io.IOException;
+import java.util.Collections;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.config.ConfigEntry;
+import net.runelite.http.api.config.Configuration;
 import net.runelite.http.service.account.AuthFilter;
 import net.runelite.http.service.account.beans.SessionEntry;
 import org.junit.Before;
@@ -46,6 +50,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -70,6 +75,7 @@ public class ConfigControllerTest
 			.thenReturn(mock(SessionEntry.class));
 
 		when(configService.setKey(anyInt(), anyString(), anyString())).thenReturn(true);
+		when(configService.patch(anyInt(), any(Configuration.class))).thenReturn(Collections.emptyList());
 	}
 
 	@Test
@@ -82,4 +88,20 @@ public class ConfigControllerTest
 
 		verify(configService).setKey(anyInt(), eq("key"), eq("value"));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testPatch() throws Exception
+	{
+		ConfigEntry entry = new ConfigEntry();
+		entry.setKey("group.key");
+		entry.setValue("value");
+		Configuration configuration = new Configuration(Collections.singletonList(entry));
+
+		mockMvc.perform(patch("/config")
+			.content(RuneLiteAPI.GSON.toJson(configuration))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+
+		verify(configService).patch(anyInt(), any(Configuration.class));
+	}
+}
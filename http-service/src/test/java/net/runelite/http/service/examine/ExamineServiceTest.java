@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.examine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import static net.runelite.http.service.examine.ExamineType.ITEM;
+import static net.runelite.http.service.examine.ExamineType.NPC;
+import static net.runelite.http.service.examine.ExamineType.OBJECT;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Test;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+
+@Slf4j
+public class ExamineServiceTest
+{
+	// The examine table without the MySQL only column types, which the service is told not to create
+	private static final String CREATE_EXAMINE = "CREATE TABLE examine (\n"
+		+ "  type VARCHAR(6) NOT NULL,\n"
+		+ "  id INT NOT NULL,\n"
+		+ "  time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,\n"
+		+ "  count INT NOT NULL,\n"
+		+ "  text VARCHAR(255) NOT NULL,\n"
+		+ "  UNIQUE (type, id, text)\n"
+		+ ")";
+
+	private Sql2o sql2o;
+	private Connection keepAlive;
+	private ExamineService examineService;
+
+	@Before
+	public void before()
+	{
+		sql2o = new Sql2o("jdbc:h2:mem:examine;MODE=MySQL", "sa", "");
+		// the in memory database is dropped when its last connection closes
+		keepAlive = sql2o.open();
+		keepAlive.createQuery(CREATE_EXAMINE).executeUpdate();
+
+		examineService = new ExamineService(sql2o, false);
+	}
+
+	@After
+	public void after()
+	{
+		examineService.shutdown();
+		keepAlive.close();
+	}
+
+	@Test
+	public void testWriteBehind()
+	{
+		assertNull(examineService.get(NPC, 1));
+
+		examineService.insert(NPC, 1, "A man.");
+		examineService.insert(NPC, 1, "A man.");
+		examineService.insert(NPC, 1, "A woman.");
+
+		// votes are not stored until flushed
+		assertEquals(0, countRows());
+		assertNull(examineService.get(NPC, 1));
+
+		examineService.flush();
+		assertEquals(2, countRows());
+		assertEquals(2, storedCount(NPC, 1, "A man."));
+		assertEquals("A man.", examineService.get(NPC, 1));
+
+		// the cached winner is updated from the flushed counts, not reloaded
+		examineService.insert(NPC, 1, "A woman.");
+		examineService.insert(NPC, 1, "A woman.");
+		examineService.flush();
+		assertEquals(3, storedCount(NPC, 1, "A woman."));
+
+		keepAlive.createQuery("delete from examine").executeUpdate();
+		assertEquals("A woman.", examineService.get(NPC, 1));
+	}
+
+	@Test
+	public void testFlushWhenFull() throws InterruptedException
+	{
+		for (int id = 0; id < ExamineService.MAX_PENDING_VOTES; id++)
+		{
+			examineService.insert(ITEM, id, "An item.");
+		}
+
+		// the flush runs in the background, so wait for it
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (countRows() < ExamineService.MAX_PENDING_VOTES && System.nanoTime() < deadline)
+		{
+			Thread.sleep(10);
+		}
+		assertEquals(ExamineService.MAX_PENDING_VOTES, countRows());
+		assertEquals("An item.", examineService.get(ITEM, 0));
+	}
+
+	@Test
+	public void testShutdownFlushes()
+	{
+		examineService.insert(OBJECT, 1, "A rock.");
+		examineService.shutdown();
+		assertEquals(1, storedCount(OBJECT, 1, "A rock."));
+	}
+
+	@Test
+	public void testSyntheticTraffic() throws Exception
+	{
+		final int threads = 8;
+		final int requestsPerThread = 25_000;
+		final int ids = 200;
+		final ExamineType[] types = {OBJECT, NPC, ITEM};
+
+		// each id has a few competing texts, with the first one submitted most often
+		Map<String, AtomicInteger> submitted = new HashMap<>();
+		for (ExamineType type : types)
+		{
+			for (int id = 0; id < ids; id++)
+			{
+				for (int text = 0; text < 3; text++)
+				{
+					submitted.put(type + ":" + id + ":" + text, new AtomicInteger());
+				}
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			long start = System.nanoTime();
+
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++)
+			{
+				final long seed = t;
+				futures.add(executor.submit(() ->
+				{
+					Random random = new Random(seed);
+					for (int i = 0; i < requestsPerThread; i++)
+					{
+						ExamineType type = types[random.nextInt(types.length)];
+						int id = random.nextInt(ids);
+
+						if (random.nextInt(4) == 0)
+						{
+							int text = Math.min(random.nextInt(6), 2) == 2 ? random.nextInt(3) : 0;
+							examineService.insert(type, id, text(id, text));
+							submitted.get(type + ":" + id + ":" + text).incrementAndGet();
+						}
+						else
+						{
+							examineService.get(type, id);
+						}
+
+						if (seed == 0 && i % 2500 == 0)
+						{
+							examineService.flush();
+						}
+					}
+				}));
+			}
+
+			for (Future<?> future : futures)
+			{
+				future.get();
+			}
+			examineService.flush();
+
+			long elapsed = System.nanoTime() - start;
+			log.info("{} requests in {} ms", threads * requestsPerThread, TimeUnit.NANOSECONDS.toMillis(elapsed));
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		ExamineService reloaded = new ExamineService(sql2o, false);
+		for (ExamineType type : types)
+		{
+			for (int id = 0; id < ids; id++)
+			{
+				int best = -1;
+				int bestCount = 0;
+				boolean tied = false;
+				for (int text = 0; text < 3; text++)
+				{
+					int count = submitted.get(type + ":" + id + ":" + text).get();
+					assertEquals(count, storedCount(type, id, text(id, text)));
+
+					if (count > bestCount)
+					{
+						bestCount = count;
+						best = text;
+						tied = false;
+					}
+					else if (count == bestCount)
+					{
+						tied = true;
+					}
+				}
+
+				if (best != -1 && !tied)
+				{
+					assertEquals(text(id, best), examineService.get(type, id));
+					assertEquals(text(id, best), reloaded.get(type, id));
+				}
+			}
+		}
+	}
+
+	private static String text(int id, int text)
+	{
+		return "Examine " + text + " of " + id + ".";
+	}
+
+	private int countRows()
+	{
+		return keepAlive.createQuery("select count(*) from examine").executeScalar(Integer.class);
+	}
+
+	private int storedCount(ExamineType type, int id, String text)
+	{
+		Integer count = keepAlive.createQuery("select count from examine where type = :type and id = :id and text = :text")
+			.addParameter("type", type.toString())
+			.addParameter("id", id)
+			.addParameter("text", text)
+			.executeScalar(Integer.class);
+		return count != null ? count : 0;
+	}
+}
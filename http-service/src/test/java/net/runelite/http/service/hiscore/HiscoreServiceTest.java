@@ -24,11 +24,25 @@
  */
 package net.runelite.http.service.hiscore;
 
+import com.google.common.base.Ticker;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
+import static net.runelite.http.api.hiscore.HiscoreEndpoint.NORMAL;
 import net.runelite.http.api.hiscore.HiscoreResult;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -73,6 +87,16 @@ public class HiscoreServiceTest
 
 	private final MockWebServer server = new MockWebServer();
 
+	private final AtomicLong nanos = new AtomicLong();
+	private final Ticker ticker = new Ticker()
+	{
+		@Override
+		public long read()
+		{
+			return nanos.get();
+		}
+	};
+
 	@Before
 	public void before() throws IOException
 	{
@@ -107,4 +131,179 @@ public class HiscoreServiceTest
 		Assert.assertEquals(-1, result.getLastManStanding().getLevel());
 	}
 
+	@Test
+	public void testCachedLookup() throws Exception
+	{
+		HiscoreTestService hiscores = new HiscoreTestService(server.url("/"), ticker);
+
+		HiscoreResult first = hiscores.lookupUsername("zezima", NORMAL);
+		HiscoreResult second = hiscores.lookupUsername("zezima", NORMAL);
+
+		Assert.assertSame(first, second);
+		Assert.assertEquals(1, server.getRequestCount());
+
+		HiscoreCacheStats stats = hiscores.getStats();
+		Assert.assertEquals(2, stats.getRequests());
+		Assert.assertEquals(1, stats.getHits());
+		Assert.assertEquals(1, stats.getMisses());
+	}
+
+	@Test
+	public void testStaleWhileRevalidate() throws Exception
+	{
+		HiscoreTestService hiscores = new HiscoreTestService(server.url("/"), ticker);
+		Assert.assertEquals(50, hiscores.lookupUsername("zezima", NORMAL).getAttack().getLevel());
+
+		server.enqueue(new MockResponse()
+			.setBody(RESPONSE.replace("679419,50,107181", "679419,51,111945"))
+			.setBodyDelay(200, TimeUnit.MILLISECONDS));
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+		// the stale result is served without waiting on the refresh
+		Assert.assertEquals(50, hiscores.lookupUsername("zezima", NORMAL).getAttack().getLevel());
+
+		awaitTrue(() -> lookupAttack(hiscores) == 51);
+
+		Assert.assertEquals(2, server.getRequestCount());
+		HiscoreCacheStats stats = hiscores.getStats();
+		Assert.assertEquals(1, stats.getMisses());
+		Assert.assertEquals(1, stats.getRefreshes());
+	}
+
+	@Test
+	public void testSingleFlight() throws Exception
+	{
+		server.setDispatcher(new Dispatcher()
+		{
+			@Override
+			public MockResponse dispatch(RecordedRequest request) throws InterruptedException
+			{
+				Thread.sleep(200);
+				return new MockResponse().setBody(RESPONSE);
+			}
+		});
+
+		HiscoreTestService hiscores = new HiscoreTestService(server.url("/"), ticker);
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<HiscoreResult>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++)
+			{
+				futures.add(executor.submit(() ->
+				{
+					start.await();
+					return hiscores.lookupUsername("zezima", NORMAL);
+				}));
+			}
+			start.countDown();
+
+			for (Future<HiscoreResult> future : futures)
+			{
+				Assert.assertEquals(50, future.get().getAttack().getLevel());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		Assert.assertEquals(1, server.getRequestCount());
+		Assert.assertEquals(1, hiscores.getStats().getMisses());
+	}
+
+	@Test
+	public void testNotFound() throws Exception
+	{
+		server.setDispatcher(new Dispatcher()
+		{
+			@Override
+			public MockResponse dispatch(RecordedRequest request)
+			{
+				return new MockResponse().setResponseCode(404);
+			}
+		});
+
+		HiscoreTestService hiscores = new HiscoreTestService(server.url("/"), ticker);
+		Assert.assertNull(hiscores.lookupUsername("nobody", NORMAL));
+		Assert.assertNull(hiscores.lookupUsername("nobody", NORMAL));
+		Assert.assertEquals(1, server.getRequestCount());
+
+		// unknown players are not looked up again as often as results are refreshed
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+		Assert.assertNull(hiscores.lookupUsername("nobody", NORMAL));
+		Assert.assertEquals(1, server.getRequestCount());
+
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(10));
+		Assert.assertNull(hiscores.lookupUsername("nobody", NORMAL));
+		awaitTrue(() -> server.getRequestCount() == 2);
+		awaitTrue(() -> hiscores.getStats().getNotFound() == 2);
+	}
+
+	@Test
+	public void testLookupsThrottled() throws Exception
+	{
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		server.setDispatcher(new Dispatcher()
+		{
+			@Override
+			public MockResponse dispatch(RecordedRequest request) throws InterruptedException
+			{
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				Thread.sleep(50);
+				inFlight.decrementAndGet();
+				return new MockResponse().setBody(RESPONSE);
+			}
+		});
+
+		HiscoreTestService hiscores = new HiscoreTestService(server.url("/"), ticker);
+		int players = HiscoreService.MAX_CONCURRENT_LOOKUPS * 4;
+		ExecutorService executor = Executors.newFixedThreadPool(players);
+		try
+		{
+			List<Future<HiscoreResult>> futures = new ArrayList<>();
+			for (int i = 0; i < players; i++)
+			{
+				String username = "player" + i;
+				futures.add(executor.submit(() -> hiscores.lookupUsername(username, NORMAL)));
+			}
+
+			for (Future<HiscoreResult> future : futures)
+			{
+				Assert.assertNotNull(future.get());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		Assert.assertEquals(players, server.getRequestCount());
+		Assert.assertTrue(maxInFlight.get() <= HiscoreService.MAX_CONCURRENT_LOOKUPS);
+	}
+
+	private static int lookupAttack(HiscoreService hiscores)
+	{
+		try
+		{
+			return hiscores.lookupUsername("zezima", NORMAL).getAttack().getLevel();
+		}
+		catch (Exception ex)
+		{
+			throw new AssertionError(ex);
+		}
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException
+	{
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean())
+		{
+			Assert.assertTrue("timed out", System.nanoTime() < deadline);
+			Thread.sleep(10);
+		}
+	}
 }
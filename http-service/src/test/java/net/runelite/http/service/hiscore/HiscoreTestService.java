@@ -25,6 +25,7 @@
  */
 package net.runelite.http.service.hiscore;
 
+import com.google.common.base.Ticker;
 import java.io.IOException;
 import net.runelite.http.api.hiscore.HiscoreResult;
 import okhttp3.HttpUrl;
@@ -38,6 +39,12 @@ class HiscoreTestService extends HiscoreService
 		this.testUrl = testUrl;
 	}
 
+	HiscoreTestService(HttpUrl testUrl, Ticker ticker)
+	{
+		super(ticker);
+		this.testUrl = testUrl;
+	}
+
 	@Override
 	public HiscoreResult lookupUsername(String username, HttpUrl endpoint) throws IOException
 	{
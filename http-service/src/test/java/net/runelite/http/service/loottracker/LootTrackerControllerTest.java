@@ -26,7 +26,9 @@ package net.runelite.http.service.loottracker;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.function.Consumer;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import net.runelite.http.api.RuneLiteAPI;
@@ -41,6 +43,7 @@ import org.junit.runner.RunWith;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -51,7 +54,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -89,4 +95,37 @@ public class LootTrackerControllerTest
 
 		verify(lootTrackerService).store(eq(Collections.singletonList(lootRecord)), anyInt());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void getLootRecords() throws Exception
+	{
+		when(lootTrackerService.findKillIds(anyInt(), eq(2), eq(100)))
+			.thenReturn(Arrays.asList(99, 97));
+
+		LootRecord lootRecord = new LootRecord("Goblin", LootRecordType.NPC, Collections.singletonList(new GameItem(995, 5)), null);
+		doAnswer(invocation ->
+		{
+			Consumer<LootRecord> consumer = invocation.getArgumentAt(3, Consumer.class);
+			consumer.accept(lootRecord);
+			return null;
+		}).when(lootTrackerService).get(anyInt(), eq(97), eq(99), any(Consumer.class));
+
+		mockMvc.perform(get("/loottracker").param("count", "2").param("before", "100"))
+			.andExpect(status().isOk())
+			.andExpect(header().string("RuneLite-Loot-Next", "97"))
+			.andExpect(content().json(RuneLiteAPI.GSON.toJson(Collections.singletonList(lootRecord))));
+	}
+
+	@Test
+	public void getLootRecordsWithStart() throws Exception
+	{
+		when(lootTrackerService.findKillIdsByOffset(anyInt(), eq(2), eq(4)))
+			.thenReturn(Arrays.asList(90, 88));
+
+		mockMvc.perform(get("/loottracker").param("count", "2").param("start", "4"))
+			.andExpect(status().isOk())
+			.andExpect(header().string("RuneLite-Loot-Next", "88"));
+
+		verify(lootTrackerService).get(anyInt(), eq(88), eq(90), any(Consumer.class));
+	}
+}
@@ -60,6 +60,12 @@ public class Perspective
 	public static final int[] SINE = new int[2048]; // sine angles for each of the 2048 units, * 65536 and stored as an int
 	public static final int[] COSINE = new int[2048]; // cosine
 
+	/**
+	 * Projection buffers reused by each thread, so that clickboxes can be
+	 * computed for many models a frame without allocating
+	 */
+	private static final ThreadLocal<ProjectionScratch> SCRATCH = ThreadLocal.withInitial(ProjectionScratch::new);
+
 	static
 	{
 		for (int i = 0; i < 2048; ++i)
@@ -631,31 +637,32 @@ public class Perspective
 		y1 -= ey;
 		z1 -= ez;
 
-		int[] xa = new int[]{
-			x1, x2, x1, x2,
-			x1, x2, x1, x2
-		};
-		int[] ya = new int[]{
-			y1, y1, y2, y2,
-			y1, y1, y2, y2
-		};
-		int[] za = new int[]{
-			z1, z1, z1, z1,
-			z2, z2, z2, z2
-		};
+		ProjectionScratch scratch = SCRATCH.get();
+		int[] xa = scratch.boxX;
+		int[] ya = scratch.boxY;
+		int[] za = scratch.boxZ;
+
+		for (int i = 0; i < 8; i++)
+		{
+			xa[i] = (i & 1) == 0 ? x1 : x2;
+			ya[i] = (i & 2) == 0 ? y1 : y2;
+			za[i] = (i & 4) == 0 ? z1 : z2;
+		}
 
-		int[] x2d = new int[8];
-		int[] y2d = new int[8];
+		int[] x2d = scratch.boxX2d;
+		int[] y2d = scratch.boxY2d;
 
 		modelToCanvas(client, 8, x, y, z, jauOrient, xa, ya, za, x2d, y2d);
 
-		return Jarvis.convexHull(x2d, y2d);
+		return Jarvis.convexHull(x2d, y2d, 8);
 	}
 
 	private static Shapes<SimplePolygon> calculate2DBounds(Client client, Model m, int jauOrient, int x, int y, int z)
 	{
-		int[] x2d = new int[m.getVerticesCount()];
-		int[] y2d = new int[m.getVerticesCount()];
+		ProjectionScratch scratch = SCRATCH.get();
+		scratch.ensureCapacity(m.getVerticesCount());
+		int[] x2d = scratch.x2d;
+		int[] y2d = scratch.y2d;
 
 		Perspective.modelToCanvas(client,
 			m.getVerticesCount(),
@@ -766,4 +773,24 @@ public class Perspective
 		return new Point(xOffset, yOffset);
 	}
 
+	private static final class ProjectionScratch
+	{
+		private final int[] boxX = new int[8];
+		private final int[] boxY = new int[8];
+		private final int[] boxZ = new int[8];
+		private final int[] boxX2d = new int[8];
+		private final int[] boxY2d = new int[8];
+
+		private int[] x2d = new int[0];
+		private int[] y2d = new int[0];
+
+		void ensureCapacity(int count)
+		{
+			if (x2d.length < count)
+			{
+				x2d = new int[count];
+				y2d = new int[count];
+			}
+		}
+	}
 }
@@ -78,8 +78,22 @@ public class Jarvis
 	 */
 	public static SimplePolygon convexHull(int[] xs, int[] ys)
 	{
-		int length = xs.length;
+		return convexHull(xs, ys, xs.length);
+	}
 
+	/**
+	 * Computes and returns the convex hull of the first {@code length}
+	 * points of the passed arrays, allowing reused arrays larger than
+	 * the point count. Points with an x of {@link Integer#MIN_VALUE} are
+	 * ignored, and the arrays are compacted in place.
+	 * <p>
+	 * At least 3 points must be valid, otherwise this method will
+	 * return null.
+	 *
+	 * @return a shape the points part of the convex hull
+	 */
+	public static SimplePolygon convexHull(int[] xs, int[] ys, int length)
+	{
 		// remove any invalid entries
 		{
 			int i = 0, offset = 0;
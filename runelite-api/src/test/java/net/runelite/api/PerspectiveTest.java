@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api;
+
+import java.awt.Shape;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import net.runelite.api.coords.LocalPoint;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import org.junit.Test;
+
+public class PerspectiveTest
+{
+	private final byte[][][] tileSettings = new byte[Constants.MAX_Z][Constants.SCENE_SIZE][Constants.SCENE_SIZE];
+	private final int[][][] tileHeights = new int[Constants.MAX_Z][Constants.SCENE_SIZE + 1][Constants.SCENE_SIZE + 1];
+
+	private final Client client = (Client) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Client.class}, (proxy, method, args) ->
+	{
+		switch (method.getName())
+		{
+			case "getCameraPitch":
+				return 192;
+			case "getCameraYaw":
+				return 0;
+			case "getCameraX":
+				return 6500;
+			case "getCameraY":
+				return 5400;
+			case "getCameraZ":
+				return -700;
+			case "getViewportWidth":
+				return 765;
+			case "getViewportHeight":
+				return 503;
+			case "getViewportXOffset":
+			case "getViewportYOffset":
+				return 4;
+			case "getScale":
+				return 512;
+			case "getPlane":
+				return 0;
+			case "getTileSettings":
+				return tileSettings;
+			case "getTileHeights":
+				return tileHeights;
+			default:
+				throw new UnsupportedOperationException(method.getName());
+		}
+	});
+
+	@Test
+	public void testClickboxReusedBuffers()
+	{
+		Model small = model(new Random(1), 50, false);
+		Model large = model(new Random(2), 800, false);
+		Model clickable = model(new Random(3), 200, true);
+		LocalPoint point = new LocalPoint(6500, 6400);
+
+		Shape expected = Perspective.getClickbox(client, small, 256, point);
+		assertNotNull(expected);
+
+		// the projection buffers are shared between calls, so earlier models must not leak into later clickboxes
+		assertNotNull(Perspective.getClickbox(client, large, 512, point));
+		assertNotNull(Perspective.getClickbox(client, clickable, 0, point));
+		assertEquals(expected.getBounds(), Perspective.getClickbox(client, small, 256, point).getBounds());
+	}
+
+	private static Model model(Random random, int count, boolean clickable)
+	{
+		int[] verticesX = new int[count];
+		int[] verticesY = new int[count];
+		int[] verticesZ = new int[count];
+		for (int i = 0; i < count; i++)
+		{
+			verticesX[i] = random.nextInt(161) - 80;
+			verticesY[i] = -random.nextInt(160);
+			verticesZ[i] = random.nextInt(161) - 80;
+		}
+
+		int[] trianglesX = new int[count];
+		int[] trianglesY = new int[count];
+		int[] trianglesZ = new int[count];
+		for (int i = 0; i < count; i++)
+		{
+			trianglesX[i] = i;
+			trianglesY[i] = (i + 1) % count;
+			trianglesZ[i] = (i + 2) % count;
+		}
+
+		return (Model) Proxy.newProxyInstance(PerspectiveTest.class.getClassLoader(), new Class[]{Model.class}, (proxy, method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getVerticesCount":
+				case "getTrianglesCount":
+					return count;
+				case "getVerticesX":
+					return verticesX;
+				case "getVerticesY":
+					return verticesY;
+				case "getVerticesZ":
+					return verticesZ;
+				case "getTrianglesX":
+					return trianglesX;
+				case "getTrianglesY":
+					return trianglesY;
+				case "getTrianglesZ":
+					return trianglesZ;
+				case "getCenterX":
+				case "getCenterZ":
+					return 0;
+				case "getCenterY":
+					return -80;
+				case "getExtremeX":
+				case "getExtremeY":
+				case "getExtremeZ":
+					return 80;
+				case "isClickable":
+					return clickable;
+				default:
+					throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+}
@@ -24,13 +24,13 @@
  */
 package net.runelite.client.config;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -40,9 +40,10 @@ class ConfigInvocationHandler implements InvocationHandler
 	private static final Object NULL = new Object();
 
 	private final ConfigManager manager;
-	private final Cache<Method, Object> cache = CacheBuilder.newBuilder()
-		.maximumSize(128)
-		.build();
+	// Store entry read by each getter. The entries follow changes to their values, and cache the
+	// value converted to the getter's return type, so these never need to be invalidated.
+	private final Map<Method, ConfigStore.Entry> entries = new ConcurrentHashMap<>();
+	private final Map<Method, Object> defaults = new ConcurrentHashMap<>();
 
 	ConfigInvocationHandler(ConfigManager manager)
 	{
@@ -52,13 +53,12 @@ class ConfigInvocationHandler implements InvocationHandler
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
 	{
-		// Use cached configuration value if available
 		if (args == null)
 		{
-			Object cachedValue = cache.getIfPresent(method);
-			if (cachedValue != null)
+			ConfigStore.Entry entry = entries.get(method);
+			if (entry != null)
 			{
-				return cachedValue == NULL ? null : cachedValue;
+				return getValue(proxy, method, entry);
 			}
 		}
 
@@ -81,42 +81,10 @@ class ConfigInvocationHandler implements InvocationHandler
 
 		if (args == null)
 		{
-			log.trace("cache miss (size: {}, group: {}, key: {})", cache.size(), group.value(), item.keyName());
-
 			// Getting configuration item
-			String value = manager.getConfiguration(group.value(), item.keyName());
-
-			if (value == null)
-			{
-				if (method.isDefault())
-				{
-					Object defaultValue = callDefaultMethod(proxy, method, null);
-					cache.put(method, defaultValue == null ? NULL : defaultValue);
-					return defaultValue;
-				}
-
-				cache.put(method, NULL);
-				return null;
-			}
-
-			// Convert value to return type
-			Class<?> returnType = method.getReturnType();
-			
-			try
-			{
-				Object objectValue = ConfigManager.stringToObject(value, returnType);
-				cache.put(method, objectValue == null ? NULL : objectValue);
-				return objectValue;
-			}
-			catch (Exception e)
-			{
-				log.warn("Unable to unmarshal {}.{} ", group.value(), item.keyName(), e);
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-				return null;
-			}
+			ConfigStore.Entry entry = manager.getConfigurationEntry(group.value(), item.keyName());
+			entries.put(method, entry);
+			return getValue(proxy, method, entry);
 		}
 		else
 		{
@@ -163,6 +131,43 @@ class ConfigInvocationHandler implements InvocationHandler
 		}
 	}
 
+	private Object getValue(Object proxy, Method method, ConfigStore.Entry entry) throws Throwable
+	{
+		if (entry.getValue() == null)
+		{
+			return getDefaultValue(proxy, method);
+		}
+
+		try
+		{
+			// Convert value to return type
+			return entry.getObject(method.getReturnType());
+		}
+		catch (Exception e)
+		{
+			log.warn("Unable to unmarshal {}.{} ", entry.getGroup(), entry.getKey(), e);
+			return getDefaultValue(proxy, method);
+		}
+	}
+
+	private Object getDefaultValue(Object proxy, Method method) throws Throwable
+	{
+		if (!method.isDefault())
+		{
+			return null;
+		}
+
+		Object defaultValue = defaults.get(method);
+		if (defaultValue == null)
+		{
+			defaultValue = callDefaultMethod(proxy, method, null);
+			defaults.put(method, defaultValue == null ? NULL : defaultValue);
+			return defaultValue;
+		}
+
+		return defaultValue == NULL ? null : defaultValue;
+	}
+
 	static Object callDefaultMethod(Object proxy, Method method, Object[] args) throws Throwable
 	{
 		// Call the default method implementation - https://rmannibucau.wordpress.com/2014/03/27/java-8-default-interface-methods-and-jdk-dynamic-proxies/
@@ -175,10 +180,4 @@ class ConfigInvocationHandler implements InvocationHandler
 			.bindTo(proxy)
 			.invokeWithArguments(args);
 	}
-
-	void invalidate()
-	{
-		log.trace("cache invalidate");
-		cache.invalidateAll();
-	}
 }
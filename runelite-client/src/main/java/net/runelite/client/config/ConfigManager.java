@@ -24,6 +24,7 @@
  */
 package net.runelite.client.config;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableMap;
@@ -47,6 +48,7 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
@@ -54,17 +56,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.RuneLite;
 import net.runelite.client.account.AccountSession;
 import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.executor.IoExecutor;
+import net.runelite.client.executor.MonitoredThreadPoolExecutor;
 import net.runelite.client.util.ColorUtil;
 import net.runelite.http.api.config.ConfigClient;
 import net.runelite.http.api.config.ConfigEntry;
@@ -76,27 +84,43 @@ public class ConfigManager
 {
 	private static final String SETTINGS_FILE_NAME = "settings.properties";
 	private static final DateFormat TIME_FORMAT = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+	private static final long RETRY_BACKOFF_MIN = TimeUnit.SECONDS.toMillis(30);
+	private static final long RETRY_BACKOFF_MAX = TimeUnit.MINUTES.toMillis(10);
 
 	@Inject
 	EventBus eventBus;
 
 	private final ScheduledExecutorService executor;
+	private final ExecutorService ioExecutor;
 
 	private AccountSession session;
+	@VisibleForTesting
+	@Setter(AccessLevel.PACKAGE)
 	private ConfigClient client;
 	private File propertiesFile;
 
 	private final ConfigInvocationHandler handler = new ConfigInvocationHandler(this);
-	private final Properties properties = new Properties();
+	@VisibleForTesting
+	@Getter(AccessLevel.PACKAGE)
+	private final ConfigStore store = new ConfigStore();
 	private final Map<String, String> pendingChanges = new HashMap<>();
+	// changes which failed to synchronize, guarded by pendingChanges
+	private final Map<String, String> failedChanges = new HashMap<>();
+	// the last batch each in flight key was sent in, guarded by pendingChanges
+	private final Map<String, Integer> sentBatches = new HashMap<>();
+	private int batch;
+	private int syncFailures;
+	private long retryTime;
 
 	@Inject
-	public ConfigManager(ScheduledExecutorService scheduledExecutorService)
+	public ConfigManager(ScheduledExecutorService scheduledExecutorService, @IoExecutor ExecutorService ioExecutor)
 	{
 		this.executor = scheduledExecutorService;
+		this.ioExecutor = ioExecutor;
 		this.propertiesFile = getPropertiesFile();
 
-		executor.scheduleWithFixedDelay(this::sendConfig, 30, 30, TimeUnit.SECONDS);
+		// the save writes the settings file and syncs with the server, so run it on the I/O executor
+		executor.scheduleWithFixedDelay(MonitoredThreadPoolExecutor.handOff(ioExecutor, this::sendConfig), 30, 30, TimeUnit.SECONDS);
 	}
 
 	public final void switchSession(AccountSession session)
@@ -104,6 +128,14 @@ public class ConfigManager
 		// Ensure existing config is saved
 		sendConfig();
 
+		synchronized (pendingChanges)
+		{
+			// changes of the previous session can not be retried against the new one
+			failedChanges.clear();
+			sentBatches.clear();
+			syncFailures = 0;
+		}
+
 		if (session == null)
 		{
 			this.session = null;
@@ -167,8 +199,7 @@ public class ConfigManager
 			return;
 		}
 
-		handler.invalidate();
-		properties.clear();
+		store.clear();
 
 		for (ConfigEntry entry : configuration.getConfig())
 		{
@@ -183,7 +214,7 @@ public class ConfigManager
 			final String groupName = split[0];
 			final String key = split[1];
 			final String value = entry.getValue();
-			final String oldValue = (String) properties.setProperty(entry.getKey(), value);
+			final String oldValue = store.set(groupName, key, value);
 
 			ConfigChanged configChanged = new ConfigChanged();
 			configChanged.setGroup(groupName);
@@ -218,7 +249,7 @@ public class ConfigManager
 			return;
 		}
 
-		final Map<String, String> copy = (Map) ImmutableMap.copyOf(this.properties);
+		final Map<String, String> copy = store.toMap();
 		copy.forEach((groupAndKey, value) ->
 		{
 			if (!properties.containsKey(groupAndKey))
@@ -276,9 +307,9 @@ public class ConfigManager
 
 	private synchronized void loadFromFile()
 	{
-		handler.invalidate();
-		properties.clear();
+		store.clear();
 
+		final Properties properties = new Properties();
 		try (FileInputStream in = new FileInputStream(propertiesFile))
 		{
 			properties.load(new InputStreamReader(in, Charset.forName("UTF-8")));
@@ -301,10 +332,16 @@ public class ConfigManager
 				if (split.length != 2)
 				{
 					log.debug("Properties key malformed!: {}", groupAndKey);
-					properties.remove(groupAndKey);
 					return;
 				}
 
+				store.set(split[0], split[1], value);
+			});
+
+			// values are all loaded before any events are posted, as the old config was
+			store.toMap().forEach((groupAndKey, value) ->
+			{
+				final String[] split = groupAndKey.split("\\.", 2);
 				final String groupName = split[0];
 				final String key = split[1];
 
@@ -332,7 +369,7 @@ public class ConfigManager
 
 			try
 			{
-				properties.store(new OutputStreamWriter(out, Charset.forName("UTF-8")), "RuneLite configuration");
+				store.toProperties().store(new OutputStreamWriter(out, Charset.forName("UTF-8")), "RuneLite configuration");
 			}
 			finally
 			{
@@ -358,22 +395,30 @@ public class ConfigManager
 
 	public List<String> getConfigurationKeys(String prefix)
 	{
-		return properties.keySet().stream().filter(v -> ((String) v).startsWith(prefix)).map(String.class::cast).collect(Collectors.toList());
+		return store.getKeys(prefix);
 	}
 
 	public String getConfiguration(String groupName, String key)
 	{
-		return properties.getProperty(groupName + "." + key);
+		return store.get(groupName, key);
+	}
+
+	/**
+	 * Get the store entry for a key, which reflects any later changes to the key
+	 */
+	ConfigStore.Entry getConfigurationEntry(String groupName, String key)
+	{
+		return store.entry(groupName, key);
 	}
 
 	public <T> T getConfiguration(String groupName, String key, Class<T> clazz)
 	{
-		String value = getConfiguration(groupName, key);
-		if (!Strings.isNullOrEmpty(value))
+		ConfigStore.Entry entry = store.find(groupName, key);
+		if (entry != null && !Strings.isNullOrEmpty(entry.getValue()))
 		{
 			try
 			{
-				return (T) stringToObject(value, clazz);
+				return (T) entry.getObject(clazz);
 			}
 			catch (Exception e)
 			{
@@ -385,7 +430,7 @@ public class ConfigManager
 
 	public void setConfiguration(String groupName, String key, String value)
 	{
-		String oldValue = (String) properties.setProperty(groupName + "." + key, value);
+		String oldValue = store.set(groupName, key, value);
 
 		if (Objects.equals(oldValue, value))
 		{
@@ -393,7 +438,6 @@ public class ConfigManager
 		}
 
 		log.debug("Setting configuration value for {}.{} to {}", groupName, key, value);
-		handler.invalidate();
 
 		synchronized (pendingChanges)
 		{
@@ -416,7 +460,7 @@ public class ConfigManager
 
 	public void unsetConfiguration(String groupName, String key)
 	{
-		String oldValue = (String) properties.remove(groupName + "." + key);
+		String oldValue = store.unset(groupName, key);
 
 		if (oldValue == null)
 		{
@@ -424,7 +468,6 @@ public class ConfigManager
 		}
 
 		log.debug("Unsetting configuration value for {}.{}", groupName, key);
-		handler.invalidate();
 
 		synchronized (pendingChanges)
 		{
@@ -662,29 +705,7 @@ public class ConfigManager
 
 	public void sendConfig()
 	{
-		boolean changed;
-		synchronized (pendingChanges)
-		{
-			if (client != null)
-			{
-				for (Map.Entry<String, String> entry : pendingChanges.entrySet())
-				{
-					String key = entry.getKey();
-					String value = entry.getValue();
-
-					if (Strings.isNullOrEmpty(value))
-					{
-						client.unset(key);
-					}
-					else
-					{
-						client.set(key, value);
-					}
-				}
-			}
-			changed = !pendingChanges.isEmpty();
-			pendingChanges.clear();
-		}
+		boolean changed = syncConfig();
 
 		if (changed)
 		{
@@ -698,4 +719,104 @@ public class ConfigManager
 			}
 		}
 	}
+
+	/**
+	 * Send the changes made since the last sync to the server, along with any which failed to
+	 * synchronize if they are due to be retried
+	 *
+	 * @return whether any changes had been made since the last sync
+	 */
+	@VisibleForTesting
+	boolean syncConfig()
+	{
+		synchronized (pendingChanges)
+		{
+			boolean changed = !pendingChanges.isEmpty();
+
+			Map<String, String> pending = null;
+			if (client != null && (changed || (!failedChanges.isEmpty() && System.currentTimeMillis() >= retryTime)))
+			{
+				// changes which previously failed are superseded by any newer change to the same key
+				pending = new HashMap<>(failedChanges);
+				pending.putAll(pendingChanges);
+				failedChanges.clear();
+			}
+			pendingChanges.clear();
+
+			// the changes are sent once no longer pending, as a failure may be reported before the send returns
+			if (pending != null)
+			{
+				syncChanges(client, pending);
+			}
+
+			return changed;
+		}
+	}
+
+	private void syncChanges(ConfigClient configClient, Map<String, String> changes)
+	{
+		final int changesBatch = ++batch;
+		List<ConfigEntry> entries = new ArrayList<>(changes.size());
+		for (Map.Entry<String, String> change : changes.entrySet())
+		{
+			sentBatches.put(change.getKey(), changesBatch);
+
+			ConfigEntry entry = new ConfigEntry();
+			entry.setKey(change.getKey());
+			entry.setValue(Strings.emptyToNull(change.getValue()));
+			entries.add(entry);
+		}
+
+		configClient.patch(new Configuration(entries)).whenComplete((rejected, ex) ->
+		{
+			synchronized (pendingChanges)
+			{
+				// keys which have been sent again since are superseded by the newer batch
+				Map<String, String> latest = new HashMap<>();
+				for (Map.Entry<String, String> change : changes.entrySet())
+				{
+					if (sentBatches.remove(change.getKey(), changesBatch))
+					{
+						latest.put(change.getKey(), change.getValue());
+					}
+				}
+
+				if (ex == null && rejected.isEmpty())
+				{
+					syncFailures = 0;
+					return;
+				}
+
+				if (configClient != client)
+				{
+					// the session has changed since these were sent
+					return;
+				}
+
+				if (ex != null)
+				{
+					log.warn("Unable to synchronize configuration", ex);
+				}
+				else
+				{
+					// the rest of the batch was stored, only the rejected keys are retried
+					log.warn("Server rejected configuration keys {}", rejected);
+					latest.keySet().retainAll(rejected);
+				}
+
+				for (Map.Entry<String, String> change : latest.entrySet())
+				{
+					// a change made since, or which failed to sync in a newer batch, is more recent
+					if (!pendingChanges.containsKey(change.getKey()))
+					{
+						failedChanges.putIfAbsent(change.getKey(), change.getValue());
+					}
+				}
+
+				long backoff = Math.min(RETRY_BACKOFF_MIN << Math.min(syncFailures, 8), RETRY_BACKOFF_MAX);
+				retryTime = System.currentTimeMillis() + backoff;
+				++syncFailures;
+			}
+		});
+	}
 }
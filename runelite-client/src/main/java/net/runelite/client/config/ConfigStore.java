@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * Configuration values indexed by group and then by key, with the keys of each group sorted
+ * so prefix lookups are range scans.
+ * <p>
+ * Each entry keeps the object its value was last converted to, so reading a value as the
+ * same type again does not parse it again. Entries are never removed; unsetting a value
+ * sets it to null, so config proxies can hold on to the entries they read.
+ */
+class ConfigStore
+{
+	private final ConcurrentMap<String, ConcurrentNavigableMap<String, Entry>> groups = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the entry for a key, creating it if it does not exist
+	 */
+	Entry entry(String groupName, String key)
+	{
+		return groups.computeIfAbsent(groupName, k -> new ConcurrentSkipListMap<>())
+			.computeIfAbsent(key, k -> new Entry(groupName, key));
+	}
+
+	/**
+	 * Get the entry for a key, without creating it
+	 *
+	 * @return the entry, or null if the key has never been set or read through a proxy
+	 */
+	Entry find(String groupName, String key)
+	{
+		final Map<String, Entry> group = groups.get(groupName);
+		return group == null ? null : group.get(key);
+	}
+
+	String get(String groupName, String key)
+	{
+		final Entry entry = find(groupName, key);
+		return entry == null ? null : entry.value;
+	}
+
+	/**
+	 * @return the previous value
+	 */
+	String set(String groupName, String key, String value)
+	{
+		return entry(groupName, key).set(value);
+	}
+
+	/**
+	 * @return the previous value
+	 */
+	String unset(String groupName, String key)
+	{
+		final Entry entry = find(groupName, key);
+		return entry == null ? null : entry.set(null);
+	}
+
+	/**
+	 * Unset every value
+	 */
+	void clear()
+	{
+		for (Map<String, Entry> group : groups.values())
+		{
+			for (Entry entry : group.values())
+			{
+				entry.set(null);
+			}
+		}
+	}
+
+	/**
+	 * Get the keys, as group.key, of the values which are set and start with the given prefix
+	 */
+	List<String> getKeys(String prefix)
+	{
+		final List<String> keys = new ArrayList<>();
+		final int dot = prefix.indexOf('.');
+
+		if (dot == -1)
+		{
+			// the prefix is part of a group name
+			groups.forEach((groupName, group) ->
+			{
+				if (groupName.startsWith(prefix))
+				{
+					addKeys(keys, groupName, group, "");
+				}
+			});
+		}
+		else
+		{
+			final String groupName = prefix.substring(0, dot);
+			final ConcurrentNavigableMap<String, Entry> group = groups.get(groupName);
+			if (group != null)
+			{
+				final String keyPrefix = prefix.substring(dot + 1);
+				addKeys(keys, groupName, group.tailMap(keyPrefix), keyPrefix);
+			}
+		}
+
+		return keys;
+	}
+
+	private static void addKeys(List<String> keys, String groupName, ConcurrentNavigableMap<String, Entry> entries, String keyPrefix)
+	{
+		for (Entry entry : entries.values())
+		{
+			if (!entry.key.startsWith(keyPrefix))
+			{
+				// keys are sorted, so no further keys can start with the prefix
+				break;
+			}
+
+			if (entry.value != null)
+			{
+				keys.add(groupName + "." + entry.key);
+			}
+		}
+	}
+
+	/**
+	 * Copy the values which are set, keyed by group.key
+	 */
+	Map<String, String> toMap()
+	{
+		final Map<String, String> map = new HashMap<>();
+		for (Map<String, Entry> group : groups.values())
+		{
+			for (Entry entry : group.values())
+			{
+				final String value = entry.value;
+				if (value != null)
+				{
+					map.put(entry.group + "." + entry.key, value);
+				}
+			}
+		}
+		return map;
+	}
+
+	Properties toProperties()
+	{
+		final Properties properties = new Properties();
+		properties.putAll(toMap());
+		return properties;
+	}
+
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	static final class Entry
+	{
+		@Getter
+		private final String group;
+		@Getter
+		private final String key;
+		@Getter
+		private volatile String value;
+		private volatile Converted converted;
+
+		private synchronized String set(String value)
+		{
+			final String oldValue = this.value;
+			this.value = value;
+			converted = null;
+			return oldValue;
+		}
+
+		/**
+		 * Get the value converted to the given type, reusing the previous conversion if
+		 * the value and type have not changed since
+		 *
+		 * @return the converted value, or null if the value is not set
+		 * @throws Exception if the value can not be converted to the type
+		 */
+		Object getObject(Class<?> type) throws Exception
+		{
+			final String value = this.value;
+			if (value == null)
+			{
+				return null;
+			}
+
+			final Converted converted = this.converted;
+			// the value is compared by identity, so a conversion racing with a set is never reused
+			if (converted != null && converted.getValue() == value && converted.getType() == type)
+			{
+				return converted.getObject();
+			}
+
+			final Object object = ConfigManager.stringToObject(value, type);
+			this.converted = new Converted(value, type, object);
+			return object;
+		}
+	}
+
+	@Value
+	private static class Converted
+	{
+		private final String value;
+		private final Class<?> type;
+		private final Object object;
+	}
+}
@@ -26,9 +26,6 @@
 package net.runelite.client.eventbus;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Multimap;
 import java.lang.invoke.CallSite;
 import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
@@ -38,12 +35,22 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
@@ -59,7 +66,7 @@ public class EventBus
 	}
 
 	@Value
-	private static class Subscriber
+	static class Subscriber
 	{
 		private final Object object;
 		private final Method method;
@@ -80,8 +87,44 @@ public class EventBus
 		}
 	}
 
+	private static final Comparator<Subscriber> SUBSCRIBER_ORDER = Comparator.comparing(Subscriber::getPriority)
+		.thenComparing(s -> s.object.getClass().getName());
+
+	private static final AtomicInteger nextEventTypeId = new AtomicInteger();
+
+	/**
+	 * Process wide id of each event type, used as the index into the dispatch table
+	 */
+	private static final ClassValue<Integer> EVENT_TYPE_ID = new ClassValue<Integer>()
+	{
+		@Override
+		protected Integer computeValue(Class<?> type)
+		{
+			return nextEventTypeId.getAndIncrement();
+		}
+	};
+
+	private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
 	private final Consumer<Throwable> exceptionHandler;
-	private ImmutableMultimap<Class, Subscriber> subscribers = ImmutableMultimap.of();
+
+	/**
+	 * Subscribers of each event type, only modified while holding the lock
+	 */
+	private final Map<Class<?>, List<Subscriber>> subscribers = new HashMap<>();
+
+	/**
+	 * Subscribers indexed by event type id, ordered by priority. This is copied on write and
+	 * never modified once published, so posting requires no locking.
+	 */
+	private volatile Subscriber[][] dispatchTable = new Subscriber[0][];
+
+	/**
+	 * Profiler subscriber invocations are recorded to, or null if profiling is disabled
+	 */
+	@Getter
+	@Setter
+	private volatile EventProfiler profiler;
 
 	/**
 	 * Instantiates EventBus with default exception handler
@@ -100,15 +143,8 @@ public class EventBus
 	 */
 	public synchronized void register(@Nonnull final Object object)
 	{
-		final ImmutableMultimap.Builder<Class, Subscriber> builder = ImmutableMultimap.builder();
-
-		if (subscribers != null)
-		{
-			builder.putAll(subscribers);
-		}
-
-		builder.orderValuesBy(Comparator.comparing(Subscriber::getPriority)
-			.thenComparing(s -> s.object.getClass().getName()));
+		// Every method is checked before any subscriber is added, so an invalid one leaves the object unregistered
+		final Map<Class<?>, List<Subscriber>> added = new HashMap<>();
 
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
 		{
@@ -132,7 +168,7 @@ public class EventBus
 
 				for (Class<?> psc = parameterClazz.getSuperclass(); psc != null; psc = psc.getSuperclass())
 				{
-					if (subscribers.containsKey(psc))
+					if (subscribers.containsKey(psc) || added.containsKey(psc))
 					{
 						throw new IllegalArgumentException("@Subscribed method \"" + method + "\" cannot subscribe to class which inherits from subscribed class \"" + psc + "\"");
 					}
@@ -166,12 +202,17 @@ public class EventBus
 				}
 
 				final Subscriber subscriber = new Subscriber(object, method, sub.priority(), lambda);
-				builder.put(parameterClazz, subscriber);
-				log.debug("Registering {} - {}", parameterClazz, subscriber);
+				added.computeIfAbsent(parameterClazz, k -> new ArrayList<>()).add(subscriber);
 			}
 		}
 
-		subscribers = builder.build();
+		for (Map.Entry<Class<?>, List<Subscriber>> entry : added.entrySet())
+		{
+			subscribers.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(entry.getValue());
+			log.debug("Registering {} - {}", entry.getKey(), entry.getValue());
+		}
+
+		publish(added.keySet());
 	}
 
 	/**
@@ -181,13 +222,7 @@ public class EventBus
 	 */
 	public synchronized void unregister(@Nonnull final Object object)
 	{
-		if (subscribers == null)
-		{
-			return;
-		}
-
-		final Multimap<Class, Subscriber> map = HashMultimap.create();
-		map.putAll(subscribers);
+		final Set<Class<?>> changed = new HashSet<>();
 
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
 		{
@@ -201,11 +236,26 @@ public class EventBus
 				}
 
 				final Class<?> parameterClazz = method.getParameterTypes()[0];
-				map.remove(parameterClazz, new Subscriber(object, method, sub.priority(), null));
+				final List<Subscriber> eventSubscribers = subscribers.get(parameterClazz);
+
+				if (eventSubscribers == null)
+				{
+					continue;
+				}
+
+				final Subscriber subscriber = new Subscriber(object, method, sub.priority(), null);
+				if (eventSubscribers.removeIf(subscriber::equals))
+				{
+					if (eventSubscribers.isEmpty())
+					{
+						subscribers.remove(parameterClazz);
+					}
+					changed.add(parameterClazz);
+				}
 			}
 		}
 
-		subscribers = ImmutableMultimap.copyOf(map);
+		publish(changed);
 	}
 
 	/**
@@ -216,11 +266,36 @@ public class EventBus
 	 */
 	public void post(@Nonnull final Object event)
 	{
-		for (final Subscriber subscriber : subscribers.get(event.getClass()))
+		final Subscriber[][] table = dispatchTable;
+		final int id = EVENT_TYPE_ID.get(event.getClass());
+
+		if (id >= table.length)
+		{
+			return;
+		}
+
+		final Subscriber[] eventSubscribers = table[id];
+
+		// eventSubscribers is null for types which have never been subscribed to
+		if (eventSubscribers == null)
+		{
+			return;
+		}
+
+		final EventProfiler eventProfiler = profiler;
+
+		for (final Subscriber subscriber : eventSubscribers)
 		{
 			try
 			{
-				subscriber.invoke(event);
+				if (eventProfiler != null)
+				{
+					eventProfiler.invoke(subscriber, event);
+				}
+				else
+				{
+					subscriber.invoke(event);
+				}
 			}
 			catch (Exception e)
 			{
@@ -229,6 +304,50 @@ public class EventBus
 		}
 	}
 
+	/**
+	 * Rebuild the dispatch table entries of the given event types and publish a new table
+	 *
+	 * @param changed event types whose subscribers have changed
+	 */
+	private void publish(final Set<Class<?>> changed)
+	{
+		if (changed.isEmpty())
+		{
+			return;
+		}
+
+		Subscriber[][] table = dispatchTable;
+
+		for (final Class<?> eventType : changed)
+		{
+			final int id = EVENT_TYPE_ID.get(eventType);
+
+			if (id >= table.length)
+			{
+				table = Arrays.copyOf(table, Math.max(id + 1, table.length * 2));
+			}
+			else if (table == dispatchTable)
+			{
+				table = table.clone();
+			}
+
+			final List<Subscriber> eventSubscribers = subscribers.get(eventType);
+
+			if (eventSubscribers == null)
+			{
+				table[id] = NO_SUBSCRIBERS;
+			}
+			else
+			{
+				final Subscriber[] sorted = eventSubscribers.toArray(NO_SUBSCRIBERS);
+				Arrays.sort(sorted, SUBSCRIBER_ORDER);
+				table[id] = sorted;
+			}
+		}
+
+		dispatchTable = table;
+	}
+
 	private static MethodHandles.Lookup privateLookupIn(Class clazz) throws IllegalAccessException, NoSuchFieldException, InvocationTargetException
 	{
 		try
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.RuneLiteAPI;
+
+/**
+ * Records invocation counts, latency and allocation of each subscriber of an {@link EventBus}.
+ * Subscribers which take longer than the frame budget are flagged and logged the first time it happens.
+ */
+@Slf4j
+public class EventProfiler
+{
+	private static class Timing
+	{
+		private final String subscriber;
+		private final String event;
+		private long invocations;
+		private long totalNanos;
+		private long maxNanos;
+		private long allocatedBytes;
+		private long overBudget;
+
+		Timing(String subscriber, String event)
+		{
+			this.subscriber = subscriber;
+			this.event = event;
+		}
+
+		/**
+		 * @return true if this is the first time the subscriber has exceeded the budget
+		 */
+		synchronized boolean record(long nanos, long bytes, boolean exceeded)
+		{
+			++invocations;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+			allocatedBytes += bytes;
+
+			if (exceeded)
+			{
+				return ++overBudget == 1;
+			}
+			return false;
+		}
+
+		synchronized SubscriberTiming snapshot(boolean allocationSupported)
+		{
+			return new SubscriberTiming(subscriber, event, invocations, totalNanos, maxNanos,
+				allocationSupported ? allocatedBytes : -1, overBudget);
+		}
+	}
+
+	@Getter
+	private final long frameBudgetNanos;
+	private final com.sun.management.ThreadMXBean threadMXBean;
+	private final Map<Object, Timing> timings = new ConcurrentHashMap<>();
+
+	public EventProfiler(long frameBudget, TimeUnit unit)
+	{
+		this.frameBudgetNanos = unit.toNanos(frameBudget);
+
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean
+			&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+		{
+			threadMXBean = (com.sun.management.ThreadMXBean) bean;
+			threadMXBean.setThreadAllocatedMemoryEnabled(true);
+		}
+		else
+		{
+			threadMXBean = null;
+		}
+	}
+
+	void invoke(EventBus.Subscriber subscriber, Object event) throws Exception
+	{
+		final Timing timing = timings.computeIfAbsent(subscriber, s -> new Timing(
+			subscriber.getObject().getClass().getName() + "." + subscriber.getMethod().getName(),
+			event.getClass().getSimpleName()));
+
+		final long threadId = Thread.currentThread().getId();
+		final long allocatedBefore = threadMXBean != null ? threadMXBean.getThreadAllocatedBytes(threadId) : 0;
+		final long start = System.nanoTime();
+
+		try
+		{
+			subscriber.invoke(event);
+		}
+		finally
+		{
+			final long elapsed = System.nanoTime() - start;
+			final long allocated = threadMXBean != null ? threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore : 0;
+
+			if (timing.record(elapsed, allocated, elapsed > frameBudgetNanos))
+			{
+				log.warn("{} took {}ms handling {}, exceeding the frame budget of {}ms", timing.subscriber,
+					TimeUnit.NANOSECONDS.toMillis(elapsed), timing.event, TimeUnit.NANOSECONDS.toMillis(frameBudgetNanos));
+			}
+		}
+	}
+
+	/**
+	 * Get the recorded timings, ordered by cumulative time descending
+	 *
+	 * @return
+	 */
+	public List<SubscriberTiming> getTimings()
+	{
+		final List<SubscriberTiming> result = new ArrayList<>(timings.size());
+		for (Timing timing : timings.values())
+		{
+			result.add(timing.snapshot(threadMXBean != null));
+		}
+		result.sort(Comparator.comparingLong(SubscriberTiming::getTotalNanos).reversed());
+		return result;
+	}
+
+	public String toJson()
+	{
+		return RuneLiteAPI.GSON.toJson(getTimings());
+	}
+
+	public void reset()
+	{
+		timings.clear();
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.executor;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.AbstractModule;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import net.runelite.client.util.ExecutorServiceExceptionLogger;
+
+/**
+ * Binds the executor pools. Work is split by type so that a long running task of one kind
+ * cannot hold up another: CPU bound work goes to the {@link CpuExecutor} pool, blocking I/O
+ * to the {@link IoExecutor} pool, and the single threaded {@link TimerExecutor} only runs
+ * short timer callbacks. The unqualified {@link ScheduledExecutorService} is the timer pool.
+ */
+public class ExecutorModule extends AbstractModule
+{
+	private static final int CPU_QUEUE_SIZE = 64;
+	private static final int IO_THREADS = 8;
+	private static final int IO_QUEUE_SIZE = 256;
+
+	@Override
+	protected void configure()
+	{
+		final ScheduledExecutorService timerExecutor = new ExecutorServiceExceptionLogger(
+			Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("timer-executor-%d")
+				.build()));
+		final int cpuThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+		bind(ScheduledExecutorService.class).toInstance(timerExecutor);
+		bind(ScheduledExecutorService.class)
+			.annotatedWith(TimerExecutor.class)
+			.toInstance(timerExecutor);
+
+		bind(ExecutorService.class)
+			.annotatedWith(CpuExecutor.class)
+			.toInstance(new MonitoredThreadPoolExecutor("cpu", cpuThreads, CPU_QUEUE_SIZE));
+
+		bind(ExecutorService.class)
+			.annotatedWith(IoExecutor.class)
+			.toInstance(new MonitoredThreadPoolExecutor("io", IO_THREADS, IO_QUEUE_SIZE));
+	}
+}
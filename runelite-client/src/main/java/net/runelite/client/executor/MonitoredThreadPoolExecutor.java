@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.executor;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.util.CallableExceptionLogger;
+import net.runelite.client.util.RunnableExceptionLogger;
+
+/**
+ * A fixed size thread pool with a bounded queue. Tasks submitted while the queue is full are
+ * rejected and counted rather than queued without limit, and a warning is logged (at most every
+ * 30 seconds) when the queue is close to full. Uncaught
+ * exceptions are logged the same way as {@link net.runelite.client.util.ExecutorServiceExceptionLogger}.
+ */
+@Slf4j
+public class MonitoredThreadPoolExecutor extends ThreadPoolExecutor
+{
+	private static final long SATURATION_LOG_INTERVAL_SECONDS = 30;
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	@Getter
+	private final String name;
+	@Getter
+	private final int queueCapacity;
+	private final int saturationThreshold;
+	private final AtomicLong rejectedCount = new AtomicLong();
+	private final AtomicLong lastSaturationWarning = new AtomicLong();
+
+	public MonitoredThreadPoolExecutor(String name, int threads, int queueCapacity)
+	{
+		super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+			new ThreadFactoryBuilder()
+				.setNameFormat(name + "-executor-%d")
+				.setDaemon(true)
+				.build());
+		this.name = name;
+		this.queueCapacity = queueCapacity;
+		this.saturationThreshold = Math.max(1, queueCapacity * 3 / 4);
+		this.lastSaturationWarning.set(System.nanoTime() - TimeUnit.SECONDS.toNanos(SATURATION_LOG_INTERVAL_SECONDS));
+		allowCoreThreadTimeOut(true);
+		setRejectedExecutionHandler(this::reject);
+	}
+
+	/**
+	 * Wrap a task for a timer to schedule, which hands {@code task} to {@code executor} each time it
+	 * runs. A rejection is logged instead of thrown, as an exception would cancel the scheduled task
+	 * for good, so the work is tried again on the next run instead.
+	 */
+	public static Runnable handOff(Executor executor, Runnable task)
+	{
+		return () ->
+		{
+			try
+			{
+				executor.execute(task);
+			}
+			catch (RejectedExecutionException ex)
+			{
+				log.warn("Unable to run periodic task {}, retrying on its next run", task, ex);
+			}
+		};
+	}
+
+	/**
+	 * @return the number of tasks rejected because the queue was full or the pool was shut down
+	 */
+	public long getRejectedCount()
+	{
+		return rejectedCount.get();
+	}
+
+	@Override
+	public void execute(Runnable command)
+	{
+		super.execute(command);
+
+		final int queued = getQueue().size();
+		if (queued >= saturationThreshold)
+		{
+			warnSaturated(queued);
+		}
+	}
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value)
+	{
+		return super.newTaskFor(RunnableExceptionLogger.wrap(runnable), value);
+	}
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable)
+	{
+		return super.newTaskFor(CallableExceptionLogger.wrap(callable));
+	}
+
+	@Override
+	protected void afterExecute(Runnable r, Throwable t)
+	{
+		super.afterExecute(r, t);
+
+		// only tasks passed to execute() get here with an exception, submitted tasks
+		// store it in their future and are logged by the wrappers in newTaskFor
+		if (t != null)
+		{
+			log.warn("Uncaught exception in {} executor task {}", name, r, t);
+		}
+	}
+
+	private void warnSaturated(int queued)
+	{
+		final long now = System.nanoTime();
+		final long last = lastSaturationWarning.get();
+		if (now - last >= TimeUnit.SECONDS.toNanos(SATURATION_LOG_INTERVAL_SECONDS)
+			&& lastSaturationWarning.compareAndSet(last, now))
+		{
+			log.warn("{} executor is saturated: {}/{} tasks queued, {} active, {} rejected",
+				name, queued, queueCapacity, getActiveCount(), rejectedCount.get());
+		}
+	}
+
+	private void reject(Runnable task, ThreadPoolExecutor executor)
+	{
+		final long rejected = rejectedCount.incrementAndGet();
+		log.warn("{} executor rejected task {}: {}/{} tasks queued, {} rejected in total",
+			name, task, getQueue().size(), queueCapacity, rejected);
+		throw new RejectedExecutionException("Task " + task + " rejected from " + name + " executor");
+	}
+}
@@ -36,6 +36,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
@@ -56,6 +57,8 @@ import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.PostItemComposition;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.executor.IoExecutor;
+import net.runelite.client.executor.MonitoredThreadPoolExecutor;
 import net.runelite.client.util.AsyncBufferedImage;
 import net.runelite.http.api.item.ItemClient;
 import net.runelite.http.api.item.ItemPrice;
@@ -83,6 +86,7 @@ public class ItemManager
 
 	private final Client client;
 	private final ScheduledExecutorService scheduledExecutorService;
+	private final ExecutorService ioExecutor;
 	private final ClientThread clientThread;
 
 	private final ItemClient itemClient;
@@ -156,16 +160,18 @@ public class ItemManager
 		build();
 
 	@Inject
-	public ItemManager(Client client, ScheduledExecutorService executor, ClientThread clientThread,
-		ItemClient itemClient)
+	public ItemManager(Client client, ScheduledExecutorService executor, @IoExecutor ExecutorService ioExecutor,
+		ClientThread clientThread, ItemClient itemClient)
 	{
 		this.client = client;
 		this.scheduledExecutorService = executor;
+		this.ioExecutor = ioExecutor;
 		this.clientThread = clientThread;
 		this.itemClient = itemClient;
 
-		scheduledExecutorService.scheduleWithFixedDelay(this::loadPrices, 0, 30, TimeUnit.MINUTES);
-		scheduledExecutorService.submit(this::loadStats);
+		// the timer only triggers the refresh, the HTTP requests run on the I/O executor
+		scheduledExecutorService.scheduleWithFixedDelay(MonitoredThreadPoolExecutor.handOff(ioExecutor, this::loadPrices), 0, 30, TimeUnit.MINUTES);
+		ioExecutor.execute(this::loadStats);
 
 		itemImages = CacheBuilder.newBuilder()
 			.maximumSize(128L)
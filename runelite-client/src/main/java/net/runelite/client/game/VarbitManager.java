@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.Varbits;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.VarbitValueChanged;
+
+/**
+ * Dispatches changes to individual varbits.
+ * <p>
+ * {@link VarbitChanged} only says which varp was written, so every subscriber has to re-read
+ * all of the varbits it cares about on every write. Instead, varbits can be watched here;
+ * each one is read once per write to the varp holding it, and listeners are only called
+ * when its value actually changes.
+ */
+@Singleton
+@Slf4j
+public class VarbitManager
+{
+	private final Client client;
+	private final ClientThread clientThread;
+
+	/**
+	 * Watched varbits, by varbit id
+	 */
+	private final Map<Integer, WatchedVarbit> watched = new ConcurrentHashMap<>();
+
+	/**
+	 * Watched varbits whose varp is known, by varp index. Only used on the client thread.
+	 */
+	private final Map<Integer, List<WatchedVarbit>> varpVarbits = new HashMap<>();
+
+	@Inject
+	private VarbitManager(EventBus eventBus, Client client, ClientThread clientThread)
+	{
+		this.client = client;
+		this.clientThread = clientThread;
+		eventBus.register(this);
+	}
+
+	public void register(Object owner, Varbits varbit, Consumer<VarbitValueChanged> listener)
+	{
+		register(owner, varbit.getId(), listener);
+	}
+
+	/**
+	 * Call a listener on the client thread whenever the value of a varbit changes.
+	 * Listeners are removed with {@link #unregister(Object)}.
+	 *
+	 * @param owner    the object the listener belongs to, typically the plugin
+	 * @param varbitId the varbit to watch
+	 * @param listener the listener
+	 */
+	public void register(Object owner, int varbitId, Consumer<VarbitValueChanged> listener)
+	{
+		final WatchedVarbit watchedVarbit = watched.compute(varbitId, (k, v) ->
+		{
+			if (v == null)
+			{
+				v = new WatchedVarbit(varbitId);
+			}
+			v.listeners.add(new Listener(owner, listener));
+			return v;
+		});
+
+		if (watchedVarbit.varp == -1)
+		{
+			clientThread.invoke(() -> resolve(watchedVarbit));
+		}
+	}
+
+	/**
+	 * Remove all of the listeners belonging to an owner
+	 *
+	 * @param owner the owner passed to {@link #register(Object, int, Consumer)}
+	 */
+	public void unregister(Object owner)
+	{
+		for (WatchedVarbit watchedVarbit : watched.values())
+		{
+			watchedVarbit.listeners.removeIf(l -> l.getOwner() == owner);
+		}
+
+		clientThread.invoke(this::removeUnwatched);
+	}
+
+	@Subscribe
+	public void onVarbitChanged(VarbitChanged varbitChanged)
+	{
+		if (varpVarbits.isEmpty())
+		{
+			return;
+		}
+
+		final int[] varps = client.getVarps();
+		final int index = varbitChanged.getIndex();
+
+		if (index == -1)
+		{
+			// the changed varp is not known, so check everything
+			for (List<WatchedVarbit> varbits : varpVarbits.values())
+			{
+				update(varps, varbits);
+			}
+			return;
+		}
+
+		final List<WatchedVarbit> varbits = varpVarbits.get(index);
+		if (varbits != null)
+		{
+			update(varps, varbits);
+		}
+	}
+
+	private void update(int[] varps, List<WatchedVarbit> varbits)
+	{
+		for (WatchedVarbit watchedVarbit : varbits)
+		{
+			final int value = client.getVarbitValue(varps, watchedVarbit.varbitId);
+			final int oldValue = watchedVarbit.value;
+
+			if (value == oldValue)
+			{
+				continue;
+			}
+
+			watchedVarbit.value = value;
+
+			final VarbitValueChanged event = new VarbitValueChanged(watchedVarbit.varbitId, oldValue, value);
+			for (Listener listener : watchedVarbit.listeners)
+			{
+				try
+				{
+					listener.getListener().accept(event);
+				}
+				catch (Exception ex)
+				{
+					log.warn("Uncaught exception in varbit {} listener", watchedVarbit.varbitId, ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find which varp holds a varbit by setting it in an empty copy of the varps
+	 */
+	private boolean resolve(WatchedVarbit watchedVarbit)
+	{
+		if (watchedVarbit.varp != -1 || watched.get(watchedVarbit.varbitId) != watchedVarbit)
+		{
+			// already resolved, or no longer watched
+			return true;
+		}
+
+		if (client.getGameState().ordinal() < GameState.LOGIN_SCREEN.ordinal())
+		{
+			// the varbit definitions are not loaded yet
+			return false;
+		}
+
+		final int[] varps = client.getVarps();
+		final int[] probe = new int[varps.length];
+		client.setVarbitValue(probe, watchedVarbit.varbitId, 1);
+
+		int varp = -1;
+		for (int i = 0; i < probe.length; ++i)
+		{
+			if (probe[i] != 0)
+			{
+				varp = i;
+				break;
+			}
+		}
+
+		if (varp == -1)
+		{
+			log.warn("Unable to find the varp holding varbit {}", watchedVarbit.varbitId);
+			return true;
+		}
+
+		watchedVarbit.varp = varp;
+		watchedVarbit.value = client.getVarbitValue(varps, watchedVarbit.varbitId);
+		varpVarbits.computeIfAbsent(varp, k -> new ArrayList<>()).add(watchedVarbit);
+		return true;
+	}
+
+	private void removeUnwatched()
+	{
+		for (Integer varbitId : watched.keySet())
+		{
+			watched.computeIfPresent(varbitId, (k, watchedVarbit) ->
+			{
+				if (!watchedVarbit.listeners.isEmpty())
+				{
+					return watchedVarbit;
+				}
+
+				final List<WatchedVarbit> varbits = varpVarbits.get(watchedVarbit.varp);
+				if (varbits != null)
+				{
+					varbits.remove(watchedVarbit);
+					if (varbits.isEmpty())
+					{
+						varpVarbits.remove(watchedVarbit.varp);
+					}
+				}
+				return null;
+			});
+		}
+	}
+
+	private static class WatchedVarbit
+	{
+		private final int varbitId;
+		private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+		private volatile int varp = -1;
+		private int value;
+
+		private WatchedVarbit(int varbitId)
+		{
+			this.varbitId = varbitId;
+		}
+	}
+
+	@Value
+	private static class Listener
+	{
+		private final Object owner;
+		private final Consumer<VarbitValueChanged> listener;
+	}
+}
@@ -25,6 +25,7 @@
 package net.runelite.client.plugins;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.graph.Graph;
@@ -33,6 +34,7 @@ import com.google.common.graph.Graphs;
 import com.google.common.graph.MutableGraph;
 import com.google.common.reflect.ClassPath;
 import com.google.common.reflect.ClassPath.ClassInfo;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Binder;
 import com.google.inject.CreationException;
 import com.google.inject.Injector;
@@ -43,18 +45,29 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.swing.SwingUtilities;
+import lombok.AccessLevel;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.events.SessionClose;
@@ -96,6 +109,12 @@ public class PluginManager
 	@Setter
 	boolean isOutdated;
 
+	/**
+	 * Number of plugins instantiated at once by {@link #loadCorePlugins()}
+	 */
+	@Setter(AccessLevel.PACKAGE)
+	private int loaderThreads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
 	@Inject
 	@VisibleForTesting
 	PluginManager(
@@ -202,11 +221,16 @@ public class PluginManager
 	{
 		List<Plugin> scannedPlugins = new ArrayList<>(plugins);
 		int loaded = 0;
+		long start = System.nanoTime();
 		for (Plugin plugin : scannedPlugins)
 		{
+			long pluginStart = System.nanoTime();
 			try
 			{
-				startPlugin(plugin);
+				if (startPlugin(plugin))
+				{
+					log.debug("Started plugin {} in {}ms", plugin.getClass().getSimpleName(), elapsedMillis(pluginStart));
+				}
 			}
 			catch (PluginInstantiationException ex)
 			{
@@ -217,6 +241,8 @@ public class PluginManager
 			loaded++;
 			SplashScreen.stage(.80, 1, null, "Starting plugins", loaded, scannedPlugins.size(), false);
 		}
+
+		log.info("Started {} plugins in {}ms", activePlugins.size(), elapsedMillis(start));
 	}
 
 	List<Plugin> scanAndInstantiate(ClassLoader classLoader, String packageName) throws IOException
@@ -286,24 +312,52 @@ public class PluginManager
 		List<Class<? extends Plugin>> sortedPlugins = topologicalSort(graph);
 		sortedPlugins = Lists.reverse(sortedPlugins);
 
-		int loaded = 0;
+		// Plugins are instantiated in parallel, each once all of its dependencies have been
+		// instantiated, so the dependency instances can be bound into the plugin's injector
+		final Map<Class<? extends Plugin>, Plugin> instantiated = new ConcurrentHashMap<>();
+		final AtomicInteger loaded = new AtomicInteger();
+		final int total = sortedPlugins.size();
+		final long start = System.nanoTime();
+		final ExecutorService loaderExecutor = Executors.newFixedThreadPool(loaderThreads, new ThreadFactoryBuilder()
+			.setNameFormat("plugin-loader-%d")
+			.setDaemon(true)
+			.build());
+
+		try
+		{
+			runInDependencyOrder(graph, sortedPlugins, loaderExecutor, pluginClazz ->
+			{
+				long pluginStart = System.nanoTime();
+				try
+				{
+					Plugin plugin = instantiate(instantiated, (Class<Plugin>) pluginClazz);
+					instantiated.put(pluginClazz, plugin);
+					log.debug("Loaded plugin {} in {}ms", pluginClazz.getSimpleName(), elapsedMillis(pluginStart));
+				}
+				catch (PluginInstantiationException ex)
+				{
+					log.warn("Error instantiating plugin!", ex);
+				}
+
+				SplashScreen.stage(.60, .70, null, "Loading Plugins", loaded.incrementAndGet(), total, false);
+			});
+		}
+		finally
+		{
+			loaderExecutor.shutdown();
+		}
+
+		// keep dependencies ahead of the plugins depending on them, as they are started in this order
 		for (Class<? extends Plugin> pluginClazz : sortedPlugins)
 		{
-			Plugin plugin;
-			try
+			Plugin plugin = instantiated.get(pluginClazz);
+			if (plugin != null)
 			{
-				plugin = instantiate(scannedPlugins, (Class<Plugin>) pluginClazz);
 				scannedPlugins.add(plugin);
 			}
-			catch (PluginInstantiationException ex)
-			{
-				log.warn("Error instantiating plugin!", ex);
-			}
-
-			loaded++;
-			SplashScreen.stage(.60, .70, null, "Loading Plugins", loaded, sortedPlugins.size(), false);
 		}
 
+		log.info("Loaded {} plugins in {}ms using {} threads", scannedPlugins.size(), elapsedMillis(start), loaderThreads);
 		return scannedPlugins;
 	}
 
@@ -412,18 +466,18 @@ public class PluginManager
 		return pluginDescriptor == null || pluginDescriptor.enabledByDefault();
 	}
 
-	private Plugin instantiate(List<Plugin> scannedPlugins, Class<Plugin> clazz) throws PluginInstantiationException
+	private Plugin instantiate(Map<Class<? extends Plugin>, Plugin> scannedPlugins, Class<Plugin> clazz) throws PluginInstantiationException
 	{
 		PluginDependency[] pluginDependencies = clazz.getAnnotationsByType(PluginDependency.class);
 		List<Plugin> deps = new ArrayList<>();
 		for (PluginDependency pluginDependency : pluginDependencies)
 		{
-			Optional<Plugin> dependency = scannedPlugins.stream().filter(p -> p.getClass() == pluginDependency.value()).findFirst();
-			if (!dependency.isPresent())
+			Plugin dependency = scannedPlugins.get(pluginDependency.value());
+			if (dependency == null)
 			{
 				throw new PluginInstantiationException("Unmet dependency for " + clazz.getSimpleName() + ": " + pluginDependency.value().getSimpleName());
 			}
-			deps.add(dependency.get());
+			deps.add(dependency);
 		}
 
 		Plugin plugin;
@@ -514,6 +568,45 @@ public class PluginManager
 		}
 	}
 
+	/**
+	 * Run a task for each node of a dependency graph on an executor. The task for a node is
+	 * only started once the tasks for all of its successors, the nodes it depends on, have
+	 * completed. Blocks until all of the tasks have completed.
+	 *
+	 * @param graph dependency graph, with edges from each node to the nodes it depends on
+	 * @param order the nodes of the graph ordered so dependencies come first
+	 * @param executor executor to run the tasks on
+	 * @param task task to run for each node
+	 */
+	private static <T> void runInDependencyOrder(Graph<T> graph, List<T> order, Executor executor, Consumer<T> task)
+	{
+		final Map<T, CompletableFuture<Void>> futures = new HashMap<>();
+		for (T node : order)
+		{
+			final CompletableFuture<?>[] dependencies = graph.successors(node).stream()
+				.map(futures::get)
+				.toArray(CompletableFuture[]::new);
+
+			futures.put(node, CompletableFuture.allOf(dependencies)
+				.thenRunAsync(() -> task.accept(node), executor));
+		}
+
+		try
+		{
+			CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+		}
+		catch (CompletionException ex)
+		{
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw ex;
+		}
+	}
+
+	private static long elapsedMillis(long startNanos)
+	{
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+
 	/**
 	 * Topologically sort a graph. Uses Kahn's algorithm.
 	 * @param graph
@@ -146,6 +146,7 @@ public class BankTagsPlugin extends Plugin implements MouseWheelListener, KeyLis
 	public void startUp()
 	{
 		cleanConfig();
+		tagManager.invalidate();
 		keyManager.registerKeyListener(this);
 		mouseManager.registerMouseWheelListener(this);
 		clientThread.invokeLater(tabInterface::init);
@@ -376,6 +377,11 @@ public class BankTagsPlugin extends Plugin implements MouseWheelListener, KeyLis
 	@Subscribe
 	public void onConfigChanged(ConfigChanged configChanged)
 	{
+		if (configChanged.getGroup().equals(CONFIG_GROUP))
+		{
+			tagManager.configChanged(configChanged.getKey(), configChanged.getNewValue());
+		}
+
 		if (configChanged.getGroup().equals("banktags") && configChanged.getKey().equals("useTabs"))
 		{
 			if (config.tabs())
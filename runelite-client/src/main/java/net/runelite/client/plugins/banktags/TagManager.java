@@ -26,9 +26,16 @@
 package net.runelite.client.plugins.banktags;
 
 import com.google.common.base.Strings;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -55,8 +62,18 @@ public class TagManager
 	private final ItemManager itemManager;
 	private final ClueScrollService clueScrollService;
 
+	// item id (as used in the config key) -> tags, and tag -> item ids. Loaded from the config on
+	// first use and kept in sync with every tag change, so searches never parse the config strings
+	private final Map<Integer, Set<String>> itemTags = new HashMap<>();
+	private final TreeMap<String, Set<Integer>> tagItems = new TreeMap<>();
+	private boolean loaded;
+
+	// item ids with a tag starting with the last search, reused for every item in the bank
+	private String lastSearch;
+	private Set<Integer> lastSearchItems;
+
 	@Inject
-	private TagManager(
+	TagManager(
 		final ItemManager itemManager,
 		final ConfigManager configManager,
 		final ClueScrollService clueScrollService)
@@ -79,12 +96,15 @@ public class TagManager
 		return config;
 	}
 
-	Collection<String> getTags(int itemId, boolean variation)
+	synchronized Collection<String> getTags(int itemId, boolean variation)
 	{
-		return new LinkedHashSet<>(Text.fromCSV(getTagString(itemId, variation).toLowerCase()));
+		load();
+
+		final Set<String> tags = itemTags.get(getItemId(itemId, variation));
+		return tags == null ? new LinkedHashSet<>() : new LinkedHashSet<>(tags);
 	}
 
-	void setTagString(int itemId, String tags, boolean variation)
+	synchronized void setTagString(int itemId, String tags, boolean variation)
 	{
 		itemId = getItemId(itemId, variation);
 
@@ -96,9 +116,48 @@ public class TagManager
 		{
 			configManager.setConfiguration(CONFIG_GROUP, ITEM_KEY_PREFIX + itemId, tags);
 		}
+
+		if (loaded)
+		{
+			index(itemId, tags);
+		}
+	}
+
+	/**
+	 * Update the index for a changed bank tags config key. Changes made through this class are
+	 * already indexed, so this only has an effect for changes made elsewhere, such as loading
+	 * another account's config.
+	 */
+	synchronized void configChanged(String key, String value)
+	{
+		if (!loaded || !key.startsWith(ITEM_KEY_PREFIX))
+		{
+			return;
+		}
+
+		try
+		{
+			index(Integer.parseInt(key.substring(ITEM_KEY_PREFIX.length())), value);
+		}
+		catch (NumberFormatException ex)
+		{
+			// not an item tag key
+		}
+	}
+
+	/**
+	 * Drop the index so it is reloaded from the config on next use.
+	 */
+	synchronized void invalidate()
+	{
+		loaded = false;
+		itemTags.clear();
+		tagItems.clear();
+		lastSearch = null;
+		lastSearchItems = null;
 	}
 
-	public void addTags(int itemId, final Collection<String> t, boolean variation)
+	public synchronized void addTags(int itemId, final Collection<String> t, boolean variation)
 	{
 		final Collection<String> tags = getTags(itemId, variation);
 		if (tags.addAll(t))
@@ -107,7 +166,7 @@ public class TagManager
 		}
 	}
 
-	public void addTag(int itemId, String tag, boolean variation)
+	public synchronized void addTag(int itemId, String tag, boolean variation)
 	{
 		final Collection<String> tags = getTags(itemId, variation);
 		if (tags.add(Text.standardize(tag)))
@@ -121,38 +180,40 @@ public class TagManager
 		setTagString(itemId, Text.toCSV(tags), variation);
 	}
 
-	boolean findTag(int itemId, String search)
+	synchronized boolean findTag(int itemId, String search)
 	{
 		if (search.equals("clue") && testClue(itemId))
 		{
 			return true;
 		}
 
-		Collection<String> tags = getTags(itemId, false);
-		tags.addAll(getTags(itemId, true));
-		return tags.stream().anyMatch(tag -> tag.startsWith(Text.standardize(search)));
+		final Set<Integer> items = getItemsForSearch(search);
+		return !items.isEmpty() && (items.contains(getItemId(itemId, false)) || items.contains(getItemId(itemId, true)));
 	}
 
-	public List<Integer> getItemsForTag(String tag)
+	public synchronized List<Integer> getItemsForTag(String tag)
 	{
-		final String prefix = CONFIG_GROUP + "." + ITEM_KEY_PREFIX;
-		return configManager.getConfigurationKeys(prefix).stream()
-			.map(item -> Integer.parseInt(item.replace(prefix, "")))
-			.filter(item -> getTags(item, false).contains(tag) || getTags(item, true).contains(tag))
+		load();
+
+		final Set<Integer> tagged = tagItems.get(tag);
+		if (tagged == null)
+		{
+			return Collections.emptyList();
+		}
+
+		return itemTags.keySet().stream()
+			.filter(item -> tagged.contains(getItemId(item, false)) || tagged.contains(getItemId(item, true)))
 			.collect(Collectors.toList());
 	}
 
-	public void removeTag(String tag)
+	public synchronized void removeTag(String tag)
 	{
-		final String prefix = CONFIG_GROUP + "." + ITEM_KEY_PREFIX;
-		configManager.getConfigurationKeys(prefix).forEach(item ->
-		{
-			int id = Integer.parseInt(item.replace(prefix, ""));
-			removeTag(id, tag);
-		});
+		load();
+
+		new ArrayList<>(itemTags.keySet()).forEach(id -> removeTag(id, tag));
 	}
 
-	public void removeTag(int itemId, String tag)
+	public synchronized void removeTag(int itemId, String tag)
 	{
 		Collection<String> tags = getTags(itemId, false);
 		if (tags.remove(Text.standardize(tag)))
@@ -167,7 +228,7 @@ public class TagManager
 		}
 	}
 
-	public void renameTag(String oldTag, String newTag)
+	public synchronized void renameTag(String oldTag, String newTag)
 	{
 		List<Integer> items = getItemsForTag(Text.standardize(oldTag));
 		items.forEach(id ->
@@ -181,6 +242,89 @@ public class TagManager
 		});
 	}
 
+	private Set<Integer> getItemsForSearch(String search)
+	{
+		load();
+
+		if (search.equals(lastSearch))
+		{
+			return lastSearchItems;
+		}
+
+		final String prefix = Text.standardize(search);
+		final Set<Integer> items = new HashSet<>();
+		for (Map.Entry<String, Set<Integer>> entry : tagItems.tailMap(prefix, true).entrySet())
+		{
+			if (!entry.getKey().startsWith(prefix))
+			{
+				break;
+			}
+
+			items.addAll(entry.getValue());
+		}
+
+		lastSearch = search;
+		lastSearchItems = items;
+		return items;
+	}
+
+	private void load()
+	{
+		if (loaded)
+		{
+			return;
+		}
+
+		final String prefix = CONFIG_GROUP + "." + ITEM_KEY_PREFIX;
+		for (String key : configManager.getConfigurationKeys(prefix))
+		{
+			final String itemKey = key.substring(CONFIG_GROUP.length() + 1);
+			final int itemId;
+			try
+			{
+				itemId = Integer.parseInt(itemKey.substring(ITEM_KEY_PREFIX.length()));
+			}
+			catch (NumberFormatException ex)
+			{
+				continue;
+			}
+
+			index(itemId, configManager.getConfiguration(CONFIG_GROUP, itemKey));
+		}
+
+		loaded = true;
+	}
+
+	private void index(int itemId, String tagString)
+	{
+		final Set<String> oldTags = itemTags.remove(itemId);
+		if (oldTags != null)
+		{
+			for (String tag : oldTags)
+			{
+				final Set<Integer> items = tagItems.get(tag);
+				items.remove(itemId);
+				if (items.isEmpty())
+				{
+					tagItems.remove(tag);
+				}
+			}
+		}
+
+		if (!Strings.isNullOrEmpty(tagString))
+		{
+			final Set<String> tags = new LinkedHashSet<>(Text.fromCSV(tagString.toLowerCase()));
+			itemTags.put(itemId, tags);
+			for (String tag : tags)
+			{
+				tagItems.computeIfAbsent(tag, k -> new HashSet<>()).add(itemId);
+			}
+		}
+
+		lastSearch = null;
+		lastSearchItems = null;
+	}
+
 	private int getItemId(int itemId, boolean variation)
 	{
 		itemId = Math.abs(itemId);
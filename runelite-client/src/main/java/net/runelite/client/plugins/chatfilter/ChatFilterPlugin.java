@@ -28,12 +28,6 @@ package net.runelite.client.plugins.chatfilter;
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Splitter;
 import com.google.inject.Provides;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 import javax.inject.Inject;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
@@ -47,7 +41,6 @@ import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.util.Text;
-import org.apache.commons.lang3.StringUtils;
 
 @PluginDescriptor(
 	name = "Chat Filter",
@@ -64,7 +57,7 @@ public class ChatFilterPlugin extends Plugin
 	private static final String CENSOR_MESSAGE = "Hey, everyone, I just tried to say something very silly!";
 
 	private final CharMatcher jagexPrintableCharMatcher = Text.JAGEX_PRINTABLE_CHAR_MATCHER;
-	private final List<Pattern> filteredPatterns = new ArrayList<>();
+	private MessageCensor messageCensor = MessageCensor.EMPTY;
 
 	@Inject
 	private Client client;
@@ -88,7 +81,7 @@ public class ChatFilterPlugin extends Plugin
 	@Override
 	protected void shutDown() throws Exception
 	{
-		filteredPatterns.clear();
+		messageCensor = MessageCensor.EMPTY;
 		client.refreshChat();
 	}
 
@@ -183,57 +176,26 @@ public class ChatFilterPlugin extends Plugin
 	{
 		String strippedMessage = jagexPrintableCharMatcher.retainFrom(message)
 			.replace('\u00A0', ' ');
-		boolean filtered = false;
-		for (Pattern pattern : filteredPatterns)
-		{
-			Matcher m = pattern.matcher(strippedMessage);
-
-			StringBuffer sb = new StringBuffer();
 
-			while (m.find())
-			{
-				switch (config.filterType())
-				{
-					case CENSOR_WORDS:
-						m.appendReplacement(sb, StringUtils.repeat("*", m.group(0).length()));
-						filtered = true;
-						break;
-					case CENSOR_MESSAGE:
-						return CENSOR_MESSAGE;
-					case REMOVE_MESSAGE:
-						return null;
-				}
-			}
-			m.appendTail(sb);
-
-			strippedMessage = sb.toString();
+		switch (config.filterType())
+		{
+			case CENSOR_WORDS:
+				String censoredMessage = messageCensor.censor(strippedMessage);
+				return censoredMessage != null ? censoredMessage : message;
+			case CENSOR_MESSAGE:
+				return messageCensor.matches(strippedMessage) ? CENSOR_MESSAGE : message;
+			case REMOVE_MESSAGE:
+				return messageCensor.matches(strippedMessage) ? null : message;
+			default:
+				return message;
 		}
-
-		return filtered ? strippedMessage : message;
 	}
 
 	void updateFilteredPatterns()
 	{
-		filteredPatterns.clear();
-
-		Text.fromCSV(config.filteredWords()).stream()
-			.map(s -> Pattern.compile(Pattern.quote(s), Pattern.CASE_INSENSITIVE))
-			.forEach(filteredPatterns::add);
-
-		NEWLINE_SPLITTER.splitToList(config.filteredRegex()).stream()
-			.map(s ->
-			{
-				try
-				{
-					return Pattern.compile(s, Pattern.CASE_INSENSITIVE);
-				}
-				catch (PatternSyntaxException ex)
-				{
-					return null;
-				}
-			})
-			.filter(Objects::nonNull)
-			.forEach(filteredPatterns::add);
+		messageCensor = MessageCensor.compile(
+			Text.fromCSV(config.filteredWords()),
+			NEWLINE_SPLITTER.splitToList(config.filteredRegex()));
 	}
 
 	@Subscribe
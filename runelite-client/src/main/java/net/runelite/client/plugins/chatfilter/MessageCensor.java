@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.chatfilter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+/**
+ * Matches a message against all of the filtered words and regexes at once. Words are
+ * found with a single {@link WordAutomaton} scan and regexes are joined into one
+ * alternation, so a message which matches nothing is scanned once per kind of filter.
+ * When censoring, only the regexes the alternation matched are run again to find every
+ * range to censor.
+ */
+final class MessageCensor
+{
+	static final MessageCensor EMPTY = new MessageCensor(null, null, new Pattern[0], new int[0], new Pattern[0]);
+
+	/**
+	 * Regexes which can't be joined into an alternation because they refer to their
+	 * own groups by number or name
+	 */
+	private static final Pattern GROUP_REFERENCE = Pattern.compile("\\\\[1-9k]|\\(\\?<[a-zA-Z]");
+
+	private final WordAutomaton words;
+	private final Pattern combined;
+	/**
+	 * The regexes joined into the combined alternation
+	 */
+	private final Pattern[] joined;
+	/**
+	 * Group of the combined alternation capturing each joined regex, which tells which one matched
+	 */
+	private final int[] joinedGroups;
+	private final Pattern[] standalone;
+
+	private MessageCensor(WordAutomaton words, Pattern combined, Pattern[] joined, int[] joinedGroups, Pattern[] standalone)
+	{
+		this.words = words;
+		this.combined = combined;
+		this.joined = joined;
+		this.joinedGroups = joinedGroups;
+		this.standalone = standalone;
+	}
+
+	/**
+	 * Compile the filter. Regexes which fail to compile are ignored.
+	 *
+	 * @param words words matched literally and case insensitively
+	 * @param regexes regexes matched case insensitively
+	 */
+	static MessageCensor compile(Collection<String> words, Collection<String> regexes)
+	{
+		final List<Pattern> joinable = new ArrayList<>();
+		final List<Pattern> standalone = new ArrayList<>();
+
+		for (String regex : regexes)
+		{
+			final Pattern pattern;
+			try
+			{
+				pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+			}
+			catch (PatternSyntaxException ex)
+			{
+				continue;
+			}
+
+			if (GROUP_REFERENCE.matcher(regex).find())
+			{
+				standalone.add(pattern);
+			}
+			else
+			{
+				joinable.add(pattern);
+			}
+		}
+
+		Pattern combined = null;
+		final int[] groups = new int[joinable.size()];
+		if (!joinable.isEmpty())
+		{
+			// each regex is wrapped in a capturing group, numbered after the groups of the regexes before it.
+			// Inline flags are scoped to their group, so the wrapping also keeps them from leaking.
+			int group = 1;
+			for (int i = 0; i < joinable.size(); ++i)
+			{
+				groups[i] = group;
+				group += 1 + joinable.get(i).matcher("").groupCount();
+			}
+
+			final String alternation = joinable.stream()
+				.map(p -> "(" + p.pattern() + ")")
+				.collect(Collectors.joining("|"));
+
+			try
+			{
+				combined = Pattern.compile(alternation, Pattern.CASE_INSENSITIVE);
+			}
+			catch (PatternSyntaxException ex)
+			{
+				standalone.addAll(joinable);
+			}
+		}
+
+		final WordAutomaton automaton = WordAutomaton.of(words);
+		if (automaton == null && joinable.isEmpty() && standalone.isEmpty())
+		{
+			return EMPTY;
+		}
+
+		if (combined == null)
+		{
+			return new MessageCensor(automaton, null, new Pattern[0], new int[0], standalone.toArray(new Pattern[0]));
+		}
+
+		return new MessageCensor(automaton, combined, joinable.toArray(new Pattern[0]), groups,
+			standalone.toArray(new Pattern[0]));
+	}
+
+	/**
+	 * Check if the message contains any filtered word or matches any filtered regex
+	 */
+	boolean matches(String message)
+	{
+		return (words != null && words.find(message)) || matchesRegex(message);
+	}
+
+	/**
+	 * Replace every character covered by a filtered word or regex match with {@code *}
+	 *
+	 * @return the censored message, or null if nothing in the message is filtered
+	 */
+	String censor(String message)
+	{
+		final BitSet marked = new BitSet(message.length());
+		boolean found = words != null && words.mark(message, marked);
+
+		if (combined != null)
+		{
+			// find which of the joined regexes match, then only run those to mark all of their matches
+			final BitSet hit = new BitSet(joined.length);
+			final Matcher m = combined.matcher(message);
+			while (m.find())
+			{
+				for (int i = 0; i < joined.length; ++i)
+				{
+					if (m.start(joinedGroups[i]) != -1)
+					{
+						hit.set(i);
+						break;
+					}
+				}
+			}
+
+			for (int i = hit.nextSetBit(0); i >= 0; i = hit.nextSetBit(i + 1))
+			{
+				found |= mark(joined[i], message, marked);
+			}
+		}
+
+		for (Pattern pattern : standalone)
+		{
+			found |= mark(pattern, message, marked);
+		}
+
+		if (!found)
+		{
+			return null;
+		}
+
+		final char[] chars = message.toCharArray();
+		for (int i = marked.nextSetBit(0); i >= 0; i = marked.nextSetBit(i + 1))
+		{
+			chars[i] = '*';
+		}
+		return new String(chars);
+	}
+
+	private static boolean mark(Pattern pattern, String message, BitSet marked)
+	{
+		final Matcher m = pattern.matcher(message);
+		boolean found = false;
+		while (m.find())
+		{
+			marked.set(m.start(), m.end());
+			found = true;
+		}
+		return found;
+	}
+
+	private boolean matchesRegex(String message)
+	{
+		if (combined != null && combined.matcher(message).find())
+		{
+			return true;
+		}
+
+		for (Pattern pattern : standalone)
+		{
+			if (pattern.matcher(message).find())
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.chatfilter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton matching a set of words in a single pass over the text.
+ * Matching is ASCII case insensitive, the same as {@link java.util.regex.Pattern#CASE_INSENSITIVE}.
+ */
+final class WordAutomaton
+{
+	/**
+	 * Maps a folded character to its index in the transition table, or 0
+	 * if the character does not appear in any word
+	 */
+	private final int[] charClasses;
+	private final int alphabetSize;
+	/**
+	 * Goto function with failure links resolved, indexed by state * alphabetSize + char class
+	 */
+	private final int[] transitions;
+	/**
+	 * Length of the longest word ending at each state, or 0 if no word ends there
+	 */
+	private final int[] matchLengths;
+
+	private WordAutomaton(int[] charClasses, int alphabetSize, int[] transitions, int[] matchLengths)
+	{
+		this.charClasses = charClasses;
+		this.alphabetSize = alphabetSize;
+		this.transitions = transitions;
+		this.matchLengths = matchLengths;
+	}
+
+	/**
+	 * Build an automaton for the given words
+	 *
+	 * @param words words to match, empty words are ignored
+	 * @return the automaton, or null if there are no words to match
+	 */
+	static WordAutomaton of(Collection<String> words)
+	{
+		char maxChar = 0;
+		for (String word : words)
+		{
+			for (int i = 0; i < word.length(); ++i)
+			{
+				maxChar = (char) Math.max(maxChar, fold(word.charAt(i)));
+			}
+		}
+
+		final int[] charClasses = new int[maxChar + 1];
+		int alphabetSize = 1;
+		for (String word : words)
+		{
+			for (int i = 0; i < word.length(); ++i)
+			{
+				char c = fold(word.charAt(i));
+				if (charClasses[c] == 0)
+				{
+					charClasses[c] = alphabetSize++;
+				}
+			}
+		}
+
+		// Build the trie. State 0 is the root, and as no trie edge leads back to the
+		// root a 0 entry in a row means there is no child for that character.
+		final List<int[]> rows = new ArrayList<>();
+		final List<Integer> lengths = new ArrayList<>();
+		rows.add(new int[alphabetSize]);
+		lengths.add(0);
+
+		for (String word : words)
+		{
+			if (word.isEmpty())
+			{
+				continue;
+			}
+
+			int state = 0;
+			for (int i = 0; i < word.length(); ++i)
+			{
+				int c = charClasses[fold(word.charAt(i))];
+				int next = rows.get(state)[c];
+				if (next == 0)
+				{
+					next = rows.size();
+					rows.add(new int[alphabetSize]);
+					lengths.add(0);
+					rows.get(state)[c] = next;
+				}
+				state = next;
+			}
+			lengths.set(state, word.length());
+		}
+
+		if (rows.size() == 1)
+		{
+			return null;
+		}
+
+		final int states = rows.size();
+		final int[] transitions = new int[states * alphabetSize];
+		final int[] matchLengths = new int[states];
+		final int[] failure = new int[states];
+		for (int i = 0; i < states; ++i)
+		{
+			matchLengths[i] = lengths.get(i);
+		}
+
+		// Resolve failure links breadth first, so the failure state of every state
+		// has its row complete by the time it is needed. Missing edges are replaced
+		// with the edge of the failure state, giving a full transition table.
+		final Deque<Integer> queue = new ArrayDeque<>();
+		queue.add(0);
+		while (!queue.isEmpty())
+		{
+			final int state = queue.poll();
+			final int[] row = rows.get(state);
+
+			for (int c = 1; c < alphabetSize; ++c)
+			{
+				final int child = row[c];
+				if (child != 0)
+				{
+					failure[child] = state == 0 ? 0 : rows.get(failure[state])[c];
+					matchLengths[child] = Math.max(matchLengths[child], matchLengths[failure[child]]);
+					queue.add(child);
+				}
+				else if (state != 0)
+				{
+					row[c] = rows.get(failure[state])[c];
+				}
+			}
+
+			System.arraycopy(row, 0, transitions, state * alphabetSize, alphabetSize);
+		}
+
+		return new WordAutomaton(charClasses, alphabetSize, transitions, matchLengths);
+	}
+
+	/**
+	 * Check if any word occurs in the text
+	 */
+	boolean find(CharSequence text)
+	{
+		int state = 0;
+		for (int i = 0; i < text.length(); ++i)
+		{
+			state = transitions[state * alphabetSize + charClass(text.charAt(i))];
+			if (matchLengths[state] > 0)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Set the bits of every character covered by a word occurring in the text
+	 *
+	 * @return true if any word occurs in the text
+	 */
+	boolean mark(CharSequence text, BitSet marked)
+	{
+		boolean found = false;
+		int state = 0;
+		for (int i = 0; i < text.length(); ++i)
+		{
+			state = transitions[state * alphabetSize + charClass(text.charAt(i))];
+			// every other word ending here is a suffix of the longest one
+			final int length = matchLengths[state];
+			if (length > 0)
+			{
+				marked.set(i - length + 1, i + 1);
+				found = true;
+			}
+		}
+		return found;
+	}
+
+	private int charClass(char c)
+	{
+		c = fold(c);
+		return c < charClasses.length ? charClasses[c] : 0;
+	}
+
+	private static char fold(char c)
+	{
+		return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+	}
+}
@@ -39,15 +39,17 @@ class DevToolsPanel extends PluginPanel
 
 	private final WidgetInspector widgetInspector;
 	private final VarInspector varInspector;
+	private final EventInspector eventInspector;
 
 	@Inject
-	private DevToolsPanel(Client client, DevToolsPlugin plugin, WidgetInspector widgetInspector, VarInspector varInspector)
+	private DevToolsPanel(Client client, DevToolsPlugin plugin, WidgetInspector widgetInspector, VarInspector varInspector, EventInspector eventInspector)
 	{
 		super();
 		this.client = client;
 		this.plugin = plugin;
 		this.widgetInspector = widgetInspector;
 		this.varInspector = varInspector;
+		this.eventInspector = eventInspector;
 
 		setBackground(ColorScheme.DARK_GRAY_COLOR);
 
@@ -119,6 +121,19 @@ class DevToolsPanel extends PluginPanel
 			}
 		});
 
+		container.add(plugin.getEventInspector());
+		plugin.getEventInspector().addActionListener((ev) ->
+		{
+			if (plugin.getEventInspector().isActive())
+			{
+				eventInspector.close();
+			}
+			else
+			{
+				eventInspector.open();
+			}
+		});
+
 		container.add(plugin.getSoundEffects());
 
 		return container;
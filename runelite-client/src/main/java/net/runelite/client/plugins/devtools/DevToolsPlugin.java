@@ -128,6 +128,7 @@ public class DevToolsPlugin extends Plugin
 	private DevToolsButton detachedCamera;
 	private DevToolsButton widgetInspector;
 	private DevToolsButton varInspector;
+	private DevToolsButton eventInspector;
 	private DevToolsButton soundEffects;
 	private NavigationButton navButton;
 
@@ -169,6 +170,7 @@ public class DevToolsPlugin extends Plugin
 		detachedCamera = new DevToolsButton("Detached Camera");
 		widgetInspector = new DevToolsButton("Widget Inspector");
 		varInspector = new DevToolsButton("Var Inspector");
+		eventInspector = new DevToolsButton("Event Inspector");
 		soundEffects = new DevToolsButton("Sound Effects");
 
 		overlayManager.add(overlay);
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import com.google.inject.Inject;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.EventProfiler;
+import net.runelite.client.eventbus.SubscriberTiming;
+import net.runelite.client.ui.ClientUI;
+
+@Slf4j
+class EventInspector extends JFrame
+{
+	private static final long FRAME_BUDGET_MS = 20;
+	private static final int REFRESH_INTERVAL_MS = 1000;
+	private static final DateFormat TIME_FORMAT = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+
+	private static final String[] COLUMNS = {
+		"Subscriber", "Event", "Calls", "Total (ms)", "Avg (us)", "Max (us)", "Alloc (KB)", "Over budget"
+	};
+
+	private final EventBus eventBus;
+	private final DevToolsPlugin plugin;
+	private final TimingTableModel tableModel = new TimingTableModel();
+	private final Timer refreshTimer;
+
+	private EventProfiler profiler;
+
+	private static class TimingTableModel extends AbstractTableModel
+	{
+		private List<SubscriberTiming> timings = Collections.emptyList();
+
+		void setTimings(List<SubscriberTiming> timings)
+		{
+			this.timings = timings;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public String getColumnName(int col)
+		{
+			return COLUMNS[col];
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return timings.size();
+		}
+
+		@Override
+		public int getColumnCount()
+		{
+			return COLUMNS.length;
+		}
+
+		@Override
+		public Class<?> getColumnClass(int col)
+		{
+			return col < 2 ? String.class : Long.class;
+		}
+
+		@Override
+		public Object getValueAt(int row, int col)
+		{
+			SubscriberTiming timing = timings.get(row);
+			switch (col)
+			{
+				case 0:
+					return timing.getSubscriber();
+				case 1:
+					return timing.getEvent();
+				case 2:
+					return timing.getInvocations();
+				case 3:
+					return TimeUnit.NANOSECONDS.toMillis(timing.getTotalNanos());
+				case 4:
+					return timing.getInvocations() == 0 ? 0L : TimeUnit.NANOSECONDS.toMicros(timing.getTotalNanos() / timing.getInvocations());
+				case 5:
+					return TimeUnit.NANOSECONDS.toMicros(timing.getMaxNanos());
+				case 6:
+					return timing.getAllocatedBytes() < 0 ? -1L : timing.getAllocatedBytes() / 1024;
+				case 7:
+					return timing.getOverBudget();
+				default:
+					return null;
+			}
+		}
+	}
+
+	@Inject
+	EventInspector(EventBus eventBus, DevToolsPlugin plugin)
+	{
+		this.eventBus = eventBus;
+		this.plugin = plugin;
+
+		setTitle("RuneLite Event Inspector");
+		setIconImage(ClientUI.ICON);
+
+		setLayout(new BorderLayout());
+
+		setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+		addWindowListener(new WindowAdapter()
+		{
+			@Override
+			public void windowClosing(WindowEvent e)
+			{
+				close();
+				plugin.getEventInspector().setActive(false);
+			}
+		});
+
+		final JTable table = new JTable(tableModel);
+		table.setAutoCreateRowSorter(true);
+
+		final JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.setPreferredSize(new Dimension(800, 400));
+		add(scrollPane, BorderLayout.CENTER);
+
+		final JPanel buttons = new JPanel();
+		buttons.setLayout(new FlowLayout());
+
+		final JButton resetBtn = new JButton("Reset");
+		resetBtn.addActionListener(e ->
+		{
+			if (profiler != null)
+			{
+				profiler.reset();
+				refresh();
+			}
+		});
+		buttons.add(resetBtn);
+
+		final JButton dumpBtn = new JButton("Dump JSON");
+		dumpBtn.addActionListener(e -> dump());
+		buttons.add(dumpBtn);
+
+		add(buttons, BorderLayout.SOUTH);
+
+		refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refresh());
+
+		pack();
+	}
+
+	private void refresh()
+	{
+		if (profiler != null)
+		{
+			tableModel.setTimings(profiler.getTimings());
+		}
+	}
+
+	private void dump()
+	{
+		if (profiler == null)
+		{
+			return;
+		}
+
+		final File file = new File(RuneLite.RUNELITE_DIR, "event-timings-" + TIME_FORMAT.format(new Date()) + ".json");
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))
+		{
+			writer.write(profiler.toJson());
+			log.info("Dumped event timings to {}", file);
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to dump event timings", ex);
+		}
+	}
+
+	public void open()
+	{
+		profiler = new EventProfiler(FRAME_BUDGET_MS, TimeUnit.MILLISECONDS);
+		eventBus.setProfiler(profiler);
+		refreshTimer.start();
+
+		setVisible(true);
+		toFront();
+		repaint();
+	}
+
+	public void close()
+	{
+		refreshTimer.stop();
+		eventBus.setProfiler(null);
+		profiler = null;
+		tableModel.setTimings(Collections.emptyList());
+		setVisible(false);
+	}
+}
@@ -1217,18 +1217,7 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 		int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
 
-		for (int y = 0; y < height; ++y)
-		{
-			for (int x = 0; x < width; ++x)
-			{
-				int r = buffer.get() & 0xff;
-				int g = buffer.get() & 0xff;
-				int b = buffer.get() & 0xff;
-				buffer.get(); // alpha
-
-				pixels[(height - y - 1) * width + x] = (r << 16) | (g << 8) | b;
-			}
-		}
+		PixelConverter.convert(buffer, width, height, pixels);
 
 		return image;
 	}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.gpu;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.stream.IntStream;
+
+/**
+ * Converts framebuffers read back with {@code glReadPixels} as {@code GL_RGBA}/{@code GL_UNSIGNED_BYTE}
+ * into the top-down packed RGB pixels of a {@code TYPE_INT_RGB} image.
+ * <p>
+ * Each row is copied in bulk through an {@link IntBuffer} view straight into its flipped position
+ * in the destination, then swizzled in place a whole pixel word at a time.
+ */
+class PixelConverter
+{
+	/**
+	 * Images with at least this many pixels are converted in parallel stripes
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+	/**
+	 * Convert a bottom-up RGBA framebuffer, in parallel if it is large
+	 *
+	 * @param buffer the framebuffer, starting at its position
+	 * @param width  width of the framebuffer
+	 * @param height height of the framebuffer
+	 * @param pixels the top-down RGB destination, of at least width * height pixels
+	 */
+	static void convert(ByteBuffer buffer, int width, int height, int[] pixels)
+	{
+		int stripes = width * height >= PARALLEL_THRESHOLD ? Runtime.getRuntime().availableProcessors() : 1;
+		convert(buffer, width, height, pixels, stripes);
+	}
+
+	/**
+	 * Convert a bottom-up RGBA framebuffer, split into a number of stripes of rows converted in parallel
+	 */
+	static void convert(ByteBuffer buffer, int width, int height, int[] pixels, int stripes)
+	{
+		IntBuffer ints = buffer.asIntBuffer();
+		boolean littleEndian = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+		stripes = Math.max(1, Math.min(stripes, height));
+
+		if (stripes == 1)
+		{
+			convertRows(ints, width, height, pixels, littleEndian, 0, height);
+			return;
+		}
+
+		int rowsPerStripe = (height + stripes - 1) / stripes;
+		IntStream.range(0, stripes)
+			.parallel()
+			.forEach(stripe -> convertRows(ints.duplicate(), width, height, pixels, littleEndian,
+				stripe * rowsPerStripe, Math.min(height, (stripe + 1) * rowsPerStripe)));
+	}
+
+	private static void convertRows(IntBuffer ints, int width, int height, int[] pixels, boolean littleEndian, int startRow, int endRow)
+	{
+		for (int y = startRow; y < endRow; ++y)
+		{
+			int offset = (height - y - 1) * width;
+			ints.position(y * width);
+			ints.get(pixels, offset, width);
+
+			if (littleEndian)
+			{
+				// the word is ABGR
+				for (int i = offset, end = offset + width; i < end; ++i)
+				{
+					int abgr = pixels[i];
+					pixels[i] = ((abgr & 0xff) << 16) | (abgr & 0xff00) | ((abgr >> 16) & 0xff);
+				}
+			}
+			else
+			{
+				// the word is RGBA
+				for (int i = offset, end = offset + width; i < end; ++i)
+				{
+					pixels[i] >>>= 8;
+				}
+			}
+		}
+	}
+}
@@ -29,14 +29,15 @@ import com.google.common.cache.CacheLoader;
 import java.util.List;
 import javax.annotation.Nonnull;
 import net.runelite.client.util.WildcardMatcher;
+import net.runelite.client.util.WildcardPatternSet;
 
 class WildcardMatchLoader extends CacheLoader<String, Boolean>
 {
-	private final List<String> nameFilters;
+	private final WildcardPatternSet nameFilters;
 
 	WildcardMatchLoader(List<String> nameFilters)
 	{
-		this.nameFilters = nameFilters;
+		this.nameFilters = WildcardMatcher.compile(nameFilters);
 	}
 
 	@Override
@@ -49,14 +50,6 @@ class WildcardMatchLoader extends CacheLoader<String, Boolean>
 
 		final String filteredName = key.trim();
 
-		for (final String filter : nameFilters)
-		{
-			if (WildcardMatcher.matches(filter, filteredName))
-			{
-				return true;
-			}
-		}
-
-		return false;
+		return nameFilters.matches(filteredName);
 	}
 }
@@ -25,11 +25,7 @@
  */
 package net.runelite.client.plugins.menuentryswapper;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ImmutableSet;
 import com.google.inject.Provides;
-import java.util.List;
-import java.util.Set;
 import javax.inject.Inject;
 import lombok.Getter;
 import lombok.Setter;
@@ -74,6 +70,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 	private static final String MENU_TARGET = "Shift-click";
 
 	private static final String CONFIG_GROUP = "shiftclick";
+	private static final String SWAPPER_CONFIG_GROUP = "menuentryswapper";
 	private static final String ITEM_KEY_PREFIX = "item_";
 
 	private static final WidgetMenuOption FIXED_INVENTORY_TAB_CONFIGURE = new WidgetMenuOption(CONFIGURE,
@@ -94,14 +91,6 @@ public class MenuEntrySwapperPlugin extends Plugin
 	private static final WidgetMenuOption RESIZABLE_BOTTOM_LINE_INVENTORY_TAB_SAVE = new WidgetMenuOption(SAVE,
 		MENU_TARGET, WidgetInfo.RESIZABLE_VIEWPORT_BOTTOM_LINE_INVENTORY_TAB);
 
-	private static final Set<MenuAction> NPC_MENU_TYPES = ImmutableSet.of(
-		MenuAction.NPC_FIRST_OPTION,
-		MenuAction.NPC_SECOND_OPTION,
-		MenuAction.NPC_THIRD_OPTION,
-		MenuAction.NPC_FOURTH_OPTION,
-		MenuAction.NPC_FIFTH_OPTION,
-		MenuAction.EXAMINE_NPC);
-
 	@Inject
 	private Client client;
 
@@ -132,7 +121,10 @@ public class MenuEntrySwapperPlugin extends Plugin
 	@Setter
 	private boolean shiftModifier = false;
 
-	private final ArrayListMultimap<String, Integer> optionIndexes = ArrayListMultimap.create();
+	/**
+	 * The enabled swaps, compiled on first use after the config changes
+	 */
+	private volatile SwapRules swapRules;
 
 	@Provides
 	MenuEntrySwapperConfig provideConfig(ConfigManager configManager)
@@ -143,6 +135,9 @@ public class MenuEntrySwapperPlugin extends Plugin
 	@Override
 	public void startUp()
 	{
+		// config changes are not delivered while the plugin is off, so recompile the swaps
+		swapRules = null;
+
 		if (config.shiftClickCustomization())
 		{
 			enableCustomization();
@@ -152,12 +147,19 @@ public class MenuEntrySwapperPlugin extends Plugin
 	@Override
 	public void shutDown()
 	{
+		swapRules = null;
 		disableCustomization();
 	}
 
 	@Subscribe
 	public void onConfigChanged(ConfigChanged event)
 	{
+		if (SWAPPER_CONFIG_GROUP.equals(event.getGroup()))
+		{
+			swapRules = null;
+			return;
+		}
+
 		if (!CONFIG_GROUP.equals(event.getGroup()))
 		{
 			return;
@@ -355,293 +357,6 @@ public class MenuEntrySwapperPlugin extends Plugin
 		}
 	}
 
-	private void swapMenuEntry(int index, MenuEntry menuEntry)
-	{
-		final int eventId = menuEntry.getIdentifier();
-		final String option = Text.removeTags(menuEntry.getOption()).toLowerCase();
-		final String target = Text.removeTags(menuEntry.getTarget()).toLowerCase();
-		final NPC hintArrowNpc = client.getHintArrowNpc();
-
-		if (hintArrowNpc != null
-			&& hintArrowNpc.getIndex() == eventId
-			&& NPC_MENU_TYPES.contains(MenuAction.of(menuEntry.getType())))
-		{
-			return;
-		}
-
-		if (option.equals("talk-to"))
-		{
-			if (config.swapAbyssTeleport() && target.contains("mage of zamorak"))
-			{
-				swap("teleport", option, target, index);
-			}
-
-			if (config.swapHardWoodGrove() && target.contains("rionasta"))
-			{
-				swap("send-parcel", option, target, index);
-			}
-
-			if (config.swapBank())
-			{
-				swap("bank", option, target, index);
-			}
-
-			if (config.swapContract())
-			{
-				swap("contract", option, target, index);
-			}
-
-			if (config.swapExchange())
-			{
-				swap("exchange", option, target, index);
-			}
-
-			if (config.swapDarkMage())
-			{
-				swap("repairs", option, target, index);
-			}
-
-			// make sure assignment swap is higher priority than trade swap for slayer masters
-			if (config.swapAssignment())
-			{
-				swap("assignment", option, target, index);
-			}
-
-			if (config.swapTrade())
-			{
-				swap("trade", option, target, index);
-				swap("trade-with", option, target, index);
-				swap("shop", option, target, index);
-			}
-
-			if (config.claimSlime() && target.equals("robin"))
-			{
-				swap("claim-slime", option, target, index);
-			}
-
-			if (config.swapTravel())
-			{
-				swap("travel", option, target, index);
-				swap("pay-fare", option, target, index);
-				swap("charter", option, target, index);
-				swap("take-boat", option, target, index);
-				swap("fly", option, target, index);
-				swap("jatizso", option, target, index);
-				swap("neitiznot", option, target, index);
-				swap("rellekka", option, target, index);
-				swap("follow", option, target, index);
-				swap("transport", option, target, index);
-			}
-
-			if (config.swapPay())
-			{
-				swap("pay", option, target, index);
-				swapContains("pay (", option, target, index);
-			}
-
-			if (config.swapDecant())
-			{
-				swap("decant", option, target, index);
-			}
-
-			if (config.swapQuick())
-			{
-				swap("quick-travel", option, target, index);
-			}
-
-			if (config.swapEnchant())
-			{
-				swap("enchant", option, target, index);
-			}
-
-			if (config.swapStartMinigame())
-			{
-				swap("start-minigame", option, target, index);
-			}
-		}
-		else if (config.swapQuickLeave() && option.equals("leave tomb") && target.equals("tomb door"))
-		{
-			swap("quick-leave", option, target, index);
-		}
-		else if (config.swapTravel() && option.equals("pass") && target.equals("energy barrier"))
-		{
-			swap("pay-toll(2-ecto)", option, target, index);
-		}
-		else if (config.swapTravel() && option.equals("open") && target.equals("gate"))
-		{
-			swap("pay-toll(10gp)", option, target, index);
-		}
-		else if (config.swapHardWoodGrove() && option.equals("open") && target.equals("hardwood grove doors"))
-		{
-			swap("quick-pay(100)", option, target, index);
-		}
-		else if (config.swapTravel() && option.equals("inspect") && target.equals("trapdoor"))
-		{
-			swap("travel", option, target, index);
-		}
-		else if (config.swapHarpoon() && option.equals("cage"))
-		{
-			swap("harpoon", option, target, index);
-		}
-		else if (config.swapHarpoon() && (option.equals("big net") || option.equals("net")))
-		{
-			swap("harpoon", option, target, index);
-		}
-		else if (config.swapHomePortal() != HouseMode.ENTER && option.equals("enter"))
-		{
-			switch (config.swapHomePortal())
-			{
-				case HOME:
-					swap("home", option, target, index);
-					break;
-				case BUILD_MODE:
-					swap("build mode", option, target, index);
-					break;
-				case FRIENDS_HOUSE:
-					swap("friend's house", option, target, index);
-					break;
-			}
-		}
-		else if (config.swapHouseAdvertisement() != HouseAdvertisementMode.VIEW && option.equals("view"))
-		{
-			switch (config.swapHouseAdvertisement())
-			{
-				case ADD_HOUSE:
-					swap("add-house", option, target, index);
-					break;
-				case VISIT_LAST:
-					swap("visit-last", option, target, index);
-					break;
-			}
-		}
-		else if (config.swapFairyRing() != FairyRingMode.OFF && config.swapFairyRing() != FairyRingMode.ZANARIS
-			&& (option.equals("zanaris") || option.equals("configure") || option.equals("tree")))
-		{
-			if (config.swapFairyRing() == FairyRingMode.LAST_DESTINATION)
-			{
-				swapContains("last-destination", option, target, index);
-			}
-			else if (config.swapFairyRing() == FairyRingMode.CONFIGURE)
-			{
-				swapContains("configure", option, target, index);
-			}
-		}
-		else if (config.swapFairyRing() == FairyRingMode.ZANARIS && option.equals("tree"))
-		{
-			swapContains("zanaris", option, target, index);
-		}
-		else if (config.swapBoxTrap() && (option.equals("check") || option.equals("dismantle")))
-		{
-			swap("reset", option, target, index);
-		}
-		else if (config.swapBoxTrap() && option.equals("take"))
-		{
-			swap("lay", option, target, index);
-		}
-		else if (config.swapChase() && option.equals("pick-up"))
-		{
-			swap("chase", option, target, index);
-		}
-		else if (config.swapBirdhouseEmpty() && option.equals("interact") && target.contains("birdhouse"))
-		{
-			swap("empty", option, target, index);
-		}
-		else if (config.swapQuick() && option.equals("enter"))
-		{
-			swap("quick-enter", option, target, index);
-		}
-		else if (config.swapQuick() && option.equals("ring"))
-		{
-			swap("quick-start", option, target, index);
-		}
-		else if (config.swapQuick() && option.equals("pass"))
-		{
-			swap("quick-pass", option, target, index);
-			swap("quick pass", option, target, index);
-		}
-		else if (config.swapQuick() && option.equals("open"))
-		{
-			swap("quick-open", option, target, index);
-		}
-		else if (config.swapQuick() && option.equals("climb-down"))
-		{
-			swap("quick-start", option, target, index);
-			swap("pay", option, target, index);
-		}
-		else if (config.swapAdmire() && option.equals("admire"))
-		{
-			swap("teleport", option, target, index);
-			swap("spellbook", option, target, index);
-			swap("perks", option, target, index);
-		}
-		else if (config.swapPrivate() && option.equals("shared"))
-		{
-			swap("private", option, target, index);
-		}
-		else if (config.swapPick() && option.equals("pick"))
-		{
-			swap("pick-lots", option, target, index);
-		}
-		else if (config.shiftClickCustomization() && shiftModifier && !option.equals("use"))
-		{
-			Integer customOption = getSwapConfig(eventId);
-
-			if (customOption != null && customOption == -1)
-			{
-				swap("use", option, target, index);
-			}
-		}
-		// Put all item-related swapping after shift-click
-		else if (config.swapTeleportItem() && option.equals("wear"))
-		{
-			swap("rub", option, target, index);
-			swap("teleport", option, target, index);
-		}
-		else if (option.equals("wield"))
-		{
-			if (config.swapTeleportItem())
-			{
-				swap("teleport", option, target, index);
-			}
-		}
-		else if (config.swapBones() && option.equals("bury"))
-		{
-			swap("use", option, target, index);
-		}
-
-		if (shiftModifier && config.swapTeleportSpell())
-		{
-			if (target.equals("varrock teleport"))
-			{
-				swapTeleport(target, option, "grand exchange", index);
-			}
-			else if (target.equals("camelot teleport"))
-			{
-				swapTeleport(target, option, "seers'", index);
-			}
-			else if (target.equals("watchtower teleport"))
-			{
-				swapTeleport(target, option, "yanille", index);
-			}
-			else if (target.equals("teleport to house"))
-			{
-				swapTeleport(target, option, "outside", index);
-			}
-		}
-	}
-
-	private void swapTeleport(String target, String option, String optionA, int index)
-	{
-		if (option.equals("cast"))
-		{
-			swap(optionA, option, target, index);
-		}
-		else if (option.equals(optionA))
-		{
-			swap("cast", option, target, index);
-		}
-	}
-
 	@Subscribe
 	public void onClientTick(ClientTick clientTick)
 	{
@@ -652,22 +367,23 @@ public class MenuEntrySwapperPlugin extends Plugin
 			return;
 		}
 
-		MenuEntry[] menuEntries = client.getMenuEntries();
-
-		// Build option map for quick lookup in findIndex
-		int idx = 0;
-		optionIndexes.clear();
-		for (MenuEntry entry : menuEntries)
+		SwapRules rules = swapRules;
+		if (rules == null)
 		{
-			String option = Text.removeTags(entry.getOption()).toLowerCase();
-			optionIndexes.put(option, idx++);
+			rules = swapRules = SwapRules.compile(config, itemId ->
+			{
+				Integer customOption = getSwapConfig(itemId);
+				return customOption != null && customOption == -1;
+			});
 		}
 
-		// Perform swaps
-		idx = 0;
-		for (MenuEntry entry : menuEntries)
+		final NPC hintArrowNpc = client.getHintArrowNpc();
+		final SwapMenu menu = new SwapMenu(client.getMenuEntries());
+		rules.apply(menu, hintArrowNpc != null ? hintArrowNpc.getIndex() : -1, shiftModifier);
+
+		if (menu.isModified())
 		{
-			swapMenuEntry(idx++, entry);
+			client.setMenuEntries(menu.getEntries());
 		}
 	}
 
@@ -692,88 +408,6 @@ public class MenuEntrySwapperPlugin extends Plugin
 		}
 	}
 
-	private void swap(String optionA, String optionB, String target, int index)
-	{
-		swap(optionA, optionB, target, index, true);
-	}
-
-	private void swapContains(String optionA, String optionB, String target, int index)
-	{
-		swap(optionA, optionB, target, index, false);
-	}
-
-	private void swap(String optionA, String optionB, String target, int index, boolean strict)
-	{
-		MenuEntry[] menuEntries = client.getMenuEntries();
-
-		int thisIndex = findIndex(menuEntries, index, optionB, target, strict);
-		int optionIdx = findIndex(menuEntries, thisIndex, optionA, target, strict);
-
-		if (thisIndex >= 0 && optionIdx >= 0)
-		{
-			swap(optionIndexes, menuEntries, optionIdx, thisIndex);
-		}
-	}
-
-	private int findIndex(MenuEntry[] entries, int limit, String option, String target, boolean strict)
-	{
-		if (strict)
-		{
-			List<Integer> indexes = optionIndexes.get(option);
-
-			// We want the last index which matches the target, as that is what is top-most
-			// on the menu
-			for (int i = indexes.size() - 1; i >= 0; --i)
-			{
-				int idx = indexes.get(i);
-				MenuEntry entry = entries[idx];
-				String entryTarget = Text.removeTags(entry.getTarget()).toLowerCase();
-
-				// Limit to the last index which is prior to the current entry
-				if (idx <= limit && entryTarget.equals(target))
-				{
-					return idx;
-				}
-			}
-		}
-		else
-		{
-			// Without strict matching we have to iterate all entries up to the current limit...
-			for (int i = limit; i >= 0; i--)
-			{
-				MenuEntry entry = entries[i];
-				String entryOption = Text.removeTags(entry.getOption()).toLowerCase();
-				String entryTarget = Text.removeTags(entry.getTarget()).toLowerCase();
-
-				if (entryOption.contains(option.toLowerCase()) && entryTarget.equals(target))
-				{
-					return i;
-				}
-			}
-
-		}
-
-		return -1;
-	}
-
-	private void swap(ArrayListMultimap<String, Integer> optionIndexes, MenuEntry[] entries, int index1, int index2)
-	{
-		MenuEntry entry = entries[index1];
-		entries[index1] = entries[index2];
-		entries[index2] = entry;
-
-		client.setMenuEntries(entries);
-
-		// Rebuild option indexes
-		optionIndexes.clear();
-		int idx = 0;
-		for (MenuEntry menuEntry : entries)
-		{
-			String option = Text.removeTags(menuEntry.getOption()).toLowerCase();
-			optionIndexes.put(option, idx++);
-		}
-	}
-
 	private void removeShiftClickCustomizationMenus()
 	{
 		menuManager.removeManagedCustomMenu(FIXED_INVENTORY_TAB_CONFIGURE);
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.menuentryswapper;
+
+import lombok.Getter;
+import net.runelite.api.MenuEntry;
+import net.runelite.client.util.Text;
+
+/**
+ * A menu being swapped. The option and target of each entry are stripped of tags and
+ * lowercased once when the menu is built, and swaps are applied to a copy of the entries
+ * so they can be set on the client in one go.
+ */
+class SwapMenu
+{
+	/**
+	 * The entries in the order the menu was built
+	 */
+	private final MenuEntry[] menuEntries;
+	private final String[] menuOptions;
+	private final String[] menuTargets;
+
+	/**
+	 * The entries with all swaps so far applied
+	 */
+	@Getter
+	private final MenuEntry[] entries;
+	private final String[] options;
+	private final String[] targets;
+
+	@Getter
+	private boolean modified;
+
+	SwapMenu(MenuEntry[] menuEntries)
+	{
+		this.menuEntries = menuEntries;
+		this.menuOptions = new String[menuEntries.length];
+		this.menuTargets = new String[menuEntries.length];
+
+		for (int i = 0; i < menuEntries.length; ++i)
+		{
+			MenuEntry entry = menuEntries[i];
+			menuOptions[i] = Text.removeTags(entry.getOption()).toLowerCase();
+			menuTargets[i] = Text.removeTags(entry.getTarget()).toLowerCase();
+		}
+
+		this.entries = menuEntries.clone();
+		this.options = menuOptions.clone();
+		this.targets = menuTargets.clone();
+	}
+
+	int size()
+	{
+		return menuEntries.length;
+	}
+
+	MenuEntry getMenuEntry(int index)
+	{
+		return menuEntries[index];
+	}
+
+	String getMenuOption(int index)
+	{
+		return menuOptions[index];
+	}
+
+	String getMenuTarget(int index)
+	{
+		return menuTargets[index];
+	}
+
+	/**
+	 * Swap the entry with option {@code optionB} at or before {@code index} with the entry
+	 * with option {@code optionA} before it, if both exist for the target
+	 *
+	 * @param strict whether the options must match exactly, or only be contained in the entry options
+	 */
+	void swap(String optionA, String optionB, String target, int index, boolean strict)
+	{
+		int thisIndex = findIndex(index, optionB, target, strict);
+		int optionIdx = findIndex(thisIndex, optionA, target, strict);
+
+		if (thisIndex >= 0 && optionIdx >= 0)
+		{
+			swap(optionIdx, thisIndex);
+		}
+	}
+
+	private int findIndex(int limit, String option, String target, boolean strict)
+	{
+		// We want the last index which matches the target, as that is what is top-most
+		// on the menu
+		for (int i = limit; i >= 0; --i)
+		{
+			if ((strict ? options[i].equals(option) : options[i].contains(option)) && targets[i].equals(target))
+			{
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	private void swap(int index1, int index2)
+	{
+		MenuEntry entry = entries[index1];
+		entries[index1] = entries[index2];
+		entries[index2] = entry;
+
+		String option = options[index1];
+		options[index1] = options[index2];
+		options[index2] = option;
+
+		String target = targets[index1];
+		targets[index1] = targets[index2];
+		targets[index2] = target;
+
+		modified = true;
+	}
+}
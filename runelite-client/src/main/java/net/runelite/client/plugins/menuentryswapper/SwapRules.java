@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.menuentryswapper;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import net.runelite.api.MenuAction;
+import net.runelite.api.MenuEntry;
+
+/**
+ * The enabled menu entry swaps, compiled from {@link MenuEntrySwapperConfig}.
+ * <p>
+ * Rules are keyed by the lowercase option of the entry they apply to. Of the rules for
+ * an option, the first one matching the entry's target is applied and the rest are skipped.
+ * Rules for item options are only tried if shift click customization did not apply.
+ */
+class SwapRules
+{
+	private static final Set<MenuAction> NPC_MENU_TYPES = ImmutableSet.of(
+		MenuAction.NPC_FIRST_OPTION,
+		MenuAction.NPC_SECOND_OPTION,
+		MenuAction.NPC_THIRD_OPTION,
+		MenuAction.NPC_FOURTH_OPTION,
+		MenuAction.NPC_FIFTH_OPTION,
+		MenuAction.EXAMINE_NPC);
+
+	private static final Predicate<String> ANY_TARGET = target -> true;
+
+	private final Map<String, List<Rule>> optionRules = new HashMap<>();
+	private final Map<String, List<Rule>> itemRules = new HashMap<>();
+	/**
+	 * Teleport spell targets to the option swapped with cast when shift is held
+	 */
+	private final Map<String, String> teleportSpells = new HashMap<>();
+	/**
+	 * Tests whether an item has its shift click option set to use, or null if
+	 * shift click customization is disabled
+	 */
+	private final IntPredicate shiftClickUse;
+
+	private SwapRules(IntPredicate shiftClickUse)
+	{
+		this.shiftClickUse = shiftClickUse;
+	}
+
+	/**
+	 * Compile the swaps enabled in the config
+	 *
+	 * @param config the config
+	 * @param shiftClickUse tests whether an item has its shift click option set to use
+	 */
+	static SwapRules compile(MenuEntrySwapperConfig config, IntPredicate shiftClickUse)
+	{
+		final SwapRules rules = new SwapRules(config.shiftClickCustomization() ? shiftClickUse : null);
+
+		final List<Swap> talkTo = new ArrayList<>();
+		if (config.swapAbyssTeleport())
+		{
+			talkTo.add(new Swap("teleport", true, target -> target.contains("mage of zamorak")));
+		}
+		if (config.swapHardWoodGrove())
+		{
+			talkTo.add(new Swap("send-parcel", true, target -> target.contains("rionasta")));
+		}
+		if (config.swapBank())
+		{
+			talkTo.add(swap("bank"));
+		}
+		if (config.swapContract())
+		{
+			talkTo.add(swap("contract"));
+		}
+		if (config.swapExchange())
+		{
+			talkTo.add(swap("exchange"));
+		}
+		if (config.swapDarkMage())
+		{
+			talkTo.add(swap("repairs"));
+		}
+		// make sure assignment swap is higher priority than trade swap for slayer masters
+		if (config.swapAssignment())
+		{
+			talkTo.add(swap("assignment"));
+		}
+		if (config.swapTrade())
+		{
+			talkTo.addAll(swaps("trade", "trade-with", "shop"));
+		}
+		if (config.claimSlime())
+		{
+			talkTo.add(new Swap("claim-slime", true, target -> target.equals("robin")));
+		}
+		if (config.swapTravel())
+		{
+			talkTo.addAll(swaps("travel", "pay-fare", "charter", "take-boat", "fly", "jatizso", "neitiznot",
+				"rellekka", "follow", "transport"));
+		}
+		if (config.swapPay())
+		{
+			talkTo.add(swap("pay"));
+			talkTo.add(swapContains("pay ("));
+		}
+		if (config.swapDecant())
+		{
+			talkTo.add(swap("decant"));
+		}
+		if (config.swapQuick())
+		{
+			talkTo.add(swap("quick-travel"));
+		}
+		if (config.swapEnchant())
+		{
+			talkTo.add(swap("enchant"));
+		}
+		if (config.swapStartMinigame())
+		{
+			talkTo.add(swap("start-minigame"));
+		}
+		// talk-to always has a rule, so shift click customization is never applied to it
+		rules.optionRules.put("talk-to", Collections.singletonList(new Rule(ANY_TARGET, talkTo)));
+
+		if (config.swapQuickLeave())
+		{
+			rules.option("leave tomb", "tomb door", swap("quick-leave"));
+		}
+		if (config.swapTravel())
+		{
+			rules.option("pass", "energy barrier", swap("pay-toll(2-ecto)"));
+			rules.option("open", "gate", swap("pay-toll(10gp)"));
+		}
+		if (config.swapHardWoodGrove())
+		{
+			rules.option("open", "hardwood grove doors", swap("quick-pay(100)"));
+		}
+		if (config.swapTravel())
+		{
+			rules.option("inspect", "trapdoor", swap("travel"));
+		}
+		if (config.swapHarpoon())
+		{
+			rules.option("cage", swap("harpoon"));
+			rules.option("big net", swap("harpoon"));
+			rules.option("net", swap("harpoon"));
+		}
+		switch (config.swapHomePortal())
+		{
+			case HOME:
+				rules.option("enter", swap("home"));
+				break;
+			case BUILD_MODE:
+				rules.option("enter", swap("build mode"));
+				break;
+			case FRIENDS_HOUSE:
+				rules.option("enter", swap("friend's house"));
+				break;
+		}
+		switch (config.swapHouseAdvertisement())
+		{
+			case ADD_HOUSE:
+				rules.option("view", swap("add-house"));
+				break;
+			case VISIT_LAST:
+				rules.option("view", swap("visit-last"));
+				break;
+		}
+		switch (config.swapFairyRing())
+		{
+			case LAST_DESTINATION:
+				rules.option("zanaris", swapContains("last-destination"));
+				rules.option("configure", swapContains("last-destination"));
+				rules.option("tree", swapContains("last-destination"));
+				break;
+			case CONFIGURE:
+				rules.option("zanaris", swapContains("configure"));
+				rules.option("configure", swapContains("configure"));
+				rules.option("tree", swapContains("configure"));
+				break;
+			case ZANARIS:
+				rules.option("tree", swapContains("zanaris"));
+				break;
+		}
+		if (config.swapBoxTrap())
+		{
+			rules.option("check", swap("reset"));
+			rules.option("dismantle", swap("reset"));
+			rules.option("take", swap("lay"));
+		}
+		if (config.swapChase())
+		{
+			rules.option("pick-up", swap("chase"));
+		}
+		if (config.swapBirdhouseEmpty())
+		{
+			rules.option("interact", target -> target.contains("birdhouse"), swap("empty"));
+		}
+		if (config.swapQuick())
+		{
+			rules.option("enter", swap("quick-enter"));
+			rules.option("ring", swap("quick-start"));
+			rules.option("pass", swap("quick-pass"), swap("quick pass"));
+			rules.option("open", swap("quick-open"));
+			rules.option("climb-down", swap("quick-start"), swap("pay"));
+		}
+		if (config.swapAdmire())
+		{
+			rules.option("admire", swap("teleport"), swap("spellbook"), swap("perks"));
+		}
+		if (config.swapPrivate())
+		{
+			rules.option("shared", swap("private"));
+		}
+		if (config.swapPick())
+		{
+			rules.option("pick", swap("pick-lots"));
+		}
+
+		// Put all item-related swapping after shift-click
+		if (config.swapTeleportItem())
+		{
+			rules.item("wear", swap("rub"), swap("teleport"));
+			rules.item("wield", swap("teleport"));
+		}
+		if (config.swapBones())
+		{
+			rules.item("bury", swap("use"));
+		}
+
+		if (config.swapTeleportSpell())
+		{
+			rules.teleportSpells.put("varrock teleport", "grand exchange");
+			rules.teleportSpells.put("camelot teleport", "seers'");
+			rules.teleportSpells.put("watchtower teleport", "yanille");
+			rules.teleportSpells.put("teleport to house", "outside");
+		}
+
+		return rules;
+	}
+
+	/**
+	 * Apply the swaps to each entry of the menu, in the order the menu was built
+	 *
+	 * @param menu the menu
+	 * @param hintArrowNpc index of the npc the hint arrow is pointing at, or -1; its entries are not swapped
+	 * @param shiftModifier whether shift is held
+	 */
+	void apply(SwapMenu menu, int hintArrowNpc, boolean shiftModifier)
+	{
+		for (int index = 0; index < menu.size(); ++index)
+		{
+			final MenuEntry entry = menu.getMenuEntry(index);
+			final String option = menu.getMenuOption(index);
+			final String target = menu.getMenuTarget(index);
+
+			if (hintArrowNpc != -1
+				&& hintArrowNpc == entry.getIdentifier()
+				&& NPC_MENU_TYPES.contains(MenuAction.of(entry.getType())))
+			{
+				continue;
+			}
+
+			if (!applyRules(optionRules.get(option), menu, option, target, index))
+			{
+				if (shiftClickUse != null && shiftModifier && !option.equals("use"))
+				{
+					if (shiftClickUse.test(entry.getIdentifier()))
+					{
+						menu.swap("use", option, target, index, true);
+					}
+				}
+				else
+				{
+					applyRules(itemRules.get(option), menu, option, target, index);
+				}
+			}
+
+			if (shiftModifier && !teleportSpells.isEmpty())
+			{
+				final String optionA = teleportSpells.get(target);
+				if (optionA == null)
+				{
+					continue;
+				}
+
+				if (option.equals("cast"))
+				{
+					menu.swap(optionA, option, target, index, true);
+				}
+				else if (option.equals(optionA))
+				{
+					menu.swap("cast", option, target, index, true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Apply the first rule matching the target
+	 *
+	 * @return true if a rule matched
+	 */
+	private static boolean applyRules(List<Rule> rules, SwapMenu menu, String option, String target, int index)
+	{
+		if (rules == null)
+		{
+			return false;
+		}
+
+		for (Rule rule : rules)
+		{
+			if (!rule.target.test(target))
+			{
+				continue;
+			}
+
+			for (Swap swap : rule.swaps)
+			{
+				if (swap.target == null || swap.target.test(target))
+				{
+					menu.swap(swap.option, option, target, index, swap.strict);
+				}
+			}
+			return true;
+		}
+
+		return false;
+	}
+
+	private void option(String option, String target, Swap... swaps)
+	{
+		option(option, target::equals, swaps);
+	}
+
+	private void option(String option, Swap... swaps)
+	{
+		option(option, ANY_TARGET, swaps);
+	}
+
+	private void option(String option, Predicate<String> target, Swap... swaps)
+	{
+		optionRules.computeIfAbsent(option, k -> new ArrayList<>()).add(new Rule(target, Arrays.asList(swaps)));
+	}
+
+	private void item(String option, Swap... swaps)
+	{
+		itemRules.computeIfAbsent(option, k -> new ArrayList<>()).add(new Rule(ANY_TARGET, Arrays.asList(swaps)));
+	}
+
+	private static Swap swap(String option)
+	{
+		return new Swap(option, true, null);
+	}
+
+	private static Swap swapContains(String option)
+	{
+		return new Swap(option, false, null);
+	}
+
+	private static List<Swap> swaps(String... options)
+	{
+		final List<Swap> swaps = new ArrayList<>(options.length);
+		for (String option : options)
+		{
+			swaps.add(swap(option));
+		}
+		return swaps;
+	}
+
+	@RequiredArgsConstructor
+	private static class Rule
+	{
+		private final Predicate<String> target;
+		private final List<Swap> swaps;
+	}
+
+	@RequiredArgsConstructor
+	private static class Swap
+	{
+		private final String option;
+		private final boolean strict;
+		/**
+		 * Additional condition on the target, or null
+		 */
+		private final Predicate<String> target;
+	}
+}
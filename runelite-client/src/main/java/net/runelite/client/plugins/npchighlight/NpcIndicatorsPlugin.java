@@ -70,6 +70,7 @@ import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.ColorUtil;
 import net.runelite.client.util.Text;
 import net.runelite.client.util.WildcardMatcher;
+import net.runelite.client.util.WildcardPatternSet;
 
 @PluginDescriptor(
 	name = "NPC Indicators",
@@ -144,6 +145,11 @@ public class NpcIndicatorsPlugin extends Plugin
 	 */
 	private List<String> highlights = new ArrayList<>();
 
+	/**
+	 * Compiled matcher for {@link #highlights}
+	 */
+	private WildcardPatternSet highlightMatcher = WildcardMatcher.compile(highlights);
+
 	/**
 	 * NPC ids marked with the Tag option
 	 */
@@ -191,6 +197,7 @@ public class NpcIndicatorsPlugin extends Plugin
 		overlayManager.add(npcMinimapOverlay);
 		keyManager.registerKeyListener(inputListener);
 		highlights = getHighlights();
+		highlightMatcher = WildcardMatcher.compile(highlights);
 		clientThread.invoke(() ->
 		{
 			skipNextSpawnCheck = true;
@@ -236,6 +243,7 @@ public class NpcIndicatorsPlugin extends Plugin
 		}
 
 		highlights = getHighlights();
+		highlightMatcher = WildcardMatcher.compile(highlights);
 		rebuildAllNpcs();
 	}
 
@@ -337,15 +345,11 @@ public class NpcIndicatorsPlugin extends Plugin
 			return;
 		}
 
-		for (String highlight : highlights)
+		if (highlightMatcher.matches(npcName))
 		{
-			if (WildcardMatcher.matches(highlight, npcName))
-			{
-				memorizeNpc(npc);
-				highlightedNpcs.add(npc);
-				spawnedNpcsThisTick.add(npc);
-				break;
-			}
+			memorizeNpc(npc);
+			highlightedNpcs.add(npc);
+			spawnedNpcsThisTick.add(npc);
 		}
 	}
 
@@ -465,7 +469,6 @@ public class NpcIndicatorsPlugin extends Plugin
 			return;
 		}
 
-		outer:
 		for (NPC npc : client.getNpcs())
 		{
 			final String npcName = npc.getName();
@@ -481,14 +484,11 @@ public class NpcIndicatorsPlugin extends Plugin
 				continue;
 			}
 
-			for (String highlight : highlights)
+			if (highlightMatcher.matches(npcName))
 			{
-				if (WildcardMatcher.matches(highlight, npcName))
-				{
-					memorizeNpc(npc);
-					highlightedNpcs.add(npc);
-					continue outer;
-				}
+				memorizeNpc(npc);
+				highlightedNpcs.add(npc);
+				continue;
 			}
 
 			// NPC is not highlighted
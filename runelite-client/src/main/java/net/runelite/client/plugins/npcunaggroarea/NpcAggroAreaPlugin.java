@@ -35,7 +35,6 @@ import java.awt.image.BufferedImage;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
-import java.util.List;
 import javax.inject.Inject;
 import lombok.Getter;
 import net.runelite.api.Client;
@@ -60,6 +59,7 @@ import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.ui.overlay.infobox.InfoBoxManager;
 import net.runelite.client.util.WildcardMatcher;
+import net.runelite.client.util.WildcardPatternSet;
 
 @PluginDescriptor(
 	name = "NPC Aggression Timer",
@@ -125,7 +125,7 @@ public class NpcAggroAreaPlugin extends Plugin
 	private WorldPoint lastPlayerLocation;
 	private WorldPoint previousUnknownCenter;
 	private boolean loggingIn;
-	private List<String> npcNamePatterns;
+	private WildcardPatternSet npcNamePatterns;
 
 	@Provides
 	NpcAggroAreaConfig provideConfig(ConfigManager configManager)
@@ -138,7 +138,7 @@ public class NpcAggroAreaPlugin extends Plugin
 	{
 		overlayManager.add(overlay);
 		overlayManager.add(notWorkingOverlay);
-		npcNamePatterns = NAME_SPLITTER.splitToList(config.npcNamePatterns());
+		npcNamePatterns = WildcardMatcher.compile(NAME_SPLITTER.splitToList(config.npcNamePatterns()));
 		recheckActive();
 	}
 
@@ -266,15 +266,7 @@ public class NpcAggroAreaPlugin extends Plugin
 			return false;
 		}
 
-		for (String pattern : npcNamePatterns)
-		{
-			if (WildcardMatcher.matches(pattern, npcName))
-			{
-				return true;
-			}
-		}
-
-		return false;
+		return npcNamePatterns.matches(npcName);
 	}
 
 	private void checkAreaNpcs(final NPC... npcs)
@@ -379,7 +371,7 @@ public class NpcAggroAreaPlugin extends Plugin
 				calculateLinesToDisplay();
 				break;
 			case "npcUnaggroNames":
-				npcNamePatterns = NAME_SPLITTER.splitToList(config.npcNamePatterns());
+				npcNamePatterns = WildcardMatcher.compile(NAME_SPLITTER.splitToList(config.npcNamePatterns()));
 				recheckActive();
 				break;
 		}
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.puzzlesolver.solver.heuristics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.BLANK_TILE_VALUE;
+import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.DIMENSION;
+import net.runelite.client.plugins.puzzlesolver.solver.PuzzleState;
+
+/**
+ * An additive pattern database heuristic. The 24 tiles are split into six groups of four, and
+ * for every placement of a group the table holds the number of moves of that group's tiles
+ * needed to bring them home, ignoring the other tiles. As each move moves one tile, the sums
+ * over the groups are admissible. The puzzle is symmetric about the main diagonal, so the
+ * same tables also give a value for the transposed puzzle, and the larger of the two is used.
+ *
+ * The tables are built on first use, which takes a second or two, and cached in a file.
+ *
+ * Felner, Korf and Hanan, Additive Pattern Database Heuristics, JAIR 22 (2004)
+ */
+@Slf4j
+public class PatternDatabase implements Heuristic
+{
+	private static final int CELLS = DIMENSION * DIMENSION;
+	private static final int TILES = CELLS - 1;
+	private static final int GROUP_SIZE = 4;
+	private static final int TABLE_SIZE = CELLS * CELLS * CELLS * CELLS;
+	private static final int FILE_VERSION = 1;
+
+	// not symmetric about the diagonal, so the transposed lookup gives a different estimate
+	static final int[][] GROUPS = {
+		{0, 1, 2, 6},
+		{3, 4, 8, 9},
+		{5, 10, 11, 15},
+		{7, 12, 13, 14},
+		{16, 17, 20, 21},
+		{18, 19, 22, 23},
+	};
+
+	private static final int[] GROUP_OF_TILE = new int[TILES];
+	private static final int[] TRANSPOSE = new int[CELLS];
+	private static final int[][] NEIGHBOURS = new int[CELLS][];
+
+	static
+	{
+		for (int group = 0; group < GROUPS.length; group++)
+		{
+			for (int tile : GROUPS[group])
+			{
+				GROUP_OF_TILE[tile] = group;
+			}
+		}
+
+		for (int cell = 0; cell < CELLS; cell++)
+		{
+			int x = cell % DIMENSION;
+			int y = cell / DIMENSION;
+			TRANSPOSE[cell] = x * DIMENSION + y;
+
+			int[] neighbours = new int[4];
+			int count = 0;
+			if (x > 0)
+			{
+				neighbours[count++] = cell - 1;
+			}
+			if (x < DIMENSION - 1)
+			{
+				neighbours[count++] = cell + 1;
+			}
+			if (y > 0)
+			{
+				neighbours[count++] = cell - DIMENSION;
+			}
+			if (y < DIMENSION - 1)
+			{
+				neighbours[count++] = cell + DIMENSION;
+			}
+			NEIGHBOURS[cell] = Arrays.copyOf(neighbours, count);
+		}
+	}
+
+	private final File cacheFile;
+	private volatile byte[][] tables;
+
+	/**
+	 * @param cacheFile file to load the tables from and save them to after building, or null to
+	 *                  always build them
+	 */
+	public PatternDatabase(File cacheFile)
+	{
+		this.cacheFile = cacheFile;
+	}
+
+	/**
+	 * Load or build the tables, if that has not been done yet.
+	 */
+	public void load()
+	{
+		if (tables != null)
+		{
+			return;
+		}
+
+		synchronized (this)
+		{
+			if (tables == null)
+			{
+				tables = loadTables();
+			}
+		}
+	}
+
+	@Override
+	public int computeValue(PuzzleState state)
+	{
+		load();
+
+		int[] positions = new int[TILES];
+		for (int cell = 0; cell < CELLS; cell++)
+		{
+			int piece = state.getPiece(cell % DIMENSION, cell / DIMENSION);
+			if (piece != BLANK_TILE_VALUE)
+			{
+				positions[piece] = cell;
+			}
+		}
+
+		int value = 0;
+		int transposedValue = 0;
+		for (int group = 0; group < GROUPS.length; group++)
+		{
+			value += value(group, positions);
+			transposedValue += transposedValue(group, positions);
+		}
+		return Math.max(value, transposedValue);
+	}
+
+	/**
+	 * @return the group of the given tile
+	 */
+	public static int groupOf(int tile)
+	{
+		return GROUP_OF_TILE[tile];
+	}
+
+	/**
+	 * @return the tile at the transposed position of the given tile's goal cell
+	 */
+	public static int transpose(int tile)
+	{
+		return TRANSPOSE[tile];
+	}
+
+	/**
+	 * @return the number of groups
+	 */
+	public static int groupCount()
+	{
+		return GROUPS.length;
+	}
+
+	/**
+	 * Look up a group's value. {@link #load()} must have been called first.
+	 *
+	 * @param group     group index
+	 * @param positions cell of each tile
+	 * @return the moves needed to bring the group home
+	 */
+	public int value(int group, int[] positions)
+	{
+		final int[] tiles = GROUPS[group];
+		final int index = ((positions[tiles[0]] * CELLS + positions[tiles[1]]) * CELLS
+			+ positions[tiles[2]]) * CELLS + positions[tiles[3]];
+		return tables[group][index];
+	}
+
+	/**
+	 * @param group     group index
+	 * @param positions cell of each tile
+	 * @return the moves needed to bring the group home in the transposed puzzle
+	 */
+	public int transposedValue(int group, int[] positions)
+	{
+		final int[] tiles = GROUPS[group];
+		final int index = ((TRANSPOSE[positions[TRANSPOSE[tiles[0]]]] * CELLS
+			+ TRANSPOSE[positions[TRANSPOSE[tiles[1]]]]) * CELLS
+			+ TRANSPOSE[positions[TRANSPOSE[tiles[2]]]]) * CELLS
+			+ TRANSPOSE[positions[TRANSPOSE[tiles[3]]]];
+		return tables[group][index];
+	}
+
+	private byte[][] loadTables()
+	{
+		if (cacheFile != null && cacheFile.exists())
+		{
+			try
+			{
+				return readTables(cacheFile);
+			}
+			catch (IOException ex)
+			{
+				log.warn("unable to read puzzle pattern database, rebuilding it", ex);
+			}
+		}
+
+		long start = System.nanoTime();
+		byte[][] built = new byte[GROUPS.length][];
+		for (int group = 0; group < GROUPS.length; group++)
+		{
+			built[group] = buildTable(GROUPS[group]);
+		}
+		log.debug("Built puzzle pattern database in {}ms", (System.nanoTime() - start) / 1_000_000);
+
+		if (cacheFile != null)
+		{
+			try
+			{
+				writeTables(cacheFile, built);
+			}
+			catch (IOException ex)
+			{
+				log.warn("unable to save puzzle pattern database", ex);
+			}
+		}
+
+		return built;
+	}
+
+	private static byte[][] readTables(File file) throws IOException
+	{
+		try (DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)))))
+		{
+			if (in.readInt() != FILE_VERSION || in.readInt() != GROUPS.length || in.readInt() != TABLE_SIZE)
+			{
+				throw new IOException("pattern database file is out of date");
+			}
+
+			byte[][] tables = new byte[GROUPS.length][TABLE_SIZE];
+			for (byte[] table : tables)
+			{
+				in.readFully(table);
+			}
+			return tables;
+		}
+	}
+
+	private static void writeTables(File file, byte[][] tables) throws IOException
+	{
+		file.getParentFile().mkdirs();
+
+		File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))))
+		{
+			out.writeInt(FILE_VERSION);
+			out.writeInt(GROUPS.length);
+			out.writeInt(TABLE_SIZE);
+			for (byte[] table : tables)
+			{
+				out.write(table);
+			}
+		}
+
+		if (!tmp.renameTo(file))
+		{
+			file.delete();
+			if (!tmp.renameTo(file))
+			{
+				throw new IOException("unable to rename " + tmp + " to " + file);
+			}
+		}
+	}
+
+	/**
+	 * Breadth first search back from the goal over the placements of the group's tiles and the
+	 * blank. Moving the blank onto a cell without a group tile is free, swapping it with a group
+	 * tile costs one move. The table entry for a placement is the cheapest over all blank cells.
+	 */
+	private static byte[] buildTable(int[] tiles)
+	{
+		final int states = TABLE_SIZE * CELLS;
+		final byte[] cost = new byte[states];
+		Arrays.fill(cost, (byte) -1);
+
+		final int[] cells = new int[GROUP_SIZE];
+		int[] layer = new int[1024];
+		int[] next = new int[1024];
+		int nextSize = 0;
+
+		int goal = index(tiles) * CELLS + (CELLS - 1);
+		cost[goal] = 0;
+		layer[0] = goal;
+		int layerSize = 1;
+
+		for (int depth = 0; layerSize > 0; depth++)
+		{
+			// the layer grows while it is being walked as free blank moves are found
+			for (int i = 0; i < layerSize; i++)
+			{
+				final int state = layer[i];
+				if (cost[state] != depth)
+				{
+					// reached for free from an earlier entry of this layer
+					continue;
+				}
+
+				final int blank = state % CELLS;
+				int placement = state / CELLS;
+				for (int t = GROUP_SIZE - 1; t >= 0; t--)
+				{
+					cells[t] = placement % CELLS;
+					placement /= CELLS;
+				}
+
+				for (int neighbour : NEIGHBOURS[blank])
+				{
+					int moved = -1;
+					for (int t = 0; t < GROUP_SIZE; t++)
+					{
+						if (cells[t] == neighbour)
+						{
+							moved = t;
+							break;
+						}
+					}
+
+					if (moved == -1)
+					{
+						final int free = (state - blank) + neighbour;
+						final int known = cost[free];
+						if (known == -1 || known > depth)
+						{
+							cost[free] = (byte) depth;
+							if (layerSize == layer.length)
+							{
+								layer = Arrays.copyOf(layer, layerSize * 2);
+							}
+							layer[layerSize++] = free;
+						}
+					}
+					else
+					{
+						cells[moved] = blank;
+						final int swapped = index(cells) * CELLS + neighbour;
+						cells[moved] = neighbour;
+
+						if (cost[swapped] == -1)
+						{
+							cost[swapped] = (byte) (depth + 1);
+							if (nextSize == next.length)
+							{
+								next = Arrays.copyOf(next, nextSize * 2);
+							}
+							next[nextSize++] = swapped;
+						}
+					}
+				}
+			}
+
+			int[] swap = layer;
+			layer = next;
+			layerSize = nextSize;
+			next = swap;
+			nextSize = 0;
+		}
+
+		final byte[] table = new byte[TABLE_SIZE];
+		Arrays.fill(table, Byte.MAX_VALUE);
+		for (int state = 0; state < states; state++)
+		{
+			final byte c = cost[state];
+			final int placement = state / CELLS;
+			if (c != -1 && c < table[placement])
+			{
+				table[placement] = c;
+			}
+		}
+		return table;
+	}
+
+	private static int index(int[] cells)
+	{
+		return ((cells[0] * CELLS + cells[1]) * CELLS + cells[2]) * CELLS + cells[3];
+	}
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.puzzlesolver.solver.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.BLANK_TILE_VALUE;
+import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.DIMENSION;
+import net.runelite.client.plugins.puzzlesolver.solver.PuzzleState;
+import net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase;
+
+/**
+ * An IDA* search which finds an optimal solution without allocating during the search.
+ *
+ * The board is packed 5 bits per cell into two longs, and moves are made and undone in place
+ * on it. The heuristic is a {@link PatternDatabase}, updated for the one group whose tile moved.
+ */
+public class PackedIDAStar extends Pathfinder
+{
+	private static final int CELLS = DIMENSION * DIMENSION;
+	private static final int TILES = CELLS - 1;
+	private static final int BITS = 5;
+	private static final long MASK = (1L << BITS) - 1;
+
+	/**
+	 * Value of the blank in the packed board, which is the blank's goal cell.
+	 */
+	private static final int BLANK = TILES;
+
+	private static final int[][] NEIGHBOURS = new int[CELLS][];
+	private static final long GOAL_LOW;
+	private static final long GOAL_HIGH;
+
+	static
+	{
+		for (int cell = 0; cell < CELLS; cell++)
+		{
+			int x = cell % DIMENSION;
+			int y = cell / DIMENSION;
+			int[] neighbours = new int[4];
+			int count = 0;
+			if (x > 0)
+			{
+				neighbours[count++] = cell - 1;
+			}
+			if (x < DIMENSION - 1)
+			{
+				neighbours[count++] = cell + 1;
+			}
+			if (y > 0)
+			{
+				neighbours[count++] = cell - DIMENSION;
+			}
+			if (y < DIMENSION - 1)
+			{
+				neighbours[count++] = cell + DIMENSION;
+			}
+			NEIGHBOURS[cell] = Arrays.copyOf(neighbours, count);
+		}
+
+		long[] goal = new long[2];
+		for (int cell = 0; cell < CELLS; cell++)
+		{
+			set(goal, cell, cell);
+		}
+		GOAL_LOW = goal[0];
+		GOAL_HIGH = goal[1];
+	}
+
+	private final PatternDatabase patternDatabase;
+
+	// the search state, changed in place by move()
+	private final long[] board = new long[2];
+	private final int[] positions = new int[TILES];
+	private final int[] groupValues = new int[PatternDatabase.groupCount()];
+	private final int[] transposedGroupValues = new int[PatternDatabase.groupCount()];
+	private int blank;
+	private int value;
+	private int transposedValue;
+
+	// blank cell after each move of the current path
+	private int[] path = new int[64];
+	private int nextBound;
+	private long nodes;
+	private boolean interrupted;
+
+	public PackedIDAStar(PatternDatabase patternDatabase)
+	{
+		super(patternDatabase);
+		this.patternDatabase = patternDatabase;
+	}
+
+	@Override
+	public List<PuzzleState> computePath(PuzzleState root)
+	{
+		patternDatabase.load();
+
+		if (!init(root))
+		{
+			return null;
+		}
+
+		int bound = heuristic();
+		while (true)
+		{
+			if (path.length <= bound)
+			{
+				path = new int[bound * 2];
+			}
+
+			nextBound = Integer.MAX_VALUE;
+			if (search(0, bound, -1))
+			{
+				break;
+			}
+
+			if (interrupted || nextBound == Integer.MAX_VALUE)
+			{
+				return null;
+			}
+
+			bound = nextBound;
+		}
+
+		List<PuzzleState> states = new ArrayList<>();
+		PuzzleState state = root;
+		states.add(state);
+		for (int i = 0; i < bound; i++)
+		{
+			int from = state.getEmptyPiece();
+			int to = path[i];
+			state = state.swap(from % DIMENSION, from / DIMENSION, to % DIMENSION, to / DIMENSION);
+			states.add(state);
+		}
+		return states;
+	}
+
+	/**
+	 * @return the number of nodes visited by the last search
+	 */
+	public long getNodes()
+	{
+		return nodes;
+	}
+
+	private boolean init(PuzzleState root)
+	{
+		board[0] = board[1] = 0;
+		nodes = 0;
+		interrupted = false;
+
+		int inversions = 0;
+		int[] seen = new int[TILES];
+		int count = 0;
+		for (int cell = 0; cell < CELLS; cell++)
+		{
+			int piece = root.getPiece(cell % DIMENSION, cell / DIMENSION);
+			if (piece == BLANK_TILE_VALUE)
+			{
+				blank = cell;
+				set(board, cell, BLANK);
+				continue;
+			}
+
+			set(board, cell, piece);
+			positions[piece] = cell;
+
+			for (int i = 0; i < count; i++)
+			{
+				if (seen[i] > piece)
+				{
+					inversions++;
+				}
+			}
+			seen[count++] = piece;
+		}
+
+		value = 0;
+		transposedValue = 0;
+		for (int group = 0; group < groupValues.length; group++)
+		{
+			groupValues[group] = patternDatabase.value(group, positions);
+			transposedGroupValues[group] = patternDatabase.transposedValue(group, positions);
+			value += groupValues[group];
+			transposedValue += transposedGroupValues[group];
+		}
+
+		// with an odd board width, only permutations with an even number of inversions are solvable
+		return inversions % 2 == 0;
+	}
+
+	private boolean search(int depth, int bound, int previousBlank)
+	{
+		final int f = depth + heuristic();
+		if (f > bound)
+		{
+			if (f < nextBound)
+			{
+				nextBound = f;
+			}
+			return false;
+		}
+
+		if (board[0] == GOAL_LOW && board[1] == GOAL_HIGH)
+		{
+			return true;
+		}
+
+		if ((++nodes & 0xFFFF) == 0 && Thread.currentThread().isInterrupted())
+		{
+			interrupted = true;
+		}
+
+		if (interrupted)
+		{
+			return false;
+		}
+
+		final int from = blank;
+		for (int to : NEIGHBOURS[from])
+		{
+			if (to == previousBlank)
+			{
+				continue;
+			}
+
+			move(to);
+			path[depth] = to;
+
+			if (search(depth + 1, bound, from))
+			{
+				return true;
+			}
+
+			move(from);
+		}
+
+		return false;
+	}
+
+	/**
+	 * Slide the tile at the given cell, which must be next to the blank, into the blank.
+	 */
+	private void move(int cell)
+	{
+		final int tile = get(board, cell);
+		set(board, blank, tile);
+		set(board, cell, BLANK);
+		positions[tile] = blank;
+		blank = cell;
+
+		final int group = PatternDatabase.groupOf(tile);
+		final int groupValue = patternDatabase.value(group, positions);
+		value += groupValue - groupValues[group];
+		groupValues[group] = groupValue;
+
+		final int transposedGroup = PatternDatabase.groupOf(PatternDatabase.transpose(tile));
+		final int transposedGroupValue = patternDatabase.transposedValue(transposedGroup, positions);
+		transposedValue += transposedGroupValue - transposedGroupValues[transposedGroup];
+		transposedGroupValues[transposedGroup] = transposedGroupValue;
+	}
+
+	private int heuristic()
+	{
+		return Math.max(value, transposedValue);
+	}
+
+	private static int get(long[] board, int cell)
+	{
+		final int bit = cell * BITS;
+		final int word = bit >>> 6;
+		final int shift = bit & 63;
+		long bits = board[word] >>> shift;
+		if (shift > 64 - BITS)
+		{
+			// the cell straddles the two longs
+			bits |= board[word + 1] << (64 - shift);
+		}
+		return (int) (bits & MASK);
+	}
+
+	private static void set(long[] board, int cell, int value)
+	{
+		final int bit = cell * BITS;
+		final int word = bit >>> 6;
+		final int shift = bit & 63;
+		board[word] = (board[word] & ~(MASK << shift)) | ((long) value << shift);
+		if (shift > 64 - BITS)
+		{
+			final int carry = 64 - shift;
+			board[word + 1] = (board[word + 1] & ~(MASK >>> carry)) | ((long) value >>> carry);
+		}
+	}
+}
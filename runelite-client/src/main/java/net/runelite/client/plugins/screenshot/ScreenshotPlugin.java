@@ -36,17 +36,23 @@ import java.awt.TrayIcon;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.EnumSet;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -82,6 +88,8 @@ import static net.runelite.client.RuneLite.SCREENSHOT_DIR;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.PlayerLootReceived;
+import net.runelite.client.executor.CpuExecutor;
+import net.runelite.client.executor.IoExecutor;
 import net.runelite.client.game.SpriteManager;
 import net.runelite.client.input.KeyManager;
 import net.runelite.client.plugins.Plugin;
@@ -175,7 +183,12 @@ public class ScreenshotPlugin extends Plugin
 	private DrawManager drawManager;
 
 	@Inject
-	private ScheduledExecutorService executor;
+	@CpuExecutor
+	private ExecutorService executor;
+
+	@Inject
+	@IoExecutor
+	private ExecutorService ioExecutor;
 
 	@Inject
 	private KeyManager keyManager;
@@ -565,8 +578,15 @@ public class ScreenshotPlugin extends Plugin
 
 		Consumer<Image> imageCallback = (img) ->
 		{
-			// This callback is on the game thread, move to executor thread
-			executor.submit(() -> takeScreenshot(fileName, img));
+			// This callback is on the game thread, move the PNG encoding to the CPU executor
+			try
+			{
+				executor.submit(() -> takeScreenshot(fileName, img));
+			}
+			catch (RejectedExecutionException ex)
+			{
+				log.warn("screenshot dropped, the CPU executor is saturated", ex);
+			}
 		};
 
 		if (config.displayDate())
@@ -632,21 +652,37 @@ public class ScreenshotPlugin extends Plugin
 			playerFolder = SCREENSHOT_DIR;
 		}
 
-		playerFolder.mkdirs();
+		byte[] png;
+		try
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ImageIO.write(screenshot, "PNG", out);
+			png = out.toByteArray();
+		}
+		catch (IOException ex)
+		{
+			log.warn("error encoding screenshot", ex);
+			return;
+		}
 
+		// Writing the file, uploading it and using the clipboard block, so they run on the I/O executor
 		try
 		{
-			File screenshotFile = new File(playerFolder, fileName + ".png");
+			ioExecutor.submit(() -> saveScreenshot(playerFolder, fileName, screenshot, png));
+		}
+		catch (RejectedExecutionException ex)
+		{
+			log.warn("screenshot dropped, the I/O executor is saturated", ex);
+		}
+	}
 
-			// To make sure that screenshots don't get overwritten, check if file exists,
-			// and if it does create file with same name and suffix.
-			int i = 1;
-			while (screenshotFile.exists())
-			{
-				screenshotFile = new File(playerFolder, fileName + String.format("(%d)", i++) + ".png");
-			}
+	private void saveScreenshot(File playerFolder, String fileName, BufferedImage screenshot, byte[] png)
+	{
+		playerFolder.mkdirs();
 
-			ImageIO.write(screenshot, "PNG", screenshotFile);
+		try
+		{
+			File screenshotFile = writeScreenshotFile(playerFolder, fileName, png);
 			UploadStyle uploadStyle = config.uploadScreenshot();
 
 			if (uploadStyle == UploadStyle.IMGUR)
@@ -675,6 +711,33 @@ public class ScreenshotPlugin extends Plugin
 		}
 	}
 
+	/**
+	 * Writes an encoded screenshot to a new file in a folder. If a file with the
+	 * name exists, a numbered suffix is added to the name so it is not overwritten.
+	 * Files are created atomically, so screenshots saved concurrently with the same
+	 * name are given different suffixes.
+	 *
+	 * @return the file the screenshot was written to
+	 */
+	@VisibleForTesting
+	static File writeScreenshotFile(File folder, String fileName, byte[] png) throws IOException
+	{
+		File screenshotFile = new File(folder, fileName + ".png");
+
+		for (int i = 1; ; ++i)
+		{
+			try (OutputStream out = Files.newOutputStream(screenshotFile.toPath(), StandardOpenOption.CREATE_NEW))
+			{
+				out.write(png);
+				return screenshotFile;
+			}
+			catch (FileAlreadyExistsException ex)
+			{
+				screenshotFile = new File(folder, fileName + String.format("(%d)", i) + ".png");
+			}
+		}
+	}
+
 	/**
 	 * Uploads a screenshot to the Imgur image-hosting service,
 	 * and copies the image link to the clipboard.
@@ -26,7 +26,6 @@
  */
 package net.runelite.client.plugins.worldhopper;
 
-import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ObjectArrays;
 import com.google.inject.Provides;
@@ -34,6 +33,7 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -78,6 +78,7 @@ import net.runelite.client.input.KeyManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.worldhopper.ping.Ping;
+import net.runelite.client.plugins.worldhopper.ping.WorldProber;
 import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.ui.overlay.OverlayManager;
@@ -105,6 +106,8 @@ public class WorldHopperPlugin extends Plugin
 
 	private static final int DISPLAY_SWITCHER_MAX_ATTEMPTS = 3;
 
+	private static final int PING_CONCURRENCY = 16;
+
 	private static final String HOP_TO = "Hop-to";
 	private static final String KICK_OPTION = "Kick";
 	private static final ImmutableList<String> BEFORE_OPTIONS = ImmutableList.of("Add friend", "Remove friend", KICK_OPTION);
@@ -143,7 +146,9 @@ public class WorldHopperPlugin extends Plugin
 	@Inject
 	private WorldClient worldClient;
 
-	private ScheduledExecutorService hopperExecutorService;
+	private volatile ScheduledExecutorService hopperExecutorService;
+
+	private volatile WorldProber worldProber;
 
 	private NavigationButton navButton;
 	private WorldSwitcherPanel panel;
@@ -223,6 +228,8 @@ public class WorldHopperPlugin extends Plugin
 
 		// The plugin has its own executor for pings, as it blocks for a long time
 		hopperExecutorService = new ExecutorServiceExceptionLogger(Executors.newSingleThreadScheduledExecutor());
+		// World table pings are probed concurrently, without blocking the hopper executor
+		worldProber = new WorldProber(PING_CONCURRENCY, latencies -> SwingUtilities.invokeLater(() -> panel.updatePings(latencies)));
 		// On first run this schedules an initial ping on hopperExecutorService
 		worldResultFuture = executorService.scheduleAtFixedRate(this::tick, 0, WORLD_FETCH_TIMER, TimeUnit.MINUTES);
 
@@ -240,6 +247,14 @@ public class WorldHopperPlugin extends Plugin
 		currPingFuture.cancel(true);
 		currPingFuture = null;
 
+		// Stop the hopper executor before closing the prober so no further pings are started on it.
+		// A ping which is already running reads the prober once and skips if it has been cleared
+		hopperExecutorService.shutdown();
+		hopperExecutorService = null;
+
+		worldProber.close();
+		worldProber = null;
+
 		overlayManager.remove(worldHopperOverlay);
 
 		keyManager.unregisterKeyListener(previousKeyListener);
@@ -251,9 +266,6 @@ public class WorldHopperPlugin extends Plugin
 		lastFetch = null;
 
 		clientToolbar.removeNavigation(navButton);
-
-		hopperExecutorService.shutdown();
-		hopperExecutorService = null;
 	}
 
 	@Subscribe
@@ -489,7 +501,11 @@ public class WorldHopperPlugin extends Plugin
 		{
 			firstRun = false;
 			// On first run we ping all of the worlds at once to initialize the ping values
-			hopperExecutorService.execute(this::pingInitialWorlds);
+			final ScheduledExecutorService hopperExecutorService = this.hopperExecutorService;
+			if (hopperExecutorService != null)
+			{
+				hopperExecutorService.execute(this::pingInitialWorlds);
+			}
 		}
 	}
 
@@ -786,26 +802,22 @@ public class WorldHopperPlugin extends Plugin
 	}
 
 	/**
-	 * Ping all worlds. This takes a long time and is only run on first run.
+	 * Ping all worlds. This is only run on first run.
 	 */
 	private void pingInitialWorlds()
 	{
-		if (worldResult == null || !config.showSidebar() || !config.ping())
+		// Read the fields once, shutDown() clears them while this may be running
+		final WorldResult worldResult = this.worldResult;
+		final WorldProber worldProber = this.worldProber;
+		if (worldResult == null || worldProber == null || !config.showSidebar() || !config.ping())
 		{
 			return;
 		}
 
-		Stopwatch stopwatch = Stopwatch.createStarted();
-
-		for (World world : worldResult.getWorlds())
-		{
-			int ping = Ping.ping(world);
-			SwingUtilities.invokeLater(() -> panel.updatePing(world.getId(), ping));
-		}
-
-		stopwatch.stop();
+		List<World> worlds = worldResult.getWorlds();
+		worldProber.probe(worlds);
 
-		log.debug("Done pinging worlds in {}", stopwatch.elapsed());
+		log.debug("Queued pings of {} worlds", worlds.size());
 	}
 
 	/**
@@ -813,7 +825,10 @@ public class WorldHopperPlugin extends Plugin
 	 */
 	private void pingNextWorld()
 	{
-		if (worldResult == null || !config.showSidebar() || !config.ping())
+		// Read the fields once, shutDown() clears them while this may be running
+		final WorldResult worldResult = this.worldResult;
+		final WorldProber worldProber = this.worldProber;
+		if (worldResult == null || worldProber == null || !config.showSidebar() || !config.ping())
 		{
 			return;
 		}
@@ -839,9 +854,7 @@ public class WorldHopperPlugin extends Plugin
 			return;
 		}
 
-		int ping = Ping.ping(world);
-		log.trace("Ping for world {} is: {}", world.getId(), ping);
-		SwingUtilities.invokeLater(() -> panel.updatePing(world.getId(), ping));
+		worldProber.probe(Collections.singletonList(world));
 	}
 
 	/**
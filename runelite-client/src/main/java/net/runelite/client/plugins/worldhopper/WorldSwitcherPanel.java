@@ -32,6 +32,7 @@ import java.awt.GridLayout;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -39,6 +40,7 @@ import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 import lombok.AccessLevel;
 import lombok.Setter;
+import net.runelite.client.plugins.worldhopper.ping.WorldLatency;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.DynamicGridLayout;
 import net.runelite.client.ui.PluginPanel;
@@ -136,6 +138,30 @@ class WorldSwitcherPanel extends PluginPanel
 		}
 	}
 
+	void updatePings(List<WorldLatency> latencies)
+	{
+		Map<Integer, Integer> pings = new HashMap<>();
+		for (WorldLatency latency : latencies)
+		{
+			pings.put(latency.getWorld(), latency.getDisplayPing());
+		}
+
+		for (WorldTableRow worldTableRow : rows)
+		{
+			Integer ping = pings.get(worldTableRow.getWorld().getId());
+			if (ping != null)
+			{
+				worldTableRow.setPing(ping);
+			}
+		}
+
+		// If the panel is sorted by ping, re-sort it once for the whole batch
+		if (orderIndex == WorldOrder.PING)
+		{
+			updateList();
+		}
+	}
+
 	void hidePing()
 	{
 		for (WorldTableRow worldTableRow : rows)
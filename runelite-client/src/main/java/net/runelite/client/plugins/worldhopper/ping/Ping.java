@@ -40,8 +40,8 @@ public class Ping
 {
 	private static final String RUNELITE_PING = "RuneLitePing";
 
-	private static final int TIMEOUT = 2000;
-	private static final int PORT = 43594;
+	static final int TIMEOUT = 2000;
+	static final int PORT = 43594;
 
 	public static int ping(World world)
 	{
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.worldhopper.ping;
+
+import lombok.Value;
+
+/**
+ * The latency of a world, smoothed over its probes the same way TCP smooths round trip
+ * times for its retransmission timer (RFC 6298)
+ */
+@Value
+public class WorldLatency
+{
+	private static final double ALPHA = 1 / 8.0;
+	private static final double BETA = 1 / 4.0;
+
+	private final int world;
+	/**
+	 * The round trip time of the latest probe in milliseconds, or -1 if it failed
+	 */
+	private final int ping;
+	/**
+	 * The smoothed round trip time in milliseconds, or -1 if no probe has succeeded
+	 */
+	private final double average;
+	/**
+	 * The smoothed deviation of the round trip time in milliseconds
+	 */
+	private final double jitter;
+	private final int samples;
+
+	static WorldLatency initial(int world)
+	{
+		return new WorldLatency(world, -1, -1, 0, 0);
+	}
+
+	WorldLatency sample(double rtt)
+	{
+		if (samples == 0)
+		{
+			return new WorldLatency(world, (int) Math.round(rtt), rtt, rtt / 2, 1);
+		}
+
+		double newJitter = (1 - BETA) * jitter + BETA * Math.abs(average - rtt);
+		double newAverage = (1 - ALPHA) * average + ALPHA * rtt;
+		return new WorldLatency(world, (int) Math.round(rtt), newAverage, newJitter, samples + 1);
+	}
+
+	WorldLatency failed()
+	{
+		return new WorldLatency(world, -1, average, jitter, samples);
+	}
+
+	/**
+	 * Get the latency to show for the world: the smoothed round trip time, or -1 if the latest probe failed
+	 */
+	public int getDisplayPing()
+	{
+		return ping < 0 ? -1 : (int) Math.round(average);
+	}
+}
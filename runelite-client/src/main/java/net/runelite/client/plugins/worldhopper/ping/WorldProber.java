@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.worldhopper.ping;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.worlds.World;
+
+/**
+ * Measures world latency by timing non-blocking TCP connects on a single selector thread.
+ * At most {@code concurrency} connects are in flight at once; the rest wait in a queue.
+ * Each pass of the selector loop hands the results it completed to the listener as one batch.
+ */
+@Slf4j
+public class WorldProber implements Closeable
+{
+	private final int port;
+	private final int concurrency;
+	private final long timeoutNanos;
+	private final Consumer<List<WorldLatency>> listener;
+
+	private final Selector selector;
+	private final Thread thread;
+	private final Queue<Probe> pending = new ConcurrentLinkedQueue<>();
+	/**
+	 * Worlds queued or in flight, so a world is not probed twice at once
+	 */
+	private final Set<Integer> probing = ConcurrentHashMap.newKeySet();
+	private final Map<Integer, WorldLatency> latencies = new ConcurrentHashMap<>();
+	private volatile boolean running = true;
+
+	// prober thread only
+	private final Queue<Probe> waiting = new ArrayDeque<>();
+	private final List<WorldLatency> batch = new ArrayList<>();
+	private int inFlight;
+
+	/**
+	 * Create a prober of the game port, with the same timeout as {@link Ping}
+	 */
+	public WorldProber(int concurrency, Consumer<List<WorldLatency>> listener) throws IOException
+	{
+		this(Ping.PORT, concurrency, Ping.TIMEOUT, listener);
+	}
+
+	/**
+	 * @param port        the port to connect to
+	 * @param concurrency the maximum number of connects in flight
+	 * @param timeout     the time after which a connect is abandoned, in milliseconds
+	 * @param listener    receives batches of updated latencies, on the prober thread
+	 */
+	public WorldProber(int port, int concurrency, int timeout, Consumer<List<WorldLatency>> listener) throws IOException
+	{
+		this.port = port;
+		this.concurrency = concurrency;
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+		this.listener = listener;
+		this.selector = Selector.open();
+		this.thread = new Thread(this::run, "World prober");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Queue probes of worlds. This resolves the world addresses, so it may block.
+	 */
+	public void probe(Collection<World> worlds)
+	{
+		for (World world : worlds)
+		{
+			probe(world.getId(), new InetSocketAddress(world.getAddress(), port));
+		}
+	}
+
+	/**
+	 * Queue a probe of a world at an address, unless one is already queued or in flight
+	 */
+	public void probe(int world, InetSocketAddress address)
+	{
+		if (!probing.add(world))
+		{
+			return;
+		}
+
+		pending.add(new Probe(world, address));
+		selector.wakeup();
+	}
+
+	/**
+	 * Get the latency of a world, or null if it has not been probed
+	 */
+	public WorldLatency getLatency(int world)
+	{
+		return latencies.get(world);
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		running = false;
+		selector.wakeup();
+
+		try
+		{
+			thread.join();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		for (SelectionKey key : selector.keys())
+		{
+			key.channel().close();
+		}
+		selector.close();
+	}
+
+	private void run()
+	{
+		while (running)
+		{
+			try
+			{
+				for (Probe probe; (probe = pending.poll()) != null; )
+				{
+					waiting.add(probe);
+				}
+
+				start();
+				selector.select(TimeUnit.NANOSECONDS.toMillis(nextDeadline()));
+
+				Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+				while (it.hasNext())
+				{
+					SelectionKey key = it.next();
+					it.remove();
+					connected(key);
+				}
+
+				expire();
+			}
+			catch (IOException ex)
+			{
+				log.warn("error probing worlds", ex);
+			}
+
+			if (!batch.isEmpty())
+			{
+				List<WorldLatency> results = new ArrayList<>(batch);
+				batch.clear();
+				listener.accept(results);
+			}
+		}
+	}
+
+	private void start()
+	{
+		while (inFlight < concurrency && !waiting.isEmpty())
+		{
+			Probe probe = waiting.poll();
+
+			if (probe.address.isUnresolved())
+			{
+				complete(probe, -1);
+				continue;
+			}
+
+			SocketChannel channel = null;
+			try
+			{
+				channel = SocketChannel.open();
+				channel.configureBlocking(false);
+				probe.start = System.nanoTime();
+				if (channel.connect(probe.address))
+				{
+					channel.close();
+					complete(probe, System.nanoTime() - probe.start);
+					continue;
+				}
+
+				channel.register(selector, SelectionKey.OP_CONNECT, probe);
+				++inFlight;
+			}
+			catch (IOException ex)
+			{
+				log.debug("unable to probe world {}", probe.world, ex);
+				close(channel);
+				complete(probe, -1);
+			}
+		}
+	}
+
+	/**
+	 * Get how long until the earliest in flight connect times out, or 0 to wait indefinitely
+	 */
+	private long nextDeadline()
+	{
+		if (inFlight == 0)
+		{
+			return 0;
+		}
+
+		long now = System.nanoTime();
+		long next = Long.MAX_VALUE;
+		for (SelectionKey key : selector.keys())
+		{
+			if (key.isValid())
+			{
+				Probe probe = (Probe) key.attachment();
+				next = Math.min(next, probe.start + timeoutNanos - now);
+			}
+		}
+		// select treats 0 as indefinitely, so round up to 1ms
+		return Math.max(next, TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	private void connected(SelectionKey key)
+	{
+		Probe probe = (Probe) key.attachment();
+		SocketChannel channel = (SocketChannel) key.channel();
+
+		long rtt;
+		try
+		{
+			if (!channel.finishConnect())
+			{
+				return;
+			}
+			rtt = System.nanoTime() - probe.start;
+		}
+		catch (IOException ex)
+		{
+			log.debug("unable to connect to world {}", probe.world, ex);
+			rtt = -1;
+		}
+
+		key.cancel();
+		close(channel);
+		--inFlight;
+		complete(probe, rtt);
+	}
+
+	private void expire()
+	{
+		long now = System.nanoTime();
+		for (SelectionKey key : selector.keys())
+		{
+			Probe probe = (Probe) key.attachment();
+			if (key.isValid() && now - probe.start >= timeoutNanos)
+			{
+				key.cancel();
+				close(key.channel());
+				--inFlight;
+				complete(probe, -1);
+			}
+		}
+	}
+
+	private void complete(Probe probe, long rttNanos)
+	{
+		WorldLatency latency = latencies.getOrDefault(probe.world, WorldLatency.initial(probe.world));
+		latency = rttNanos < 0 ? latency.failed() : latency.sample(rttNanos / 1_000_000.0);
+		latencies.put(probe.world, latency);
+		probing.remove(probe.world);
+		batch.add(latency);
+	}
+
+	private static void close(Channel channel)
+	{
+		if (channel == null)
+		{
+			return;
+		}
+
+		try
+		{
+			channel.close();
+		}
+		catch (IOException ex)
+		{
+			log.debug("error closing channel", ex);
+		}
+	}
+
+	private static class Probe
+	{
+		private final int world;
+		private final InetSocketAddress address;
+		private long start;
+
+		private Probe(int world, InetSocketAddress address)
+		{
+			this.world = world;
+			this.address = address;
+		}
+	}
+}
@@ -30,7 +30,10 @@ import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.geom.Area;
 import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.runelite.api.Client;
@@ -54,9 +57,12 @@ public class WorldMapOverlay extends Overlay
 	private static final int TOOLTIP_OFFSET_WIDTH = 5;
 	private static final int TOOLTIP_PADDING_HEIGHT = 1;
 	private static final int TOOLTIP_PADDING_WIDTH = 2;
+	// room around the view for images which are drawn away from their world point
+	private static final int VIEW_MARGIN_PIXELS = 64;
 
 	private final WorldMapPointManager worldMapPointManager;
 	private final Client client;
+	private Set<WorldMapPoint> drawnPoints = Collections.newSetFromMap(new IdentityHashMap<>());
 
 	@Inject
 	private WorldMapOverlay(
@@ -76,9 +82,7 @@ public class WorldMapOverlay extends Overlay
 	@Override
 	public Dimension render(Graphics2D graphics)
 	{
-		final List<WorldMapPoint> points = worldMapPointManager.getWorldMapPoints();
-
-		if (points.isEmpty())
+		if (worldMapPointManager.isEmpty())
 		{
 			return null;
 		}
@@ -90,6 +94,8 @@ public class WorldMapOverlay extends Overlay
 		}
 
 		final Rectangle worldMapRectangle = widget.getBounds();
+		final List<WorldMapPoint> points = getPointsInView(worldMapRectangle);
+		final Set<WorldMapPoint> drawn = Collections.newSetFromMap(new IdentityHashMap<>());
 		final Area mapViewArea = getWorldMapClipArea(worldMapRectangle);
 		final Rectangle canvasBounds = new Rectangle(0, 0, client.getCanvasWidth(), client.getCanvasHeight());
 		final Area canvasViewArea = getWorldMapClipArea(canvasBounds);
@@ -161,6 +167,7 @@ public class WorldMapOverlay extends Overlay
 				graphics.drawImage(image, drawX, drawY, null);
 				Rectangle clickbox = new Rectangle(drawX, drawY, image.getWidth(), image.getHeight());
 				worldPoint.setClickbox(clickbox);
+				drawn.add(worldPoint);
 
 				if (worldPoint.isTooltipVisible())
 				{
@@ -169,6 +176,16 @@ public class WorldMapOverlay extends Overlay
 			}
 		}
 
+		// points which have left the view can no longer be clicked
+		for (WorldMapPoint worldPoint : drawnPoints)
+		{
+			if (!drawn.contains(worldPoint))
+			{
+				worldPoint.setClickbox(null);
+			}
+		}
+		drawnPoints = drawn;
+
 		if (tooltipPoint != null)
 		{
 			drawTooltip(graphics, tooltipPoint);
@@ -177,6 +194,31 @@ public class WorldMapOverlay extends Overlay
 		return null;
 	}
 
+	/**
+	 * Get the points which may be visible on the world map, using the same
+	 * mapping as {@link #mapWorldPointToGraphicsPoint(WorldPoint)}
+	 *
+	 * @param worldMapRect bounds of the world map view
+	 * @return points within the view and points which snap to the edge
+	 */
+	private List<WorldMapPoint> getPointsInView(Rectangle worldMapRect)
+	{
+		final RenderOverview ro = client.getRenderOverview();
+		final float pixelsPerTile = ro.getWorldMapZoom();
+		final Point worldMapPosition = ro.getWorldMapPosition();
+
+		final int widthInTiles = (int) Math.ceil(worldMapRect.getWidth() / pixelsPerTile);
+		final int heightInTiles = (int) Math.ceil(worldMapRect.getHeight() / pixelsPerTile);
+		final int marginInTiles = (int) Math.ceil(VIEW_MARGIN_PIXELS / pixelsPerTile) + 1;
+
+		final int minX = worldMapPosition.getX() - widthInTiles / 2 - marginInTiles;
+		final int maxX = worldMapPosition.getX() + widthInTiles / 2 + marginInTiles;
+		final int minY = worldMapPosition.getY() - heightInTiles / 2 - marginInTiles;
+		final int maxY = worldMapPosition.getY() + heightInTiles / 2 + marginInTiles;
+
+		return worldMapPointManager.getWorldMapPoints(minX, minY, maxX, maxY);
+	}
+
 	/**
 	 * Get the screen coordinates for a WorldPoint on the world map
 	 * @param worldPoint WorldPoint to get screen coordinates of
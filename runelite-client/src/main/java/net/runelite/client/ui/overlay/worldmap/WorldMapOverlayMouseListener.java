@@ -24,9 +24,9 @@
  */
 package net.runelite.client.ui.overlay.worldmap;
 
+import com.google.common.collect.Iterables;
 import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
-import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.swing.SwingUtilities;
@@ -55,9 +55,9 @@ public class WorldMapOverlayMouseListener extends MouseAdapter
 	@Override
 	public MouseEvent mousePressed(MouseEvent e)
 	{
-		final List<WorldMapPoint> worldMapPoints = worldMapPointManager.getWorldMapPoints();
+		final Iterable<WorldMapPoint> worldMapPoints = worldMapPointManager.getWorldMapPoints();
 
-		if (SwingUtilities.isLeftMouseButton(e) && !worldMapPoints.isEmpty())
+		if (SwingUtilities.isLeftMouseButton(e) && !Iterables.isEmpty(worldMapPoints))
 		{
 			Point mousePos = client.getMouseCanvasPosition();
 
@@ -87,9 +87,7 @@ public class WorldMapOverlayMouseListener extends MouseAdapter
 	@Override
 	public MouseEvent mouseMoved(MouseEvent mouseEvent)
 	{
-		final List<WorldMapPoint> worldMapPoints = worldMapPointManager.getWorldMapPoints();
-
-		if (worldMapPoints.isEmpty())
+		if (worldMapPointManager.isEmpty())
 		{
 			return mouseEvent;
 		}
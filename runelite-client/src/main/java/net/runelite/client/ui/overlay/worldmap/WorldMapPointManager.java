@@ -24,31 +24,185 @@
  */
 package net.runelite.client.ui.overlay.worldmap;
 
+import com.google.common.collect.Iterables;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Predicate;
 import javax.inject.Singleton;
-import lombok.AccessLevel;
-import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
 
+/**
+ * Holds the points drawn on the world map.
+ * <p>
+ * Points are bucketed by the 64x64 tile region of their world point, so the overlay
+ * only has to visit the regions which are in view. Points which snap to the map edge
+ * are drawn wherever they are, so they are kept outside of the index and are always
+ * returned.
+ * <p>
+ * A point is bucketed by the world point it has when it is added. Points which move
+ * should either snap to the edge, or be removed and added again after moving.
+ */
 @Singleton
 public class WorldMapPointManager
 {
-	@Getter(AccessLevel.PACKAGE)
-	private final List<WorldMapPoint> worldMapPoints = new CopyOnWriteArrayList<>();
+	private static final int REGION_SHIFT = 6;
+
+	private final Queue<WorldMapPoint> unindexedPoints = new ConcurrentLinkedQueue<>();
+	private final Map<Integer, Queue<WorldMapPoint>> regions = new ConcurrentHashMap<>();
 
 	public void add(WorldMapPoint worldMapPoint)
 	{
-		worldMapPoints.add(worldMapPoint);
+		final WorldPoint worldPoint = worldMapPoint.getWorldPoint();
+
+		if (worldMapPoint.isSnapToEdge() || worldPoint == null)
+		{
+			unindexedPoints.add(worldMapPoint);
+			return;
+		}
+
+		regions.computeIfAbsent(regionKey(worldPoint.getX() >> REGION_SHIFT, worldPoint.getY() >> REGION_SHIFT),
+			k -> new ConcurrentLinkedQueue<>())
+			.add(worldMapPoint);
 	}
 
 	public void remove(WorldMapPoint worldMapPoint)
 	{
-		worldMapPoints.remove(worldMapPoint);
+		if (unindexedPoints.remove(worldMapPoint))
+		{
+			return;
+		}
+
+		final WorldPoint worldPoint = worldMapPoint.getWorldPoint();
+		if (worldPoint != null)
+		{
+			final Queue<WorldMapPoint> region = regions.get(regionKey(worldPoint.getX() >> REGION_SHIFT, worldPoint.getY() >> REGION_SHIFT));
+			if (region != null && region.remove(worldMapPoint))
+			{
+				return;
+			}
+		}
+
+		// the point has moved since it was added
+		for (Queue<WorldMapPoint> region : regions.values())
+		{
+			if (region.remove(worldMapPoint))
+			{
+				return;
+			}
+		}
 	}
 
 	public void removeIf(Predicate<WorldMapPoint> filter)
 	{
-		worldMapPoints.removeIf(filter);
+		unindexedPoints.removeIf(filter);
+
+		for (Queue<WorldMapPoint> region : regions.values())
+		{
+			region.removeIf(filter);
+		}
+	}
+
+	boolean isEmpty()
+	{
+		if (!unindexedPoints.isEmpty())
+		{
+			return false;
+		}
+
+		for (Queue<WorldMapPoint> region : regions.values())
+		{
+			if (!region.isEmpty())
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Get every point on the world map. The returned view is not a copy, and
+	 * reflects later additions and removals.
+	 *
+	 * @return all world map points
+	 */
+	Iterable<WorldMapPoint> getWorldMapPoints()
+	{
+		return Iterables.concat(unindexedPoints, Iterables.concat(regions.values()));
+	}
+
+	/**
+	 * Get the points which may be drawn when the given area of the world is in view,
+	 * which are the points within the area and every point which snaps to the map edge.
+	 *
+	 * @param minX lowest world x coordinate in view
+	 * @param minY lowest world y coordinate in view
+	 * @param maxX highest world x coordinate in view
+	 * @param maxY highest world y coordinate in view
+	 * @return the points to draw
+	 */
+	List<WorldMapPoint> getWorldMapPoints(int minX, int minY, int maxX, int maxY)
+	{
+		final List<WorldMapPoint> points = new ArrayList<>(unindexedPoints);
+
+		final int minRegionX = minX >> REGION_SHIFT;
+		final int minRegionY = minY >> REGION_SHIFT;
+		final int maxRegionX = maxX >> REGION_SHIFT;
+		final int maxRegionY = maxY >> REGION_SHIFT;
+
+		if ((long) (maxRegionX - minRegionX + 1) * (maxRegionY - minRegionY + 1) > regions.size())
+		{
+			// more regions in view than have points, so walk the index instead
+			for (Map.Entry<Integer, Queue<WorldMapPoint>> entry : regions.entrySet())
+			{
+				final int key = entry.getKey();
+				final int regionX = key >> 16;
+				final int regionY = (short) key;
+
+				if (regionX >= minRegionX && regionX <= maxRegionX && regionY >= minRegionY && regionY <= maxRegionY)
+				{
+					addPointsInArea(points, entry.getValue(), minX, minY, maxX, maxY);
+				}
+			}
+		}
+		else
+		{
+			for (int regionX = minRegionX; regionX <= maxRegionX; ++regionX)
+			{
+				for (int regionY = minRegionY; regionY <= maxRegionY; ++regionY)
+				{
+					final Queue<WorldMapPoint> region = regions.get(regionKey(regionX, regionY));
+					if (region != null)
+					{
+						addPointsInArea(points, region, minX, minY, maxX, maxY);
+					}
+				}
+			}
+		}
+
+		return points;
+	}
+
+	private static void addPointsInArea(List<WorldMapPoint> points, Queue<WorldMapPoint> region, int minX, int minY, int maxX, int maxY)
+	{
+		for (WorldMapPoint worldMapPoint : region)
+		{
+			final WorldPoint worldPoint = worldMapPoint.getWorldPoint();
+			if (worldPoint != null
+				&& worldPoint.getX() >= minX && worldPoint.getX() <= maxX
+				&& worldPoint.getY() >= minY && worldPoint.getY() <= maxY)
+			{
+				points.add(worldMapPoint);
+			}
+		}
+	}
+
+	private static int regionKey(int regionX, int regionY)
+	{
+		return (regionX << 16) | (regionY & 0xFFFF);
 	}
 }
@@ -24,34 +24,41 @@
  */
 package net.runelite.client.util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.util.Collection;
 
 public class WildcardMatcher
 {
-	private static final Pattern WILDCARD_PATTERN = Pattern.compile("(?i)[^*]+|(\\*)");
+	private static final LoadingCache<String, WildcardPattern> PATTERN_CACHE = CacheBuilder.newBuilder()
+		.maximumSize(1024)
+		.build(CacheLoader.from(WildcardPattern::new));
 
 	public static boolean matches(String pattern, String text)
 	{
-		final Matcher matcher = WILDCARD_PATTERN.matcher(pattern);
-		final StringBuffer buffer = new StringBuffer();
-
-		buffer.append("(?i)");
-		while (matcher.find())
-		{
-			if (matcher.group(1) != null)
-			{
-				matcher.appendReplacement(buffer, ".*");
-			}
-			else
-			{
-				matcher.appendReplacement(buffer, "\\\\Q" + matcher.group(0) + "\\\\E");
-			}
-		}
+		return compile(pattern).matches(text);
+	}
 
-		matcher.appendTail(buffer);
-		final String replaced = buffer.toString();
+	/**
+	 * Compile a wildcard pattern. Compiled patterns are cached.
+	 *
+	 * @param pattern
+	 * @return
+	 */
+	public static WildcardPattern compile(String pattern)
+	{
+		return PATTERN_CACHE.getUnchecked(pattern);
+	}
 
-		return text.matches(replaced);
+	/**
+	 * Compile a list of wildcard patterns into a matcher which matches if any of the patterns match
+	 *
+	 * @param patterns
+	 * @return
+	 */
+	public static WildcardPatternSet compile(Collection<String> patterns)
+	{
+		return WildcardPatternSet.of(patterns);
 	}
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * A compiled, case insensitive wildcard pattern, where * matches any sequence of characters.
+ * The pattern is split on * into literal segments once, and matching is done with
+ * prefix, suffix and indexOf checks instead of a regular expression.
+ */
+public final class WildcardPattern
+{
+	@Getter
+	private final String pattern;
+	private final String[] segments;
+	private final boolean anchorStart;
+	private final boolean anchorEnd;
+
+	WildcardPattern(String pattern)
+	{
+		this.pattern = pattern;
+
+		final List<String> parts = new ArrayList<>();
+		int start = 0;
+		for (int i = pattern.indexOf('*'); i != -1; i = pattern.indexOf('*', start))
+		{
+			if (i > start)
+			{
+				parts.add(fold(pattern.substring(start, i)));
+			}
+			start = i + 1;
+		}
+		if (start < pattern.length())
+		{
+			parts.add(fold(pattern.substring(start)));
+		}
+
+		this.segments = parts.toArray(new String[0]);
+		this.anchorStart = !pattern.startsWith("*");
+		this.anchorEnd = !pattern.endsWith("*");
+	}
+
+	/**
+	 * @return true if the pattern contains no wildcards
+	 */
+	boolean isLiteral()
+	{
+		return anchorStart && anchorEnd && segments.length <= 1;
+	}
+
+	/**
+	 * @return the case folded pattern, only valid for literal patterns
+	 */
+	String getLiteral()
+	{
+		return segments.length == 0 ? "" : segments[0];
+	}
+
+	public boolean matches(String text)
+	{
+		return matchesFolded(fold(text));
+	}
+
+	boolean matchesFolded(String text)
+	{
+		final int count = segments.length;
+
+		if (count == 0)
+		{
+			// the empty pattern only matches the empty string, any other pattern is only wildcards
+			return !anchorStart || text.isEmpty();
+		}
+
+		if (count == 1 && anchorStart && anchorEnd)
+		{
+			return text.equals(segments[0]);
+		}
+
+		int pos = 0;
+		int end = text.length();
+		int first = 0;
+		int last = count;
+
+		if (anchorStart)
+		{
+			final String segment = segments[0];
+			if (!text.startsWith(segment))
+			{
+				return false;
+			}
+			pos = segment.length();
+			first = 1;
+		}
+
+		if (anchorEnd)
+		{
+			final String segment = segments[count - 1];
+			if (end - pos < segment.length() || !text.endsWith(segment))
+			{
+				return false;
+			}
+			end -= segment.length();
+			last = count - 1;
+		}
+
+		for (int i = first; i < last; ++i)
+		{
+			final String segment = segments[i];
+			final int idx = text.indexOf(segment, pos);
+			if (idx == -1 || idx + segment.length() > end)
+			{
+				return false;
+			}
+			pos = idx + segment.length();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Lower case ASCII letters, matching the case insensitivity of {@link java.util.regex.Pattern#CASE_INSENSITIVE}.
+	 * Returns the same string if it has no upper case letters.
+	 */
+	static String fold(String s)
+	{
+		final int length = s.length();
+		int i = 0;
+		while (i < length)
+		{
+			final char c = s.charAt(i);
+			if (c >= 'A' && c <= 'Z')
+			{
+				break;
+			}
+			++i;
+		}
+
+		if (i == length)
+		{
+			return s;
+		}
+
+		final char[] chars = s.toCharArray();
+		for (; i < length; ++i)
+		{
+			final char c = chars[i];
+			if (c >= 'A' && c <= 'Z')
+			{
+				chars[i] = (char) (c + ('a' - 'A'));
+			}
+		}
+		return new String(chars);
+	}
+
+	@Override
+	public String toString()
+	{
+		return pattern;
+	}
+}
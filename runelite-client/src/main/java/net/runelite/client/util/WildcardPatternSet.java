@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A set of wildcard patterns matched as one. Patterns without wildcards are looked up
+ * in a hash set, and the text is case folded once for all of the remaining patterns.
+ */
+public final class WildcardPatternSet
+{
+	private static final WildcardPatternSet EMPTY = new WildcardPatternSet(ImmutableSet.of(), new WildcardPattern[0]);
+
+	private final Set<String> literals;
+	private final WildcardPattern[] patterns;
+
+	private WildcardPatternSet(Set<String> literals, WildcardPattern[] patterns)
+	{
+		this.literals = literals;
+		this.patterns = patterns;
+	}
+
+	static WildcardPatternSet of(Collection<String> patterns)
+	{
+		if (patterns.isEmpty())
+		{
+			return EMPTY;
+		}
+
+		final ImmutableSet.Builder<String> literals = ImmutableSet.builder();
+		final List<WildcardPattern> wildcards = new ArrayList<>();
+
+		for (String pattern : patterns)
+		{
+			final WildcardPattern compiled = WildcardMatcher.compile(pattern);
+			if (compiled.isLiteral())
+			{
+				literals.add(compiled.getLiteral());
+			}
+			else
+			{
+				wildcards.add(compiled);
+			}
+		}
+
+		return new WildcardPatternSet(literals.build(), wildcards.toArray(new WildcardPattern[0]));
+	}
+
+	/**
+	 * Test if the text matches any of the patterns in the set
+	 *
+	 * @param text
+	 * @return
+	 */
+	public boolean matches(String text)
+	{
+		final String folded = WildcardPattern.fold(text);
+
+		if (literals.contains(folded))
+		{
+			return true;
+		}
+
+		for (WildcardPattern pattern : patterns)
+		{
+			if (pattern.matchesFolded(folded))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import java.awt.Color;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import net.runelite.client.eventbus.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Reads config values through a config proxy and the typed getters with 5,000 keys set
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigManagerBenchmark
+{
+	private static final int GROUPS = 100;
+	private static final int KEYS_PER_GROUP = 50;
+
+	@ConfigGroup("benchmark")
+	public interface BenchmarkConfig extends Config
+	{
+		@ConfigItem(
+			keyName = "enabled",
+			name = "Enabled",
+			description = ""
+		)
+		default boolean enabled()
+		{
+			return false;
+		}
+
+		@ConfigItem(
+			keyName = "size",
+			name = "Size",
+			description = ""
+		)
+		default int size()
+		{
+			return 0;
+		}
+
+		@ConfigItem(
+			keyName = "color",
+			name = "Color",
+			description = ""
+		)
+		default Color color()
+		{
+			return Color.RED;
+		}
+
+		@ConfigItem(
+			keyName = "unset",
+			name = "Unset",
+			description = ""
+		)
+		default int unset()
+		{
+			return 5;
+		}
+	}
+
+	private ConfigManager configManager;
+	private BenchmarkConfig config;
+
+	@Setup
+	public void setup()
+	{
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+		configManager = new ConfigManager(executor, executor);
+		// cancel the periodic save so the benchmark never writes the settings file
+		executor.shutdownNow();
+		configManager.eventBus = new EventBus();
+
+		for (int group = 0; group < GROUPS; ++group)
+		{
+			for (int key = 0; key < KEYS_PER_GROUP; ++key)
+			{
+				configManager.setConfiguration("group" + group, "key" + key, Integer.toString(key));
+			}
+		}
+
+		configManager.setConfiguration("benchmark", "enabled", true);
+		configManager.setConfiguration("benchmark", "size", 42);
+		configManager.setConfiguration("benchmark", "color", Color.BLUE);
+
+		config = configManager.getConfig(BenchmarkConfig.class);
+	}
+
+	@Benchmark
+	public boolean proxyBoolean()
+	{
+		return config.enabled();
+	}
+
+	@Benchmark
+	public int proxyInt()
+	{
+		return config.size();
+	}
+
+	@Benchmark
+	public Color proxyColor()
+	{
+		return config.color();
+	}
+
+	@Benchmark
+	public int proxyDefault()
+	{
+		return config.unset();
+	}
+
+	@Benchmark
+	public Integer typedGetter()
+	{
+		return configManager.getConfiguration("group50", "key25", int.class);
+	}
+
+	@Benchmark
+	public List<String> prefixKeys()
+	{
+		return configManager.getConfigurationKeys("group50.key1");
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(ConfigManagerBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
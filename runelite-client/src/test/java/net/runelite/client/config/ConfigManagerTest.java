@@ -24,21 +24,38 @@
  */
 package net.runelite.client.config;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Guice;
 import com.google.inject.testing.fieldbinder.Bind;
 import com.google.inject.testing.fieldbinder.BoundFieldModule;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 import net.runelite.client.account.AccountSession;
 import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.executor.IoExecutor;
+import net.runelite.http.api.config.ConfigClient;
+import net.runelite.http.api.config.ConfigEntry;
+import net.runelite.http.api.config.Configuration;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -52,10 +69,18 @@ public class ConfigManagerTest
 	@Bind
 	ScheduledExecutorService executor;
 
+	@Mock
+	@Bind
+	@IoExecutor
+	ExecutorService ioExecutor;
+
 	@Mock
 	@Bind
 	RuneLiteConfig runeliteConfig;
 
+	@Mock
+	ConfigClient configClient;
+
 	@Inject
 	ConfigManager manager;
 
@@ -99,6 +124,64 @@ public class ConfigManagerTest
 		Assert.assertEquals("new value", conf.key());
 	}
 
+	@Test
+	public void testConfigChangedAfterRead()
+	{
+		TestConfig conf = manager.getConfig(TestConfig.class);
+		Assert.assertEquals("default", conf.key());
+
+		manager.setConfiguration("test", "key", "moo");
+		Assert.assertEquals("moo", conf.key());
+
+		manager.unsetConfiguration("test", "key");
+		Assert.assertEquals("default", conf.key());
+	}
+
+	@Test
+	public void testGetTypedConfiguration()
+	{
+		manager.setConfiguration("test", "int", 42);
+		Assert.assertEquals(Integer.valueOf(42), manager.getConfiguration("test", "int", int.class));
+		Assert.assertEquals("42", manager.getConfiguration("test", "int", String.class));
+
+		manager.setConfiguration("test", "int", 7);
+		Assert.assertEquals(Integer.valueOf(7), manager.getConfiguration("test", "int", int.class));
+
+		manager.setConfiguration("test", "int", "not a number");
+		Assert.assertNull(manager.getConfiguration("test", "int", int.class));
+
+		manager.unsetConfiguration("test", "int");
+		Assert.assertNull(manager.getConfiguration("test", "int", int.class));
+	}
+
+	@Test
+	public void testGetMissingConfiguration()
+	{
+		Assert.assertNull(manager.getConfiguration("missing", "key"));
+		Assert.assertNull(manager.getConfiguration("missing", "key", int.class));
+
+		Assert.assertNull(manager.getStore().find("missing", "key"));
+		Assert.assertTrue(manager.getConfigurationKeys("missing").isEmpty());
+	}
+
+	@Test
+	public void testGetConfigurationKeys()
+	{
+		manager.setConfiguration("banktags", "item_1", "a");
+		manager.setConfiguration("banktags", "item_20", "b");
+		manager.setConfiguration("banktags", "item_3", "c");
+		manager.setConfiguration("banktags", "tagtabs", "d");
+		manager.setConfiguration("banktagsextra", "item_4", "e");
+		manager.setConfiguration("bank", "item_5", "f");
+		manager.unsetConfiguration("banktags", "item_3");
+
+		Assert.assertEquals(Arrays.asList("banktags.item_1", "banktags.item_20"),
+			manager.getConfigurationKeys("banktags.item_"));
+		Assert.assertEquals(4, manager.getConfigurationKeys("banktags").size());
+		Assert.assertTrue(manager.getConfigurationKeys("banktags.zzz").isEmpty());
+		Assert.assertTrue(manager.getConfigurationKeys("nothing.").isEmpty());
+	}
+
 	@Test
 	public void testGetConfigDescriptor() throws IOException
 	{
@@ -109,4 +192,80 @@ public class ConfigManagerTest
 		ConfigDescriptor descriptor = manager.getConfigDescriptor(conf);
 		Assert.assertEquals(1, descriptor.getItems().size());
 	}
+
+	@Test
+	public void testFailedSyncRetried()
+	{
+		CompletableFuture<List<String>> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IOException());
+		when(configClient.patch(any(Configuration.class))).thenReturn(failed, CompletableFuture.completedFuture(Collections.emptyList()));
+		manager.setClient(configClient);
+
+		manager.setConfiguration("test", "key", "moo");
+		manager.syncConfig();
+
+		// the failed change goes out again with the next batch
+		manager.setConfiguration("test", "other", "baa");
+		manager.syncConfig();
+
+		List<Configuration> sent = sentConfigurations(2);
+		Assert.assertEquals(ImmutableMap.of("test.key", "moo", "test.other", "baa"), entries(sent.get(1)));
+	}
+
+	@Test
+	public void testSupersededRetryDropped()
+	{
+		CompletableFuture<List<String>> older = new CompletableFuture<>();
+		CompletableFuture<List<String>> newer = new CompletableFuture<>();
+		when(configClient.patch(any(Configuration.class))).thenReturn(older, newer, CompletableFuture.completedFuture(Collections.emptyList()));
+		manager.setClient(configClient);
+
+		manager.setConfiguration("test", "key", "moo");
+		manager.syncConfig();
+		manager.setConfiguration("test", "key", "baa");
+		manager.syncConfig();
+
+		// the older batch failing after the newer one was sent must not bring back its value
+		newer.complete(Collections.emptyList());
+		older.completeExceptionally(new IOException());
+
+		manager.setConfiguration("test", "other", "moo");
+		manager.syncConfig();
+
+		List<Configuration> sent = sentConfigurations(3);
+		Assert.assertEquals(ImmutableMap.of("test.other", "moo"), entries(sent.get(2)));
+	}
+
+	@Test
+	public void testRejectedKeyRetried()
+	{
+		when(configClient.patch(any(Configuration.class))).thenReturn(
+			CompletableFuture.completedFuture(Collections.singletonList("test.key")),
+			CompletableFuture.completedFuture(Collections.emptyList()));
+		manager.setClient(configClient);
+
+		manager.setConfiguration("test", "key", "moo");
+		manager.setConfiguration("test", "int", "42");
+		manager.syncConfig();
+
+		// only the rejected key is sent again, the rest of the batch was stored
+		manager.setConfiguration("test", "other", "baa");
+		manager.syncConfig();
+
+		List<Configuration> sent = sentConfigurations(2);
+		Assert.assertEquals(ImmutableMap.of("test.key", "moo", "test.other", "baa"), entries(sent.get(1)));
+	}
+
+	private List<Configuration> sentConfigurations(int count)
+	{
+		ArgumentCaptor<Configuration> captor = ArgumentCaptor.forClass(Configuration.class);
+		verify(configClient, times(count)).patch(captor.capture());
+		return captor.getAllValues();
+	}
+
+	private static Map<String, String> entries(Configuration configuration)
+	{
+		return configuration.getConfig().stream()
+			.collect(Collectors.toMap(ConfigEntry::getKey, ConfigEntry::getValue));
+	}
 }
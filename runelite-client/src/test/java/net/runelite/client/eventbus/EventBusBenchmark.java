@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures posting the per-frame events with many plugins subscribed
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark
+{
+	public static class Plugin
+	{
+		private int count;
+
+		@Subscribe
+		public void onGameTick(GameTick event)
+		{
+			++count;
+		}
+
+		@Subscribe
+		public void onClientTick(ClientTick event)
+		{
+			++count;
+		}
+
+		@Subscribe
+		public void onBeforeRender(BeforeRender event)
+		{
+			++count;
+		}
+	}
+
+	/**
+	 * Subscribes to events which are not posted, to populate the dispatch table
+	 */
+	public static class OtherPlugin
+	{
+		@Subscribe
+		public void onChatMessage(ChatMessage event)
+		{
+		}
+
+		@Subscribe
+		public void onGameStateChanged(GameStateChanged event)
+		{
+		}
+	}
+
+	@Param({"10", "100", "250"})
+	private int plugins;
+
+	private final GameTick gameTick = new GameTick();
+	private final ClientTick clientTick = new ClientTick();
+	private final BeforeRender beforeRender = new BeforeRender();
+
+	private EventBus eventBus;
+
+	@Setup
+	public void setup()
+	{
+		eventBus = new EventBus();
+		for (int i = 0; i < plugins; ++i)
+		{
+			eventBus.register(new Plugin());
+			eventBus.register(new OtherPlugin());
+		}
+	}
+
+	@Benchmark
+	public void postGameTick()
+	{
+		eventBus.post(gameTick);
+	}
+
+	@Benchmark
+	public void postClientTick()
+	{
+		eventBus.post(clientTick);
+	}
+
+	@Benchmark
+	public void postBeforeRender()
+	{
+		eventBus.post(beforeRender);
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(EventBusBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.GameTick;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class EventBusTest
+{
+	private final List<String> calls = new ArrayList<>();
+
+	private class Early
+	{
+		@Subscribe(priority = -1)
+		void onGameTick(GameTick event)
+		{
+			calls.add("early");
+		}
+	}
+
+	private class Late
+	{
+		@Subscribe(priority = 1)
+		void onGameTick(GameTick event)
+		{
+			calls.add("late");
+		}
+
+		@Subscribe
+		void onClientTick(ClientTick event)
+		{
+			calls.add("clienttick");
+		}
+	}
+
+	private class InvalidBase
+	{
+		@Subscribe
+		void onClientTick(ClientTick event, int extra)
+		{
+			calls.add("invalid");
+		}
+	}
+
+	// superclasses are checked after the class itself, so the valid subscriber is seen first
+	private class Invalid extends InvalidBase
+	{
+		@Subscribe
+		void onGameTick(GameTick event)
+		{
+			calls.add("invalid");
+		}
+	}
+
+	@Test
+	public void testPostOrder()
+	{
+		EventBus eventBus = new EventBus();
+		eventBus.register(new Late());
+		eventBus.register(new Early());
+
+		eventBus.post(new GameTick());
+		eventBus.post(new ClientTick());
+
+		assertEquals(3, calls.size());
+		assertEquals("early", calls.get(0));
+		assertEquals("late", calls.get(1));
+		assertEquals("clienttick", calls.get(2));
+	}
+
+	@Test
+	public void testUnregister()
+	{
+		EventBus eventBus = new EventBus();
+		Early early = new Early();
+		Late late = new Late();
+		eventBus.register(early);
+		eventBus.register(late);
+		eventBus.unregister(late);
+
+		eventBus.post(new GameTick());
+		eventBus.post(new ClientTick());
+
+		assertEquals(1, calls.size());
+		assertEquals("early", calls.get(0));
+
+		calls.clear();
+		eventBus.unregister(early);
+		eventBus.post(new GameTick());
+		assertTrue(calls.isEmpty());
+	}
+
+	@Test
+	public void testRegisterInvalid()
+	{
+		EventBus eventBus = new EventBus();
+		try
+		{
+			eventBus.register(new Invalid());
+			fail("register should reject a subscriber taking two arguments");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			// expected
+		}
+
+		// the valid subscriber of the rejected object must not have been registered either,
+		// including once the dispatch table is next published
+		eventBus.register(new Early());
+		eventBus.post(new GameTick());
+		eventBus.post(new ClientTick());
+		assertEquals(1, calls.size());
+		assertEquals("early", calls.get(0));
+	}
+
+	@Test
+	public void testPostUnsubscribed()
+	{
+		EventBus eventBus = new EventBus();
+		eventBus.post(new Object());
+		assertTrue(calls.isEmpty());
+	}
+
+	@Test
+	public void testProfiler()
+	{
+		EventBus eventBus = new EventBus();
+		eventBus.register(new Late());
+
+		EventProfiler profiler = new EventProfiler(1, TimeUnit.SECONDS);
+		eventBus.setProfiler(profiler);
+		eventBus.post(new GameTick());
+		eventBus.post(new GameTick());
+		eventBus.post(new ClientTick());
+
+		List<SubscriberTiming> timings = profiler.getTimings();
+		assertEquals(2, timings.size());
+
+		SubscriberTiming gameTick = timings.stream()
+			.filter(t -> t.getEvent().equals("GameTick"))
+			.findFirst()
+			.get();
+		assertEquals(2, gameTick.getInvocations());
+		assertEquals(0, gameTick.getOverBudget());
+		assertTrue(gameTick.getSubscriber().endsWith(".onGameTick"));
+
+		eventBus.setProfiler(null);
+		eventBus.post(new GameTick());
+		assertEquals(2, profiler.getTimings().stream().filter(t -> t.getEvent().equals("GameTick")).findFirst().get().getInvocations());
+	}
+}
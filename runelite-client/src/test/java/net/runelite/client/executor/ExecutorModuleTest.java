@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.executor;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutorModuleTest
+{
+	private ScheduledExecutorService timerExecutor;
+	private ExecutorService cpuExecutor;
+	private ExecutorService ioExecutor;
+
+	@Before
+	public void before()
+	{
+		Injector injector = Guice.createInjector(new ExecutorModule());
+		timerExecutor = injector.getInstance(Key.get(ScheduledExecutorService.class, TimerExecutor.class));
+		cpuExecutor = injector.getInstance(Key.get(ExecutorService.class, CpuExecutor.class));
+		ioExecutor = injector.getInstance(Key.get(ExecutorService.class, IoExecutor.class));
+
+		assertSame(timerExecutor, injector.getInstance(ScheduledExecutorService.class));
+	}
+
+	@After
+	public void after()
+	{
+		timerExecutor.shutdownNow();
+		cpuExecutor.shutdownNow();
+		ioExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testLongCpuTaskDoesNotDelayTimers() throws Exception
+	{
+		CountDownLatch cpuDone = new CountDownLatch(1);
+		Future<?> cpuTask = cpuExecutor.submit(() ->
+		{
+			// busy work until the timer has been seen to fire
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			long x = 0;
+			while (cpuDone.getCount() > 0 && System.nanoTime() < deadline)
+			{
+				x += x * 31 + 1;
+			}
+			return x;
+		});
+
+		CountDownLatch timerFired = new CountDownLatch(1);
+		timerExecutor.schedule(timerFired::countDown, 10, TimeUnit.MILLISECONDS);
+
+		assertTrue(timerFired.await(2, TimeUnit.SECONDS));
+		assertFalse(cpuTask.isDone());
+
+		cpuDone.countDown();
+		cpuTask.get(2, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testBlockingIoDoesNotDelayTimers() throws Exception
+	{
+		CountDownLatch ioDone = new CountDownLatch(1);
+		Future<?> ioTask = ioExecutor.submit(() ->
+		{
+			ioDone.await();
+			return null;
+		});
+
+		CountDownLatch timerFired = new CountDownLatch(1);
+		timerExecutor.schedule(timerFired::countDown, 10, TimeUnit.MILLISECONDS);
+
+		assertTrue(timerFired.await(2, TimeUnit.SECONDS));
+		assertFalse(ioTask.isDone());
+
+		ioDone.countDown();
+		ioTask.get(2, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testRejectedWhenQueueFull() throws Exception
+	{
+		MonitoredThreadPoolExecutor executor = new MonitoredThreadPoolExecutor("test", 1, 2);
+		try
+		{
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			executor.execute(() ->
+			{
+				started.countDown();
+				try
+				{
+					release.await();
+				}
+				catch (InterruptedException ex)
+				{
+					Thread.currentThread().interrupt();
+				}
+			});
+			assertTrue(started.await(2, TimeUnit.SECONDS));
+
+			// the only thread is busy, so these fill the queue
+			executor.execute(() ->
+			{
+			});
+			executor.execute(() ->
+			{
+			});
+
+			try
+			{
+				executor.execute(() ->
+				{
+				});
+				fail("expected the task to be rejected");
+			}
+			catch (RejectedExecutionException ex)
+			{
+				// expected
+			}
+
+			assertEquals(1, executor.getRejectedCount());
+
+			release.countDown();
+		}
+		finally
+		{
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void testPeriodicHandOffSurvivesRejection() throws Exception
+	{
+		MonitoredThreadPoolExecutor executor = new MonitoredThreadPoolExecutor("test", 1, 1);
+		try
+		{
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			executor.execute(() ->
+			{
+				started.countDown();
+				try
+				{
+					release.await();
+				}
+				catch (InterruptedException ex)
+				{
+					Thread.currentThread().interrupt();
+				}
+			});
+			assertTrue(started.await(2, TimeUnit.SECONDS));
+
+			// fill the queue, so the periodic task's hand offs are rejected
+			executor.execute(() ->
+			{
+			});
+
+			AtomicInteger runs = new AtomicInteger();
+			ScheduledFuture<?> periodic = timerExecutor.scheduleWithFixedDelay(
+				MonitoredThreadPoolExecutor.handOff(executor, runs::incrementAndGet), 0, 10, TimeUnit.MILLISECONDS);
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+			while (executor.getRejectedCount() < 3 && System.nanoTime() < deadline)
+			{
+				Thread.sleep(10);
+			}
+			assertTrue(executor.getRejectedCount() >= 3);
+			assertFalse(periodic.isDone());
+			assertEquals(0, runs.get());
+
+			// once the executor has room, the same scheduled task gets its work run
+			release.countDown();
+			deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+			while (runs.get() == 0 && System.nanoTime() < deadline)
+			{
+				Thread.sleep(10);
+			}
+			assertTrue(runs.get() > 0);
+			assertFalse(periodic.isDone());
+
+			periodic.cancel(false);
+		}
+		finally
+		{
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS));
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.api.Client;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Varbit definitions for tests, packing ten 3 bit varbits into each of the varps
+ */
+class FakeVarbits
+{
+	static final int VARPS = 100;
+	static final int VARBITS = VARPS * 10;
+
+	private static final int BITS = 3;
+	private static final int MASK = (1 << BITS) - 1;
+
+	static int varp(int varbitId)
+	{
+		return varbitId % VARPS;
+	}
+
+	static int get(int[] varps, int varbitId)
+	{
+		return (varps[varp(varbitId)] >>> lsb(varbitId)) & MASK;
+	}
+
+	static void set(int[] varps, int varbitId, int value)
+	{
+		final int varp = varp(varbitId);
+		final int lsb = lsb(varbitId);
+		varps[varp] = (varps[varp] & ~(MASK << lsb)) | ((value & MASK) << lsb);
+	}
+
+	/**
+	 * Stub the client's varbit accessors with these definitions, counting reads
+	 */
+	static void stub(Client client, AtomicInteger reads)
+	{
+		when(client.getVarbitValue(any(int[].class), anyInt())).thenAnswer(invocation ->
+		{
+			reads.incrementAndGet();
+			return get(invocation.getArgument(0), invocation.getArgument(1));
+		});
+		doAnswer(invocation ->
+		{
+			set(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+			return null;
+		}).when(client).setVarbitValue(any(int[].class), anyInt(), anyInt());
+	}
+
+	private static int lsb(int varbitId)
+	{
+		return varbitId / VARPS * BITS;
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.inject.Guice;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.EventBus;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Replays 1,000 varp writes to 25 plugins watching 3 varbits each, dispatching with
+ * {@link VarbitManager} and the previous approach of every plugin re-reading its varbits
+ * on every {@link VarbitChanged}. The varbit reads made are reported as the "reads" counter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VarbitManagerBenchmark
+{
+	private static final int PLUGINS = 25;
+	private static final int VARBITS_PER_PLUGIN = 3;
+	private static final int WRITES = 1000;
+
+	private final int[] varps = new int[FakeVarbits.VARPS];
+	private final int[] writeIndexes = new int[WRITES];
+	private final int[] writeBits = new int[WRITES];
+	private final int[][] pluginVarbits = new int[PLUGINS][VARBITS_PER_PLUGIN];
+	private final int[][] pluginValues = new int[PLUGINS][VARBITS_PER_PLUGIN];
+	private final AtomicInteger reads = new AtomicInteger();
+	private Client client;
+	private VarbitManager varbitManager;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Reads
+	{
+		public long reads;
+	}
+
+	@Setup
+	public void setup()
+	{
+		client = mock(Client.class, withSettings().stubOnly());
+		when(client.getGameState()).thenReturn(GameState.LOGGED_IN);
+		when(client.getVarps()).thenReturn(varps);
+		FakeVarbits.stub(client, reads);
+
+		ClientThread clientThread = mock(ClientThread.class, withSettings().stubOnly());
+		doAnswer(invocation ->
+		{
+			invocation.<BooleanSupplier>getArgument(0).getAsBoolean();
+			return null;
+		}).when(clientThread).invoke(any(BooleanSupplier.class));
+
+		varbitManager = Guice.createInjector(binder ->
+		{
+			binder.bind(Client.class).toInstance(client);
+			binder.bind(ClientThread.class).toInstance(clientThread);
+			binder.bind(EventBus.class).toInstance(mock(EventBus.class, withSettings().stubOnly()));
+		}).getInstance(VarbitManager.class);
+
+		Random random = new Random(42);
+		for (int plugin = 0; plugin < PLUGINS; ++plugin)
+		{
+			for (int i = 0; i < VARBITS_PER_PLUGIN; ++i)
+			{
+				pluginVarbits[plugin][i] = random.nextInt(FakeVarbits.VARBITS);
+				varbitManager.register(this, pluginVarbits[plugin][i], e ->
+				{
+				});
+			}
+		}
+
+		for (int write = 0; write < WRITES; ++write)
+		{
+			writeIndexes[write] = random.nextInt(FakeVarbits.VARPS);
+			writeBits[write] = 1 << random.nextInt(32);
+		}
+	}
+
+	@Benchmark
+	public void dispatchWatched(Reads counter)
+	{
+		final int before = reads.get();
+		final VarbitChanged varbitChanged = new VarbitChanged();
+		for (int write = 0; write < WRITES; ++write)
+		{
+			varps[writeIndexes[write]] ^= writeBits[write];
+			varbitChanged.setIndex(writeIndexes[write]);
+			varbitManager.onVarbitChanged(varbitChanged);
+		}
+		counter.reads += reads.get() - before;
+	}
+
+	/**
+	 * Every plugin re-reading its varbits on each {@link VarbitChanged}, as before
+	 */
+	@Benchmark
+	public void dispatchAll(Reads counter, Blackhole blackhole)
+	{
+		final int before = reads.get();
+		for (int write = 0; write < WRITES; ++write)
+		{
+			varps[writeIndexes[write]] ^= writeBits[write];
+			for (int plugin = 0; plugin < PLUGINS; ++plugin)
+			{
+				for (int i = 0; i < VARBITS_PER_PLUGIN; ++i)
+				{
+					int value = client.getVarbitValue(varps, pluginVarbits[plugin][i]);
+					if (value != pluginValues[plugin][i])
+					{
+						pluginValues[plugin][i] = value;
+						blackhole.consume(value);
+					}
+				}
+			}
+		}
+		counter.reads += reads.get() - before;
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(VarbitManagerBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.events.VarbitValueChanged;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class VarbitManagerTest
+{
+	@Mock
+	@Bind
+	private Client client;
+
+	@Mock
+	@Bind
+	private ClientThread clientThread;
+
+	@Mock
+	@Bind
+	private EventBus eventBus;
+
+	@Inject
+	private VarbitManager varbitManager;
+
+	private final int[] varps = new int[FakeVarbits.VARPS];
+	private final AtomicInteger reads = new AtomicInteger();
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+
+		when(client.getGameState()).thenReturn(GameState.LOGGED_IN);
+		when(client.getVarps()).thenReturn(varps);
+		FakeVarbits.stub(client, reads);
+
+		doAnswer(invocation ->
+		{
+			invocation.<BooleanSupplier>getArgument(0).getAsBoolean();
+			return null;
+		}).when(clientThread).invoke(any(BooleanSupplier.class));
+	}
+
+	/**
+	 * Replay a recording of varp writes, and check the changes dispatched against
+	 * re-reading every watched varbit after each write
+	 */
+	@Test
+	public void testReplay()
+	{
+		final Random random = new Random(1);
+		final int[] watchedVarbits = random.ints(0, FakeVarbits.VARBITS).distinct().limit(50).toArray();
+		final Set<VarbitValueChanged> dispatched = new HashSet<>();
+
+		for (int varbitId : watchedVarbits)
+		{
+			varbitManager.register(this, varbitId, dispatched::add);
+		}
+
+		final int[] values = new int[watchedVarbits.length];
+		int changes = 0;
+		for (int write = 0; write < 5000; ++write)
+		{
+			final int index = random.nextInt(FakeVarbits.VARPS);
+			varps[index] ^= 1 << random.nextInt(32);
+
+			final VarbitChanged varbitChanged = new VarbitChanged();
+			// occasionally replay the events without an index which devtools posts
+			varbitChanged.setIndex(random.nextInt(100) == 0 ? -1 : index);
+			varbitManager.onVarbitChanged(varbitChanged);
+
+			final Set<VarbitValueChanged> expected = new HashSet<>();
+			for (int i = 0; i < watchedVarbits.length; ++i)
+			{
+				final int value = FakeVarbits.get(varps, watchedVarbits[i]);
+				if (value != values[i])
+				{
+					expected.add(new VarbitValueChanged(watchedVarbits[i], values[i], value));
+					values[i] = value;
+				}
+			}
+
+			assertEquals("write " + write, expected, dispatched);
+			changes += dispatched.size();
+			dispatched.clear();
+		}
+
+		assertTrue(changes > 0);
+	}
+
+	@Test
+	public void testOnlyConcernedListenersCalled()
+	{
+		final Object wintertodt = new Object();
+		final Object attackStyles = new Object();
+		final List<VarbitValueChanged> wintertodtChanges = new ArrayList<>();
+		final List<VarbitValueChanged> attackStylesChanges = new ArrayList<>();
+
+		// 5 and 105 share varp 5, 7 is in varp 7
+		varbitManager.register(wintertodt, 5, wintertodtChanges::add);
+		varbitManager.register(attackStyles, 105, attackStylesChanges::add);
+		varbitManager.register(attackStyles, 7, attackStylesChanges::add);
+		reads.set(0);
+
+		FakeVarbits.set(varps, 5, 3);
+		post(5);
+		assertEquals(Collections.singletonList(new VarbitValueChanged(5, 0, 3)), wintertodtChanges);
+		assertTrue(attackStylesChanges.isEmpty());
+		// only the varbits held in varp 5 are read
+		assertEquals(2, reads.getAndSet(0));
+
+		FakeVarbits.set(varps, 7, 1);
+		post(7);
+		assertEquals(1, wintertodtChanges.size());
+		assertEquals(Collections.singletonList(new VarbitValueChanged(7, 0, 1)), attackStylesChanges);
+		assertEquals(1, reads.get());
+	}
+
+	@Test
+	public void testUnregister()
+	{
+		final List<VarbitValueChanged> changes = new ArrayList<>();
+		varbitManager.register(this, 5, changes::add);
+		varbitManager.unregister(this);
+
+		FakeVarbits.set(varps, 5, 3);
+		post(5);
+		assertTrue(changes.isEmpty());
+	}
+
+	private void post(int index)
+	{
+		final VarbitChanged varbitChanged = new VarbitChanged();
+		varbitChanged.setIndex(index);
+		varbitManager.onVarbitChanged(varbitChanged);
+	}
+}
@@ -52,6 +52,7 @@ import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigItem;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -139,6 +140,26 @@ public class PluginManagerTest
 		assertEquals(expected, plugins.size());
 	}
 
+	@Test
+	public void testDependencyOrder() throws Exception
+	{
+		PluginManager pluginManager = new PluginManager(false, null, null, null, null, null);
+		pluginManager.setLoaderThreads(4);
+		pluginManager.loadCorePlugins();
+
+		// Plugins are loaded in parallel, but must still be returned after their dependencies
+		List<Class<?>> loaded = new ArrayList<>();
+		for (Plugin plugin : pluginManager.getPlugins())
+		{
+			for (PluginDependency dependency : plugin.getClass().getAnnotationsByType(PluginDependency.class))
+			{
+				assertTrue(plugin.getClass().getSimpleName() + " loaded before " + dependency.value().getSimpleName(),
+					loaded.contains(dependency.value()));
+			}
+			loaded.add(plugin.getClass());
+		}
+	}
+
 	@Test
 	public void dumpGraph() throws Exception
 	{
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.banktags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.game.ItemVariationMapping;
+import static net.runelite.client.plugins.banktags.BankTagsPlugin.CONFIG_GROUP;
+import net.runelite.client.plugins.cluescrolls.ClueScrollService;
+import net.runelite.client.util.Text;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Filters a bank of 800 tagged items with 100 distinct tags, as a bank search keystroke does,
+ * using the {@link TagManager} index and the previous approach of splitting each item's tag string
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagManagerBenchmark
+{
+	private static final int ITEMS = 800;
+	private static final int TAGS = 100;
+	private static final String ITEM_KEY_PREFIX = "item_";
+	private static final List<String> SEARCHES = Arrays.asList("s", "sl", "sla", "slay", "slaye", "slayer");
+
+	private final Map<String, String> config = new HashMap<>();
+	private final int[] bank = new int[ITEMS];
+	private ItemManager itemManager;
+	private TagManager tagManager;
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(42);
+		List<String> tags = new ArrayList<>();
+		tags.add("slayer");
+		while (tags.size() < TAGS)
+		{
+			char[] tag = new char[3 + random.nextInt(6)];
+			for (int i = 0; i < tag.length; ++i)
+			{
+				tag[i] = (char) ('a' + random.nextInt(26));
+			}
+			tags.add(new String(tag));
+		}
+
+		for (int i = 0; i < ITEMS; ++i)
+		{
+			int itemId = 1000 + i * 3;
+			bank[i] = itemId;
+
+			Set<String> itemTags = new LinkedHashSet<>();
+			int count = 1 + random.nextInt(3);
+			while (itemTags.size() < count)
+			{
+				itemTags.add(tags.get(random.nextInt(TAGS)));
+			}
+			config.put(ITEM_KEY_PREFIX + itemId, Text.toCSV(itemTags));
+		}
+
+		ConfigManager configManager = mock(ConfigManager.class, withSettings().stubOnly());
+		when(configManager.getConfigurationKeys(anyString())).thenAnswer(invocation -> config.keySet().stream()
+			.map(key -> CONFIG_GROUP + "." + key)
+			.collect(Collectors.toList()));
+		when(configManager.getConfiguration(eq(CONFIG_GROUP), anyString()))
+			.thenAnswer(invocation -> config.get(invocation.<String>getArgument(1)));
+
+		itemManager = mock(ItemManager.class, withSettings().stubOnly());
+		when(itemManager.canonicalize(anyInt())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		tagManager = new TagManager(itemManager, configManager, mock(ClueScrollService.class, withSettings().stubOnly()));
+	}
+
+	@Benchmark
+	public void searchIndexed(Blackhole blackhole)
+	{
+		for (String search : SEARCHES)
+		{
+			for (int itemId : bank)
+			{
+				blackhole.consume(tagManager.findTag(itemId, search));
+			}
+		}
+	}
+
+	@Benchmark
+	public void searchConfig(Blackhole blackhole)
+	{
+		for (String search : SEARCHES)
+		{
+			for (int itemId : bank)
+			{
+				blackhole.consume(configFindTag(itemId, search));
+			}
+		}
+	}
+
+	@Benchmark
+	public List<Integer> itemsForTagIndexed()
+	{
+		return tagManager.getItemsForTag("slayer");
+	}
+
+	@Benchmark
+	public List<Integer> itemsForTagConfig()
+	{
+		return configItemsForTag("slayer");
+	}
+
+	@Benchmark
+	public void addRemoveTag()
+	{
+		int itemId = bank[ITEMS / 2];
+		tagManager.addTag(itemId, "benchmark", false);
+		tagManager.removeTag(itemId, "benchmark");
+	}
+
+	/**
+	 * {@link TagManager#findTag} from before the index
+	 */
+	private boolean configFindTag(int itemId, String search)
+	{
+		Collection<String> tags = configTags(itemId, false);
+		tags.addAll(configTags(itemId, true));
+		return tags.stream().anyMatch(tag -> tag.startsWith(Text.standardize(search)));
+	}
+
+	/**
+	 * {@link TagManager#getItemsForTag} from before the index
+	 */
+	private List<Integer> configItemsForTag(String tag)
+	{
+		return config.keySet().stream()
+			.map(key -> Integer.parseInt(key.substring(ITEM_KEY_PREFIX.length())))
+			.filter(item -> configTags(item, false).contains(tag) || configTags(item, true).contains(tag))
+			.collect(Collectors.toList());
+	}
+
+	private Collection<String> configTags(int itemId, boolean variation)
+	{
+		itemId = itemManager.canonicalize(Math.abs(itemId));
+		if (variation)
+		{
+			itemId = ItemVariationMapping.map(itemId) * -1;
+		}
+
+		String value = config.get(ITEM_KEY_PREFIX + itemId);
+		return new LinkedHashSet<>(Text.fromCSV(value == null ? "" : value.toLowerCase()));
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(TagManagerBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
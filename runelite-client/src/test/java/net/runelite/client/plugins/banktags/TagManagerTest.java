@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.banktags;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import static net.runelite.api.ItemID.ABYSSAL_WHIP;
+import static net.runelite.api.ItemID.AMULET_OF_GLORY;
+import static net.runelite.api.ItemID.AMULET_OF_GLORY1;
+import static net.runelite.api.ItemID.AMULET_OF_GLORY4;
+import static net.runelite.api.ItemID.DRAGON_SCIMITAR;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.game.ItemManager;
+import static net.runelite.client.plugins.banktags.BankTagsPlugin.CONFIG_GROUP;
+import net.runelite.client.plugins.cluescrolls.ClueScrollService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TagManagerTest
+{
+	private static final int ABYSSAL_WHIP_NOTED = ABYSSAL_WHIP + 1;
+
+	@Mock
+	@Bind
+	ConfigManager configManager;
+
+	@Mock
+	@Bind
+	ItemManager itemManager;
+
+	@Mock
+	@Bind
+	ClueScrollService clueScrollService;
+
+	@Inject
+	TagManager tagManager;
+
+	private final Map<String, String> config = new HashMap<>();
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+
+		lenient().when(configManager.getConfigurationKeys(anyString())).thenAnswer(invocation ->
+		{
+			String prefix = invocation.getArgument(0);
+			return config.keySet().stream()
+				.map(key -> CONFIG_GROUP + "." + key)
+				.filter(key -> key.startsWith(prefix))
+				.collect(Collectors.toList());
+		});
+		lenient().when(configManager.getConfiguration(eq(CONFIG_GROUP), anyString()))
+			.thenAnswer(invocation -> config.get(invocation.<String>getArgument(1)));
+		lenient().doAnswer(invocation -> config.put(invocation.getArgument(1), invocation.getArgument(2)))
+			.when(configManager).setConfiguration(eq(CONFIG_GROUP), anyString(), anyString());
+		lenient().doAnswer(invocation -> config.remove(invocation.<String>getArgument(1)))
+			.when(configManager).unsetConfiguration(eq(CONFIG_GROUP), anyString());
+
+		lenient().when(itemManager.canonicalize(anyInt())).thenAnswer(invocation ->
+		{
+			int itemId = invocation.getArgument(0);
+			return itemId == ABYSSAL_WHIP_NOTED ? ABYSSAL_WHIP : itemId;
+		});
+
+		config.put("item_" + ABYSSAL_WHIP, "slayer,pvm");
+		config.put("item_" + DRAGON_SCIMITAR, "pvm");
+		config.put("item_-" + AMULET_OF_GLORY, "slayer,teleports");
+	}
+
+	@Test
+	public void testFindTag()
+	{
+		assertTrue(tagManager.findTag(ABYSSAL_WHIP, "slayer"));
+		assertTrue(tagManager.findTag(ABYSSAL_WHIP, "sla"));
+		assertTrue(tagManager.findTag(ABYSSAL_WHIP, "PvM"));
+		assertFalse(tagManager.findTag(ABYSSAL_WHIP, "teleports"));
+		assertFalse(tagManager.findTag(DRAGON_SCIMITAR, "slayer"));
+		assertFalse(tagManager.findTag(DRAGON_SCIMITAR, "nothing"));
+	}
+
+	@Test
+	public void testFindTagUnnoted()
+	{
+		assertTrue(tagManager.findTag(ABYSSAL_WHIP_NOTED, "slayer"));
+
+		tagManager.addTag(ABYSSAL_WHIP_NOTED, "whip", false);
+		assertEquals("slayer,pvm,whip", config.get("item_" + ABYSSAL_WHIP));
+		assertFalse(config.containsKey("item_" + ABYSSAL_WHIP_NOTED));
+		assertTrue(tagManager.findTag(ABYSSAL_WHIP, "whip"));
+	}
+
+	@Test
+	public void testFindTagWildcard()
+	{
+		// tags added to the base item as a wildcard apply to every variation of it
+		assertTrue(tagManager.findTag(AMULET_OF_GLORY, "tele"));
+		assertTrue(tagManager.findTag(AMULET_OF_GLORY1, "tele"));
+		assertTrue(tagManager.findTag(AMULET_OF_GLORY4, "tele"));
+		assertTrue(tagManager.getTags(AMULET_OF_GLORY4, false).isEmpty());
+
+		tagManager.addTag(AMULET_OF_GLORY4, "jewellery", true);
+		assertEquals("slayer,teleports,jewellery", config.get("item_-" + AMULET_OF_GLORY));
+		assertTrue(tagManager.findTag(AMULET_OF_GLORY1, "jewel"));
+
+		tagManager.addTag(AMULET_OF_GLORY1, "charged", false);
+		assertTrue(tagManager.findTag(AMULET_OF_GLORY1, "charged"));
+		assertFalse(tagManager.findTag(AMULET_OF_GLORY4, "charged"));
+	}
+
+	@Test
+	public void testGetItemsForTag()
+	{
+		assertEquals(new HashSet<>(Arrays.asList(ABYSSAL_WHIP, -AMULET_OF_GLORY)),
+			new HashSet<>(tagManager.getItemsForTag("slayer")));
+		assertEquals(new HashSet<>(Arrays.asList(ABYSSAL_WHIP, DRAGON_SCIMITAR)),
+			new HashSet<>(tagManager.getItemsForTag("pvm")));
+		// only whole tags are matched
+		assertTrue(tagManager.getItemsForTag("sla").isEmpty());
+	}
+
+	@Test
+	public void testRemoveTag()
+	{
+		tagManager.removeTag("pvm");
+
+		assertEquals("slayer", config.get("item_" + ABYSSAL_WHIP));
+		assertNull(config.get("item_" + DRAGON_SCIMITAR));
+		assertFalse(tagManager.findTag(ABYSSAL_WHIP, "pvm"));
+		assertFalse(tagManager.findTag(DRAGON_SCIMITAR, "pvm"));
+		assertTrue(tagManager.getItemsForTag("pvm").isEmpty());
+		assertEquals(2, tagManager.getItemsForTag("slayer").size());
+	}
+
+	@Test
+	public void testRenameTag()
+	{
+		tagManager.renameTag("slayer", "Task");
+
+		assertEquals("pvm,task", config.get("item_" + ABYSSAL_WHIP));
+		assertEquals("teleports,task", config.get("item_-" + AMULET_OF_GLORY));
+		assertTrue(tagManager.getItemsForTag("slayer").isEmpty());
+		assertEquals(new HashSet<>(Arrays.asList(ABYSSAL_WHIP, -AMULET_OF_GLORY)),
+			new HashSet<>(tagManager.getItemsForTag("task")));
+		assertTrue(tagManager.findTag(AMULET_OF_GLORY1, "task"));
+	}
+
+	@Test
+	public void testConfigChanged()
+	{
+		assertFalse(tagManager.findTag(DRAGON_SCIMITAR, "slayer"));
+
+		// a change made outside of the tag manager is only seen once it is told about it
+		config.put("item_" + DRAGON_SCIMITAR, "pvm,slayer");
+		assertFalse(tagManager.findTag(DRAGON_SCIMITAR, "slayer"));
+
+		tagManager.configChanged("item_" + DRAGON_SCIMITAR, "pvm,slayer");
+		assertTrue(tagManager.findTag(DRAGON_SCIMITAR, "slayer"));
+
+		config.remove("item_" + ABYSSAL_WHIP);
+		tagManager.configChanged("item_" + ABYSSAL_WHIP, null);
+		assertFalse(tagManager.findTag(ABYSSAL_WHIP, "slayer"));
+		assertFalse(tagManager.getItemsForTag("slayer").contains(ABYSSAL_WHIP));
+
+		// keys which are not item tags are ignored
+		tagManager.configChanged("tagtabs", "slayer");
+		tagManager.configChanged("item_abc", "slayer");
+		assertTrue(tagManager.findTag(DRAGON_SCIMITAR, "slayer"));
+	}
+
+	@Test
+	public void testInvalidate()
+	{
+		assertTrue(tagManager.findTag(ABYSSAL_WHIP, "slayer"));
+
+		config.clear();
+		config.put("item_" + DRAGON_SCIMITAR, "slayer");
+		assertTrue(tagManager.findTag(ABYSSAL_WHIP, "slayer"));
+
+		tagManager.invalidate();
+		assertFalse(tagManager.findTag(ABYSSAL_WHIP, "slayer"));
+		assertTrue(tagManager.findTag(DRAGON_SCIMITAR, "slayer"));
+	}
+}
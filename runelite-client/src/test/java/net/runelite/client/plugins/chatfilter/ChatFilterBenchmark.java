@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.chatfilter;
+
+import com.google.common.io.CharStreams;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Censors the chat corpus fixture with 200 filtered words and a handful of regexes, using
+ * {@link MessageCensor} and the previous approach of running each pattern in turn
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatFilterBenchmark
+{
+	private static final int WORDS = 200;
+	private static final List<String> COMMON_WORDS = Arrays.asList(
+		"kys", "noob", "trash", "scam", "scammer", "gold", "goldshop", "bot", "spam", "wtf", "ffs", "damn",
+		"hell", "shut up", "trade me", "free stuff", "giveaway", "bank pin", "password", "dice"
+	);
+	private static final List<String> REGEXES = Arrays.asList(
+		"[0-9]+x[0-9]",
+		"w\\s*w\\s*w",
+		"\\.\\s*c\\s*o\\s*m",
+		"d[o0]t\\s*c[o0]m",
+		"(?-i)[A-Z]{5,}"
+	);
+
+	private final List<String> messages = new ArrayList<>();
+	private final List<Pattern> patterns = new ArrayList<>();
+	private MessageCensor messageCensor;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("chat-corpus.txt"), StandardCharsets.UTF_8))
+		{
+			for (String line : CharStreams.readLines(reader))
+			{
+				if (!line.isEmpty())
+				{
+					messages.add(line);
+				}
+			}
+		}
+
+		Random random = new Random(42);
+		Set<String> words = new LinkedHashSet<>(COMMON_WORDS);
+		while (words.size() < WORDS)
+		{
+			char[] word = new char[4 + random.nextInt(5)];
+			for (int i = 0; i < word.length; ++i)
+			{
+				word[i] = (char) ('a' + random.nextInt(26));
+			}
+			words.add(new String(word));
+		}
+
+		for (String word : words)
+		{
+			patterns.add(Pattern.compile(Pattern.quote(word), Pattern.CASE_INSENSITIVE));
+		}
+		for (String regex : REGEXES)
+		{
+			patterns.add(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+		}
+
+		messageCensor = MessageCensor.compile(words, REGEXES);
+	}
+
+	@Benchmark
+	public void censorWordsSequential(Blackhole blackhole)
+	{
+		for (String message : messages)
+		{
+			blackhole.consume(sequentialCensor(message, true));
+		}
+	}
+
+	@Benchmark
+	public void censorWordsCombined(Blackhole blackhole)
+	{
+		for (String message : messages)
+		{
+			blackhole.consume(messageCensor.censor(message));
+		}
+	}
+
+	@Benchmark
+	public void removeMessageSequential(Blackhole blackhole)
+	{
+		for (String message : messages)
+		{
+			blackhole.consume(sequentialCensor(message, false));
+		}
+	}
+
+	@Benchmark
+	public void removeMessageCombined(Blackhole blackhole)
+	{
+		for (String message : messages)
+		{
+			blackhole.consume(messageCensor.matches(message));
+		}
+	}
+
+	/**
+	 * The censoring loop from before {@link MessageCensor}
+	 */
+	private String sequentialCensor(String message, boolean censorWords)
+	{
+		boolean filtered = false;
+		for (Pattern pattern : patterns)
+		{
+			Matcher m = pattern.matcher(message);
+
+			StringBuffer sb = new StringBuffer();
+
+			while (m.find())
+			{
+				if (!censorWords)
+				{
+					return null;
+				}
+
+				m.appendReplacement(sb, StringUtils.repeat("*", m.group(0).length()));
+				filtered = true;
+			}
+			m.appendTail(sb);
+
+			message = sb.toString();
+		}
+
+		return filtered ? message : null;
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(ChatFilterBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -79,6 +79,49 @@ public class ChatFilterPluginTest
 		assertEquals("w***s up", chatFilterPlugin.censorMessage("whats up"));
 	}
 
+	@Test
+	public void testCensorOverlappingWords()
+	{
+		when(chatFilterConfig.filteredWords()).thenReturn("hat,whats,at u");
+
+		chatFilterPlugin.updateFilteredPatterns();
+		assertEquals("W*****P, ***** t***", chatFilterPlugin.censorMessage("WHAT UP, whats that"));
+	}
+
+	@Test
+	public void testCensorWordsAndRegex()
+	{
+		when(chatFilterConfig.filteredWords()).thenReturn("gp");
+		when(chatFilterConfig.filteredRegex()).thenReturn("(?-i)Dice\n[0-9]+M");
+
+		chatFilterPlugin.updateFilteredPatterns();
+		assertEquals("buying *** ** dice", chatFilterPlugin.censorMessage("buying 10m gp dice"));
+		assertEquals("**** 50 50 **", chatFilterPlugin.censorMessage("Dice 50 50 gp"));
+	}
+
+	@Test
+	public void testCensorRegexWithGroups()
+	{
+		when(chatFilterConfig.filteredRegex()).thenReturn("(sell|buy)ing (bonds)\n(\\d+)k\nwhip");
+
+		chatFilterPlugin.updateFilteredPatterns();
+		assertEquals("100 or ****", chatFilterPlugin.censorMessage("100 or whip"));
+		assertEquals("************* for ****", chatFilterPlugin.censorMessage("selling bonds for 500k"));
+		assertEquals("buy bonds", chatFilterPlugin.censorMessage("buy bonds"));
+	}
+
+	@Test
+	public void testCensorRegexBackreference()
+	{
+		when(chatFilterConfig.filterType()).thenReturn(ChatFilterType.CENSOR_MESSAGE);
+		when(chatFilterConfig.filteredRegex()).thenReturn("(.)\\1\\1\nspam");
+
+		chatFilterPlugin.updateFilteredPatterns();
+		assertEquals("Hey, everyone, I just tried to say something very silly!",
+			chatFilterPlugin.censorMessage("heyyy"));
+		assertEquals("hey there", chatFilterPlugin.censorMessage("hey there"));
+	}
+
 	@Test
 	public void testCensorRegex()
 	{
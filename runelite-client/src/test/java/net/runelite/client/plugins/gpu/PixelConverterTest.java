@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.gpu;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class PixelConverterTest
+{
+	@Test
+	public void testNativeOrder()
+	{
+		check(ByteOrder.nativeOrder());
+	}
+
+	@Test
+	public void testLittleEndian()
+	{
+		check(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Test
+	public void testBigEndian()
+	{
+		check(ByteOrder.BIG_ENDIAN);
+	}
+
+	@Test
+	public void testLargeImage()
+	{
+		// large enough to be split into stripes
+		int width = 1280;
+		int height = 1024;
+		ByteBuffer buffer = framebuffer(width, height, ByteOrder.nativeOrder(), new Random(1));
+
+		int[] expected = new int[width * height];
+		convertPerByte(buffer.duplicate(), width, height, expected);
+
+		int[] pixels = new int[width * height];
+		PixelConverter.convert(buffer, width, height, pixels);
+		assertArrayEquals(expected, pixels);
+	}
+
+	@Test
+	public void testChannels()
+	{
+		ByteBuffer buffer = ByteBuffer.allocateDirect(8)
+			.order(ByteOrder.nativeOrder());
+		// bottom row, then top row
+		buffer.put(new byte[]{(byte) 0x11, (byte) 0x22, (byte) 0x33, (byte) 0xff});
+		buffer.put(new byte[]{(byte) 0xaa, (byte) 0xbb, (byte) 0xcc, (byte) 0x00});
+		buffer.flip();
+
+		int[] pixels = new int[2];
+		PixelConverter.convert(buffer, 1, 2, pixels);
+		assertEquals(0xaabbcc, pixels[0]);
+		assertEquals(0x112233, pixels[1]);
+	}
+
+	private static void check(ByteOrder order)
+	{
+		Random random = new Random(42);
+		int[][] sizes = {{1, 1}, {7, 3}, {64, 64}, {765, 503}, {3, 257}};
+
+		for (int[] size : sizes)
+		{
+			int width = size[0];
+			int height = size[1];
+			ByteBuffer buffer = framebuffer(width, height, order, random);
+
+			int[] expected = new int[width * height];
+			convertPerByte(buffer.duplicate(), width, height, expected);
+
+			for (int stripes = 1; stripes <= 8; ++stripes)
+			{
+				int[] pixels = new int[width * height];
+				PixelConverter.convert(buffer.duplicate().order(order), width, height, pixels, stripes);
+				assertArrayEquals("size " + width + "x" + height + " stripes " + stripes, expected, pixels);
+			}
+		}
+	}
+
+	static ByteBuffer framebuffer(int width, int height, ByteOrder order, Random random)
+	{
+		byte[] data = new byte[width * height * 4];
+		random.nextBytes(data);
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(data.length)
+			.order(order);
+		buffer.put(data);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * The per byte conversion GpuPlugin used before {@link PixelConverter}
+	 */
+	static void convertPerByte(ByteBuffer buffer, int width, int height, int[] pixels)
+	{
+		for (int y = 0; y < height; ++y)
+		{
+			for (int x = 0; x < width; ++x)
+			{
+				int r = buffer.get() & 0xff;
+				int g = buffer.get() & 0xff;
+				int b = buffer.get() & 0xff;
+				buffer.get(); // alpha
+
+				pixels[(height - y - 1) * width + x] = (r << 16) | (g << 8) | b;
+			}
+		}
+	}
+}
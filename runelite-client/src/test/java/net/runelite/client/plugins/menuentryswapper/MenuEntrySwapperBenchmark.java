@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.menuentryswapper;
+
+import com.google.common.base.Splitter;
+import com.google.common.io.CharStreams;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.events.MenuEntryAdded;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Replays the recorded {@link MenuEntryAdded} sequences in menu-entries.txt through the
+ * compiled swap rules, with every swap enabled
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuEntrySwapperBenchmark
+{
+	private static final Splitter TAB_SPLITTER = Splitter.on('\t');
+
+	private final List<MenuEntry[]> menus = new ArrayList<>();
+	private MenuEntrySwapperConfig config;
+	private SwapRules swapRules;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		List<MenuEntry> entries = new ArrayList<>();
+		try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("menu-entries.txt"), StandardCharsets.UTF_8))
+		{
+			for (String line : CharStreams.readLines(reader))
+			{
+				if (line.startsWith("#"))
+				{
+					continue;
+				}
+
+				if (line.isEmpty())
+				{
+					if (!entries.isEmpty())
+					{
+						menus.add(entries.toArray(new MenuEntry[0]));
+						entries.clear();
+					}
+					continue;
+				}
+
+				List<String> fields = TAB_SPLITTER.splitToList(line);
+				MenuEntryAdded event = new MenuEntryAdded(fields.get(0), fields.get(1), Integer.parseInt(fields.get(2)),
+					Integer.parseInt(fields.get(3)), Integer.parseInt(fields.get(4)), Integer.parseInt(fields.get(5)));
+				entries.add(toMenuEntry(event));
+			}
+		}
+
+		if (!entries.isEmpty())
+		{
+			menus.add(entries.toArray(new MenuEntry[0]));
+		}
+
+		// Enable every swap, and pick the first non default mode of each enum option
+		config = (MenuEntrySwapperConfig) Proxy.newProxyInstance(getClass().getClassLoader(),
+			new Class<?>[]{MenuEntrySwapperConfig.class},
+			(proxy, method, args) ->
+			{
+				Class<?> type = method.getReturnType();
+				if (type == boolean.class)
+				{
+					return true;
+				}
+				if (type.isEnum())
+				{
+					return type.getEnumConstants()[1];
+				}
+				return null;
+			});
+
+		swapRules = SwapRules.compile(config, itemId -> false);
+	}
+
+	@Benchmark
+	public void swap(Blackhole blackhole)
+	{
+		for (MenuEntry[] menuEntries : menus)
+		{
+			SwapMenu menu = new SwapMenu(menuEntries);
+			swapRules.apply(menu, -1, false);
+			blackhole.consume(menu.getEntries());
+		}
+	}
+
+	@Benchmark
+	public void swapWithShift(Blackhole blackhole)
+	{
+		for (MenuEntry[] menuEntries : menus)
+		{
+			SwapMenu menu = new SwapMenu(menuEntries);
+			swapRules.apply(menu, -1, true);
+			blackhole.consume(menu.getEntries());
+		}
+	}
+
+	@Benchmark
+	public SwapRules compile()
+	{
+		return SwapRules.compile(config, itemId -> false);
+	}
+
+	private static MenuEntry toMenuEntry(MenuEntryAdded event)
+	{
+		MenuEntry entry = new MenuEntry();
+		entry.setOption(event.getOption());
+		entry.setTarget(event.getTarget());
+		entry.setType(event.getType());
+		entry.setIdentifier(event.getIdentifier());
+		entry.setParam0(event.getActionParam0());
+		entry.setParam1(event.getActionParam1());
+		return entry;
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(MenuEntrySwapperBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -44,7 +44,7 @@ import static org.mockito.ArgumentMatchers.any;
 import org.mockito.Mock;
 import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doAnswer;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -80,6 +80,9 @@ public class MenuEntrySwapperPluginTest
 		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
 
 		when(client.getGameState()).thenReturn(GameState.LOGGED_IN);
+		when(config.swapHomePortal()).thenReturn(HouseMode.ENTER);
+		when(config.swapHouseAdvertisement()).thenReturn(HouseAdvertisementMode.VIEW);
+		when(config.swapFairyRing()).thenReturn(FairyRingMode.OFF);
 
 		when(client.getMenuEntries()).thenAnswer((Answer<MenuEntry[]>) invocationOnMock ->
 		{
@@ -122,8 +125,8 @@ public class MenuEntrySwapperPluginTest
 		menuEntrySwapperPlugin.onClientTick(new ClientTick());
 
 		ArgumentCaptor<MenuEntry[]> argumentCaptor = ArgumentCaptor.forClass(MenuEntry[].class);
-		// Once for assignment<->talk-to and once for trade<->talk-to
-		verify(client, times(2)).setMenuEntries(argumentCaptor.capture());
+		// Both assignment<->talk-to and trade<->talk-to are set at once
+		verify(client).setMenuEntries(argumentCaptor.capture());
 
 		MenuEntry[] value = argumentCaptor.getValue();
 		assertArrayEquals(new MenuEntry[]{
@@ -160,7 +163,7 @@ public class MenuEntrySwapperPluginTest
 		menuEntrySwapperPlugin.onClientTick(new ClientTick());
 
 		ArgumentCaptor<MenuEntry[]> argumentCaptor = ArgumentCaptor.forClass(MenuEntry[].class);
-		verify(client, times(2)).setMenuEntries(argumentCaptor.capture());
+		verify(client).setMenuEntries(argumentCaptor.capture());
 
 		assertArrayEquals(new MenuEntry[]{
 			menu("Cancel", "", MenuAction.CANCEL),
@@ -211,6 +214,39 @@ public class MenuEntrySwapperPluginTest
 		}, argumentCaptor.getValue());
 	}
 
+	@Test
+	public void testRuleOrder()
+	{
+		when(config.swapTravel()).thenReturn(true);
+		when(config.swapQuick()).thenReturn(true);
+
+		entries = new MenuEntry[]{
+			menu("Cancel", "", MenuAction.CANCEL),
+			menu("Quick-open", "<col=ffff>Gate", MenuAction.GAME_OBJECT_THIRD_OPTION),
+			menu("Pay-toll(10gp)", "<col=ffff>Gate", MenuAction.GAME_OBJECT_SECOND_OPTION),
+			menu("Open", "<col=ffff>Gate", MenuAction.GAME_OBJECT_FIRST_OPTION),
+
+			menu("Quick-open", "<col=ffff>Door", MenuAction.GAME_OBJECT_SECOND_OPTION),
+			menu("Open", "<col=ffff>Door", MenuAction.GAME_OBJECT_FIRST_OPTION),
+		};
+
+		menuEntrySwapperPlugin.onClientTick(new ClientTick());
+
+		ArgumentCaptor<MenuEntry[]> argumentCaptor = ArgumentCaptor.forClass(MenuEntry[].class);
+		verify(client).setMenuEntries(argumentCaptor.capture());
+
+		// The toll gate rule is tried before quick open, and stops quick open applying to the gate
+		assertArrayEquals(new MenuEntry[]{
+			menu("Cancel", "", MenuAction.CANCEL),
+			menu("Quick-open", "<col=ffff>Gate", MenuAction.GAME_OBJECT_THIRD_OPTION),
+			menu("Open", "<col=ffff>Gate", MenuAction.GAME_OBJECT_FIRST_OPTION),
+			menu("Pay-toll(10gp)", "<col=ffff>Gate", MenuAction.GAME_OBJECT_SECOND_OPTION),
+
+			menu("Open", "<col=ffff>Door", MenuAction.GAME_OBJECT_FIRST_OPTION),
+			menu("Quick-open", "<col=ffff>Door", MenuAction.GAME_OBJECT_SECOND_OPTION),
+		}, argumentCaptor.getValue());
+	}
+
 	@Test
 	public void testTeleport()
 	{
@@ -263,4 +299,35 @@ public class MenuEntrySwapperPluginTest
 			menu("Cast", "Varrock Teleport", MenuAction.WIDGET_SECOND_OPTION),
 		}, argumentCaptor.getValue());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testConfigChangedWhileDisabled()
+	{
+		entries = new MenuEntry[]{
+			menu("Cancel", "", MenuAction.CANCEL),
+			menu("Collect", "Gnome banker", MenuAction.NPC_FOURTH_OPTION),
+			menu("Bank", "Gnome banker", MenuAction.NPC_THIRD_OPTION),
+			menu("Talk-to", "Gnome banker", MenuAction.NPC_FIRST_OPTION),
+		};
+
+		// compiles the swaps with banker swapping off
+		menuEntrySwapperPlugin.onClientTick(new ClientTick());
+		verify(client, never()).setMenuEntries(any(MenuEntry[].class));
+
+		// changed while the plugin is off, so no config changed event is seen
+		when(config.swapBank()).thenReturn(true);
+		menuEntrySwapperPlugin.startUp();
+
+		menuEntrySwapperPlugin.onClientTick(new ClientTick());
+
+		ArgumentCaptor<MenuEntry[]> argumentCaptor = ArgumentCaptor.forClass(MenuEntry[].class);
+		verify(client).setMenuEntries(argumentCaptor.capture());
+
+		assertArrayEquals(new MenuEntry[]{
+			menu("Cancel", "", MenuAction.CANCEL),
+			menu("Collect", "Gnome banker", MenuAction.NPC_FOURTH_OPTION),
+			menu("Talk-to", "Gnome banker", MenuAction.NPC_FIRST_OPTION),
+			menu("Bank", "Gnome banker", MenuAction.NPC_THIRD_OPTION),
+		}, argumentCaptor.getValue());
+	}
+}
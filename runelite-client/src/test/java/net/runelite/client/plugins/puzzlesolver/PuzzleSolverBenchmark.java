@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.puzzlesolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.BLANK_TILE_VALUE;
+import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.DIMENSION;
+import net.runelite.client.plugins.puzzlesolver.solver.PuzzleState;
+import net.runelite.client.plugins.puzzlesolver.solver.heuristics.ManhattanDistance;
+import net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase;
+import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.IDAStar;
+import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.PackedIDAStar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Solves a set of seeded scrambles, made by random walks of the blank from the solved puzzle,
+ * with {@link PackedIDAStar} and with {@link IDAStar} using the Manhattan distance
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PuzzleSolverBenchmark
+{
+	private static final int SCRAMBLES = 10;
+
+	@Param({"30", "50"})
+	private int scrambleMoves;
+
+	private final List<PuzzleState> scrambles = new ArrayList<>();
+	private PatternDatabase patternDatabase;
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(42);
+		for (int i = 0; i < SCRAMBLES; ++i)
+		{
+			scrambles.add(scramble(random, scrambleMoves));
+		}
+
+		patternDatabase = new PatternDatabase(null);
+		patternDatabase.load();
+	}
+
+	@Benchmark
+	public void packedIDAStar(Blackhole blackhole)
+	{
+		for (PuzzleState scramble : scrambles)
+		{
+			blackhole.consume(new PackedIDAStar(patternDatabase).computePath(scramble));
+		}
+	}
+
+	@Benchmark
+	public void manhattanIDAStar(Blackhole blackhole)
+	{
+		for (PuzzleState scramble : scrambles)
+		{
+			blackhole.consume(new IDAStar(new ManhattanDistance()).computePath(scramble));
+		}
+	}
+
+	private static PuzzleState scramble(Random random, int moves)
+	{
+		int[] pieces = new int[DIMENSION * DIMENSION];
+		for (int i = 0; i < pieces.length - 1; ++i)
+		{
+			pieces[i] = i;
+		}
+		pieces[pieces.length - 1] = BLANK_TILE_VALUE;
+
+		int blank = pieces.length - 1;
+		int previous = -1;
+		for (int i = 0; i < moves; ++i)
+		{
+			int next;
+			do
+			{
+				switch (random.nextInt(4))
+				{
+					case 0:
+						next = blank % DIMENSION > 0 ? blank - 1 : -1;
+						break;
+					case 1:
+						next = blank % DIMENSION < DIMENSION - 1 ? blank + 1 : -1;
+						break;
+					case 2:
+						next = blank - DIMENSION;
+						break;
+					default:
+						next = blank + DIMENSION;
+						break;
+				}
+			}
+			while (next < 0 || next >= pieces.length || next == previous);
+
+			pieces[blank] = pieces[next];
+			pieces[next] = BLANK_TILE_VALUE;
+			previous = blank;
+			blank = next;
+		}
+
+		return new PuzzleState(pieces);
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(PuzzleSolverBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
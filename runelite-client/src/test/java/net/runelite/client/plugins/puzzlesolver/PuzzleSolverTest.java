@@ -28,9 +28,12 @@ package net.runelite.client.plugins.puzzlesolver;
 import net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver;
 import net.runelite.client.plugins.puzzlesolver.solver.PuzzleState;
 import net.runelite.client.plugins.puzzlesolver.solver.heuristics.ManhattanDistance;
+import net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase;
 import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.IDAStar;
 import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.IDAStarMM;
+import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.PackedIDAStar;
 import org.junit.Test;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -136,6 +139,9 @@ public class PuzzleSolverTest
 
 	private static final int[] FINISHED_STATE = new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, -1};
 
+	// built on first use, shared so the tables are only built once
+	private static final PatternDatabase PATTERN_DATABASE = new PatternDatabase(null);
+
 	@Test
 	public void testSolverMM()
 	{
@@ -163,4 +169,34 @@ public class PuzzleSolverTest
 			assertTrue(solver.getStep(solver.getStepCount() - 1).hasPieces(FINISHED_STATE));
 		}
 	}
+
+	@Test
+	public void testPackedSolverOptimal()
+	{
+		for (PuzzleState state : START_STATES)
+		{
+			PuzzleSolver expected = new PuzzleSolver(new IDAStar(new ManhattanDistance()), state);
+			expected.run();
+
+			PuzzleSolver solver = new PuzzleSolver(new PackedIDAStar(PATTERN_DATABASE), state);
+			solver.run();
+
+			assertTrue(solver.hasSolution());
+			assertTrue(solver.getStep(solver.getStepCount() - 1).hasPieces(FINISHED_STATE));
+			assertEquals(expected.getStepCount(), solver.getStepCount());
+		}
+	}
+
+	@Test
+	public void testPackedSolverUnsolvable()
+	{
+		int[] pieces = FINISHED_STATE.clone();
+		pieces[0] = 1;
+		pieces[1] = 0;
+
+		PuzzleSolver solver = new PuzzleSolver(new PackedIDAStar(PATTERN_DATABASE), new PuzzleState(pieces));
+		solver.run();
+
+		assertTrue(solver.hasFailed());
+	}
 }
@@ -27,7 +27,14 @@ package net.runelite.client.plugins.screenshot;
 import com.google.inject.Guice;
 import com.google.inject.testing.fieldbinder.Bind;
 import com.google.inject.testing.fieldbinder.BoundFieldModule;
-import java.util.concurrent.ScheduledExecutorService;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import javax.inject.Inject;
 import static net.runelite.api.ChatMessageType.GAMEMESSAGE;
@@ -42,11 +49,15 @@ import static net.runelite.api.widgets.WidgetInfo.DIALOG_SPRITE_TEXT;
 import static net.runelite.api.widgets.WidgetInfo.LEVEL_UP_LEVEL;
 import net.runelite.client.Notifier;
 import net.runelite.client.config.RuneLiteConfig;
+import net.runelite.client.executor.CpuExecutor;
+import net.runelite.client.executor.IoExecutor;
 import net.runelite.client.ui.ClientUI;
 import net.runelite.client.ui.DrawManager;
 import static org.junit.Assert.assertEquals;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -95,7 +106,16 @@ public class ScreenshotPluginTest
 
 	@Mock
 	@Bind
-	ScheduledExecutorService service;
+	@CpuExecutor
+	ExecutorService service;
+
+	@Mock
+	@Bind
+	@IoExecutor
+	ExecutorService ioService;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
 
 	@Before
 	public void before()
@@ -240,4 +260,35 @@ public class ScreenshotPluginTest
 
 		verify(drawManager).requestNextFrameListener(any(Consumer.class));
 	}
+
+	@Test
+	public void testConcurrentScreenshotsWithSameName() throws Exception
+	{
+		final int screenshots = 16;
+		File screenshotFolder = folder.getRoot();
+
+		ExecutorService executor = Executors.newFixedThreadPool(screenshots);
+		try
+		{
+			List<Future<File>> futures = new ArrayList<>();
+			for (int i = 0; i < screenshots; ++i)
+			{
+				byte[] png = {(byte) i};
+				futures.add(executor.submit(() -> ScreenshotPlugin.writeScreenshotFile(screenshotFolder, "Hunter(2)", png)));
+			}
+
+			Set<File> files = new HashSet<>();
+			for (Future<File> future : futures)
+			{
+				files.add(future.get());
+			}
+
+			assertEquals(screenshots, files.size());
+			assertEquals(screenshots, screenshotFolder.listFiles().length);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
 }
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.worldhopper.ping;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Probes stand-in world servers on the loopback interface. Delays are injected by filling the
+ * accept backlog of a server, which makes the kernel drop connection attempts until the server
+ * accepts again and the client retransmits its SYN, about a second later.
+ */
+public class WorldProberTest
+{
+	private static final InetAddress LOOPBACK = InetAddress.getLoopbackAddress();
+
+	private final List<Closeable> resources = new CopyOnWriteArrayList<>();
+	private final BlockingQueue<WorldLatency> results = new LinkedBlockingQueue<>();
+	private final List<Integer> batchSizes = new ArrayList<>();
+
+	@After
+	public void after() throws IOException
+	{
+		for (Closeable resource : resources)
+		{
+			resource.close();
+		}
+	}
+
+	@Test
+	public void testResponsiveWorlds() throws Exception
+	{
+		WorldProber prober = prober(4, 2000);
+		List<InetSocketAddress> servers = new ArrayList<>();
+		for (int i = 0; i < 3; ++i)
+		{
+			servers.add(acceptingServer());
+		}
+
+		for (int round = 1; round <= 3; ++round)
+		{
+			for (int world = 0; world < servers.size(); ++world)
+			{
+				prober.probe(world, servers.get(world));
+			}
+
+			Map<Integer, WorldLatency> latencies = await(servers.size(), 5000);
+			for (int world = 0; world < servers.size(); ++world)
+			{
+				WorldLatency latency = latencies.get(world);
+				assertNotNull(latency);
+				assertTrue(latency.getPing() >= 0);
+				assertTrue(latency.getAverage() >= 0);
+				assertEquals(round, latency.getSamples());
+				assertEquals(latency, prober.getLatency(world));
+			}
+		}
+	}
+
+	@Test
+	public void testTimeout() throws Exception
+	{
+		WorldProber prober = prober(4, 300);
+		InetSocketAddress server = stalledServer(-1);
+
+		long start = System.nanoTime();
+		prober.probe(1, server);
+		WorldLatency latency = await(1, 5000).get(1);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertEquals(-1, latency.getPing());
+		assertEquals(-1, latency.getDisplayPing());
+		assertEquals(0, latency.getSamples());
+		assertTrue("timed out after " + elapsed + "ms", elapsed >= 300 && elapsed < 1000);
+	}
+
+	@Test
+	public void testRefused() throws Exception
+	{
+		WorldProber prober = prober(4, 2000);
+		InetSocketAddress address;
+		try (ServerSocket socket = new ServerSocket(0, 1, LOOPBACK))
+		{
+			address = new InetSocketAddress(LOOPBACK, socket.getLocalPort());
+		}
+
+		prober.probe(1, address);
+		assertEquals(-1, await(1, 5000).get(1).getPing());
+	}
+
+	@Test
+	public void testDelayedServer() throws Exception
+	{
+		WorldProber prober = prober(4, 5000);
+		InetSocketAddress fast = acceptingServer();
+		InetSocketAddress slow = stalledServer(200);
+
+		prober.probe(1, slow);
+		prober.probe(2, fast);
+
+		// the fast world is not held up behind the slow one
+		WorldLatency first = results.poll(5, TimeUnit.SECONDS);
+		assertNotNull(first);
+		assertEquals(2, first.getWorld());
+
+		WorldLatency second = results.poll(5, TimeUnit.SECONDS);
+		assertNotNull(second);
+		assertEquals(1, second.getWorld());
+		assertTrue("slow world took " + second.getPing() + "ms", second.getPing() >= 500);
+		assertTrue(second.getPing() > first.getPing());
+	}
+
+	@Test
+	public void testConcurrencyWindow() throws Exception
+	{
+		InetSocketAddress server = stalledServer(-1);
+		int worlds = 8;
+
+		long parallel = probeAll(prober(worlds, 300), server, worlds);
+		long serial = probeAll(prober(1, 300), server, worlds);
+
+		assertTrue("parallel probes took " + parallel + "ms", parallel < 1200);
+		assertTrue("serial probes took " + serial + "ms", serial >= worlds * 300);
+	}
+
+	@Test
+	public void testBatching() throws Exception
+	{
+		WorldProber prober = prober(16, 2000);
+		InetSocketAddress server = acceptingServer();
+
+		for (int world = 0; world < 16; ++world)
+		{
+			prober.probe(world, server);
+		}
+		await(16, 5000);
+
+		synchronized (batchSizes)
+		{
+			assertEquals(16, batchSizes.stream().mapToInt(Integer::intValue).sum());
+		}
+	}
+
+	@Test
+	public void testSmoothing()
+	{
+		WorldLatency latency = WorldLatency.initial(1)
+			.sample(100);
+		assertEquals(100, latency.getAverage(), 0.001);
+		assertEquals(50, latency.getJitter(), 0.001);
+
+		latency = latency.sample(180);
+		// rttvar = 3/4 * 50 + 1/4 * |100 - 180|, srtt = 7/8 * 100 + 1/8 * 180
+		assertEquals(57.5, latency.getJitter(), 0.001);
+		assertEquals(110, latency.getAverage(), 0.001);
+		assertEquals(180, latency.getPing());
+		assertEquals(110, latency.getDisplayPing());
+
+		latency = latency.failed();
+		assertEquals(-1, latency.getDisplayPing());
+		assertEquals(110, latency.getAverage(), 0.001);
+		assertEquals(2, latency.getSamples());
+	}
+
+	private long probeAll(WorldProber prober, InetSocketAddress server, int worlds) throws InterruptedException
+	{
+		long start = System.nanoTime();
+		for (int world = 0; world < worlds; ++world)
+		{
+			prober.probe(world, server);
+		}
+		assertEquals(worlds, await(worlds, 10000).size());
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+	private WorldProber prober(int concurrency, int timeout) throws IOException
+	{
+		WorldProber prober = new WorldProber(0, concurrency, timeout, batch ->
+		{
+			synchronized (batchSizes)
+			{
+				batchSizes.add(batch.size());
+			}
+			results.addAll(batch);
+		});
+		resources.add(prober);
+		return prober;
+	}
+
+	private Map<Integer, WorldLatency> await(int count, long timeout) throws InterruptedException
+	{
+		Map<Integer, WorldLatency> latencies = new HashMap<>();
+		long deadline = System.currentTimeMillis() + timeout;
+		while (latencies.size() < count)
+		{
+			WorldLatency latency = results.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+			assertNotNull("timed out waiting for probes", latency);
+			latencies.put(latency.getWorld(), latency);
+		}
+		return latencies;
+	}
+
+	/**
+	 * Start a server which accepts connections as they come in
+	 */
+	private InetSocketAddress acceptingServer() throws IOException
+	{
+		ServerSocket server = new ServerSocket(0, 50, LOOPBACK);
+		resources.add(server);
+		accept(server, 0);
+		return new InetSocketAddress(LOOPBACK, server.getLocalPort());
+	}
+
+	/**
+	 * Start a server whose accept backlog is full, so connection attempts to it stall
+	 *
+	 * @param acceptAfter the delay in milliseconds after which it starts accepting, or -1 to never accept
+	 */
+	private InetSocketAddress stalledServer(long acceptAfter) throws IOException
+	{
+		ServerSocket server = new ServerSocket(0, 1, LOOPBACK);
+		resources.add(server);
+		InetSocketAddress address = new InetSocketAddress(LOOPBACK, server.getLocalPort());
+
+		for (;;)
+		{
+			Socket socket = new Socket();
+			resources.add(socket);
+			try
+			{
+				socket.connect(address, 250);
+			}
+			catch (SocketTimeoutException ex)
+			{
+				break;
+			}
+		}
+
+		if (acceptAfter >= 0)
+		{
+			accept(server, acceptAfter);
+		}
+		return address;
+	}
+
+	private void accept(ServerSocket server, long delay)
+	{
+		Thread thread = new Thread(() ->
+		{
+			try
+			{
+				Thread.sleep(delay);
+				for (;;)
+				{
+					resources.add(server.accept());
+				}
+			}
+			catch (IOException | InterruptedException ex)
+			{
+				// closed
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+	}
+}
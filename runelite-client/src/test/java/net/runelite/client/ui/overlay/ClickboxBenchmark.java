@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay;
+
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.Model;
+import net.runelite.api.Perspective;
+import net.runelite.api.coords.LocalPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures computing the clickboxes of a frame's worth of highlighted models with
+ * {@link Perspective#getClickbox}, which projects into per-thread reused arrays
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickboxBenchmark
+{
+	private static final int CAMERA_X = 6500;
+	private static final int CAMERA_Y = 3000;
+
+	@Param({"500"})
+	private int modelCount;
+
+	private Client client;
+	private Model[] models;
+	private LocalPoint[] points;
+	private int[] orientations;
+
+	@Setup
+	public void setup()
+	{
+		byte[][][] tileSettings = new byte[Constants.MAX_Z][Constants.SCENE_SIZE][Constants.SCENE_SIZE];
+		int[][][] tileHeights = new int[Constants.MAX_Z][Constants.SCENE_SIZE + 1][Constants.SCENE_SIZE + 1];
+
+		client = (Client) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Client.class}, (proxy, method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getCameraPitch":
+					return 256;
+				case "getCameraYaw":
+					return 0;
+				case "getCameraX":
+					return CAMERA_X;
+				case "getCameraY":
+					return CAMERA_Y;
+				case "getCameraZ":
+					return -1500;
+				case "getViewportWidth":
+					return 765;
+				case "getViewportHeight":
+					return 503;
+				case "getViewportXOffset":
+				case "getViewportYOffset":
+					return 4;
+				case "getScale":
+					return 512;
+				case "getPlane":
+					return 0;
+				case "getTileSettings":
+					return tileSettings;
+				case "getTileHeights":
+					return tileHeights;
+				default:
+					throw new UnsupportedOperationException(method.getName());
+			}
+		});
+
+		Random random = new Random(42);
+		models = new Model[modelCount];
+		points = new LocalPoint[modelCount];
+		orientations = new int[modelCount];
+
+		for (int i = 0; i < modelCount; i++)
+		{
+			models[i] = model(random, 100 + random.nextInt(1400));
+			points[i] = new LocalPoint(CAMERA_X - 2048 + random.nextInt(4096), CAMERA_Y + 1024 + random.nextInt(3072));
+			orientations[i] = random.nextInt(2048);
+		}
+	}
+
+	@Benchmark
+	public void clickbox(Blackhole blackhole)
+	{
+		for (int i = 0; i < modelCount; i++)
+		{
+			blackhole.consume(Perspective.getClickbox(client, models[i], orientations[i], points[i]));
+		}
+	}
+
+	/**
+	 * Creates a model with its vertices scattered through a rough shell, like
+	 * the surface of a scenery object or npc, and triangles between neighbouring vertices
+	 */
+	private static Model model(Random random, int count)
+	{
+		int[] verticesX = new int[count];
+		int[] verticesY = new int[count];
+		int[] verticesZ = new int[count];
+		for (int i = 0; i < count; i++)
+		{
+			double theta = random.nextDouble() * Math.PI * 2;
+			double phi = Math.acos(random.nextDouble() * 2 - 1);
+			double radius = 80 + random.nextInt(48);
+			verticesX[i] = (int) (radius * Math.sin(phi) * Math.cos(theta));
+			verticesY[i] = (int) (radius * Math.cos(phi)) - 128;
+			verticesZ[i] = (int) (radius * Math.sin(phi) * Math.sin(theta));
+		}
+
+		int[] trianglesX = new int[count];
+		int[] trianglesY = new int[count];
+		int[] trianglesZ = new int[count];
+		for (int i = 0; i < count; i++)
+		{
+			trianglesX[i] = i;
+			trianglesY[i] = (i + 1) % count;
+			trianglesZ[i] = (i + 2) % count;
+		}
+
+		return (Model) Proxy.newProxyInstance(ClickboxBenchmark.class.getClassLoader(), new Class[]{Model.class}, (proxy, method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getVerticesCount":
+				case "getTrianglesCount":
+					return count;
+				case "getVerticesX":
+					return verticesX;
+				case "getVerticesY":
+					return verticesY;
+				case "getVerticesZ":
+					return verticesZ;
+				case "getTrianglesX":
+					return trianglesX;
+				case "getTrianglesY":
+					return trianglesY;
+				case "getTrianglesZ":
+					return trianglesZ;
+				case "getCenterX":
+				case "getCenterZ":
+					return 0;
+				case "getCenterY":
+					return -128;
+				case "getExtremeX":
+				case "getExtremeY":
+				case "getExtremeZ":
+					return 128;
+				case "isClickable":
+					return false;
+				default:
+					throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(ClickboxBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay.worldmap;
+
+import com.google.inject.Guice;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.Client;
+import net.runelite.api.Point;
+import net.runelite.api.RenderOverview;
+import net.runelite.api.WorldMapData;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.widgets.Widget;
+import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.client.input.MouseManager;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Renders a frame of 10,000 world map points spread over the surface at several zoom levels,
+ * culling with the {@link WorldMapPointManager} index and the previous approach of mapping
+ * and drawing every point
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldMapOverlayBenchmark
+{
+	private static final int POINTS = 10_000;
+	private static final Rectangle WORLD_MAP_VIEW = new Rectangle(8, 11, 700, 480);
+
+	@Param({"2.0", "4.0", "8.0"})
+	private float zoom;
+
+	private final WorldMapPointManager worldMapPointManager = new WorldMapPointManager();
+	private final WorldMapPoint[] points = new WorldMapPoint[POINTS];
+	private WorldMapOverlay worldMapOverlay;
+	private Graphics2D graphics;
+
+	@Setup
+	public void setup()
+	{
+		WorldMapData worldMapData = mock(WorldMapData.class, withSettings().stubOnly());
+		when(worldMapData.surfaceContainsPosition(anyInt(), anyInt())).thenReturn(true);
+
+		RenderOverview renderOverview = mock(RenderOverview.class, withSettings().stubOnly());
+		when(renderOverview.getWorldMapZoom()).thenReturn(zoom);
+		when(renderOverview.getWorldMapPosition()).thenReturn(new Point(3200, 3300));
+		when(renderOverview.getWorldMapData()).thenReturn(worldMapData);
+
+		Widget view = mock(Widget.class, withSettings().stubOnly());
+		when(view.getBounds()).thenReturn(WORLD_MAP_VIEW);
+
+		Client client = mock(Client.class, withSettings().stubOnly());
+		when(client.getRenderOverview()).thenReturn(renderOverview);
+		when(client.getWidget(WidgetInfo.WORLD_MAP_VIEW)).thenReturn(view);
+		when(client.getCanvasWidth()).thenReturn(765);
+		when(client.getCanvasHeight()).thenReturn(503);
+
+		BufferedImage image = new BufferedImage(15, 15, BufferedImage.TYPE_INT_ARGB);
+		Random random = new Random(42);
+		for (int i = 0; i < POINTS; ++i)
+		{
+			WorldPoint worldPoint = new WorldPoint(1100 + random.nextInt(2800), 2500 + random.nextInt(1600), 0);
+			points[i] = new WorldMapPoint(worldPoint, image);
+			worldMapPointManager.add(points[i]);
+		}
+
+		worldMapOverlay = Guice.createInjector(binder ->
+		{
+			binder.bind(Client.class).toInstance(client);
+			binder.bind(MouseManager.class).toInstance(mock(MouseManager.class, withSettings().stubOnly()));
+			binder.bind(WorldMapPointManager.class).toInstance(worldMapPointManager);
+		}).getInstance(WorldMapOverlay.class);
+
+		graphics = new BufferedImage(765, 503, BufferedImage.TYPE_INT_RGB).createGraphics();
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public void renderCulled()
+	{
+		worldMapOverlay.render(graphics);
+	}
+
+	/**
+	 * {@link WorldMapOverlay#render} from before culling, which mapped and drew every point
+	 */
+	@Benchmark
+	public void renderAll()
+	{
+		graphics.setClip(WORLD_MAP_VIEW);
+		for (WorldMapPoint worldMapPoint : points)
+		{
+			Point drawPoint = worldMapOverlay.mapWorldPointToGraphicsPoint(worldMapPoint.getWorldPoint());
+			BufferedImage image = worldMapPoint.getImage();
+			int drawX = drawPoint.getX() - image.getWidth() / 2;
+			int drawY = drawPoint.getY() - image.getHeight() / 2;
+			graphics.drawImage(image, drawX, drawY, null);
+			worldMapPoint.setClickbox(new Rectangle(drawX, drawY, image.getWidth(), image.getHeight()));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(WorldMapOverlayBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
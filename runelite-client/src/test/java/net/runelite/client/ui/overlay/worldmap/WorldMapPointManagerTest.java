@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay.worldmap;
+
+import com.google.common.collect.Iterables;
+import java.util.List;
+import net.runelite.api.coords.WorldPoint;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class WorldMapPointManagerTest
+{
+	private final WorldMapPointManager worldMapPointManager = new WorldMapPointManager();
+
+	@Test
+	public void testPointsInArea()
+	{
+		WorldMapPoint lumbridge = new WorldMapPoint(new WorldPoint(3222, 3218, 0), null);
+		WorldMapPoint varrock = new WorldMapPoint(new WorldPoint(3213, 3424, 0), null);
+		WorldMapPoint falador = new WorldMapPoint(new WorldPoint(2965, 3380, 0), null);
+		worldMapPointManager.add(lumbridge);
+		worldMapPointManager.add(varrock);
+		worldMapPointManager.add(falador);
+
+		List<WorldMapPoint> points = worldMapPointManager.getWorldMapPoints(3100, 3100, 3300, 3300);
+		assertEquals(1, points.size());
+		assertTrue(points.contains(lumbridge));
+
+		points = worldMapPointManager.getWorldMapPoints(2900, 3100, 3300, 3500);
+		assertEquals(3, points.size());
+
+		// the whole world, which walks the index rather than the regions in view
+		points = worldMapPointManager.getWorldMapPoints(0, 0, 16000, 16000);
+		assertEquals(3, points.size());
+
+		assertTrue(worldMapPointManager.getWorldMapPoints(3223, 3219, 3300, 3300).isEmpty());
+	}
+
+	@Test
+	public void testSnapToEdgeAlwaysReturned()
+	{
+		WorldMapPoint clue = new WorldMapPoint(new WorldPoint(2500, 3500, 0), null);
+		clue.setSnapToEdge(true);
+		worldMapPointManager.add(clue);
+		worldMapPointManager.add(new WorldMapPoint(new WorldPoint(2500, 3501, 0), null));
+
+		List<WorldMapPoint> points = worldMapPointManager.getWorldMapPoints(3100, 3100, 3300, 3300);
+		assertEquals(1, points.size());
+		assertTrue(points.contains(clue));
+	}
+
+	@Test
+	public void testRemove()
+	{
+		WorldMapPoint point = new WorldMapPoint(new WorldPoint(3222, 3218, 0), null);
+		worldMapPointManager.add(point);
+		worldMapPointManager.add(new WorldMapPoint(new WorldPoint(3213, 3424, 0), null));
+
+		// removal still finds points which moved after being added
+		point.setWorldPoint(new WorldPoint(1000, 1000, 0));
+		worldMapPointManager.remove(point);
+		assertEquals(1, Iterables.size(worldMapPointManager.getWorldMapPoints()));
+
+		worldMapPointManager.removeIf(p -> p.getWorldPoint().getY() == 3424);
+		assertTrue(worldMapPointManager.isEmpty());
+		assertFalse(worldMapPointManager.getWorldMapPoints().iterator().hasNext());
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares matching 2,000 names against 50 patterns with the compiled matchers
+ * and with the previous regex based implementation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WildcardMatcherBenchmark
+{
+	private static final int PATTERNS = 50;
+	private static final int NAMES = 2000;
+	private static final String[] WORDS = {
+		"abyssal", "rune", "dragon", "goblin", "guard", "demon", "lesser", "greater", "black", "king",
+		"scimitar", "whip", "dagger", "cow", "chicken", "man", "woman", "giant", "spider", "bat"
+	};
+
+	private static final Pattern WILDCARD_PATTERN = Pattern.compile("(?i)[^*]+|(\\*)");
+
+	private final List<String> patterns = new ArrayList<>();
+	private final List<String> names = new ArrayList<>();
+	private WildcardPatternSet patternSet;
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(42);
+
+		for (int i = 0; i < PATTERNS; ++i)
+		{
+			String word = WORDS[random.nextInt(WORDS.length)];
+			switch (i % 4)
+			{
+				case 0:
+					patterns.add(word + " " + WORDS[random.nextInt(WORDS.length)]);
+					break;
+				case 1:
+					patterns.add(word + "*");
+					break;
+				case 2:
+					patterns.add("*" + word);
+					break;
+				default:
+					patterns.add("*" + word + "*" + WORDS[random.nextInt(WORDS.length)] + "*");
+					break;
+			}
+		}
+
+		for (int i = 0; i < NAMES; ++i)
+		{
+			String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+			names.add(Character.toUpperCase(name.charAt(0)) + name.substring(1));
+		}
+
+		patternSet = WildcardMatcher.compile(patterns);
+	}
+
+	@Benchmark
+	public int regex()
+	{
+		int matches = 0;
+		for (String name : names)
+		{
+			for (String pattern : patterns)
+			{
+				if (regexMatches(pattern, name))
+				{
+					++matches;
+					break;
+				}
+			}
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public int cachedPatterns()
+	{
+		int matches = 0;
+		for (String name : names)
+		{
+			for (String pattern : patterns)
+			{
+				if (WildcardMatcher.matches(pattern, name))
+				{
+					++matches;
+					break;
+				}
+			}
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public int patternSet()
+	{
+		int matches = 0;
+		for (String name : names)
+		{
+			if (patternSet.matches(name))
+			{
+				++matches;
+			}
+		}
+		return matches;
+	}
+
+	private static boolean regexMatches(String pattern, String text)
+	{
+		final Matcher matcher = WILDCARD_PATTERN.matcher(pattern);
+		final StringBuffer buffer = new StringBuffer();
+
+		buffer.append("(?i)");
+		while (matcher.find())
+		{
+			if (matcher.group(1) != null)
+			{
+				matcher.appendReplacement(buffer, ".*");
+			}
+			else
+			{
+				matcher.appendReplacement(buffer, "\\\\Q" + matcher.group(0) + "\\\\E");
+			}
+		}
+
+		matcher.appendTail(buffer);
+		return text.matches(buffer.toString());
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(WildcardMatcherBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
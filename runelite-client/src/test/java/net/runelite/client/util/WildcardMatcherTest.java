@@ -24,6 +24,8 @@
  */
 package net.runelite.client.util;
 
+import java.util.Arrays;
+import java.util.Collections;
 import static junit.framework.TestCase.assertTrue;
 import static net.runelite.client.util.WildcardMatcher.matches;
 import static org.junit.Assert.assertFalse;
@@ -40,4 +42,36 @@ public class WildcardMatcherTest
 		assertTrue(matches("rune*", "Runeite Ore"));
 		assertTrue(matches("Abyssal whip", "Abyssal whip"));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testWildcards()
+	{
+		assertTrue(matches("*", ""));
+		assertTrue(matches("**", "anything"));
+		assertTrue(matches("", ""));
+		assertFalse(matches("", "a"));
+		assertTrue(matches("*whip", "Abyssal whip"));
+		assertFalse(matches("*whip", "Abyssal whip (or)"));
+		assertTrue(matches("a*a", "aa"));
+		assertFalse(matches("a*a", "a"));
+		assertTrue(matches("*bys*wh*", "Abyssal whip"));
+		assertFalse(matches("*wh*bys*", "Abyssal whip"));
+		assertTrue(matches("ab*sal*ip", "Abyssal whip"));
+		assertFalse(matches("ab*ip*ip", "Abyssal whip"));
+		assertTrue(matches("goblin (level-*)", "Goblin (level-2)"));
+	}
+
+	@Test
+	public void testPatternSet()
+	{
+		WildcardPatternSet set = WildcardMatcher.compile(Arrays.asList("rune*", "Abyssal whip", "*dagger(p++)"));
+		assertTrue(set.matches("Rune pouch"));
+		assertTrue(set.matches("abyssal WHIP"));
+		assertTrue(set.matches("Rune dagger(p++)"));
+		assertTrue(set.matches("Dragon dagger(p++)"));
+		assertFalse(set.matches("Dragon dagger"));
+		assertFalse(set.matches("Abyssal whip (or)"));
+
+		assertFalse(WildcardMatcher.compile(Collections.emptyList()).matches("Rune pouch"));
+	}
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.script;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import net.runelite.cache.definitions.ScriptDefinition;
+import net.runelite.cache.definitions.savers.ScriptSaver;
+import net.runelite.cache.script.Instruction;
+import net.runelite.cache.script.Instructions;
+import net.runelite.cache.script.assembler.Assembler;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+
+/**
+ * Assembles a directory of scripts on a fork-join pool, skipping scripts which are
+ * unchanged since the last build.
+ * <p>
+ * The build cache maps each script to a hash of its source and hash file, and the
+ * script id it assembled to. The whole cache is discarded if the instruction table
+ * changes.
+ */
+class ScriptAssembler
+{
+	private static final String CACHE_VERSION = "1";
+	private static final String INSTRUCTIONS_KEY = "instructions";
+
+	private final Instructions instructions;
+	private final ThreadLocal<Assembler> assembler;
+	private final ScriptSaver saver = new ScriptSaver();
+	private final File cacheFile;
+	private final int threads;
+
+	private int assembled;
+	private int skipped;
+
+	/**
+	 * @param instructions initialized instructions, which are only read from here on
+	 * @param cacheFile    build cache, or null to assemble everything
+	 * @param threads      number of scripts to assemble at once
+	 */
+	ScriptAssembler(Instructions instructions, File cacheFile, int threads)
+	{
+		this.instructions = instructions;
+		this.assembler = ThreadLocal.withInitial(() -> new Assembler(instructions));
+		this.cacheFile = cacheFile;
+		this.threads = threads;
+	}
+
+	int getAssembled()
+	{
+		return assembled;
+	}
+
+	int getSkipped()
+	{
+		return skipped;
+	}
+
+	void assemble(File scriptDirectory, File scriptOut) throws MojoExecutionException, MojoFailureException
+	{
+		final File[] scriptFiles = scriptDirectory.listFiles((dir, name) -> name.endsWith(".rs2asm"));
+		Arrays.sort(scriptFiles, Comparator.comparing(File::getName));
+
+		final String instructionsHash = hashInstructions();
+		final Properties cache = loadCache(instructionsHash);
+		final Properties newCache = new Properties();
+		newCache.setProperty(INSTRUCTIONS_KEY, instructionsHash);
+
+		final List<File> changed = new ArrayList<>();
+		final List<Callable<Integer>> tasks = new ArrayList<>();
+		final List<String> hashes = new ArrayList<>();
+
+		for (File scriptFile : scriptFiles)
+		{
+			final File hashFile = new File(scriptDirectory, Files.getNameWithoutExtension(scriptFile.getName()) + ".hash");
+			final String hash;
+			try
+			{
+				hash = hashScript(scriptFile, hashFile);
+			}
+			catch (IOException ex)
+			{
+				throw new MojoFailureException("unable to open file", ex);
+			}
+
+			final String entry = cache.getProperty(scriptFile.getName());
+			if (entry != null && entry.startsWith(hash + ":"))
+			{
+				final String id = entry.substring(hash.length() + 1);
+				if (new File(scriptOut, id).exists() && (!hashFile.exists() || new File(scriptOut, id + ".hash").exists()))
+				{
+					newCache.setProperty(scriptFile.getName(), entry);
+					++skipped;
+					continue;
+				}
+			}
+
+			changed.add(scriptFile);
+			hashes.add(hash);
+			tasks.add(() -> assembleScript(scriptFile, hashFile, scriptOut));
+		}
+
+		if (!tasks.isEmpty())
+		{
+			final ForkJoinPool pool = new ForkJoinPool(threads);
+			try
+			{
+				final List<Future<Integer>> results = pool.invokeAll(tasks);
+				for (int i = 0; i < results.size(); ++i)
+				{
+					final int id = getResult(results.get(i));
+					newCache.setProperty(changed.get(i).getName(), hashes.get(i) + ":" + id);
+					++assembled;
+				}
+			}
+			finally
+			{
+				pool.shutdown();
+			}
+		}
+
+		saveCache(newCache);
+	}
+
+	private int assembleScript(File scriptFile, File hashFile, File scriptOut) throws IOException, MojoExecutionException
+	{
+		final ScriptDefinition script;
+		try (FileInputStream fin = new FileInputStream(scriptFile))
+		{
+			script = assembler.get().assemble(fin);
+		}
+
+		final byte[] packedScript = saver.save(script);
+
+		final File targetFile = new File(scriptOut, Integer.toString(script.getId()));
+		Files.write(packedScript, targetFile);
+
+		// Copy hash file
+
+		if (hashFile.exists())
+		{
+			Files.copy(hashFile, new File(scriptOut, Integer.toString(script.getId()) + ".hash"));
+		}
+		else if (script.getId() < 10000) // Scripts >=10000 are RuneLite scripts, so they shouldn't have a .hash
+		{
+			throw new MojoExecutionException("Unable to find hash file for " + scriptFile);
+		}
+
+		return script.getId();
+	}
+
+	private static int getResult(Future<Integer> result) throws MojoExecutionException, MojoFailureException
+	{
+		try
+		{
+			return result.get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("interrupted assembling scripts", ex);
+		}
+		catch (ExecutionException ex)
+		{
+			final Throwable cause = ex.getCause();
+			if (cause instanceof MojoExecutionException)
+			{
+				throw (MojoExecutionException) cause;
+			}
+			if (cause instanceof IOException)
+			{
+				throw new MojoFailureException("unable to open file", cause);
+			}
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			throw new MojoExecutionException("error assembling script", cause);
+		}
+	}
+
+	private String hashInstructions()
+	{
+		final Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putString(CACHE_VERSION, StandardCharsets.UTF_8);
+		instructions.getInstructions().stream()
+			.sorted(Comparator.comparingInt(Instruction::getOpcode))
+			.forEach(i ->
+			{
+				hasher.putInt(i.getOpcode());
+				hasher.putString(String.valueOf(i.getName()), StandardCharsets.UTF_8);
+			});
+		return hasher.hash().toString();
+	}
+
+	private static String hashScript(File scriptFile, File hashFile) throws IOException
+	{
+		final Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putBytes(Files.toByteArray(scriptFile));
+		if (hashFile.exists())
+		{
+			hasher.putBytes(Files.toByteArray(hashFile));
+		}
+		return hasher.hash().toString();
+	}
+
+	private Properties loadCache(String instructionsHash)
+	{
+		final Properties cache = new Properties();
+		if (cacheFile == null || !cacheFile.exists())
+		{
+			return cache;
+		}
+
+		try (InputStream in = new FileInputStream(cacheFile))
+		{
+			cache.load(in);
+		}
+		catch (IOException ex)
+		{
+			// rebuild everything
+			return new Properties();
+		}
+
+		if (!instructionsHash.equals(cache.getProperty(INSTRUCTIONS_KEY)))
+		{
+			return new Properties();
+		}
+
+		return cache;
+	}
+
+	private void saveCache(Properties cache) throws MojoExecutionException
+	{
+		if (cacheFile == null)
+		{
+			return;
+		}
+
+		cacheFile.getParentFile().mkdirs();
+		try (OutputStream out = new FileOutputStream(cacheFile))
+		{
+			cache.store(out, null);
+		}
+		catch (IOException ex)
+		{
+			throw new MojoExecutionException("unable to write build cache", ex);
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.script;
+
+import com.google.common.io.Files;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import net.runelite.cache.script.Instructions;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ScriptAssemblerTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(ScriptAssemblerTest.class);
+	private static final File SCRIPTS = new File("../runelite-client/src/main/scripts");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Instructions instructions;
+	private int scriptCount;
+
+	@Before
+	public void before()
+	{
+		instructions = new RuneLiteInstructions();
+		instructions.init();
+
+		scriptCount = SCRIPTS.listFiles((dir, name) -> name.endsWith(".rs2asm")).length;
+		assertTrue(scriptCount > 0);
+	}
+
+	@Test
+	public void testParallelMatchesSerial() throws Exception
+	{
+		File serialOut = folder.newFolder("serial");
+		File parallelOut = folder.newFolder("parallel");
+		File cacheFile = new File(folder.getRoot(), "script-assembler.cache");
+
+		long start = System.nanoTime();
+		ScriptAssembler serial = new ScriptAssembler(instructions, null, 1);
+		serial.assemble(SCRIPTS, serialOut);
+		long serialTime = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		ScriptAssembler parallel = new ScriptAssembler(instructions, cacheFile, 4);
+		parallel.assemble(SCRIPTS, parallelOut);
+		long parallelTime = System.nanoTime() - start;
+
+		assertEquals(scriptCount, serial.getAssembled());
+		assertEquals(scriptCount, parallel.getAssembled());
+		assertSameFiles(serialOut, parallelOut);
+
+		start = System.nanoTime();
+		ScriptAssembler cached = new ScriptAssembler(instructions, cacheFile, 4);
+		cached.assemble(SCRIPTS, parallelOut);
+		long cachedTime = System.nanoTime() - start;
+
+		assertEquals(0, cached.getAssembled());
+		assertEquals(scriptCount, cached.getSkipped());
+		assertSameFiles(serialOut, parallelOut);
+
+		logger.info("Assembled {} scripts serially in {}ms, in parallel in {}ms, unchanged in {}ms",
+			scriptCount, serialTime / 1_000_000, parallelTime / 1_000_000, cachedTime / 1_000_000);
+	}
+
+	@Test
+	public void testChangedScriptReassembled() throws Exception
+	{
+		File scripts = folder.newFolder("scripts");
+		for (File file : SCRIPTS.listFiles())
+		{
+			Files.copy(file, new File(scripts, file.getName()));
+		}
+
+		File out = folder.newFolder("out");
+		File cacheFile = new File(folder.getRoot(), "script-assembler.cache");
+		new ScriptAssembler(instructions, cacheFile, 4).assemble(scripts, out);
+
+		File hashFile = scripts.listFiles((dir, name) -> name.endsWith(".hash"))[0];
+		Files.write("changed", hashFile, StandardCharsets.UTF_8);
+
+		ScriptAssembler assembler = new ScriptAssembler(instructions, cacheFile, 4);
+		assembler.assemble(scripts, out);
+		assertEquals(1, assembler.getAssembled());
+		assertEquals(scriptCount - 1, assembler.getSkipped());
+
+		// a different instruction table invalidates everything
+		Instructions other = new RuneLiteInstructions()
+		{
+			@Override
+			public void init()
+			{
+				super.init();
+				add(9999, "test_instruction");
+			}
+		};
+		other.init();
+		assembler = new ScriptAssembler(other, cacheFile, 4);
+		assembler.assemble(scripts, out);
+		assertEquals(scriptCount, assembler.getAssembled());
+		assertEquals(0, assembler.getSkipped());
+	}
+
+	private static void assertSameFiles(File expectedDir, File actualDir) throws Exception
+	{
+		String[] expected = expectedDir.list();
+		String[] actual = actualDir.list();
+		Arrays.sort(expected);
+		Arrays.sort(actual);
+		assertArrayEquals(expected, actual);
+
+		for (String name : expected)
+		{
+			assertArrayEquals(name, Files.toByteArray(new File(expectedDir, name)), Files.toByteArray(new File(actualDir, name)));
+		}
+	}
+}